@@ -0,0 +1,116 @@
+﻿using Amazon.DynamoDBv2.DocumentModel;
+using Amazon.DynamoDBv2.Model;
+
+namespace Patcher.FriendRequests;
+
+/// <summary>
+/// Sets the unseenFriendRequests counter of every user with friend requests by counting them. Users from before the
+/// counter was kept have it counted by the app on every read until this has run, and a request sent or removed since
+/// started their counter from zero, so the counter is recounted even where it is already there.
+/// </summary>
+public class Patcher_UnseenFriendRequests : Patcher
+{
+    private const int MaxAttempts = 5;
+
+    public Patcher_UnseenFriendRequests() : base()
+    {
+
+    }
+
+    public override async Task Patch()
+    {
+        var usersTable = Table.LoadTable(DynamoDBClient, "users", true);
+        var filter = new ScanFilter();
+        filter.AddCondition("friendRequests", ScanOperator.IsNotNull);
+        var search = usersTable.Scan(filter);
+
+        while (!search.IsDone)
+        {
+            var docList = await search.GetNextSetAsync();
+            foreach (var doc in docList)
+            {
+                var username = doc["username"].AsString();
+                try
+                {
+                    await Recount(username);
+                }
+                catch (Exception ex)
+                {
+                    Console.WriteLine($"Error for username: {username}\n{ex.Message}");
+                }
+            }
+        }
+    }
+
+    // the counter is only set if nothing that goes into the count changed since the user was read,
+    // else the user is read again
+    private async Task Recount(string username)
+    {
+        var key = new Dictionary<string, AttributeValue> { { "username", new AttributeValue { S = username } } };
+        for (var attempt = 0; attempt < MaxAttempts; attempt++)
+        {
+            var user = (await DynamoDBClient.GetItemAsync(new GetItemRequest
+            {
+                TableName = "users",
+                Key = key,
+                ConsistentRead = true
+            })).Item;
+
+            var friendRequests = user["friendRequests"].M;
+            long? seenAt = user.ContainsKey("friendRequestsSeenAt") ? long.Parse(user["friendRequestsSeenAt"].N) : null;
+            var unseen = friendRequests.Values.Count(request =>
+                !request.M["seen"].BOOL
+                && (seenAt == null
+                    || DateTimeOffset.Parse(request.M["timeStamp"].S).ToUnixTimeMilliseconds() > seenAt));
+
+            var names = new Dictionary<string, string>
+            {
+                { "#unseen", "unseenFriendRequests" },
+                { "#seenAt", "friendRequestsSeenAt" },
+                { "#friendRequests", "friendRequests" }
+            };
+            var values = new Dictionary<string, AttributeValue>
+            {
+                { ":count", new AttributeValue { N = unseen.ToString() } },
+                { ":size", new AttributeValue { N = friendRequests.Count.ToString() } }
+            };
+            var condition = "size(#friendRequests) = :size";
+            if (user.ContainsKey("unseenFriendRequests"))
+            {
+                condition += " and #unseen = :readUnseen";
+                values[":readUnseen"] = user["unseenFriendRequests"];
+            }
+            else
+            {
+                condition += " and attribute_not_exists(#unseen)";
+            }
+            if (seenAt != null)
+            {
+                condition += " and #seenAt = :readSeenAt";
+                values[":readSeenAt"] = user["friendRequestsSeenAt"];
+            }
+            else
+            {
+                condition += " and attribute_not_exists(#seenAt)";
+            }
+
+            try
+            {
+                await DynamoDBClient.UpdateItemAsync(new UpdateItemRequest
+                {
+                    TableName = "users",
+                    Key = key,
+                    UpdateExpression = "SET #unseen = :count",
+                    ConditionExpression = condition,
+                    ExpressionAttributeNames = names,
+                    ExpressionAttributeValues = values
+                });
+                return;
+            }
+            catch (ConditionalCheckFailedException)
+            {
+            }
+        }
+        Console.WriteLine($"Gave up on username: {username}, it kept changing");
+    }
+}
@@ -1,5 +1,12 @@
-﻿using Patcher.V1_V2;
+﻿using Patcher.FriendRequests;
+using Patcher.ReceivedWorkouts;
+using Patcher.V1_V2;
 
 Console.WriteLine("Running patcher...");
-var patcher = new Patcher_v1_v2();
-await patcher.Patch();
\ No newline at end of file
+Patcher.Patcher patcher = args.FirstOrDefault() switch
+{
+    "receivedWorkouts" => new Patcher_ReceivedWorkouts(),
+    "unseenFriendRequests" => new Patcher_UnseenFriendRequests(),
+    _ => new Patcher_v1_v2()
+};
+await patcher.Patch();
@@ -0,0 +1,114 @@
+﻿using Amazon.DynamoDBv2.DocumentModel;
+using Amazon.DynamoDBv2.Model;
+
+namespace Patcher.ReceivedWorkouts;
+
+/// <summary>
+/// Moves the receivedWorkouts map of every user into the receivedWorkouts table and sets the received workout
+/// counters of the user from it. Users that are read by the app before this has run are moved the same way there
+/// (see LegacyReceivedWorkouts), so both can run at the same time and every workout is counted once.
+/// </summary>
+public class Patcher_ReceivedWorkouts : Patcher
+{
+
+    public Patcher_ReceivedWorkouts() : base()
+    {
+
+    }
+
+    public override async Task Patch()
+    {
+        var usersTable = Table.LoadTable(DynamoDBClient, "users", true);
+        var filter = new ScanFilter();
+        filter.AddCondition("receivedWorkouts", ScanOperator.IsNotNull);
+        var search = usersTable.Scan(filter);
+        var path = Directory.GetParent(Environment.CurrentDirectory).Parent.Parent.FullName;
+
+        while (!search.IsDone)
+        {
+            var docList = await search.GetNextSetAsync();
+            foreach (var doc in docList)
+            {
+                var username = doc["username"].AsString();
+                try
+                {
+                    // backup data in case something blows up
+                    await File.WriteAllTextAsync($"{path}/Backups/{username}.json", doc.ToJson());
+
+                    //continue; // uncomment to only back up
+
+                    await MoveReceivedWorkouts(username, doc);
+                }
+                catch (Exception ex)
+                {
+                    Console.WriteLine($"Error for username: {username}\n{ex.Message}");
+                }
+            }
+        }
+    }
+
+    private async Task MoveReceivedWorkouts(string username, Document user)
+    {
+        long? seenAt = user.ContainsKey("receivedWorkoutsSeenAt") ? user["receivedWorkoutsSeenAt"].AsLong() : null;
+        var receivedWorkouts = user["receivedWorkouts"].AsDocument();
+        var total = 0;
+        var unseen = 0;
+
+        foreach (var workoutId in receivedWorkouts.Keys)
+        {
+            var receivedWorkout = receivedWorkouts[workoutId].AsDocument();
+            var sentAt = DateTimeOffset.Parse(receivedWorkout["dateSent"].AsString()).ToUnixTimeMilliseconds();
+            var seen = receivedWorkout["seen"].AsBoolean() || (seenAt != null && sentAt <= seenAt);
+            total++;
+            if (!seen)
+            {
+                unseen++;
+            }
+
+            var item = receivedWorkout.ToAttributeMap();
+            item["recipient"] = new AttributeValue { S = username };
+            item["receivedWorkoutId"] = new AttributeValue { S = workoutId };
+            item["sentAt"] = new AttributeValue { N = sentAt.ToString() };
+            try
+            {
+                // a workout that is already in the table was moved before and may have been seen since
+                await DynamoDBClient.PutItemAsync(new PutItemRequest
+                {
+                    TableName = "receivedWorkouts",
+                    Item = item,
+                    ConditionExpression = "attribute_not_exists(#recipient)",
+                    ExpressionAttributeNames = new Dictionary<string, string> { { "#recipient", "recipient" } }
+                });
+            }
+            catch (ConditionalCheckFailedException)
+            {
+            }
+        }
+
+        try
+        {
+            await DynamoDBClient.UpdateItemAsync(new UpdateItemRequest
+            {
+                TableName = "users",
+                Key = new Dictionary<string, AttributeValue> { { "username", new AttributeValue { S = username } } },
+                UpdateExpression = "ADD #total :total, #unseen :unseen REMOVE #legacyMap",
+                ConditionExpression = "attribute_exists(#legacyMap)",
+                ExpressionAttributeNames = new Dictionary<string, string>
+                {
+                    { "#total", "totalReceivedWorkouts" },
+                    { "#unseen", "unseenReceivedWorkouts" },
+                    { "#legacyMap", "receivedWorkouts" }
+                },
+                ExpressionAttributeValues = new Dictionary<string, AttributeValue>
+                {
+                    { ":total", new AttributeValue { N = total.ToString() } },
+                    { ":unseen", new AttributeValue { N = unseen.ToString() } }
+                }
+            });
+        }
+        catch (ConditionalCheckFailedException)
+        {
+            // moved by the app in the meantime, and counted there
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package benchmarks;
+
+import com.amazonaws.services.dynamodbv2.document.Item;
+import imports.Globals;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import managers.GetReceivedWorkoutsManager;
+import models.Routine;
+import models.SharedWorkoutMeta;
+import models.User;
+import models.UserPreferences;
+import models.Workout;
+import org.joda.time.DateTime;
+
+/**
+ * Builds synthetic items shaped like the ones in the database, sized at the limits the service allows.
+ */
+public class Payloads {
+
+    public static final int EXERCISES_PER_DAY = 10;
+
+    /**
+     * @return a user item as it would be read from the users table, so numbers are BigDecimals.
+     */
+    public static Item maxedUserItem() {
+        return Item.fromMap(maxedUserMap());
+    }
+
+    /**
+     * @return a workout item as it would be read from the workouts table, so numbers are BigDecimals.
+     */
+    public static Item maxedWorkoutItem() {
+        return Item.fromMap(maxedWorkoutMap());
+    }
+
+    public static Map<String, Object> maxedUserMap() {
+        final Map<String, Object> user = new HashMap<>();
+        user.put(User.USERNAME, "maxedUser");
+        user.put(User.ICON, "maxedUser.jpg");
+        user.put(User.PUSH_ENDPOINT_ARN, "arn:aws:sns:us-east-1:000000000000:endpoint/GCM/LiteWeight/maxedUser");
+        user.put(User.PREMIUM_TOKEN, null);
+        user.put(User.CURRENT_WORKOUT, workoutId(0));
+        user.put(User.WORKOUTS_SENT, Globals.MAX_FREE_WORKOUTS_SENT);
+
+        final Map<String, Object> preferences = new HashMap<>();
+        preferences.put(UserPreferences.PRIVATE_ACCOUNT, false);
+        preferences.put(UserPreferences.METRIC, false);
+        preferences.put(UserPreferences.UPDATE_DEFAULT_WEIGHT_ON_SAVE, true);
+        preferences.put(UserPreferences.UPDATE_DEFAULT_WEIGHT_ON_RESTART, true);
+        user.put(User.USER_PREFERENCES, preferences);
+
+        final Map<String, Object> workouts = new HashMap<>();
+        for (int i = 0; i < Globals.MAX_WORKOUTS; i++) {
+            final Map<String, Object> workoutMeta = new HashMap<>();
+            workoutMeta.put("workoutName", "Workout " + i);
+            workoutMeta.put("dateLast", date(i));
+            workoutMeta.put("timesCompleted", i);
+            workoutMeta.put("averageExercisesCompleted", 0.75);
+            workoutMeta.put("totalExercisesSum", i * 70);
+            workouts.put(workoutId(i), workoutMeta);
+        }
+        user.put(User.WORKOUTS, workouts);
+
+        final Map<String, Object> exercises = new HashMap<>();
+        for (int i = 0; i < Globals.MAX_PREMIUM_EXERCISES; i++) {
+            final Map<String, Object> exercise = new HashMap<>();
+            exercise.put("exerciseName", "Exercise " + i);
+            exercise.put("defaultWeight", 100.0 + i);
+            exercise.put("defaultSets", 3);
+            exercise.put("defaultReps", 12);
+            exercise.put("defaultDetails", "Keep the back straight and breathe out on the way up");
+            exercise.put("videoUrl", "https://www.youtube.com/watch?v=" + i);
+            final List<String> focuses = new ArrayList<>();
+            focuses.add("Chest");
+            focuses.add("Triceps");
+            exercise.put("focuses", focuses);
+            final Map<String, Object> exerciseWorkouts = new HashMap<>();
+            for (int j = 0; j < Globals.MAX_WORKOUTS; j += 3) {
+                exerciseWorkouts.put(workoutId(j), "Workout " + j);
+            }
+            exercise.put(User.WORKOUTS, exerciseWorkouts);
+            exercises.put(exerciseId(i), exercise);
+        }
+        user.put(User.EXERCISES, exercises);
+
+        final Map<String, Object> friends = new HashMap<>();
+        final Map<String, Object> friendRequests = new HashMap<>();
+        final Map<String, Object> blocked = new HashMap<>();
+        for (int i = 0; i < Globals.MAX_NUMBER_FRIENDS; i++) {
+            final Map<String, Object> friend = new HashMap<>();
+            friend.put(User.ICON, "friend" + i + ".jpg");
+            friend.put("confirmed", true);
+            friends.put("friend" + i, friend);
+        }
+        for (int i = 0; i < Globals.MAX_FRIEND_REQUESTS; i++) {
+            final Map<String, Object> friendRequest = new HashMap<>();
+            friendRequest.put("icon", "requester" + i + ".jpg");
+            friendRequest.put("seen", i % 2 == 0);
+            friendRequest.put("timeStamp", date(i));
+            friendRequests.put("requester" + i, friendRequest);
+        }
+        for (int i = 0; i < Globals.MAX_BLOCKED; i++) {
+            blocked.put("blocked" + i, "blocked" + i + ".jpg");
+        }
+        user.put(User.FRIENDS, friends);
+        user.put(User.FRIEND_REQUESTS, friendRequests);
+        user.put(User.UNSEEN_FRIEND_REQUESTS, Globals.MAX_FRIEND_REQUESTS / 2);
+        user.put(User.BLOCKED, blocked);
+
+        // received workouts are in their own table, the user item only counts them
+        user.put(User.TOTAL_RECEIVED_WORKOUTS, Globals.MAX_RECEIVED_WORKOUTS);
+        user.put(User.UNSEEN_RECEIVED_WORKOUTS, Globals.MAX_RECEIVED_WORKOUTS * 2 / 3);
+        return user;
+    }
+
+    /**
+     * @return the first batch of received workouts, as it is added to the data of the active user.
+     */
+    public static Map<String, SharedWorkoutMeta> receivedWorkoutsBatch() {
+        final Map<String, SharedWorkoutMeta> receivedWorkouts = new LinkedHashMap<>();
+        for (int i = 0; i < GetReceivedWorkoutsManager.WORKOUT_BATCH_SIZE; i++) {
+            final Map<String, Object> receivedWorkout = new HashMap<>();
+            receivedWorkout.put("workoutName", "Received " + i);
+            receivedWorkout.put("dateSent", date(i));
+            receivedWorkout.put("seen", i % 3 == 0);
+            receivedWorkout.put("sender", "friend" + (i % Globals.MAX_NUMBER_FRIENDS));
+            receivedWorkout.put("totalDays", Globals.MAX_DAYS_ROUTINE * Globals.MAX_WEEKS_ROUTINE);
+            receivedWorkout.put("mostFrequentFocus", "Chest");
+            receivedWorkout.put("icon", "friend" + i + ".jpg");
+            receivedWorkouts.put("received" + i, new SharedWorkoutMeta(receivedWorkout, "received" + i));
+        }
+        return receivedWorkouts;
+    }
+
+    public static Map<String, Object> maxedWorkoutMap() {
+        final List<Object> weeks = new ArrayList<>();
+        int exerciseIndex = 0;
+        for (int week = 0; week < Globals.MAX_WEEKS_ROUTINE; week++) {
+            final List<Object> days = new ArrayList<>();
+            for (int day = 0; day < Globals.MAX_DAYS_ROUTINE; day++) {
+                final List<Object> exercises = new ArrayList<>();
+                for (int i = 0; i < EXERCISES_PER_DAY; i++) {
+                    final Map<String, Object> exercise = new HashMap<>();
+                    exercise.put("completed", i % 2 == 0);
+                    exercise.put("exerciseId", exerciseId(exerciseIndex++ % Globals.MAX_PREMIUM_EXERCISES));
+                    exercise.put("weight", 135.0);
+                    exercise.put("sets", 3);
+                    exercise.put("reps", 10);
+                    exercise.put("details", "Slow on the way down");
+                    exercises.add(exercise);
+                }
+                final Map<String, Object> dayMap = new HashMap<>();
+                dayMap.put("exercises", exercises);
+                dayMap.put("tag", "Day " + day);
+                days.add(dayMap);
+            }
+            final Map<String, Object> weekMap = new HashMap<>();
+            weekMap.put("days", days);
+            weeks.add(weekMap);
+        }
+        final Map<String, Object> routine = new HashMap<>();
+        routine.put(Routine.WEEKS, weeks);
+
+        final Map<String, Object> workout = new HashMap<>();
+        workout.put(Workout.WORKOUT_ID, workoutId(0));
+        workout.put(Workout.WORKOUT_NAME, "Workout 0");
+        workout.put(Workout.CREATION_DATE, date(0));
+        workout.put(Workout.CREATOR, "maxedUser");
+        workout.put(Workout.ROUTINE, routine);
+        workout.put(Workout.CURRENT_DAY, 3);
+        workout.put(Workout.CURRENT_WEEK, 2);
+        return workout;
+    }
+
+    private static String workoutId(final int i) {
+        return String.format("00000000-0000-0000-0000-%012d", i);
+    }
+
+    private static String exerciseId(final int i) {
+        return String.format("11111111-0000-0000-0000-%012d", i);
+    }
+
+    private static String date(final int minutesAgo) {
+        return new DateTime(2020, 6, 1, 12, 0).minusMinutes(minutesAgo).toString();
+    }
+}
@@ -0,0 +1,67 @@
+package benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.concurrent.TimeUnit;
+import models.User;
+import models.Workout;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import responses.UserWithWorkout;
+import utils.JsonUtils;
+
+/**
+ * Serialization of the getUserData and getUserWorkout responses for a user at every limit. Run with -prof gc to
+ * compare the allocation rate (gc.alloc.rate.norm) of each approach.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseSerializationBenchmark {
+
+    private User user;
+    private UserWithWorkout userWithWorkout;
+
+    @Setup
+    public void setup() throws Exception {
+        this.user = new User(Payloads.maxedUserMap());
+        this.user.setReceivedWorkouts(Payloads.receivedWorkoutsBatch());
+        this.userWithWorkout = new UserWithWorkout(this.user, new Workout(Payloads.maxedWorkoutMap()));
+    }
+
+    @Benchmark
+    public String getUserDataNewMapper() throws Exception {
+        // how responses were serialized before: a mapper per call and a HashMap tree per response
+        return new ObjectMapper().writeValueAsString(this.user.asResponse());
+    }
+
+    @Benchmark
+    public String getUserDataSharedMapper() {
+        return JsonUtils.serializeMap(this.user.asResponse());
+    }
+
+    @Benchmark
+    public String getUserDataStreamed() {
+        return JsonUtils.serializeModel(this.user);
+    }
+
+    @Benchmark
+    public String getUserWorkoutNewMapper() throws Exception {
+        return new ObjectMapper().writeValueAsString(this.userWithWorkout.asResponse());
+    }
+
+    @Benchmark
+    public String getUserWorkoutStreamed() {
+        return JsonUtils.serializeModel(this.userWithWorkout);
+    }
+}
@@ -0,0 +1,85 @@
+package benchmarks;
+
+import com.amazonaws.services.dynamodbv2.document.Item;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import models.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import utils.AttributeValueUtils;
+import utils.JsonUtils;
+
+/**
+ * Conversions of a user item at every limit (exercises, friends, friend requests, blocked and received workouts).
+ * Run with -prof gc to see the allocation of each path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserCodecBenchmark {
+
+    private Item userItem;
+    private Map<String, Object> userMap;
+    private String userJson;
+    private User user;
+
+    @Setup
+    public void setup() throws Exception {
+        this.userItem = Payloads.maxedUserItem();
+        this.userMap = this.userItem.asMap();
+        this.user = new User(this.userItem);
+        this.userJson = JsonUtils.serializeMap(this.user.asMap());
+    }
+
+    @Benchmark
+    public Map<String, Object> itemAsMap() {
+        return this.userItem.asMap();
+    }
+
+    @Benchmark
+    public User fromItem() throws Exception {
+        return new User(this.userItem);
+    }
+
+    @Benchmark
+    public User fromMap() throws Exception {
+        return new User(this.userMap);
+    }
+
+    @Benchmark
+    public User fromJson() throws Exception {
+        return new User(JsonUtils.deserialize(this.userJson));
+    }
+
+    @Benchmark
+    public Map<String, Object> asMap() {
+        return this.user.asMap();
+    }
+
+    @Benchmark
+    public Map<String, Object> asResponse() {
+        return this.user.asResponse();
+    }
+
+    @Benchmark
+    public Map<String, AttributeValue> asAttributeValues() {
+        return AttributeValueUtils.convertMapToAttributeValueMap(this.user.asMap());
+    }
+
+    @Benchmark
+    public String toJson() {
+        return JsonUtils.serializeModel(this.user);
+    }
+}
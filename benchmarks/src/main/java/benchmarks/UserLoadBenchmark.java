@@ -0,0 +1,143 @@
+package benchmarks;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import models.Friend;
+import models.FriendRequest;
+import models.User;
+import models.UserField;
+import models.Workout;
+import models.WorkoutMeta;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import responses.UserWithWorkout;
+import utils.JsonUtils;
+
+/**
+ * The work switchWorkout and sendFriendRequest do on the users they read, for users at every limit, from the item
+ * attributes to the response. The *AllParsed variants parse every section of the users up front, as the user did
+ * before its sections were parsed lazily. Run with -prof gc to compare the allocation rate (gc.alloc.rate.norm).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserLoadBenchmark {
+
+    private static final List<UserField> ACTIVE_USER_FIELDS = Arrays.asList(UserField.ICON, UserField.FRIENDS,
+        UserField.BLOCKED);
+    private static final List<UserField> USER_TO_ADD_FIELDS = Arrays.asList(UserField.ICON,
+        UserField.PUSH_ENDPOINT_ARN, UserField.USER_PREFERENCES, UserField.FRIEND_REQUESTS, UserField.BLOCKED);
+
+    private Map<String, Object> userAttributes;
+    private Map<String, Object> activeUserAttributes;
+    private Map<String, Object> userToAddAttributes;
+    private Workout workout;
+    private String workoutId;
+    private String usernameToAdd;
+
+    @Setup
+    public void setup() throws Exception {
+        this.userAttributes = Payloads.maxedUserItem().asMap();
+        this.activeUserAttributes = project(this.userAttributes, ACTIVE_USER_FIELDS);
+        this.userToAddAttributes = project(this.userAttributes, USER_TO_ADD_FIELDS);
+        this.workout = new Workout(Payloads.maxedWorkoutItem().asMap());
+        this.workoutId = (String) this.userAttributes.get(User.CURRENT_WORKOUT);
+        this.usernameToAdd = ((Map<String, Object>) this.userAttributes.get(User.FRIENDS)).keySet().iterator().next();
+    }
+
+    @Benchmark
+    public String switchWorkout() throws Exception {
+        return this.switchWorkout(new User(this.userAttributes));
+    }
+
+    @Benchmark
+    public String switchWorkoutAllParsed() throws Exception {
+        return this.switchWorkout(parseAll(new User(this.userAttributes)));
+    }
+
+    @Benchmark
+    public void sendFriendRequest(final Blackhole blackhole) throws Exception {
+        this.sendFriendRequest(new User(this.activeUserAttributes, ACTIVE_USER_FIELDS),
+            new User(this.userToAddAttributes, USER_TO_ADD_FIELDS), blackhole);
+    }
+
+    @Benchmark
+    public void sendFriendRequestAllParsed(final Blackhole blackhole) throws Exception {
+        this.sendFriendRequest(parseAll(new User(this.activeUserAttributes, ACTIVE_USER_FIELDS)),
+            parseAll(new User(this.userToAddAttributes, USER_TO_ADD_FIELDS)), blackhole);
+    }
+
+    private String switchWorkout(final User user) {
+        final WorkoutMeta workoutMeta = user.getWorkoutMetas().get(this.workoutId);
+        workoutMeta.setDateLast("2021-01-01T00:00:00Z");
+        user.setCurrentWorkout(this.workoutId);
+        return JsonUtils.serializeModel(new UserWithWorkout(user, this.workout));
+    }
+
+    private void sendFriendRequest(final User activeUser, final User userToAdd, final Blackhole blackhole) {
+        // the reads of the validation of the request, and the models the request is written with
+        final String activeUsername = activeUser.getUsername();
+        blackhole.consume(activeUser.getFriends().size());
+        blackhole.consume(userToAdd.getUserPreferences().isPrivateAccount());
+        blackhole.consume(userToAdd.getBlocked().containsKey(activeUsername));
+        blackhole.consume(activeUser.getBlocked().containsKey(this.usernameToAdd));
+        blackhole.consume(userToAdd.getFriendRequests().size());
+        final Friend friend = activeUser.getFriends().get(this.usernameToAdd);
+        blackhole.consume(friend != null && friend.isConfirmed());
+        blackhole.consume(userToAdd.getFriendRequests().containsKey(activeUsername));
+        blackhole.consume(new Friend(userToAdd, false).asMap());
+        blackhole.consume(new FriendRequest(activeUser, "2021-01-01T00:00:00Z").asMap());
+    }
+
+    private static User parseAll(final User user) {
+        // going over the entries of a section parses every one of them
+        if (user.isLoaded(UserField.WORKOUT_METAS)) {
+            parseAll(user.getWorkoutMetas());
+        }
+        if (user.isLoaded(UserField.OWNED_EXERCISES)) {
+            parseAll(user.getOwnedExercises());
+        }
+        if (user.isLoaded(UserField.FRIENDS)) {
+            parseAll(user.getFriends());
+        }
+        if (user.isLoaded(UserField.FRIEND_REQUESTS)) {
+            parseAll(user.getFriendRequests());
+        }
+        return user;
+    }
+
+    private static void parseAll(final Map<String, ?> section) {
+        if (section != null) {
+            section.entrySet();
+        }
+    }
+
+    // attributes that a projection on the given fields would read, like UserDAO does
+    private static Map<String, Object> project(final Map<String, Object> attributes, final List<UserField> fields) {
+        final Map<String, Object> projected = new HashMap<>();
+        projected.put(User.USERNAME, attributes.get(User.USERNAME));
+        for (UserField field : fields) {
+            for (String attributeName : field.getAttributeNames()) {
+                if (attributes.containsKey(attributeName)) {
+                    projected.put(attributeName, attributes.get(attributeName));
+                }
+            }
+        }
+        return projected;
+    }
+}
@@ -0,0 +1,99 @@
+package benchmarks;
+
+import com.amazonaws.services.dynamodbv2.document.Item;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import models.Routine;
+import models.SharedWorkout;
+import models.User;
+import models.Workout;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import utils.AttributeValueUtils;
+import utils.JsonUtils;
+
+/**
+ * Conversions of a workout with a routine of MAX_WEEKS_ROUTINE x MAX_DAYS_ROUTINE days, and of the shared workout
+ * made from it. Run with -prof gc to see the allocation of each path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WorkoutCodecBenchmark {
+
+    private Item workoutItem;
+    private Item sharedWorkoutItem;
+    private Map<String, Object> workoutMap;
+    private Map<String, Object> routineMap;
+    private Workout workout;
+    private User user;
+    private SharedWorkout sharedWorkout;
+
+    @Setup
+    public void setup() throws Exception {
+        this.workoutItem = Payloads.maxedWorkoutItem();
+        this.workoutMap = this.workoutItem.asMap();
+        this.routineMap = (Map<String, Object>) this.workoutMap.get(Workout.ROUTINE);
+        this.workout = new Workout(this.workoutItem);
+        this.user = new User(Payloads.maxedUserItem());
+        this.sharedWorkout = new SharedWorkout(this.workout, this.user, "sharedWorkoutId");
+        this.sharedWorkoutItem = Item.fromMap(this.sharedWorkout.asMap());
+    }
+
+    @Benchmark
+    public Workout workoutFromItem() throws Exception {
+        return new Workout(this.workoutItem);
+    }
+
+    @Benchmark
+    public Routine routineFromMap() throws Exception {
+        return new Routine(this.routineMap);
+    }
+
+    @Benchmark
+    public Map<String, Object> workoutAsMap() {
+        return this.workout.asMap();
+    }
+
+    @Benchmark
+    public Map<String, AttributeValue> workoutAsAttributeValues() {
+        return AttributeValueUtils.convertMapToAttributeValueMap(this.workout.asMap());
+    }
+
+    @Benchmark
+    public String workoutToJson() {
+        return JsonUtils.serializeModel(this.workout);
+    }
+
+    @Benchmark
+    public SharedWorkout sharedWorkoutFromWorkout() {
+        return new SharedWorkout(this.workout, this.user, "sharedWorkoutId");
+    }
+
+    @Benchmark
+    public SharedWorkout sharedWorkoutFromItem() throws Exception {
+        return new SharedWorkout(this.sharedWorkoutItem);
+    }
+
+    @Benchmark
+    public Map<String, AttributeValue> sharedWorkoutAsItemAttributes() {
+        return this.sharedWorkout.asItemAttributes();
+    }
+
+    @Benchmark
+    public String sharedWorkoutToJson() {
+        return JsonUtils.serializeModel(this.sharedWorkout);
+    }
+}
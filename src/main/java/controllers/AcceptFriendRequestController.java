@@ -14,13 +14,16 @@ import java.util.Map;
 import javax.inject.Inject;
 import managers.AcceptFriendRequestManager;
 import models.User;
-import modules.Injector;
 
 public class AcceptFriendRequestController implements ApiRequestController {
 
     @Inject
     public AcceptFriendRequestManager acceptFriendRequestManager;
 
+    @Inject
+    public AcceptFriendRequestController() {
+    }
+
     @Override
     public ResultStatus<String> processApiRequest(Map<String, Object> json, Metrics metrics)
         throws MissingApiRequestKeyException {
@@ -34,7 +37,6 @@ public class AcceptFriendRequestController implements ApiRequestController {
                 final String activeUser = (String) json.get(RequestFields.ACTIVE_USER);
                 final String userToAccept = (String) json.get(User.USERNAME);
 
-                Injector.getInjector(metrics).inject(this);
                 this.acceptFriendRequestManager.acceptRequest(activeUser, userToAccept);
                 resultStatus = ResultStatus.successful("Friend successfully added.");
             } catch (ManagerExecutionException meu) {
@@ -16,7 +16,6 @@ import javax.inject.Inject;
 import managers.AcceptReceivedWorkoutManager;
 import models.SharedWorkout;
 import models.Workout;
-import modules.Injector;
 import responses.AcceptWorkoutResponse;
 
 public class AcceptReceivedWorkoutController implements ApiRequestController {
@@ -24,6 +23,10 @@ public class AcceptReceivedWorkoutController implements ApiRequestController {
     @Inject
     public AcceptReceivedWorkoutManager acceptReceivedWorkoutManager;
 
+    @Inject
+    public AcceptReceivedWorkoutController() {
+    }
+
     @Override
     public ResultStatus<String> processApiRequest(Map<String, Object> json, Metrics metrics)
         throws MissingApiRequestKeyException {
@@ -41,10 +44,9 @@ public class AcceptReceivedWorkoutController implements ApiRequestController {
                     optionalName = (String) json.get(Workout.WORKOUT_NAME);
                 }
 
-                Injector.getInjector(metrics).inject(this);
-                AcceptWorkoutResponse result = this.acceptReceivedWorkoutManager.acceptReceivedWorkout(activeUser,
+                    AcceptWorkoutResponse result = this.acceptReceivedWorkoutManager.acceptReceivedWorkout(activeUser,
                     workoutId, optionalName);
-                resultStatus = ResultStatus.successful(JsonUtils.serializeMap(result.asResponse()));
+                resultStatus = ResultStatus.successful(JsonUtils.serializeModel(result));
             } catch (ManagerExecutionException meu) {
                 metrics.log("Input error: " + meu.getMessage());
                 resultStatus = ResultStatus.failureBadRequest(meu.getMessage());
@@ -16,13 +16,16 @@ import java.util.Map;
 import javax.inject.Inject;
 import managers.BlockUserManager;
 import models.User;
-import modules.Injector;
 
 public class BlockUserController implements ApiRequestController {
 
     @Inject
     public BlockUserManager blockUserManager;
 
+    @Inject
+    public BlockUserController() {
+    }
+
     @Override
     public ResultStatus<String> processApiRequest(Map<String, Object> json, Metrics metrics)
         throws MissingApiRequestKeyException {
@@ -36,7 +39,6 @@ public class BlockUserController implements ApiRequestController {
                 final String activeUser = (String) json.get(RequestFields.ACTIVE_USER);
                 final String userToBlock = (String) json.get(User.USERNAME);
 
-                Injector.getInjector(metrics).inject(this);
                 final String result = this.blockUserManager.blockUser(activeUser, userToBlock);
                 resultStatus = ResultStatus.successful(JsonUtils.serializeMap(ImmutableMap.of(User.ICON, result)));
             } catch (ManagerExecutionException meu) {
@@ -13,13 +13,16 @@ import java.util.Map;
 import javax.inject.Inject;
 import managers.CancelFriendRequestManager;
 import models.User;
-import modules.Injector;
 
 public class CancelFriendRequestController implements ApiRequestController {
 
     @Inject
     public CancelFriendRequestManager cancelFriendRequestManager;
 
+    @Inject
+    public CancelFriendRequestController() {
+    }
+
     @Override
     public ResultStatus<String> processApiRequest(Map<String, Object> json, Metrics metrics)
         throws MissingApiRequestKeyException {
@@ -33,7 +36,6 @@ public class CancelFriendRequestController implements ApiRequestController {
                 final String activeUser = (String) json.get(RequestFields.ACTIVE_USER);
                 final String userToCancel = (String) json.get(User.USERNAME);
 
-                Injector.getInjector(metrics).inject(this);
                 this.cancelFriendRequestManager.cancelRequest(activeUser, userToCancel);
                 resultStatus = ResultStatus.successful("Request successfully canceled.");
             } catch (UserNotFoundException unfe) {
@@ -0,0 +1,70 @@
+package controllers;
+
+import exceptions.ManagerExecutionException;
+import exceptions.MissingApiRequestKeyException;
+import exceptions.UnauthorizedException;
+import exceptions.UserNotFoundException;
+import utils.ErrorMessage;
+import utils.JsonUtils;
+import utils.Metrics;
+import imports.RequestFields;
+import imports.ResultStatus;
+import interfaces.ApiRequestController;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import javax.inject.Inject;
+import managers.CopyWorkoutManager;
+import models.Workout;
+import models.WorkoutProgressDelta;
+import responses.UserWithWorkout;
+
+/**
+ * Copies a workout given only its id. The progress made on the workout since it was last synced can be sent along in
+ * the same fields as for syncWorkoutDelta.
+ */
+public class CopyWorkoutByIdController implements ApiRequestController {
+
+    @Inject
+    CopyWorkoutManager copyWorkoutManager;
+
+    @Inject
+    public CopyWorkoutByIdController() {
+    }
+
+    @Override
+    public ResultStatus<String> processApiRequest(Map<String, Object> jsonBody, Metrics metrics)
+        throws MissingApiRequestKeyException {
+        final String classMethod = this.getClass().getSimpleName() + ".processApiRequest";
+
+        ResultStatus<String> resultStatus;
+        final List<String> requiredKeys = Arrays.asList(RequestFields.ACTIVE_USER, Workout.WORKOUT_ID,
+            Workout.WORKOUT_NAME);
+
+        if (jsonBody.keySet().containsAll(requiredKeys)) {
+            try {
+                final String user = (String) jsonBody.get(RequestFields.ACTIVE_USER);
+                final String newWorkoutName = (String) jsonBody.get(Workout.WORKOUT_NAME);
+                final String oldWorkoutId = (String) jsonBody.get(Workout.WORKOUT_ID);
+                final WorkoutProgressDelta progress = WorkoutProgressDelta.fromRequest(jsonBody);
+
+                final UserWithWorkout result = this.copyWorkoutManager.copyWorkoutById(user, newWorkoutName,
+                    oldWorkoutId, progress);
+                resultStatus = ResultStatus.successful(JsonUtils.serializeModel(result));
+            } catch (ManagerExecutionException meu) {
+                metrics.log("Input error: " + meu.getMessage());
+                resultStatus = ResultStatus.failureBadRequest(meu.getMessage());
+            } catch (UserNotFoundException | UnauthorizedException e) {
+                metrics.logWithBody(new ErrorMessage<>(classMethod, e));
+                resultStatus = ResultStatus.failureBadRequest(e.getMessage());
+            } catch (Exception e) {
+                metrics.logWithBody(new ErrorMessage<>(classMethod, e));
+                resultStatus = ResultStatus.failureBadRequest("Exception in " + classMethod);
+            }
+        } else {
+            throw new MissingApiRequestKeyException(requiredKeys);
+        }
+
+        return resultStatus;
+    }
+}
@@ -16,7 +16,6 @@ import java.util.Map;
 import javax.inject.Inject;
 import managers.CopyWorkoutManager;
 import models.Workout;
-import modules.Injector;
 import responses.UserWithWorkout;
 
 public class CopyWorkoutController implements ApiRequestController {
@@ -24,6 +23,10 @@ public class CopyWorkoutController implements ApiRequestController {
     @Inject
     CopyWorkoutManager copyWorkoutManager;
 
+    @Inject
+    public CopyWorkoutController() {
+    }
+
     @Override
     public ResultStatus<String> processApiRequest(Map<String, Object> jsonBody, Metrics metrics)
         throws MissingApiRequestKeyException {
@@ -40,9 +43,8 @@ public class CopyWorkoutController implements ApiRequestController {
                 final Map<String, Object> oldWorkoutMap = (Map<String, Object>) jsonBody.get(RequestFields.WORKOUT);
                 final Workout oldWorkout = new Workout(oldWorkoutMap);
 
-                Injector.getInjector(metrics).inject(this);
                 final UserWithWorkout result = this.copyWorkoutManager.copyWorkout(user, newWorkoutName, oldWorkout);
-                resultStatus = ResultStatus.successful(JsonUtils.serializeMap(result.asResponse()));
+                resultStatus = ResultStatus.successful(JsonUtils.serializeModel(result));
             } catch (ManagerExecutionException meu) {
                 metrics.log("Input error: " + meu.getMessage());
                 resultStatus = ResultStatus.failureBadRequest(meu.getMessage());
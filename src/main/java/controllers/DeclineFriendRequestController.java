@@ -14,13 +14,16 @@ import java.util.Map;
 import javax.inject.Inject;
 import managers.DeclineFriendRequestManager;
 import models.User;
-import modules.Injector;
 
 public class DeclineFriendRequestController implements ApiRequestController {
 
     @Inject
     public DeclineFriendRequestManager declineFriendRequestManager;
 
+    @Inject
+    public DeclineFriendRequestController() {
+    }
+
     @Override
     public ResultStatus<String> processApiRequest(Map<String, Object> json, Metrics metrics)
         throws MissingApiRequestKeyException {
@@ -34,7 +37,6 @@ public class DeclineFriendRequestController implements ApiRequestController {
                 final String activeUser = (String) json.get(RequestFields.ACTIVE_USER);
                 final String declinedUser = (String) json.get(User.USERNAME);
 
-                Injector.getInjector(metrics).inject(this);
                 this.declineFriendRequestManager.declineRequest(activeUser, declinedUser);
                 resultStatus = ResultStatus.successful("Request successfully declined.");
             } catch (ManagerExecutionException meu) {
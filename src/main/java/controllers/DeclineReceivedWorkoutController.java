@@ -14,13 +14,16 @@ import java.util.Map;
 import javax.inject.Inject;
 import managers.DeclineReceivedWorkoutManager;
 import models.SharedWorkout;
-import modules.Injector;
 
 public class DeclineReceivedWorkoutController implements ApiRequestController {
 
     @Inject
     public DeclineReceivedWorkoutManager declineReceivedWorkoutManager;
 
+    @Inject
+    public DeclineReceivedWorkoutController() {
+    }
+
     @Override
     public ResultStatus<String> processApiRequest(Map<String, Object> json, Metrics metrics)
         throws MissingApiRequestKeyException {
@@ -34,7 +37,6 @@ public class DeclineReceivedWorkoutController implements ApiRequestController {
                 final String activeUser = (String) json.get(RequestFields.ACTIVE_USER);
                 final String workoutId = (String) json.get(SharedWorkout.SHARED_WORKOUT_ID);
 
-                Injector.getInjector(metrics).inject(this);
                 this.declineReceivedWorkoutManager.declineWorkout(activeUser, workoutId);
                 resultStatus = ResultStatus.successful("Workout successfully declined.");
             } catch (ManagerExecutionException meu) {
@@ -13,13 +13,16 @@ import java.util.List;
 import java.util.Map;
 import javax.inject.Inject;
 import managers.DeleteExerciseManager;
-import modules.Injector;
 
 public class DeleteExerciseController implements ApiRequestController {
 
     @Inject
     public DeleteExerciseManager deleteExerciseManager;
 
+    @Inject
+    public DeleteExerciseController() {
+    }
+
     @Override
     public ResultStatus<String> processApiRequest(Map<String, Object> jsonBody, Metrics metrics)
         throws MissingApiRequestKeyException {
@@ -33,7 +36,6 @@ public class DeleteExerciseController implements ApiRequestController {
                 final String activeUser = (String) jsonBody.get(RequestFields.ACTIVE_USER);
                 final String exerciseId = (String) jsonBody.get(RequestFields.EXERCISE_ID);
 
-                Injector.getInjector(metrics).inject(this);
                 this.deleteExerciseManager.deleteExercise(activeUser, exerciseId);
                 resultStatus = ResultStatus.successful("Exercise deleted successfully.");
             } catch (WorkoutNotFoundException | UserNotFoundException exception) {
@@ -16,7 +16,6 @@ import java.util.Map;
 import javax.inject.Inject;
 import managers.DeleteWorkoutThenFetchWorkoutManager;
 import models.Workout;
-import modules.Injector;
 import responses.UserWithWorkout;
 
 public class DeleteWorkoutThenFetchController implements ApiRequestController {
@@ -24,6 +23,10 @@ public class DeleteWorkoutThenFetchController implements ApiRequestController {
     @Inject
     public DeleteWorkoutThenFetchWorkoutManager deleteWorkoutThenFetchWorkoutManager;
 
+    @Inject
+    public DeleteWorkoutThenFetchController() {
+    }
+
     @Override
     public ResultStatus<String> processApiRequest(Map<String, Object> json, Metrics metrics)
         throws MissingApiRequestKeyException {
@@ -39,10 +42,9 @@ public class DeleteWorkoutThenFetchController implements ApiRequestController {
                 final String deletedWorkoutId = (String) json.get(Workout.WORKOUT_ID);
                 final String nextWorkoutId = (String) json.get(RequestFields.NEXT_WORKOUT_ID);
 
-                Injector.getInjector(metrics).inject(this);
                 final UserWithWorkout result = this.deleteWorkoutThenFetchWorkoutManager.deleteWorkoutThenFetch(
                     activeUser, deletedWorkoutId, nextWorkoutId);
-                resultStatus = ResultStatus.successful(JsonUtils.serializeMap(result.asResponse()));
+                resultStatus = ResultStatus.successful(JsonUtils.serializeModel(result));
             } catch (UserNotFoundException | UnauthorizedException | WorkoutNotFoundException exception) {
                 metrics.logWithBody(new ErrorMessage<>(classMethod, exception));
                 resultStatus = ResultStatus.failureBadRequest(exception.getMessage());
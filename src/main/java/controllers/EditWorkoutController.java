@@ -17,7 +17,6 @@ import java.util.Map;
 import javax.inject.Inject;
 import managers.EditWorkoutManager;
 import models.Workout;
-import modules.Injector;
 import responses.UserWithWorkout;
 
 public class EditWorkoutController implements ApiRequestController {
@@ -25,6 +24,10 @@ public class EditWorkoutController implements ApiRequestController {
     @Inject
     EditWorkoutManager editWorkoutManager;
 
+    @Inject
+    public EditWorkoutController() {
+    }
+
     @Override
     public ResultStatus<String> processApiRequest(Map<String, Object> json, Metrics metrics)
         throws MissingApiRequestKeyException {
@@ -38,9 +41,8 @@ public class EditWorkoutController implements ApiRequestController {
                 final String activeUser = (String) json.get(RequestFields.ACTIVE_USER);
                 final Workout workout = new Workout((Map<String, Object>) json.get(RequestFields.WORKOUT));
 
-                Injector.getInjector(metrics).inject(this);
                 UserWithWorkout result = this.editWorkoutManager.editWorkout(activeUser, workout);
-                resultStatus = ResultStatus.successful(JsonUtils.serializeMap(result.asResponse()));
+                resultStatus = ResultStatus.successful(JsonUtils.serializeModel(result));
             } catch (ManagerExecutionException meu) {
                 metrics.log("Input error: " + meu.getMessage());
                 resultStatus = ResultStatus.failureBadRequest(meu.getMessage());
@@ -1,5 +1,6 @@
 package controllers;
 
+import exceptions.ManagerExecutionException;
 import exceptions.MissingApiRequestKeyException;
 import exceptions.UserNotFoundException;
 import exceptions.WorkoutNotFoundException;
@@ -17,13 +18,17 @@ import java.util.Map;
 import javax.inject.Inject;
 import managers.GetReceivedWorkoutsManager;
 import models.SharedWorkoutMeta;
-import modules.Injector;
+import responses.ReceivedWorkoutsResponse;
 
 public class GetReceivedWorkoutsController implements ApiRequestController {
 
     @Inject
     public GetReceivedWorkoutsManager getReceivedWorkoutsManager;
 
+    @Inject
+    public GetReceivedWorkoutsController() {
+    }
+
     @Override
     public ResultStatus<String> processApiRequest(Map<String, Object> jsonMap, Metrics metrics)
         throws MissingApiRequestKeyException {
@@ -32,23 +37,33 @@ public class GetReceivedWorkoutsController implements ApiRequestController {
         ResultStatus<String> resultStatus;
         final List<String> requiredKeys = Arrays.asList(RequestFields.ACTIVE_USER, RequestFields.BATCH_NUMBER);
 
-        if (jsonMap.keySet().containsAll(requiredKeys)) {
+        if (jsonMap.containsKey(RequestFields.ACTIVE_USER)
+            && (jsonMap.containsKey(RequestFields.CURSOR) || jsonMap.containsKey(RequestFields.BATCH_NUMBER))) {
             try {
-                Injector.getInjector(metrics).inject(this);
-
                 final String activeUser = (String) jsonMap.get(RequestFields.ACTIVE_USER);
-                final Integer batchNumber = Parser.convertObjectToInteger(jsonMap.get(RequestFields.BATCH_NUMBER));
-                final Map<String, SharedWorkoutMeta> receivedWorkouts = this.getReceivedWorkoutsManager.getReceivedWorkouts(
-                    activeUser, batchNumber);
+                if (jsonMap.containsKey(RequestFields.CURSOR)) {
+                    // a null cursor is the first batch
+                    final String cursor = (String) jsonMap.get(RequestFields.CURSOR);
+                    final ReceivedWorkoutsResponse result = this.getReceivedWorkoutsManager
+                        .getReceivedWorkouts(activeUser, cursor);
+                    resultStatus = ResultStatus.successful(JsonUtils.serializeModel(result));
+                } else {
+                    final Integer batchNumber = Parser
+                        .convertObjectToInteger(jsonMap.get(RequestFields.BATCH_NUMBER));
+                    final Map<String, SharedWorkoutMeta> receivedWorkouts = this.getReceivedWorkoutsManager
+                        .getReceivedWorkouts(activeUser, batchNumber);
 
-                Map<String, Object> retMap = new HashMap<>();
-                for (String workoutId : receivedWorkouts.keySet()) {
-                    retMap.putIfAbsent(workoutId, receivedWorkouts.get(workoutId).asResponse());
+                    Map<String, Object> retMap = new HashMap<>();
+                    for (String workoutId : receivedWorkouts.keySet()) {
+                        retMap.putIfAbsent(workoutId, receivedWorkouts.get(workoutId).asResponse());
+                    }
+                    resultStatus = ResultStatus.successful(JsonUtils.serializeMap(retMap));
                 }
-
-                resultStatus = ResultStatus.successful(JsonUtils.serializeMap(retMap));
             } catch (final MissingApiRequestKeyException e) {
                 throw e;
+            } catch (final ManagerExecutionException meu) {
+                metrics.log("Input error: " + meu.getMessage());
+                resultStatus = ResultStatus.failureBadRequest(meu.getMessage());
             } catch (UserNotFoundException | WorkoutNotFoundException exception) {
                 metrics.logWithBody(new ErrorMessage<>(classMethod, exception));
                 resultStatus = ResultStatus.failureBadRequest(exception.getMessage());
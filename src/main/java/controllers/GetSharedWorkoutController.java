@@ -1,6 +1,5 @@
 package controllers;
 
-import com.google.common.collect.Maps;
 import exceptions.ManagerExecutionException;
 import exceptions.MissingApiRequestKeyException;
 import exceptions.UserNotFoundException;
@@ -17,13 +16,16 @@ import java.util.Map;
 import javax.inject.Inject;
 import managers.GetSharedWorkoutManager;
 import models.SharedWorkout;
-import modules.Injector;
 
 public class GetSharedWorkoutController implements ApiRequestController {
 
     @Inject
     public GetSharedWorkoutManager getSharedWorkoutManager;
 
+    @Inject
+    public GetSharedWorkoutController() {
+    }
+
     @Override
     public ResultStatus<String> processApiRequest(Map<String, Object> jsonMap, Metrics metrics)
         throws MissingApiRequestKeyException {
@@ -34,14 +36,11 @@ public class GetSharedWorkoutController implements ApiRequestController {
 
         if (jsonMap.keySet().containsAll(requiredKeys)) {
             try {
-                Injector.getInjector(metrics).inject(this);
-
                 final String username = (String) jsonMap.get(RequestFields.ACTIVE_USER);
                 final String workoutId = (String) jsonMap.get(SharedWorkout.SHARED_WORKOUT_ID);
                 final SharedWorkout sharedWorkout = this.getSharedWorkoutManager.getSharedWorkout(username, workoutId);
 
-                resultStatus = ResultStatus.successful(
-                    JsonUtils.serializeMap(Maps.newHashMap(sharedWorkout.asResponse())));
+                resultStatus = ResultStatus.successful(JsonUtils.serializeModel(sharedWorkout));
             } catch (final MissingApiRequestKeyException e) {
                 throw e;
             } catch (ManagerExecutionException meu) {
@@ -9,7 +9,6 @@ import java.util.Map;
 import javax.inject.Inject;
 import managers.GetUserDataManager;
 import models.User;
-import modules.Injector;
 import utils.ErrorMessage;
 import utils.Metrics;
 import imports.RequestFields;
@@ -20,6 +19,10 @@ public class GetUserDataController implements ApiRequestController {
     @Inject
     public GetUserDataManager getUserDataManager;
 
+    @Inject
+    public GetUserDataController() {
+    }
+
     @Override
     public ResultStatus<String> processApiRequest(final Map<String, Object> jsonMap, final Metrics metrics)
         throws MissingApiRequestKeyException {
@@ -27,16 +30,14 @@ public class GetUserDataController implements ApiRequestController {
 
         ResultStatus<String> resultStatus;
         try {
-            Injector.getInjector(metrics).inject(this);
-
             if (jsonMap.containsKey(User.USERNAME)) {
                 final String username = (String) jsonMap.get(User.USERNAME);
                 final User result = this.getUserDataManager.getUserData(username);
-                resultStatus = ResultStatus.successful(JsonUtils.serializeMap(result.asResponse()));
+                resultStatus = ResultStatus.successful(JsonUtils.serializeModel(result));
             } else if (jsonMap.containsKey(RequestFields.ACTIVE_USER)) {
                 final String activeUser = (String) jsonMap.get(RequestFields.ACTIVE_USER);
                 final User result = this.getUserDataManager.getActiveUserData(activeUser);
-                resultStatus = ResultStatus.successful(JsonUtils.serializeMap(result.asResponse()));
+                resultStatus = ResultStatus.successful(JsonUtils.serializeModel(result));
             } else {
                 throw new MissingApiRequestKeyException(ImmutableList.of(RequestFields.ACTIVE_USER));
             }
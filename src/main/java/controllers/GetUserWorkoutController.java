@@ -15,7 +15,6 @@ import java.util.Map;
 import javax.inject.Inject;
 import managers.GetUserWorkoutManager;
 import models.User;
-import modules.Injector;
 import responses.UserWithWorkout;
 
 public class GetUserWorkoutController implements ApiRequestController {
@@ -23,6 +22,10 @@ public class GetUserWorkoutController implements ApiRequestController {
     @Inject
     public GetUserWorkoutManager getUserWorkoutManager;
 
+    @Inject
+    public GetUserWorkoutController() {
+    }
+
     @Override
     public ResultStatus<String> processApiRequest(Map<String, Object> jsonMap, Metrics metrics)
         throws MissingApiRequestKeyException {
@@ -30,12 +33,10 @@ public class GetUserWorkoutController implements ApiRequestController {
 
         ResultStatus<String> resultStatus;
         try {
-            Injector.getInjector(metrics).inject(this);
-
             if (jsonMap.containsKey(RequestFields.ACTIVE_USER)) {
                 final String activeUser = (String) jsonMap.get(RequestFields.ACTIVE_USER);
                 final UserWithWorkout userWithWorkout = this.getUserWorkoutManager.getUserWithWorkout(activeUser);
-                resultStatus = ResultStatus.successful(JsonUtils.serializeMap(userWithWorkout.asResponse()));
+                resultStatus = ResultStatus.successful(JsonUtils.serializeModel(userWithWorkout));
             } else {
                 throw new MissingApiRequestKeyException(ImmutableList.of(RequestFields.ACTIVE_USER));
             }
@@ -15,7 +15,6 @@ import java.util.Map;
 import javax.inject.Inject;
 import managers.NewExerciseManager;
 import models.OwnedExercise;
-import modules.Injector;
 import responses.OwnedExerciseResponse;
 
 public class NewExerciseController implements ApiRequestController {
@@ -23,6 +22,10 @@ public class NewExerciseController implements ApiRequestController {
     @Inject
     public NewExerciseManager newExerciseManager;
 
+    @Inject
+    public NewExerciseController() {
+    }
+
     @Override
     public ResultStatus<String> processApiRequest(Map<String, Object> jsonBody, Metrics metrics)
         throws MissingApiRequestKeyException {
@@ -52,10 +55,9 @@ public class NewExerciseController implements ApiRequestController {
                 final String videoURL = (String) jsonBody.get(OwnedExercise.VIDEO_URL);
                 final List<String> focuses = (List<String>) jsonBody.get(OwnedExercise.FOCUSES);
 
-                Injector.getInjector(metrics).inject(this);
                 final OwnedExerciseResponse result = this.newExerciseManager.newExercise(activeUser, exerciseName,
                     defaultWeight, defaultSets, defaultReps, defaultDetails, videoURL, focuses);
-                resultStatus = ResultStatus.successful(JsonUtils.serializeMap(result.asResponse()));
+                resultStatus = ResultStatus.successful(JsonUtils.serializeModel(result));
             } catch (ManagerExecutionException meu) {
                 metrics.log("Input error: " + meu.getMessage());
                 resultStatus = ResultStatus.failureBadRequest(meu.getMessage());
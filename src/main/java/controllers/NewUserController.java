@@ -12,13 +12,16 @@ import java.util.Map;
 import javax.inject.Inject;
 import managers.NewUserManager;
 import models.User;
-import modules.Injector;
 
 public class NewUserController implements ApiRequestController {
 
     @Inject
     public NewUserManager newUserManager;
 
+    @Inject
+    public NewUserController() {
+    }
+
     @Override
     public ResultStatus<String> processApiRequest(Map<String, Object> json, Metrics metrics)
         throws MissingApiRequestKeyException {
@@ -26,12 +29,10 @@ public class NewUserController implements ApiRequestController {
 
         ResultStatus<String> resultStatus;
         try {
-            Injector.getInjector(metrics).inject(this);
-
             if (json.containsKey(User.USERNAME)) {
                 final String username = (String) json.get(User.USERNAME);
                 final User result = this.newUserManager.createNewUser(username);
-                resultStatus = ResultStatus.successful(JsonUtils.serializeMap(result.asResponse()));
+                resultStatus = ResultStatus.successful(JsonUtils.serializeModel(result));
             } else {
                 throw new MissingApiRequestKeyException(ImmutableList.of(RequestFields.ACTIVE_USER));
             }
@@ -16,7 +16,6 @@ import javax.inject.Inject;
 import managers.NewWorkoutManager;
 import models.Routine;
 import models.Workout;
-import modules.Injector;
 import responses.UserWithWorkout;
 
 public class NewWorkoutController implements ApiRequestController {
@@ -24,6 +23,10 @@ public class NewWorkoutController implements ApiRequestController {
     @Inject
     public NewWorkoutManager newWorkoutManager;
 
+    @Inject
+    public NewWorkoutController() {
+    }
+
     @Override
     public ResultStatus<String> processApiRequest(Map<String, Object> json, Metrics metrics)
         throws MissingApiRequestKeyException {
@@ -40,10 +43,9 @@ public class NewWorkoutController implements ApiRequestController {
                 final Map<String, Object> routineMap = (Map<String, Object>) json.get(Workout.ROUTINE);
                 final Routine routine = new Routine(routineMap);
 
-                Injector.getInjector(metrics).inject(this);
                 final UserWithWorkout userWithWorkout = this.newWorkoutManager.createNewWorkout(activeUser, workoutName,
                     routine);
-                resultStatus = ResultStatus.successful(JsonUtils.serializeMap(userWithWorkout.asResponse()));
+                resultStatus = ResultStatus.successful(JsonUtils.serializeModel(userWithWorkout));
             } catch (ManagerExecutionException meu) {
                 metrics.log("Input error: " + meu.getMessage());
                 resultStatus = ResultStatus.failureBadRequest(meu.getMessage());
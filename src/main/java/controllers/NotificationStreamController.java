@@ -0,0 +1,49 @@
+package controllers;
+
+import com.amazonaws.services.dynamodbv2.document.ItemUtils;
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.amazonaws.services.lambda.runtime.events.DynamodbEvent;
+import com.amazonaws.services.lambda.runtime.events.DynamodbEvent.DynamodbStreamRecord;
+import java.util.ArrayList;
+import java.util.List;
+import models.OutboxNotification;
+import modules.Injector;
+import utils.Metrics;
+
+/**
+ * Handler of the stream of the notification outbox table, sends the notifications that were written to it. The
+ * stream has to include new images.
+ */
+public class NotificationStreamController implements RequestHandler<DynamodbEvent, Void> {
+
+    // the stream also has the notifications the time to live removes, those are not sent again
+    private static final String INSERT_EVENT = "INSERT";
+
+    public Void handleRequest(final DynamodbEvent event, final Context context) {
+        final String classMethod = this.getClass().getSimpleName() + ".handleRequest";
+
+        final Metrics metrics = new Metrics(context.getAwsRequestId(), context.getLogger());
+        metrics.commonSetup(classMethod);
+
+        final List<OutboxNotification> notifications = new ArrayList<>();
+        for (DynamodbStreamRecord record : event.getRecords()) {
+            if (INSERT_EVENT.equals(record.getEventName())) {
+                notifications.add(
+                    new OutboxNotification(ItemUtils.toSimpleMapValue(record.getDynamodb().getNewImage())));
+            }
+        }
+
+        boolean success = false;
+        try {
+            Injector.getNotificationDispatcher().dispatch(notifications, metrics);
+            success = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        metrics.commonClose(success);
+        metrics.logMetrics();
+        return null;
+    }
+}
@@ -5,7 +5,7 @@ import com.amazonaws.services.lambda.runtime.RequestHandler;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
 import com.google.common.collect.ImmutableMap;
-import com.google.common.collect.Maps;
+import daos.DynamoDbClientProvider;
 import utils.ErrorMessage;
 import utils.JsonUtils;
 import utils.Metrics;
@@ -14,53 +14,58 @@ import imports.ResultStatus;
 import utils.TokenUtils;
 import utils.WarningMessage;
 import interfaces.ApiRequestController;
-import java.lang.reflect.Constructor;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.Function;
+import modules.Injector;
+import modules.LiteWeightComponent;
 
 public class ProxyPostController implements
     RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
 
-    // all the different actions this web service has
-    private static final Map<String, Class<? extends ApiRequestController>> ACTIONS_TO_CONTROLLERS = Maps
-        .newHashMap(ImmutableMap.<String, Class<? extends ApiRequestController>>builder()
-            .put("getUserData", GetUserDataController.class)
-            .put("newUser", NewUserController.class)
-            .put("newWorkout", NewWorkoutController.class)
-            .put("warmingEndpoint", WarmingController.class)
-            .put("getUserWorkout", GetUserWorkoutController.class)
-            .put("switchWorkout", SwitchWorkoutController.class)
-            .put("copyWorkout", CopyWorkoutController.class)
-            .put("renameWorkout", RenameWorkoutController.class)
-            .put("deleteWorkoutThenFetch", DeleteWorkoutThenFetchController.class)
-            .put("resetWorkoutStatistics", ResetWorkoutStatisticsController.class)
-            .put("editWorkout", EditWorkoutController.class)
-            .put("updateExercise", UpdateExerciseController.class)
-            .put("newExercise", NewExerciseController.class)
-            .put("syncWorkout", SyncWorkoutController.class)
-            .put("restartWorkout", RestartWorkoutController.class)
-            .put("deleteExercise", DeleteExerciseController.class)
-            .put("updateIcon", UpdateIconController.class)
-            .put("updateEndpointId", RegisterEndpointTokenController.class)
-            .put("removeEndpointId", RemoveEndpointTokenController.class)
-            .put("sendFriendRequest", SendFriendRequestController.class)
-            .put("cancelFriendRequest", CancelFriendRequestController.class)
-            .put("setAllFriendRequestsSeen", SetAllFriendRequestsSeenController.class)
-            .put("updateUserPreferences", UpdateUserPreferencesController.class)
-            .put("acceptFriendRequest", AcceptFriendRequestController.class)
-            .put("removeFriend", RemoveFriendController.class)
-            .put("declineFriendRequest", DeclineFriendRequestController.class)
-            .put("blockUser", BlockUserController.class)
-            .put("unblockUser", UnblockUserController.class)
-            .put("sendWorkout", SendWorkoutController.class)
-            .put("getReceivedWorkouts", GetReceivedWorkoutsController.class)
-            .put("getSharedWorkout", GetSharedWorkoutController.class)
-            .put("setAllReceivedWorkoutsSeen", SetAllReceivedWorkoutsSeenController.class)
-            .put("setReceivedWorkoutSeen", SetReceivedWorkoutSeenController.class)
-            .put("acceptReceivedWorkout", AcceptReceivedWorkoutController.class)
-            .put("declineReceivedWorkout", DeclineReceivedWorkoutController.class)
-            .put("sendFeedback", SendFeedbackController.class)
-            .build());
+    // all the different actions this web service has, mapped to the component method providing its controller
+    private static final Map<String, Function<LiteWeightComponent, ApiRequestController>> ACTIONS_TO_CONTROLLERS =
+        ImmutableMap.<String, Function<LiteWeightComponent, ApiRequestController>>builder()
+            .put("getUserData", LiteWeightComponent::getUserDataController)
+            .put("newUser", LiteWeightComponent::newUserController)
+            .put("newWorkout", LiteWeightComponent::newWorkoutController)
+            .put("warmingEndpoint", LiteWeightComponent::warmingController)
+            .put("getUserWorkout", LiteWeightComponent::getUserWorkoutController)
+            .put("switchWorkout", LiteWeightComponent::switchWorkoutController)
+            .put("copyWorkout", LiteWeightComponent::copyWorkoutController)
+            .put("renameWorkout", LiteWeightComponent::renameWorkoutController)
+            .put("deleteWorkoutThenFetch", LiteWeightComponent::deleteWorkoutThenFetchController)
+            .put("resetWorkoutStatistics", LiteWeightComponent::resetWorkoutStatisticsController)
+            .put("editWorkout", LiteWeightComponent::editWorkoutController)
+            .put("updateExercise", LiteWeightComponent::updateExerciseController)
+            .put("newExercise", LiteWeightComponent::newExerciseController)
+            .put("syncWorkout", LiteWeightComponent::syncWorkoutController)
+            .put("syncWorkoutDelta", LiteWeightComponent::syncWorkoutDeltaController)
+            .put("switchWorkoutById", LiteWeightComponent::switchWorkoutByIdController)
+            .put("copyWorkoutById", LiteWeightComponent::copyWorkoutByIdController)
+            .put("restartWorkout", LiteWeightComponent::restartWorkoutController)
+            .put("deleteExercise", LiteWeightComponent::deleteExerciseController)
+            .put("updateIcon", LiteWeightComponent::updateIconController)
+            .put("updateEndpointId", LiteWeightComponent::registerEndpointTokenController)
+            .put("removeEndpointId", LiteWeightComponent::removeEndpointTokenController)
+            .put("sendFriendRequest", LiteWeightComponent::sendFriendRequestController)
+            .put("cancelFriendRequest", LiteWeightComponent::cancelFriendRequestController)
+            .put("setAllFriendRequestsSeen", LiteWeightComponent::setAllFriendRequestsSeenController)
+            .put("updateUserPreferences", LiteWeightComponent::updateUserPreferencesController)
+            .put("acceptFriendRequest", LiteWeightComponent::acceptFriendRequestController)
+            .put("removeFriend", LiteWeightComponent::removeFriendController)
+            .put("declineFriendRequest", LiteWeightComponent::declineFriendRequestController)
+            .put("blockUser", LiteWeightComponent::blockUserController)
+            .put("unblockUser", LiteWeightComponent::unblockUserController)
+            .put("sendWorkout", LiteWeightComponent::sendWorkoutController)
+            .put("getReceivedWorkouts", LiteWeightComponent::getReceivedWorkoutsController)
+            .put("getSharedWorkout", LiteWeightComponent::getSharedWorkoutController)
+            .put("setAllReceivedWorkoutsSeen", LiteWeightComponent::setAllReceivedWorkoutsSeenController)
+            .put("setReceivedWorkoutSeen", LiteWeightComponent::setReceivedWorkoutSeenController)
+            .put("acceptReceivedWorkout", LiteWeightComponent::acceptReceivedWorkoutController)
+            .put("declineReceivedWorkout", LiteWeightComponent::declineReceivedWorkoutController)
+            .put("sendFeedback", LiteWeightComponent::sendFeedbackController)
+            .build();
 
     private static final int minimumLiteWeightVersion = 10; // update this when there is a breaking change
     private static final int upgradeStatusCode = 426;
@@ -90,12 +95,9 @@ public class ProxyPostController implements
 
         ResultStatus<String> resultStatus;
         try {
-            String action = request.getPath(); // in the form '/action'
-            String[] splitAction = action.split("/"); // remove the prefixed slash
-
-            if (splitAction.length == 2) {
-                action = splitAction[1];
+            final String action = getAction(request.getPath());
 
+            if (action != null) {
                 if (ACTIONS_TO_CONTROLLERS.containsKey(action)) {
                     final Map<String, Object> jsonMap = JsonUtils.deserialize(request.getBody());
                     metrics.setRequestBody(jsonMap); // attach here for logging before handling action
@@ -104,9 +106,8 @@ public class ProxyPostController implements
                         // get active user from id token passed to API and put it in the request payload
                         jsonMap.put(RequestFields.ACTIVE_USER, TokenUtils.getActiveUserFromRequest(request, context));
 
-                        final Class<? extends ApiRequestController> controller = ACTIONS_TO_CONTROLLERS.get(action);
-                        final Constructor c = controller.getConstructor();
-                        final ApiRequestController apiRequestController = (ApiRequestController) c.newInstance();
+                        final ApiRequestController apiRequestController = ACTIONS_TO_CONTROLLERS.get(action)
+                            .apply(Injector.getInjector(metrics));
                         resultStatus = apiRequestController.processApiRequest(jsonMap, metrics);
                     } else {
                         resultStatus = ResultStatus.failureBadRequest("Bad request body. Missing active user.");
@@ -136,6 +137,7 @@ public class ProxyPostController implements
             resultStatus = ResultStatus.failureBadRequest("Exception occurred." + request.getBody() + " " + e);
         }
 
+        DynamoDbClientProvider.recordConnectionMetrics(metrics);
         metrics.commonClose(resultStatus.success);
         metrics.logMetrics();
 
@@ -143,4 +145,23 @@ public class ProxyPostController implements
             .withBody(resultStatus.resultMessage)
             .withStatusCode(resultStatus.responseCode);
     }
+
+    /**
+     * Extracts the action from a request path in the form '/action'.
+     *
+     * @param path path of the api request.
+     * @return the action, or null if the path is not in the expected format.
+     */
+    private static String getAction(final String path) {
+        if (path == null) {
+            return null;
+        }
+        if (path.length() > 1 && path.charAt(0) == '/' && path.indexOf('/', 1) == -1) {
+            // common case, just remove the prefixed slash
+            return path.substring(1);
+        }
+
+        final String[] splitAction = path.split("/");
+        return splitAction.length == 2 ? splitAction[1] : null;
+    }
 }
@@ -14,13 +14,16 @@ import java.util.Map;
 import javax.inject.Inject;
 import managers.RegisterEndpointTokenManager;
 import models.User;
-import modules.Injector;
 
 public class RegisterEndpointTokenController implements ApiRequestController {
 
     @Inject
     public RegisterEndpointTokenManager registerEndpointTokenManager;
 
+    @Inject
+    public RegisterEndpointTokenController() {
+    }
+
     @Override
     public ResultStatus<String> processApiRequest(Map<String, Object> json, Metrics metrics)
         throws MissingApiRequestKeyException {
@@ -34,7 +37,6 @@ public class RegisterEndpointTokenController implements ApiRequestController {
                 final String activeUser = (String) json.get(RequestFields.ACTIVE_USER);
                 final String token = (String) json.get(User.PUSH_ENDPOINT_ARN);
 
-                Injector.getInjector(metrics).inject(this);
                 this.registerEndpointTokenManager.registerDevice(activeUser, token);
                 resultStatus = ResultStatus.successful("Endpoint registered successfully.");
             } catch (ManagerExecutionException meu) {
@@ -12,13 +12,16 @@ import java.util.List;
 import java.util.Map;
 import javax.inject.Inject;
 import managers.RemoveEndpointTokenManager;
-import modules.Injector;
 
 public class RemoveEndpointTokenController implements ApiRequestController {
 
     @Inject
     public RemoveEndpointTokenManager removeEndpointTokenManager;
 
+    @Inject
+    public RemoveEndpointTokenController() {
+    }
+
     @Override
     public ResultStatus<String> processApiRequest(Map<String, Object> json, Metrics metrics)
         throws MissingApiRequestKeyException {
@@ -31,7 +34,6 @@ public class RemoveEndpointTokenController implements ApiRequestController {
             try {
                 final String activeUser = (String) json.get(RequestFields.ACTIVE_USER);
 
-                Injector.getInjector(metrics).inject(this);
                 this.removeEndpointTokenManager.unregisterDevice(activeUser);
                 resultStatus = ResultStatus.successful("Endpoint successfully unregistered.");
             } catch (UserNotFoundException unfe) {
@@ -13,13 +13,16 @@ import java.util.Map;
 import javax.inject.Inject;
 import managers.RemoveFriendManager;
 import models.User;
-import modules.Injector;
 
 public class RemoveFriendController implements ApiRequestController {
 
     @Inject
     public RemoveFriendManager removeFriendManager;
 
+    @Inject
+    public RemoveFriendController() {
+    }
+
     @Override
     public ResultStatus<String> processApiRequest(Map<String, Object> json, Metrics metrics)
         throws MissingApiRequestKeyException {
@@ -33,7 +36,6 @@ public class RemoveFriendController implements ApiRequestController {
                 final String activeUser = (String) json.get(RequestFields.ACTIVE_USER);
                 final String userToAccept = (String) json.get(User.USERNAME);
 
-                Injector.getInjector(metrics).inject(this);
                 this.removeFriendManager.removeFriend(activeUser, userToAccept);
                 resultStatus = ResultStatus.successful("Friend successfully removed.");
             } catch (UserNotFoundException unfe) {
@@ -17,13 +17,16 @@ import javax.inject.Inject;
 import managers.RenameWorkoutManager;
 import models.User;
 import models.Workout;
-import modules.Injector;
 
 public class RenameWorkoutController implements ApiRequestController {
 
     @Inject
     public RenameWorkoutManager renameWorkoutManager;
 
+    @Inject
+    public RenameWorkoutController() {
+    }
+
     @Override
     public ResultStatus<String> processApiRequest(Map<String, Object> json, Metrics metrics)
         throws MissingApiRequestKeyException {
@@ -39,9 +42,8 @@ public class RenameWorkoutController implements ApiRequestController {
                 final String workoutName = (String) json.get(Workout.WORKOUT_NAME);
                 final String workoutId = (String) json.get(Workout.WORKOUT_ID);
 
-                Injector.getInjector(metrics).inject(this);
                 final User result = this.renameWorkoutManager.renameWorkout(activeUser, workoutId, workoutName.trim());
-                resultStatus = ResultStatus.successful(JsonUtils.serializeMap(result.asResponse()));
+                resultStatus = ResultStatus.successful(JsonUtils.serializeModel(result));
             } catch (ManagerExecutionException meu) {
                 metrics.log("Input error: " + meu.getMessage());
                 resultStatus = ResultStatus.failureBadRequest(meu.getMessage());
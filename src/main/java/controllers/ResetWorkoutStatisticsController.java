@@ -15,13 +15,16 @@ import java.util.Map;
 import javax.inject.Inject;
 import managers.ResetWorkoutStatisticsManager;
 import models.Workout;
-import modules.Injector;
 
 public class ResetWorkoutStatisticsController implements ApiRequestController {
 
     @Inject
     public ResetWorkoutStatisticsManager resetWorkoutStatisticsManager;
 
+    @Inject
+    public ResetWorkoutStatisticsController() {
+    }
+
     @Override
     public ResultStatus<String> processApiRequest(Map<String, Object> json, Metrics metrics)
         throws MissingApiRequestKeyException {
@@ -35,9 +38,8 @@ public class ResetWorkoutStatisticsController implements ApiRequestController {
                 final String activeUser = (String) json.get(RequestFields.ACTIVE_USER);
                 final String workoutId = (String) json.get(Workout.WORKOUT_ID);
 
-                Injector.getInjector(metrics).inject(this);
                 final WorkoutMeta result = this.resetWorkoutStatisticsManager.resetStatistics(activeUser, workoutId);
-                resultStatus = ResultStatus.successful(JsonUtils.serializeMap(result.asResponse()));
+                resultStatus = ResultStatus.successful(JsonUtils.serializeModel(result));
             } catch (UserNotFoundException unfe) {
                 metrics.logWithBody(new ErrorMessage<>(classMethod, unfe));
                 resultStatus = ResultStatus.failureBadRequest(unfe.getMessage());
@@ -15,7 +15,6 @@ import java.util.Map;
 import javax.inject.Inject;
 import managers.RestartWorkoutManager;
 import models.Workout;
-import modules.Injector;
 import responses.UserWithWorkout;
 
 public class RestartWorkoutController implements ApiRequestController {
@@ -23,6 +22,10 @@ public class RestartWorkoutController implements ApiRequestController {
     @Inject
     public RestartWorkoutManager restartWorkoutManager;
 
+    @Inject
+    public RestartWorkoutController() {
+    }
+
     @Override
     public ResultStatus<String> processApiRequest(Map<String, Object> jsonBody, Metrics metrics)
         throws MissingApiRequestKeyException {
@@ -37,9 +40,8 @@ public class RestartWorkoutController implements ApiRequestController {
                 final Map<String, Object> workoutMap = (Map<String, Object>) jsonBody.get(RequestFields.WORKOUT);
                 final Workout workout = new Workout(workoutMap);
 
-                Injector.getInjector(metrics).inject(this);
                 final UserWithWorkout result = this.restartWorkoutManager.restartWorkout(activeUser, workout);
-                resultStatus = ResultStatus.successful(JsonUtils.serializeMap(result.asResponse()));
+                resultStatus = ResultStatus.successful(JsonUtils.serializeModel(result));
             } catch (UserNotFoundException | UnauthorizedException e) {
                 metrics.logWithBody(new ErrorMessage<>(classMethod, e));
                 resultStatus = ResultStatus.failureBadRequest(e.getMessage());
@@ -11,13 +11,16 @@ import java.util.List;
 import java.util.Map;
 import javax.inject.Inject;
 import managers.SendFeedbackManager;
-import modules.Injector;
 
 public class SendFeedbackController implements ApiRequestController {
 
     @Inject
     public SendFeedbackManager sendFeedbackManager;
 
+    @Inject
+    public SendFeedbackController() {
+    }
+
     @Override
     public ResultStatus<String> processApiRequest(Map<String, Object> json, Metrics metrics)
         throws MissingApiRequestKeyException {
@@ -33,7 +36,6 @@ public class SendFeedbackController implements ApiRequestController {
                 final String feedbackTime = (String) json.get(RequestFields.FEEDBACK_TIME);
                 final String feedback = (String) json.get(RequestFields.FEEDBACK);
 
-                Injector.getInjector(metrics).inject(this);
                 this.sendFeedbackManager.sendFeedback(activeUser, feedbackTime, feedback);
                 resultStatus = ResultStatus.successful("Feedback successfully sent.");
             } catch (Exception e) {
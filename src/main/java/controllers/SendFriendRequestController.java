@@ -15,7 +15,6 @@ import java.util.Map;
 import javax.inject.Inject;
 import managers.SendFriendRequestManager;
 import models.User;
-import modules.Injector;
 import responses.FriendResponse;
 
 public class SendFriendRequestController implements ApiRequestController {
@@ -23,6 +22,10 @@ public class SendFriendRequestController implements ApiRequestController {
     @Inject
     public SendFriendRequestManager sendFriendRequestManager;
 
+    @Inject
+    public SendFriendRequestController() {
+    }
+
     @Override
     public ResultStatus<String> processApiRequest(Map<String, Object> json, Metrics metrics)
         throws MissingApiRequestKeyException {
@@ -36,9 +39,8 @@ public class SendFriendRequestController implements ApiRequestController {
                 final String activeUser = (String) json.get(RequestFields.ACTIVE_USER);
                 final String userToAdd = (String) json.get(User.USERNAME);
 
-                Injector.getInjector(metrics).inject(this);
                 final FriendResponse friendResponse = this.sendFriendRequestManager.sendRequest(activeUser, userToAdd);
-                resultStatus = ResultStatus.successful(JsonUtils.serializeMap(friendResponse.asResponse()));
+                resultStatus = ResultStatus.successful(JsonUtils.serializeModel(friendResponse));
             } catch (ManagerExecutionException meu) {
                 metrics.log("Input error: " + meu.getMessage());
                 resultStatus = ResultStatus.failureBadRequest(meu.getMessage());
@@ -20,13 +20,16 @@ import managers.SendWorkoutManager;
 import models.SharedWorkout;
 import models.User;
 import models.Workout;
-import modules.Injector;
 
 public class SendWorkoutController implements ApiRequestController {
 
     @Inject
     public SendWorkoutManager sendWorkoutManager;
 
+    @Inject
+    public SendWorkoutController() {
+    }
+
     @Override
     public ResultStatus<String> processApiRequest(Map<String, Object> json, Metrics metrics)
         throws MissingApiRequestKeyException {
@@ -42,7 +45,6 @@ public class SendWorkoutController implements ApiRequestController {
                 final String recipientUsername = (String) json.get(User.USERNAME);
                 final String workoutId = (String) json.get(Workout.WORKOUT_ID);
 
-                Injector.getInjector(metrics).inject(this);
                 final String sharedWorkoutId = this.sendWorkoutManager.sendWorkout(activeUser, recipientUsername,
                     workoutId);
                 resultStatus = ResultStatus.successful(JsonUtils.serializeMap(Maps.newHashMap(
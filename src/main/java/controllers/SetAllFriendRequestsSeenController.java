@@ -12,13 +12,16 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import javax.inject.Inject;
-import modules.Injector;
 
 public class SetAllFriendRequestsSeenController implements ApiRequestController {
 
     @Inject
     public SetAllFriendRequestsSeenManager setAllFriendRequestsSeenManager;
 
+    @Inject
+    public SetAllFriendRequestsSeenController() {
+    }
+
     @Override
     public ResultStatus<String> processApiRequest(Map<String, Object> json, Metrics metrics)
         throws MissingApiRequestKeyException {
@@ -31,7 +34,6 @@ public class SetAllFriendRequestsSeenController implements ApiRequestController
             try {
                 final String activeUser = (String) json.get(RequestFields.ACTIVE_USER);
 
-                Injector.getInjector(metrics).inject(this);
                 this.setAllFriendRequestsSeenManager.setAllFriendRequestsSeen(activeUser);
                 resultStatus = ResultStatus.successful("All requests set to seen successfully.");
             } catch (UserNotFoundException unfe) {
@@ -12,13 +12,16 @@ import java.util.List;
 import java.util.Map;
 import javax.inject.Inject;
 import managers.SetAllReceivedWorkoutsSeenManager;
-import modules.Injector;
 
 public class SetAllReceivedWorkoutsSeenController implements ApiRequestController {
 
     @Inject
     public SetAllReceivedWorkoutsSeenManager setAllReceivedWorkoutsSeenManager;
 
+    @Inject
+    public SetAllReceivedWorkoutsSeenController() {
+    }
+
     @Override
     public ResultStatus<String> processApiRequest(Map<String, Object> json, Metrics metrics)
         throws MissingApiRequestKeyException {
@@ -31,7 +34,6 @@ public class SetAllReceivedWorkoutsSeenController implements ApiRequestControlle
             try {
                 final String activeUser = (String) json.get(RequestFields.ACTIVE_USER);
 
-                Injector.getInjector(metrics).inject(this);
                 this.setAllReceivedWorkoutsSeenManager.setAllReceivedWorkoutsSeen(activeUser);
                 resultStatus = ResultStatus.successful("All workouts set to seen successfully.");
             } catch (UserNotFoundException unfe) {
@@ -13,13 +13,16 @@ import java.util.Map;
 import javax.inject.Inject;
 import managers.SetReceivedWorkoutSeenManager;
 import models.SharedWorkout;
-import modules.Injector;
 
 public class SetReceivedWorkoutSeenController implements ApiRequestController {
 
     @Inject
     public SetReceivedWorkoutSeenManager setReceivedWorkoutSeenManager;
 
+    @Inject
+    public SetReceivedWorkoutSeenController() {
+    }
+
     @Override
     public ResultStatus<String> processApiRequest(Map<String, Object> json, Metrics metrics)
         throws MissingApiRequestKeyException {
@@ -33,8 +36,6 @@ public class SetReceivedWorkoutSeenController implements ApiRequestController {
                 final String activeUser = (String) json.get(RequestFields.ACTIVE_USER);
                 final String workoutId = (String) json.get(SharedWorkout.SHARED_WORKOUT_ID);
 
-                Injector.getInjector(metrics).inject(this);
-
                 this.setReceivedWorkoutSeenManager.setReceivedWorkoutSeen(activeUser, workoutId);
                 resultStatus = ResultStatus.successful("Workout set to seen successfully.");
             } catch (UserNotFoundException unfe) {
@@ -0,0 +1,71 @@
+package controllers;
+
+import exceptions.ManagerExecutionException;
+import exceptions.MissingApiRequestKeyException;
+import exceptions.UnauthorizedException;
+import exceptions.UserNotFoundException;
+import exceptions.WorkoutNotFoundException;
+import utils.ErrorMessage;
+import utils.JsonUtils;
+import utils.Metrics;
+import imports.RequestFields;
+import imports.ResultStatus;
+import interfaces.ApiRequestController;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import javax.inject.Inject;
+import managers.SwitchWorkoutManager;
+import models.Workout;
+import models.WorkoutProgressDelta;
+import responses.UserWithWorkout;
+
+/**
+ * Switches workouts given only their ids. The progress made on the old workout since it was last synced can be sent
+ * along in the same fields as for syncWorkoutDelta.
+ */
+public class SwitchWorkoutByIdController implements ApiRequestController {
+
+    @Inject
+    public SwitchWorkoutManager switchWorkoutManager;
+
+    @Inject
+    public SwitchWorkoutByIdController() {
+    }
+
+    @Override
+    public ResultStatus<String> processApiRequest(Map<String, Object> jsonBody, Metrics metrics)
+        throws MissingApiRequestKeyException {
+        final String classMethod = this.getClass().getSimpleName() + ".processApiRequest";
+
+        ResultStatus<String> resultStatus;
+        final List<String> requiredKeys = Arrays.asList(RequestFields.ACTIVE_USER, Workout.WORKOUT_ID,
+            RequestFields.OLD_WORKOUT_ID);
+
+        if (jsonBody.keySet().containsAll(requiredKeys)) {
+            try {
+                final String activeUser = (String) jsonBody.get(RequestFields.ACTIVE_USER);
+                final String newWorkoutId = (String) jsonBody.get(Workout.WORKOUT_ID);
+                final String oldWorkoutId = (String) jsonBody.get(RequestFields.OLD_WORKOUT_ID);
+                final WorkoutProgressDelta oldWorkoutProgress = WorkoutProgressDelta.fromRequest(jsonBody);
+
+                final UserWithWorkout result = this.switchWorkoutManager.switchWorkoutById(activeUser, newWorkoutId,
+                    oldWorkoutId, oldWorkoutProgress);
+                resultStatus = ResultStatus.successful(JsonUtils.serializeModel(result));
+            } catch (ManagerExecutionException meu) {
+                metrics.log("Input error: " + meu.getMessage());
+                resultStatus = ResultStatus.failureBadRequest(meu.getMessage());
+            } catch (WorkoutNotFoundException | UnauthorizedException | UserNotFoundException exception) {
+                metrics.logWithBody(new ErrorMessage<>(classMethod, exception));
+                resultStatus = ResultStatus.failureBadRequest(exception.getMessage());
+            } catch (Exception e) {
+                metrics.logWithBody(new ErrorMessage<>(classMethod, e));
+                resultStatus = ResultStatus.failureBadRequest("Exception in " + classMethod);
+            }
+        } else {
+            throw new MissingApiRequestKeyException(requiredKeys);
+        }
+
+        return resultStatus;
+    }
+}
@@ -16,7 +16,6 @@ import java.util.Map;
 import javax.inject.Inject;
 import managers.SwitchWorkoutManager;
 import models.Workout;
-import modules.Injector;
 import responses.UserWithWorkout;
 
 public class SwitchWorkoutController implements ApiRequestController {
@@ -24,6 +23,10 @@ public class SwitchWorkoutController implements ApiRequestController {
     @Inject
     public SwitchWorkoutManager switchWorkoutManager;
 
+    @Inject
+    public SwitchWorkoutController() {
+    }
+
     @Override
     public ResultStatus<String> processApiRequest(Map<String, Object> jsonBody, Metrics metrics)
         throws MissingApiRequestKeyException {
@@ -40,10 +43,9 @@ public class SwitchWorkoutController implements ApiRequestController {
                 final Map<String, Object> oldWorkoutMap = (Map<String, Object>) jsonBody.get(RequestFields.WORKOUT);
                 final Workout oldWorkout = new Workout(oldWorkoutMap);
 
-                Injector.getInjector(metrics).inject(this);
                 final UserWithWorkout result = this.switchWorkoutManager.switchWorkout(activeUser, newWorkoutId,
                     oldWorkout);
-                resultStatus = ResultStatus.successful(JsonUtils.serializeMap(result.asResponse()));
+                resultStatus = ResultStatus.successful(JsonUtils.serializeModel(result));
             } catch (WorkoutNotFoundException | UnauthorizedException | UserNotFoundException exception) {
                 metrics.logWithBody(new ErrorMessage<>(classMethod, exception));
                 resultStatus = ResultStatus.failureBadRequest(exception.getMessage());
@@ -13,13 +13,16 @@ import java.util.Map;
 import javax.inject.Inject;
 import managers.SyncWorkoutManager;
 import models.Workout;
-import modules.Injector;
 
 public class SyncWorkoutController implements ApiRequestController {
 
     @Inject
     public SyncWorkoutManager syncWorkoutManager;
 
+    @Inject
+    public SyncWorkoutController() {
+    }
+
     @Override
     public ResultStatus<String> processApiRequest(Map<String, Object> jsonBody, Metrics metrics)
         throws MissingApiRequestKeyException {
@@ -34,7 +37,6 @@ public class SyncWorkoutController implements ApiRequestController {
                 final String activeUser = (String) jsonBody.get(RequestFields.ACTIVE_USER);
                 final Workout workout = new Workout(workoutMap);
 
-                Injector.getInjector(metrics).inject(this);
                 this.syncWorkoutManager.syncWorkout(activeUser, workout);
                 resultStatus = ResultStatus.successful("Workout synced successfully.");
             } catch (UnauthorizedException exception) {
@@ -0,0 +1,64 @@
+package controllers;
+
+import exceptions.ManagerExecutionException;
+import exceptions.MissingApiRequestKeyException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import utils.ErrorMessage;
+import utils.Metrics;
+import utils.Parser;
+import imports.RequestFields;
+import imports.ResultStatus;
+import interfaces.ApiRequestController;
+import java.util.List;
+import java.util.Map;
+import javax.inject.Inject;
+import managers.SyncWorkoutManager;
+import models.RoutineExercisePatch;
+import models.Workout;
+
+public class SyncWorkoutDeltaController implements ApiRequestController {
+
+    @Inject
+    public SyncWorkoutManager syncWorkoutManager;
+
+    @Inject
+    public SyncWorkoutDeltaController() {
+    }
+
+    @Override
+    public ResultStatus<String> processApiRequest(Map<String, Object> jsonBody, Metrics metrics)
+        throws MissingApiRequestKeyException {
+        final String classMethod = this.getClass().getSimpleName() + ".processApiRequest";
+
+        ResultStatus<String> resultStatus;
+        final List<String> requiredKeys = Arrays.asList(RequestFields.ACTIVE_USER, Workout.WORKOUT_ID,
+            Workout.CURRENT_WEEK, Workout.CURRENT_DAY, RequestFields.PATCHES);
+
+        if (jsonBody.keySet().containsAll(requiredKeys)) {
+            try {
+                final String activeUser = (String) jsonBody.get(RequestFields.ACTIVE_USER);
+                final String workoutId = (String) jsonBody.get(Workout.WORKOUT_ID);
+                final int currentWeek = Parser.convertObjectToInteger(jsonBody.get(Workout.CURRENT_WEEK));
+                final int currentDay = Parser.convertObjectToInteger(jsonBody.get(Workout.CURRENT_DAY));
+                final List<RoutineExercisePatch> patches = new ArrayList<>();
+                for (Object patch : (List<Object>) jsonBody.get(RequestFields.PATCHES)) {
+                    patches.add(new RoutineExercisePatch((Map<String, Object>) patch));
+                }
+
+                this.syncWorkoutManager.syncWorkoutDelta(activeUser, workoutId, currentWeek, currentDay, patches);
+                resultStatus = ResultStatus.successful("Workout synced successfully.");
+            } catch (ManagerExecutionException meu) {
+                metrics.log("Input error: " + meu.getMessage());
+                resultStatus = ResultStatus.failureBadRequest(meu.getMessage());
+            } catch (Exception e) {
+                metrics.logWithBody(new ErrorMessage<>(classMethod, e));
+                resultStatus = ResultStatus.failureBadRequest("Exception in " + classMethod);
+            }
+        } else {
+            throw new MissingApiRequestKeyException(requiredKeys);
+        }
+
+        return resultStatus;
+    }
+}
@@ -14,13 +14,16 @@ import java.util.Map;
 import javax.inject.Inject;
 import managers.UnblockUserManager;
 import models.User;
-import modules.Injector;
 
 public class UnblockUserController implements ApiRequestController {
 
     @Inject
     public UnblockUserManager unblockUserManager;
 
+    @Inject
+    public UnblockUserController() {
+    }
+
     @Override
     public ResultStatus<String> processApiRequest(Map<String, Object> json, Metrics metrics)
         throws MissingApiRequestKeyException {
@@ -34,7 +37,6 @@ public class UnblockUserController implements ApiRequestController {
                 final String activeUser = (String) json.get(RequestFields.ACTIVE_USER);
                 final String userToUnblock = (String) json.get(User.USERNAME);
 
-                Injector.getInjector(metrics).inject(this);
                 this.unblockUserManager.unblockUser(activeUser, userToUnblock);
                 resultStatus = ResultStatus.successful("User successfully unblocked.");
             } catch (ManagerExecutionException meu) {
@@ -16,13 +16,16 @@ import javax.inject.Inject;
 import managers.UpdateExerciseManager;
 import models.OwnedExercise;
 import models.User;
-import modules.Injector;
 
 public class UpdateExerciseController implements ApiRequestController {
 
     @Inject
     public UpdateExerciseManager updateExerciseManager;
 
+    @Inject
+    public UpdateExerciseController() {
+    }
+
     @Override
     public ResultStatus<String> processApiRequest(Map<String, Object> jsonBody, Metrics metrics)
         throws MissingApiRequestKeyException {
@@ -39,9 +42,8 @@ public class UpdateExerciseController implements ApiRequestController {
                 final Map<String, Object> exerciseUserMap = (Map<String, Object>) jsonBody.get(RequestFields.EXERCISE);
                 final OwnedExercise ownedExercise = new OwnedExercise(exerciseUserMap);
 
-                Injector.getInjector(metrics).inject(this);
                 final User result = this.updateExerciseManager.updateExercise(activeUser, exerciseId, ownedExercise);
-                resultStatus = ResultStatus.successful(JsonUtils.serializeMap(result.asResponse()));
+                resultStatus = ResultStatus.successful(JsonUtils.serializeModel(result));
             } catch (ManagerExecutionException meu) {
                 metrics.log("Input error: " + meu.getMessage());
                 resultStatus = ResultStatus.failureBadRequest(meu.getMessage());
@@ -14,13 +14,16 @@ import java.util.Map;
 import javax.inject.Inject;
 import managers.UpdateIconManager;
 import models.User;
-import modules.Injector;
 
 public class UpdateIconController implements ApiRequestController {
 
     @Inject
     public UpdateIconManager updateIconManager;
 
+    @Inject
+    public UpdateIconController() {
+    }
+
     @Override
     public ResultStatus<String> processApiRequest(Map<String, Object> jsonBody, Metrics metrics)
         throws MissingApiRequestKeyException {
@@ -35,7 +38,6 @@ public class UpdateIconController implements ApiRequestController {
                 final String imageData = (String) jsonBody.get(User.ICON);
                 byte[] imageBytes = JsonUtils.deserializeByteList(imageData);
 
-                Injector.getInjector(metrics).inject(this);
                 boolean success = this.updateIconManager.updateIcon(activeUser, imageBytes);
                 if (success) {
                     resultStatus = ResultStatus.successful("Picture updated successfully.");
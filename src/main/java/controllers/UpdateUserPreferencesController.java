@@ -13,13 +13,16 @@ import javax.inject.Inject;
 import managers.UpdateUserPreferencesManager;
 import models.User;
 import models.UserPreferences;
-import modules.Injector;
 
 public class UpdateUserPreferencesController implements ApiRequestController {
 
     @Inject
     public UpdateUserPreferencesManager updateUserPreferencesManager;
 
+    @Inject
+    public UpdateUserPreferencesController() {
+    }
+
     @Override
     public ResultStatus<String> processApiRequest(Map<String, Object> jsonBody,
         Metrics metrics) throws MissingApiRequestKeyException {
@@ -34,7 +37,6 @@ public class UpdateUserPreferencesController implements ApiRequestController {
                 final UserPreferences userPreferences = new UserPreferences(
                     (Map<String, Object>) jsonBody.get(User.USER_PREFERENCES));
 
-                Injector.getInjector(metrics).inject(this);
                 this.updateUserPreferencesManager.updateUserPreferences(activeUser, userPreferences);
                 resultStatus = ResultStatus.successful("User prefs updated successfully.");
             } catch (Exception e) {
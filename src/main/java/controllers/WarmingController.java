@@ -5,7 +5,6 @@ import interfaces.ApiRequestController;
 import java.util.Map;
 import javax.inject.Inject;
 import managers.WarmingManager;
-import modules.Injector;
 import utils.ErrorMessage;
 import utils.Metrics;
 import imports.ResultStatus;
@@ -15,6 +14,10 @@ public class WarmingController implements ApiRequestController {
     @Inject
     public WarmingManager warmingManager;
 
+    @Inject
+    public WarmingController() {
+    }
+
     public ResultStatus<String> processApiRequest(final Map<String, Object> jsonMap, final Metrics metrics)
         throws MissingApiRequestKeyException {
         final String classMethod = this.getClass().getSimpleName() + ".processApiRequest";
@@ -22,7 +25,6 @@ public class WarmingController implements ApiRequestController {
         ResultStatus<String> resultStatus;
 
         try {
-            Injector.getInjector(metrics).inject(this);
             this.warmingManager.warmEndpoints();
             resultStatus = ResultStatus.successful("Endpoints successfully warmed.");
         } catch (final Exception e) {
@@ -1,36 +1,141 @@
 package daos;
 
-import com.amazonaws.auth.EnvironmentVariableCredentialsProvider;
-import com.amazonaws.services.dynamodbv2.AmazonDynamoDBClient;
+import com.amazonaws.services.dynamodbv2.document.ItemUtils;
 import com.amazonaws.services.dynamodbv2.model.TransactGetItemsRequest;
 import com.amazonaws.services.dynamodbv2.model.TransactGetItemsResult;
 import com.amazonaws.services.dynamodbv2.model.TransactWriteItem;
-import com.amazonaws.services.dynamodbv2.model.TransactWriteItemsRequest;
 import com.amazonaws.services.dynamodbv2.model.TransactWriteItemsResult;
 import imports.Config;
+import interfaces.ItemStore;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.inject.Inject;
+import utils.Metrics;
+import utils.WritePlan;
 
 public class Database {
 
-    private final AmazonDynamoDBClient client;
+    public static final String FAILED_COMPENSATIONS = "FailedCompensations";
+
+    private final ItemStore itemStore;
+    private final ExecutorService asyncExecutor;
 
     @Inject
-    public Database() {
-        this.client = (AmazonDynamoDBClient) AmazonDynamoDBClient.builder()
-            .withRegion(Config.REGION)
-            .withCredentials(new EnvironmentVariableCredentialsProvider())
-            .build();
+    public Database(final ItemStore itemStore) {
+        this.itemStore = itemStore;
+        this.asyncExecutor = newAsyncExecutor(Config.DYNAMO_ASYNC_THREADS);
+    }
+
+    public ItemStore getItemStore() {
+        return this.itemStore;
     }
 
     public TransactWriteItemsResult executeWriteTransaction(final List<TransactWriteItem> actions) {
-        final TransactWriteItemsRequest transactWriteItemsRequest = new TransactWriteItemsRequest()
-            .withTransactItems(actions);
-        return this.client.transactWriteItems(transactWriteItemsRequest);
+        return this.itemStore.executeWriteTransaction(actions);
+    }
+
+    /**
+     * Writes a plan one transaction at a time, in order. If a transaction fails, the ones before it are undone as far
+     * as their compensations go, from the latest to the first, and then the failure is thrown. A compensation that
+     * fails as well (e.g. because the item was changed since) leaves its items as the plan wrote them, so each of
+     * them is logged with its key and counted in {@link #FAILED_COMPENSATIONS}. It is also added to the failure as a
+     * suppressed exception.
+     *
+     * @param writePlan the writes.
+     * @param metrics   metrics of the action the plan is written for.
+     * @return the result of every transaction.
+     */
+    public List<TransactWriteItemsResult> executeWritePlan(final WritePlan writePlan, final Metrics metrics)
+        throws Exception {
+        final List<WritePlan.Transaction> transactions = writePlan.getTransactions();
+        final List<TransactWriteItemsResult> results = new ArrayList<>();
+        for (int i = 0; i < transactions.size(); i++) {
+            final WritePlan.Transaction transaction = transactions.get(i);
+            try {
+                results.add(this.itemStore.executeWriteTransaction(transaction.getActions(),
+                    transaction.getClientRequestToken()));
+            } catch (RuntimeException e) {
+                this.compensate(transactions.subList(0, i), e, metrics);
+                throw e;
+            }
+        }
+        return results;
+    }
+
+    private void compensate(final List<WritePlan.Transaction> writtenTransactions, final RuntimeException failure,
+        final Metrics metrics) {
+        int failedCompensations = 0;
+        for (int i = writtenTransactions.size() - 1; i >= 0; i--) {
+            final WritePlan.Transaction transaction = writtenTransactions.get(i);
+            if (transaction.getCompensations().isEmpty()) {
+                continue;
+            }
+            try {
+                this.itemStore.executeWriteTransaction(transaction.getCompensations(),
+                    transaction.getCompensationClientRequestToken());
+            } catch (RuntimeException e) {
+                for (TransactWriteItem compensation : transaction.getCompensations()) {
+                    metrics.log(String.format("Unable to undo write plan transaction %d on item %s: %s", i,
+                        describeItem(compensation), e.getMessage()));
+                }
+                failedCompensations += transaction.getCompensations().size();
+                failure.addSuppressed(e);
+            }
+        }
+        metrics.addIntegerMetric(FAILED_COMPENSATIONS, failedCompensations);
+    }
+
+    // table and key of the item an action is on, e.g. to log it
+    private static String describeItem(final TransactWriteItem action) {
+        if (action.getUpdate() != null) {
+            return action.getUpdate().getTableName() + " " + ItemUtils.toSimpleMapValue(action.getUpdate().getKey());
+        } else if (action.getDelete() != null) {
+            return action.getDelete().getTableName() + " " + ItemUtils.toSimpleMapValue(action.getDelete().getKey());
+        } else if (action.getConditionCheck() != null) {
+            return action.getConditionCheck().getTableName() + " "
+                + ItemUtils.toSimpleMapValue(action.getConditionCheck().getKey());
+        }
+        return action.getPut().getTableName() + " " + ItemUtils.toSimpleMapValue(action.getPut().getItem());
     }
 
     public TransactGetItemsResult executeGetTransaction(final TransactGetItemsRequest transactGetItemsRequest) {
-        return this.client.transactGetItems(transactGetItemsRequest);
+        return this.itemStore.executeGetTransaction(transactGetItemsRequest);
+    }
+
+    /**
+     * Starts a request on one of the async threads, so that requests that don't depend on each other can be waited on
+     * together and take as long as the slowest of them rather than their sum. As there are only so many threads, at
+     * most that many requests run at once and any others wait for a free thread. Wait on it with
+     * {@link utils.ConcurrencyUtils#await}.
+     *
+     * @param request blocking request to the item store.
+     * @return the result of the request, or whatever it threw.
+     */
+    public <T> CompletableFuture<T> async(final Callable<T> request) {
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        this.asyncExecutor.execute(() -> {
+            try {
+                result.complete(request.call());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    private static ExecutorService newAsyncExecutor(final int threads) {
+        final AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            // daemon threads, so an idle pool never keeps the container from shutting down
+            final Thread thread = new Thread(runnable, "dynamo-async-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
     public static String getKeyIndex(final String tableName) throws Exception {
@@ -41,8 +146,43 @@ public class Database {
                 return UserDAO.USERS_PRIMARY_KEY;
             case SharedWorkoutDAO.SHARED_WORKOUTS_TABLE_NAME:
                 return SharedWorkoutDAO.SHARED_WORKOUTS_TABLE_PRIMARY_KEY;
+            case ReceivedWorkoutDAO.RECEIVED_WORKOUTS_TABLE_NAME:
+                return ReceivedWorkoutDAO.RECEIVED_WORKOUTS_PARTITION_KEY;
+            case NotificationOutboxDAO.NOTIFICATION_OUTBOX_TABLE_NAME:
+                return NotificationOutboxDAO.NOTIFICATION_OUTBOX_PRIMARY_KEY;
+            default:
+                throw new Exception("Invalid table name: " + tableName);
+        }
+    }
+
+    /**
+     * @param tableName name of the table.
+     * @return name of the sort key of the table, or null if the table only has a partition key.
+     */
+    public static String getSortKeyIndex(final String tableName) throws Exception {
+        switch (tableName) {
+            case WorkoutDAO.WORKOUT_TABLE_NAME:
+            case UserDAO.USERS_TABLE_NAME:
+            case SharedWorkoutDAO.SHARED_WORKOUTS_TABLE_NAME:
+            case NotificationOutboxDAO.NOTIFICATION_OUTBOX_TABLE_NAME:
+                return null;
+            case ReceivedWorkoutDAO.RECEIVED_WORKOUTS_TABLE_NAME:
+                return ReceivedWorkoutDAO.RECEIVED_WORKOUTS_SORT_KEY;
             default:
                 throw new Exception("Invalid table name: " + tableName);
         }
     }
+
+    /**
+     * @param tableName name of the table the index belongs to.
+     * @param indexName name of a local secondary index of the table.
+     * @return name of the sort key of the index.
+     */
+    public static String getIndexSortKey(final String tableName, final String indexName) throws Exception {
+        if (tableName.equals(ReceivedWorkoutDAO.RECEIVED_WORKOUTS_TABLE_NAME)
+            && indexName.equals(ReceivedWorkoutDAO.SENT_AT_INDEX)) {
+            return ReceivedWorkoutDAO.SENT_AT_INDEX_SORT_KEY;
+        }
+        throw new Exception("Invalid index name: " + indexName);
+    }
 }
@@ -0,0 +1,96 @@
+package daos;
+
+import com.amazonaws.ClientConfiguration;
+import com.amazonaws.Request;
+import com.amazonaws.Response;
+import com.amazonaws.auth.EnvironmentVariableCredentialsProvider;
+import com.amazonaws.metrics.RequestMetricCollector;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDBClientBuilder;
+import com.amazonaws.util.AWSRequestMetrics;
+import com.amazonaws.util.AWSRequestMetrics.Field;
+import imports.Config;
+import java.util.concurrent.atomic.AtomicInteger;
+import utils.Metrics;
+
+/**
+ * Holds the single DynamoDB client used by every DAO for the lifetime of a warm container. Building a client means
+ * building an HTTP client stack with its own connection pool, so doing it once lets every invocation after the first
+ * reuse already established (TLS) connections.
+ */
+public class DynamoDbClientProvider {
+
+    public static final String DYNAMO_REQUESTS = "DynamoRequests";
+    public static final String DYNAMO_WARM_CONNECTIONS = "DynamoWarmConnections";
+    public static final String DYNAMO_COLD_CLIENT = "DynamoColdClient";
+
+    private static final ConnectionReuseCollector connectionReuseCollector = new ConnectionReuseCollector();
+    private static volatile AmazonDynamoDB client;
+    private static volatile boolean clientCreatedThisInvocation;
+
+    public static AmazonDynamoDB getClient() {
+        if (client == null) {
+            synchronized (DynamoDbClientProvider.class) {
+                if (client == null) {
+                    client = buildClient();
+                    clientCreatedThisInvocation = true;
+                }
+            }
+        }
+        return client;
+    }
+
+    /**
+     * Records whether the current invocation had to build the client and how many of its DynamoDB requests found an
+     * idle pooled connection waiting for them. Counters are reset afterwards so each invocation only reports its own
+     * requests.
+     *
+     * @param metrics metrics of the invocation that is finishing.
+     */
+    public static void recordConnectionMetrics(final Metrics metrics) {
+        metrics.addIntegerMetric(DYNAMO_COLD_CLIENT, clientCreatedThisInvocation ? 1 : 0);
+        metrics.addIntegerMetric(DYNAMO_REQUESTS, connectionReuseCollector.requests.getAndSet(0));
+        metrics.addIntegerMetric(DYNAMO_WARM_CONNECTIONS, connectionReuseCollector.warmConnections.getAndSet(0));
+        clientCreatedThisInvocation = false;
+    }
+
+    private static AmazonDynamoDB buildClient() {
+        final ClientConfiguration clientConfiguration = new ClientConfiguration()
+            .withMaxConnections(Config.DYNAMO_MAX_CONNECTIONS)
+            .withTcpKeepAlive(Config.DYNAMO_TCP_KEEP_ALIVE)
+            .withConnectionMaxIdleMillis(Config.DYNAMO_CONNECTION_MAX_IDLE_MILLIS)
+            .withConnectionTimeout(Config.DYNAMO_CONNECTION_TIMEOUT_MILLIS)
+            .withRequestTimeout(Config.DYNAMO_REQUEST_TIMEOUT_MILLIS)
+            .withSocketTimeout(Config.DYNAMO_SOCKET_TIMEOUT_MILLIS)
+            .withClientExecutionTimeout(Config.DYNAMO_CLIENT_EXECUTION_TIMEOUT_MILLIS);
+
+        return AmazonDynamoDBClientBuilder.standard()
+            .withRegion(Config.REGION)
+            .withCredentials(new EnvironmentVariableCredentialsProvider())
+            .withClientConfiguration(clientConfiguration)
+            .withMetricsCollector(connectionReuseCollector)
+            .build();
+    }
+
+    private static class ConnectionReuseCollector extends RequestMetricCollector {
+
+        private final AtomicInteger requests = new AtomicInteger();
+        private final AtomicInteger warmConnections = new AtomicInteger();
+
+        @Override
+        public void collectMetrics(final Request<?> request, final Response<?> response) {
+            this.requests.incrementAndGet();
+
+            final AWSRequestMetrics requestMetrics = request.getAWSRequestMetrics();
+            if (requestMetrics == null) {
+                return;
+            }
+            // sampled right before the connection is leased, so an available connection means one was reused
+            final Number available = requestMetrics.getTimingInfo()
+                .getCounter(Field.HttpClientPoolAvailableCount.name());
+            if (available != null && available.intValue() > 0) {
+                this.warmConnections.incrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package daos;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.document.DynamoDB;
+import com.amazonaws.services.dynamodbv2.document.Item;
+import com.amazonaws.services.dynamodbv2.document.PrimaryKey;
+import com.amazonaws.services.dynamodbv2.document.PutItemOutcome;
+import com.amazonaws.services.dynamodbv2.document.Table;
+import com.amazonaws.services.dynamodbv2.document.UpdateItemOutcome;
+import com.amazonaws.services.dynamodbv2.document.spec.UpdateItemSpec;
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemResult;
+import com.amazonaws.services.dynamodbv2.model.QueryRequest;
+import com.amazonaws.services.dynamodbv2.model.QueryResult;
+import com.amazonaws.services.dynamodbv2.model.TableDescription;
+import com.amazonaws.services.dynamodbv2.model.TransactGetItemsRequest;
+import com.amazonaws.services.dynamodbv2.model.TransactGetItemsResult;
+import com.amazonaws.services.dynamodbv2.model.TransactWriteItem;
+import com.amazonaws.services.dynamodbv2.model.TransactWriteItemsRequest;
+import com.amazonaws.services.dynamodbv2.model.TransactWriteItemsResult;
+import interfaces.ItemStore;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class DynamoDbItemStore implements ItemStore {
+
+    private final AmazonDynamoDB client;
+    private final DynamoDB dynamoDb;
+    private final Map<String, Table> tables;
+
+    public DynamoDbItemStore(final AmazonDynamoDB client) {
+        this.client = client;
+        this.dynamoDb = new DynamoDB(client);
+        this.tables = new ConcurrentHashMap<>();
+    }
+
+    private Table getTable(final String tableName) {
+        return this.tables.computeIfAbsent(tableName, this.dynamoDb::getTable);
+    }
+
+    @Override
+    public Item getItem(final String tableName, final PrimaryKey primaryKey) {
+        return this.getTable(tableName).getItem(primaryKey);
+    }
+
+    @Override
+    public Item getItem(final String tableName, final PrimaryKey primaryKey, final String projectionExpression,
+        final Map<String, String> nameMap) {
+        return this.getTable(tableName).getItem(primaryKey, projectionExpression, nameMap);
+    }
+
+    @Override
+    public PutItemOutcome putItem(final String tableName, final Item item) {
+        return this.getTable(tableName).putItem(item);
+    }
+
+    @Override
+    public UpdateItemOutcome updateItem(final String tableName, final UpdateItemSpec updateItemSpec) {
+        return this.getTable(tableName).updateItem(updateItemSpec);
+    }
+
+    @Override
+    public QueryResult query(final QueryRequest queryRequest) {
+        return this.client.query(queryRequest);
+    }
+
+    @Override
+    public BatchGetItemResult batchGetItem(final BatchGetItemRequest batchGetItemRequest) {
+        return this.client.batchGetItem(batchGetItemRequest);
+    }
+
+    @Override
+    public TransactWriteItemsResult executeWriteTransaction(final List<TransactWriteItem> actions) {
+        final TransactWriteItemsRequest transactWriteItemsRequest = new TransactWriteItemsRequest()
+            .withTransactItems(actions);
+        return this.client.transactWriteItems(transactWriteItemsRequest);
+    }
+
+    @Override
+    public TransactWriteItemsResult executeWriteTransaction(final List<TransactWriteItem> actions,
+        final String clientRequestToken) {
+        final TransactWriteItemsRequest transactWriteItemsRequest = new TransactWriteItemsRequest()
+            .withTransactItems(actions)
+            .withClientRequestToken(clientRequestToken);
+        return this.client.transactWriteItems(transactWriteItemsRequest);
+    }
+
+    @Override
+    public TransactGetItemsResult executeGetTransaction(final TransactGetItemsRequest transactGetItemsRequest) {
+        return this.client.transactGetItems(transactGetItemsRequest);
+    }
+
+    @Override
+    public TableDescription describeTable(final String tableName) {
+        return this.getTable(tableName).describe();
+    }
+}
@@ -0,0 +1,554 @@
+package daos;
+
+import com.amazonaws.services.dynamodbv2.document.Item;
+import com.amazonaws.services.dynamodbv2.document.ItemUtils;
+import com.amazonaws.services.dynamodbv2.document.KeyAttribute;
+import com.amazonaws.services.dynamodbv2.document.PrimaryKey;
+import com.amazonaws.services.dynamodbv2.document.PutItemOutcome;
+import com.amazonaws.services.dynamodbv2.document.UpdateItemOutcome;
+import com.amazonaws.services.dynamodbv2.document.spec.UpdateItemSpec;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemResult;
+import com.amazonaws.services.dynamodbv2.model.CancellationReason;
+import com.amazonaws.services.dynamodbv2.model.ConditionCheck;
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+import com.amazonaws.services.dynamodbv2.model.Delete;
+import com.amazonaws.services.dynamodbv2.model.Get;
+import com.amazonaws.services.dynamodbv2.model.IdempotentParameterMismatchException;
+import com.amazonaws.services.dynamodbv2.model.ItemResponse;
+import com.amazonaws.services.dynamodbv2.model.KeysAndAttributes;
+import com.amazonaws.services.dynamodbv2.model.Put;
+import com.amazonaws.services.dynamodbv2.model.PutItemResult;
+import com.amazonaws.services.dynamodbv2.model.QueryRequest;
+import com.amazonaws.services.dynamodbv2.model.QueryResult;
+import com.amazonaws.services.dynamodbv2.model.ReturnValue;
+import com.amazonaws.services.dynamodbv2.model.TableDescription;
+import com.amazonaws.services.dynamodbv2.model.TableStatus;
+import com.amazonaws.services.dynamodbv2.model.TransactGetItem;
+import com.amazonaws.services.dynamodbv2.model.TransactGetItemsRequest;
+import com.amazonaws.services.dynamodbv2.model.TransactGetItemsResult;
+import com.amazonaws.services.dynamodbv2.model.TransactWriteItem;
+import com.amazonaws.services.dynamodbv2.model.TransactWriteItemsResult;
+import com.amazonaws.services.dynamodbv2.model.TransactionCanceledException;
+import com.amazonaws.services.dynamodbv2.model.Update;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemResult;
+import interfaces.ItemStore;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Keeps every table in memory so the managers can be exercised without DynamoDB, e.g. for offline load tests. Not
+ * meant for production: nothing is persisted and the data only lives as long as the container does.
+ *
+ * Stored items are never mutated. Every write builds a new copy of the item and swaps it in while holding the store
+ * lock, so reads can go straight to the maps without locking and transactions are all-or-nothing.
+ */
+public class InMemoryItemStore implements ItemStore {
+
+    private static final int MAX_TRANSACTION_ITEMS = 25;
+    // DynamoDB remembers client request tokens for ten minutes, this only remembers the latest ones
+    private static final int MAX_CLIENT_REQUEST_TOKENS = 1000;
+    // separates the partition and sort key values of an item in its key string
+    private static final String KEY_SEPARATOR = "\u001f";
+
+    private final Map<String, Map<String, Map<String, Object>>> tables;
+    private final Object writeLock;
+    // actions of the latest transactions that had a client request token, guarded by the write lock
+    private final Map<String, List<TransactWriteItem>> clientRequestTokens;
+    private final Map<String, Consumer<Map<String, Object>>> insertListeners;
+
+    public InMemoryItemStore() {
+        this.tables = new ConcurrentHashMap<>();
+        this.writeLock = new Object();
+        this.insertListeners = new ConcurrentHashMap<>();
+        this.clientRequestTokens = new LinkedHashMap<String, List<TransactWriteItem>>() {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, List<TransactWriteItem>> eldest) {
+                return this.size() > MAX_CLIENT_REQUEST_TOKENS;
+            }
+        };
+    }
+
+    @Override
+    public Item getItem(final String tableName, final PrimaryKey primaryKey) {
+        final Map<String, Object> item = this.getTable(tableName).get(keyOf(tableName, primaryKey.getComponents()));
+        return item == null ? null : Item.fromMap(ItemExpressions.deepCopy(item));
+    }
+
+    @Override
+    public Item getItem(final String tableName, final PrimaryKey primaryKey, final String projectionExpression,
+        final Map<String, String> nameMap) {
+        final Map<String, Object> item = this.getTable(tableName).get(keyOf(tableName, primaryKey.getComponents()));
+        return item == null ? null : Item.fromMap(ItemExpressions.project(item, projectionExpression, nameMap));
+    }
+
+    @Override
+    public PutItemOutcome putItem(final String tableName, final Item item) {
+        final Map<String, Object> newItem = toSimpleItem(item.asMap());
+        final String key = keyOf(tableName, newItem);
+        synchronized (this.writeLock) {
+            this.write(tableName, key, newItem);
+        }
+        return new PutItemOutcome(new PutItemResult());
+    }
+
+    @Override
+    public UpdateItemOutcome updateItem(final String tableName, final UpdateItemSpec updateItemSpec) {
+        if (updateItemSpec.getUpdateExpression() == null) {
+            throw ItemExpressions.validationException("Only update expressions are supported");
+        }
+
+        final Collection<KeyAttribute> keyComponents = updateItemSpec.getKeyComponents();
+        final String key = keyOf(tableName, keyComponents);
+        final Map<String, Object> values = toSimpleValues(updateItemSpec.getValueMap());
+
+        final Map<String, Object> oldItem;
+        final Map<String, Object> newItem;
+        synchronized (this.writeLock) {
+            oldItem = this.getTable(tableName).get(key);
+            if (updateItemSpec.getConditionExpression() != null && !ItemExpressions
+                .evaluateCondition(oldItem, updateItemSpec.getConditionExpression(), updateItemSpec.getNameMap(),
+                    values)) {
+                throw conditionalCheckFailed();
+            }
+            newItem = this.applyUpdate(tableName, oldItem, keyComponents, updateItemSpec.getUpdateExpression(),
+                updateItemSpec.getNameMap(), values);
+            this.write(tableName, key, newItem);
+        }
+
+        final UpdateItemResult updateItemResult = new UpdateItemResult();
+        final String returnValue = updateItemSpec.getReturnValues();
+        if (ReturnValue.ALL_NEW.toString().equals(returnValue)) {
+            updateItemResult.withAttributes(ItemUtils.fromSimpleMap(newItem));
+        } else if (ReturnValue.ALL_OLD.toString().equals(returnValue) && oldItem != null) {
+            updateItemResult.withAttributes(ItemUtils.fromSimpleMap(oldItem));
+        } else if (returnValue != null && !ReturnValue.NONE.toString().equals(returnValue)) {
+            throw ItemExpressions.validationException("Unsupported return values: " + returnValue);
+        }
+        return new UpdateItemOutcome(updateItemResult);
+    }
+
+    @Override
+    public QueryResult query(final QueryRequest queryRequest) {
+        final String tableName = queryRequest.getTableName();
+        final Map<String, String> names = queryRequest.getExpressionAttributeNames();
+        final Map<String, Object> values = toSimpleAttributeValues(queryRequest.getExpressionAttributeValues());
+        final List<String> sortKeys = getQuerySortKeys(tableName, queryRequest.getIndexName());
+
+        // the key condition selects the partition, items missing the sort key of an index are not in the index
+        final List<Map<String, Object>> matches = new ArrayList<>();
+        for (Map<String, Object> item : this.getTable(tableName).values()) {
+            if (item.keySet().containsAll(sortKeys) && ItemExpressions
+                .evaluateCondition(item, queryRequest.getKeyConditionExpression(), names, values)) {
+                matches.add(item);
+            }
+        }
+        Comparator<Map<String, Object>> order = (a, b) -> compareSortKeys(a, b, sortKeys);
+        if (Boolean.FALSE.equals(queryRequest.isScanIndexForward())) {
+            order = order.reversed();
+        }
+        matches.sort(order);
+
+        int start = 0;
+        if (queryRequest.getExclusiveStartKey() != null) {
+            final Map<String, Object> startKey = ItemUtils.toSimpleMapValue(queryRequest.getExclusiveStartKey());
+            while (start < matches.size() && order.compare(matches.get(start), startKey) <= 0) {
+                start++;
+            }
+        }
+        final int limit = queryRequest.getLimit() == null ? Integer.MAX_VALUE : queryRequest.getLimit();
+        final int end = (int) Math.min(matches.size(), (long) start + limit);
+
+        // like dynamo, the filter is applied after the limit so a page can come back with fewer items
+        final List<Map<String, AttributeValue>> items = new ArrayList<>();
+        for (Map<String, Object> item : matches.subList(start, end)) {
+            if (queryRequest.getFilterExpression() == null || ItemExpressions
+                .evaluateCondition(item, queryRequest.getFilterExpression(), names, values)) {
+                final Map<String, Object> result = queryRequest.getProjectionExpression() == null
+                    ? item
+                    : ItemExpressions.project(item, queryRequest.getProjectionExpression(), names);
+                items.add(ItemUtils.fromSimpleMap(result));
+            }
+        }
+
+        final QueryResult queryResult = new QueryResult()
+            .withItems(items)
+            .withCount(items.size())
+            .withScannedCount(end - start);
+        if (end < matches.size()) {
+            final Map<String, Object> lastEvaluated = matches.get(end - 1);
+            final Map<String, Object> lastEvaluatedKey = new HashMap<>();
+            lastEvaluatedKey.put(getKeyName(tableName), lastEvaluated.get(getKeyName(tableName)));
+            for (String sortKey : sortKeys) {
+                lastEvaluatedKey.put(sortKey, lastEvaluated.get(sortKey));
+            }
+            queryResult.withLastEvaluatedKey(ItemUtils.fromSimpleMap(lastEvaluatedKey));
+        }
+        return queryResult;
+    }
+
+    @Override
+    public BatchGetItemResult batchGetItem(final BatchGetItemRequest batchGetItemRequest) {
+        final Map<String, List<Map<String, AttributeValue>>> responses = new HashMap<>();
+        for (Map.Entry<String, KeysAndAttributes> request : batchGetItemRequest.getRequestItems().entrySet()) {
+            final String tableName = request.getKey();
+            final KeysAndAttributes keysAndAttributes = request.getValue();
+            final List<Map<String, AttributeValue>> items = new ArrayList<>();
+            for (Map<String, AttributeValue> key : keysAndAttributes.getKeys()) {
+                final Map<String, Object> item = this.getTable(tableName)
+                    .get(keyOf(tableName, ItemUtils.toSimpleMapValue(key)));
+                if (item != null) {
+                    final Map<String, Object> result = keysAndAttributes.getProjectionExpression() == null
+                        ? item
+                        : ItemExpressions.project(item, keysAndAttributes.getProjectionExpression(),
+                            keysAndAttributes.getExpressionAttributeNames());
+                    items.add(ItemUtils.fromSimpleMap(result));
+                }
+            }
+            responses.put(tableName, items);
+        }
+        // every key is always read, so nothing is ever left unprocessed
+        return new BatchGetItemResult().withResponses(responses).withUnprocessedKeys(new HashMap<>());
+    }
+
+    @Override
+    public TransactWriteItemsResult executeWriteTransaction(final List<TransactWriteItem> actions,
+        final String clientRequestToken) {
+        if (clientRequestToken == null) {
+            return this.executeWriteTransaction(actions);
+        }
+        synchronized (this.writeLock) {
+            final List<TransactWriteItem> previousActions = this.clientRequestTokens.get(clientRequestToken);
+            if (previousActions != null) {
+                if (!previousActions.equals(actions)) {
+                    final IdempotentParameterMismatchException exception = new IdempotentParameterMismatchException(
+                        "The request uses the same client token as a previous, but non-identical request.");
+                    exception.setErrorCode("IdempotentParameterMismatchException");
+                    exception.setStatusCode(400);
+                    exception.setServiceName("AmazonDynamoDBv2");
+                    throw exception;
+                }
+                return new TransactWriteItemsResult();
+            }
+            final TransactWriteItemsResult result = this.executeWriteTransaction(actions);
+            // only a transaction that was written is remembered, a cancelled one can be sent again
+            this.clientRequestTokens.put(clientRequestToken, new ArrayList<>(actions));
+            return result;
+        }
+    }
+
+    @Override
+    public TransactWriteItemsResult executeWriteTransaction(final List<TransactWriteItem> actions) {
+        if (actions.size() > MAX_TRANSACTION_ITEMS) {
+            throw ItemExpressions.validationException(String.format(
+                "Member must have length less than or equal to %d", MAX_TRANSACTION_ITEMS));
+        }
+
+        synchronized (this.writeLock) {
+            // all writes are staged first so a failed condition leaves every table untouched
+            final Map<String, Map<String, Object>> staged = new LinkedHashMap<>();
+            final Map<String, String> stagedTables = new HashMap<>();
+            final List<CancellationReason> reasons = new ArrayList<>();
+            boolean cancelled = false;
+
+            for (TransactWriteItem action : actions) {
+                final String tableName;
+                final String key;
+                final Map<String, Object> oldItem;
+                String conditionExpression;
+                Map<String, String> names;
+                Map<String, Object> values;
+                Map<String, Object> newItem;
+
+                if (action.getPut() != null) {
+                    final Put put = action.getPut();
+                    tableName = put.getTableName();
+                    newItem = ItemUtils.toSimpleMapValue(put.getItem());
+                    key = keyOf(tableName, newItem);
+                    conditionExpression = put.getConditionExpression();
+                    names = put.getExpressionAttributeNames();
+                    values = toSimpleAttributeValues(put.getExpressionAttributeValues());
+                    oldItem = this.getTable(tableName).get(key);
+                } else if (action.getUpdate() != null) {
+                    final Update update = action.getUpdate();
+                    tableName = update.getTableName();
+                    final Map<String, Object> keyMap = ItemUtils.toSimpleMapValue(update.getKey());
+                    key = keyOf(tableName, keyMap);
+                    conditionExpression = update.getConditionExpression();
+                    names = update.getExpressionAttributeNames();
+                    values = toSimpleAttributeValues(update.getExpressionAttributeValues());
+                    oldItem = this.getTable(tableName).get(key);
+                    newItem = null;
+                    if (conditionExpression == null
+                        || ItemExpressions.evaluateCondition(oldItem, conditionExpression, names, values)) {
+                        newItem = this.applyUpdate(tableName, oldItem, toKeyAttributes(keyMap),
+                            update.getUpdateExpression(), names, values);
+                        conditionExpression = null;
+                    }
+                } else if (action.getDelete() != null) {
+                    final Delete delete = action.getDelete();
+                    tableName = delete.getTableName();
+                    key = keyOf(tableName, ItemUtils.toSimpleMapValue(delete.getKey()));
+                    conditionExpression = delete.getConditionExpression();
+                    names = delete.getExpressionAttributeNames();
+                    values = toSimpleAttributeValues(delete.getExpressionAttributeValues());
+                    oldItem = this.getTable(tableName).get(key);
+                    newItem = null;
+                } else if (action.getConditionCheck() != null) {
+                    final ConditionCheck conditionCheck = action.getConditionCheck();
+                    tableName = conditionCheck.getTableName();
+                    key = keyOf(tableName, ItemUtils.toSimpleMapValue(conditionCheck.getKey()));
+                    conditionExpression = conditionCheck.getConditionExpression();
+                    names = conditionCheck.getExpressionAttributeNames();
+                    values = toSimpleAttributeValues(conditionCheck.getExpressionAttributeValues());
+                    oldItem = this.getTable(tableName).get(key);
+                    newItem = oldItem;
+                } else {
+                    throw ItemExpressions.validationException("Transaction item has no operation");
+                }
+
+                final String stagedKey = tableName + "/" + key;
+                if (stagedTables.containsKey(stagedKey)) {
+                    throw ItemExpressions.validationException(
+                        "Transaction request cannot include multiple operations on one item");
+                }
+                stagedTables.put(stagedKey, tableName);
+
+                if (conditionExpression != null
+                    && !ItemExpressions.evaluateCondition(oldItem, conditionExpression, names, values)) {
+                    cancelled = true;
+                    reasons.add(new CancellationReason().withCode("ConditionalCheckFailed")
+                        .withMessage("The conditional request failed"));
+                } else if (action.getUpdate() != null && newItem == null) {
+                    // the update's own condition failed before it was applied
+                    cancelled = true;
+                    reasons.add(new CancellationReason().withCode("ConditionalCheckFailed")
+                        .withMessage("The conditional request failed"));
+                } else {
+                    reasons.add(new CancellationReason().withCode("None"));
+                }
+                staged.put(stagedKey, newItem);
+            }
+
+            if (cancelled) {
+                final TransactionCanceledException exception = new TransactionCanceledException(
+                    "Transaction cancelled, please refer cancellation reasons for specific reasons");
+                exception.setCancellationReasons(reasons);
+                exception.setErrorCode("TransactionCanceledException");
+                exception.setStatusCode(400);
+                exception.setServiceName("AmazonDynamoDBv2");
+                throw exception;
+            }
+
+            for (Map.Entry<String, Map<String, Object>> entry : staged.entrySet()) {
+                final String tableName = stagedTables.get(entry.getKey());
+                final String key = entry.getKey().substring(tableName.length() + 1);
+                if (entry.getValue() == null) {
+                    this.getTable(tableName).remove(key);
+                } else {
+                    this.write(tableName, key, entry.getValue());
+                }
+            }
+        }
+        return new TransactWriteItemsResult();
+    }
+
+    @Override
+    public TransactGetItemsResult executeGetTransaction(final TransactGetItemsRequest transactGetItemsRequest) {
+        final List<ItemResponse> responses = new ArrayList<>();
+        synchronized (this.writeLock) {
+            for (TransactGetItem transactGetItem : transactGetItemsRequest.getTransactItems()) {
+                final Get get = transactGetItem.getGet();
+                final Map<String, Object> item = this.getTable(get.getTableName())
+                    .get(keyOf(get.getTableName(), ItemUtils.toSimpleMapValue(get.getKey())));
+                if (item == null) {
+                    responses.add(new ItemResponse());
+                } else {
+                    final Map<String, Object> result = get.getProjectionExpression() == null
+                        ? item
+                        : ItemExpressions.project(item, get.getProjectionExpression(),
+                            get.getExpressionAttributeNames());
+                    responses.add(new ItemResponse().withItem(ItemUtils.fromSimpleMap(result)));
+                }
+            }
+        }
+        return new TransactGetItemsResult().withResponses(responses);
+    }
+
+    @Override
+    public TableDescription describeTable(final String tableName) {
+        return new TableDescription()
+            .withTableName(tableName)
+            .withTableStatus(TableStatus.ACTIVE)
+            .withItemCount((long) this.getTable(tableName).size());
+    }
+
+    /**
+     * Stands in for the stream of a table: the listener is called with every item that is added to the table, once
+     * the write that adds it is committed. It is called while the store is locked, so it must not block.
+     *
+     * @param tableName table whose new items are passed to the listener.
+     * @param listener  listener of the table, replaces any previous one.
+     */
+    public void onInsert(final String tableName, final Consumer<Map<String, Object>> listener) {
+        this.insertListeners.put(tableName, listener);
+    }
+
+    // must hold the write lock
+    private void write(final String tableName, final String key, final Map<String, Object> newItem) {
+        final Map<String, Object> oldItem = this.getTable(tableName).put(key, newItem);
+        final Consumer<Map<String, Object>> listener = this.insertListeners.get(tableName);
+        if (oldItem == null && listener != null) {
+            listener.accept(newItem);
+        }
+    }
+
+    private Map<String, Map<String, Object>> getTable(final String tableName) {
+        return this.tables.computeIfAbsent(tableName, k -> new ConcurrentHashMap<>());
+    }
+
+    private Map<String, Object> applyUpdate(final String tableName, final Map<String, Object> oldItem,
+        final Collection<KeyAttribute> keyComponents, final String updateExpression, final Map<String, String> names,
+        final Map<String, Object> values) {
+        final Map<String, Object> newItem;
+        if (oldItem == null) {
+            // updates are upserts, the item starts out as just its key
+            newItem = new LinkedHashMap<>();
+            for (KeyAttribute keyAttribute : keyComponents) {
+                newItem.put(keyAttribute.getName(), ItemExpressions.toSimple(keyAttribute.getValue()));
+            }
+        } else {
+            newItem = ItemExpressions.deepCopy(oldItem);
+        }
+        ItemExpressions.applyUpdate(newItem, updateExpression, names, values);
+
+        for (String keyName : getKeyNames(tableName)) {
+            if (!newItem.containsKey(keyName)
+                || (oldItem != null && !newItem.get(keyName).equals(oldItem.get(keyName)))) {
+                throw ItemExpressions.validationException("Cannot update attribute " + keyName
+                    + ". This attribute is part of the key");
+            }
+        }
+        return newItem;
+    }
+
+    private static String keyOf(final String tableName, final Collection<KeyAttribute> keyComponents) {
+        final Map<String, Object> key = new HashMap<>();
+        for (KeyAttribute keyAttribute : keyComponents) {
+            key.put(keyAttribute.getName(), ItemExpressions.toSimple(keyAttribute.getValue()));
+        }
+        return keyOf(tableName, key);
+    }
+
+    private static String keyOf(final String tableName, final Map<String, Object> item) {
+        final StringBuilder key = new StringBuilder();
+        for (String keyName : getKeyNames(tableName)) {
+            final Object keyValue = item.get(keyName);
+            if (keyValue == null) {
+                throw ItemExpressions.validationException(
+                    "One of the required keys was not given a value: " + keyName);
+            }
+            if (key.length() > 0) {
+                key.append(KEY_SEPARATOR);
+            }
+            key.append(keyValue);
+        }
+        return key.toString();
+    }
+
+    private static String getKeyName(final String tableName) {
+        try {
+            return Database.getKeyIndex(tableName);
+        } catch (Exception e) {
+            throw ItemExpressions.validationException(e.getMessage());
+        }
+    }
+
+    private static List<String> getKeyNames(final String tableName) {
+        final List<String> keyNames = new ArrayList<>();
+        keyNames.add(getKeyName(tableName));
+        try {
+            final String sortKeyName = Database.getSortKeyIndex(tableName);
+            if (sortKeyName != null) {
+                keyNames.add(sortKeyName);
+            }
+        } catch (Exception e) {
+            throw ItemExpressions.validationException(e.getMessage());
+        }
+        return keyNames;
+    }
+
+    /**
+     * @return the attributes the results of a query are ordered by, most significant first. Items with the same index
+     * sort key are ordered by the sort key of the table so that paging through them is stable.
+     */
+    private static List<String> getQuerySortKeys(final String tableName, final String indexName) {
+        final List<String> sortKeys = new ArrayList<>();
+        try {
+            if (indexName != null) {
+                sortKeys.add(Database.getIndexSortKey(tableName, indexName));
+            }
+            final String sortKeyName = Database.getSortKeyIndex(tableName);
+            if (sortKeyName != null) {
+                sortKeys.add(sortKeyName);
+            }
+        } catch (Exception e) {
+            throw ItemExpressions.validationException(e.getMessage());
+        }
+        return sortKeys;
+    }
+
+    private static int compareSortKeys(final Map<String, Object> a, final Map<String, Object> b,
+        final List<String> sortKeys) {
+        for (String sortKey : sortKeys) {
+            final int comparison = ItemExpressions.compare(a.get(sortKey), b.get(sortKey));
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+        return 0;
+    }
+
+    private static Collection<KeyAttribute> toKeyAttributes(final Map<String, Object> keyMap) {
+        final Set<KeyAttribute> keyAttributes = new HashSet<>();
+        for (Map.Entry<String, Object> entry : keyMap.entrySet()) {
+            keyAttributes.add(new KeyAttribute(entry.getKey(), entry.getValue()));
+        }
+        return keyAttributes;
+    }
+
+    private static Map<String, Object> toSimpleItem(final Map<String, Object> item) {
+        final Map<String, Object> simpleItem = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> entry : item.entrySet()) {
+            simpleItem.put(entry.getKey(), ItemExpressions.toSimple(entry.getValue()));
+        }
+        return simpleItem;
+    }
+
+    private static Map<String, Object> toSimpleValues(final Map<String, Object> values) {
+        return values == null ? null : toSimpleItem(values);
+    }
+
+    private static Map<String, Object> toSimpleAttributeValues(final Map<String, AttributeValue> values) {
+        return values == null ? null : ItemUtils.toSimpleMapValue(values);
+    }
+
+    private static ConditionalCheckFailedException conditionalCheckFailed() {
+        final ConditionalCheckFailedException exception = new ConditionalCheckFailedException(
+            "The conditional request failed");
+        exception.setErrorCode("ConditionalCheckFailedException");
+        exception.setStatusCode(400);
+        exception.setServiceName("AmazonDynamoDBv2");
+        return exception;
+    }
+}
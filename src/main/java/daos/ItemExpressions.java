@@ -0,0 +1,893 @@
+package daos;
+
+import com.amazonaws.services.dynamodbv2.document.ItemUtils;
+import com.amazonaws.services.dynamodbv2.model.AmazonDynamoDBException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Evaluates DynamoDB update and condition expressions against items held as plain java values, the same shape
+ * {@link com.amazonaws.services.dynamodbv2.document.Item#asMap()} returns (BigDecimal numbers, sets, lists and maps).
+ *
+ * Supported: SET (with +, -, if_not_exists and list_append), REMOVE, ADD and DELETE on top level and nested paths,
+ * and conditions built from comparators, BETWEEN, IN, attribute_exists, attribute_not_exists, attribute_type,
+ * begins_with, contains, size, AND, OR, NOT and parentheses.
+ */
+class ItemExpressions {
+
+    private final List<Token> tokens;
+    private final Map<String, String> names;
+    private final Map<String, Object> values;
+    private int position;
+
+    private ItemExpressions(final String expression, final Map<String, String> names,
+        final Map<String, Object> values) {
+        this.tokens = tokenize(expression);
+        this.names = names == null ? Collections.emptyMap() : names;
+        this.values = values == null ? Collections.emptyMap() : values;
+        this.position = 0;
+    }
+
+    /**
+     * Applies an update expression to the item. Right hand sides are all evaluated against the item as it was before
+     * the update, like DynamoDB does.
+     *
+     * @param item             item to update in place.
+     * @param updateExpression update expression.
+     * @param names            expression attribute names.
+     * @param values           expression attribute values, already in their simple form (see {@link #toSimple}).
+     */
+    static void applyUpdate(final Map<String, Object> item, final String updateExpression,
+        final Map<String, String> names, final Map<String, Object> values) {
+        final ItemExpressions parser = new ItemExpressions(updateExpression, names, values);
+        final List<Action> actions = parser.parseUpdate();
+        checkOverlappingPaths(actions);
+
+        final Map<String, Object> original = deepCopy(item);
+        for (Action action : actions) {
+            action.value = action.operand == null ? null : action.operand.evaluate(original);
+        }
+
+        // list elements are removed from the highest index down so earlier removals don't shift later ones
+        final List<Action> removals = new ArrayList<>();
+        for (Action action : actions) {
+            if (action.type == ActionType.REMOVE) {
+                removals.add(action);
+            } else {
+                action.apply(item);
+            }
+        }
+        removals.sort((a, b) -> comparePathsForRemoval(b.path, a.path));
+        for (Action removal : removals) {
+            removal.apply(item);
+        }
+    }
+
+    /**
+     * @param item                the item as currently stored, or null if there is no such item.
+     * @param conditionExpression condition expression.
+     * @param names               expression attribute names.
+     * @param values              expression attribute values, already in their simple form.
+     * @return whether the condition holds for the item.
+     */
+    static boolean evaluateCondition(final Map<String, Object> item, final String conditionExpression,
+        final Map<String, String> names, final Map<String, Object> values) {
+        final ItemExpressions parser = new ItemExpressions(conditionExpression, names, values);
+        final Condition condition = parser.parseCondition();
+        parser.expectEnd();
+        return condition.test(item == null ? Collections.emptyMap() : item);
+    }
+
+    /**
+     * Keeps only the given top level or nested attributes of the item.
+     */
+    static Map<String, Object> project(final Map<String, Object> item, final String projectionExpression,
+        final Map<String, String> names) {
+        final ItemExpressions parser = new ItemExpressions(projectionExpression, names, null);
+        final Map<String, Object> projected = new LinkedHashMap<>();
+        do {
+            final List<Object> path = parser.parsePath();
+            final Object value = getPath(item, path);
+            if (value != MISSING) {
+                final Object topLevel = getPath(item, path.subList(0, 1));
+                if (path.size() == 1 || !(topLevel instanceof Map)) {
+                    projected.put((String) path.get(0), deepCopy(topLevel));
+                } else {
+                    // nested projections keep the parents of the projected attribute
+                    Map<String, Object> parent = projected;
+                    Object source = item;
+                    for (int i = 0; i < path.size() - 1 && path.get(i) instanceof String; i++) {
+                        source = ((Map<String, Object>) source).get(path.get(i));
+                        parent = (Map<String, Object>) parent
+                            .computeIfAbsent((String) path.get(i), k -> new LinkedHashMap<>());
+                        if (!(source instanceof Map)) {
+                            break;
+                        }
+                    }
+                    final Object leaf = path.get(path.size() - 1);
+                    if (leaf instanceof String) {
+                        parent.put((String) leaf, deepCopy(value));
+                    }
+                }
+            }
+        } while (parser.accept(","));
+        parser.expectEnd();
+        return projected;
+    }
+
+    /**
+     * @return the value in the simple form items are held in, whatever java type it was given as.
+     */
+    static Object toSimple(final Object value) {
+        return ItemUtils.toSimpleValue(ItemUtils.toAttributeValue(value));
+    }
+
+    static Map<String, Object> deepCopy(final Map<String, Object> map) {
+        return (Map<String, Object>) deepCopy((Object) map);
+    }
+
+    static AmazonDynamoDBException validationException(final String message) {
+        final AmazonDynamoDBException exception = new AmazonDynamoDBException(message);
+        exception.setErrorCode("ValidationException");
+        exception.setStatusCode(400);
+        exception.setServiceName("AmazonDynamoDBv2");
+        return exception;
+    }
+
+    private static Object deepCopy(final Object value) {
+        if (value instanceof Map) {
+            final Map<String, Object> copy = new LinkedHashMap<>();
+            for (Map.Entry<String, Object> entry : ((Map<String, Object>) value).entrySet()) {
+                copy.put(entry.getKey(), deepCopy(entry.getValue()));
+            }
+            return copy;
+        } else if (value instanceof List) {
+            final List<Object> copy = new ArrayList<>(((List<Object>) value).size());
+            for (Object element : (List<Object>) value) {
+                copy.add(deepCopy(element));
+            }
+            return copy;
+        } else if (value instanceof Set) {
+            return new LinkedHashSet<>((Set<Object>) value);
+        } else if (value instanceof byte[]) {
+            return ((byte[]) value).clone();
+        }
+        return value;
+    }
+
+    // ---------------------------------------------------------------------------------------------------------------
+    // Paths
+    // ---------------------------------------------------------------------------------------------------------------
+
+    private static final Object MISSING = new Object();
+
+    private static Object getPath(final Object item, final List<Object> path) {
+        Object current = item;
+        for (Object element : path) {
+            if (element instanceof String && current instanceof Map) {
+                final Map<String, Object> map = (Map<String, Object>) current;
+                if (!map.containsKey(element)) {
+                    return MISSING;
+                }
+                current = map.get(element);
+            } else if (element instanceof Integer && current instanceof List) {
+                final List<Object> list = (List<Object>) current;
+                if ((Integer) element >= list.size()) {
+                    return MISSING;
+                }
+                current = list.get((Integer) element);
+            } else {
+                return MISSING;
+            }
+        }
+        return current;
+    }
+
+    private static Object getParent(final Map<String, Object> item, final List<Object> path) {
+        final Object parent = getPath(item, path.subList(0, path.size() - 1));
+        final Object last = path.get(path.size() - 1);
+        if ((last instanceof String && parent instanceof Map) || (last instanceof Integer && parent instanceof List)) {
+            return parent;
+        }
+        throw validationException("The document path provided in the update expression is invalid for update");
+    }
+
+    private static void setPath(final Map<String, Object> item, final List<Object> path, final Object value) {
+        final Object parent = getParent(item, path);
+        final Object last = path.get(path.size() - 1);
+        if (parent instanceof Map) {
+            ((Map<String, Object>) parent).put((String) last, value);
+        } else {
+            final List<Object> list = (List<Object>) parent;
+            if ((Integer) last < list.size()) {
+                list.set((Integer) last, value);
+            } else {
+                // setting past the end of a list appends
+                list.add(value);
+            }
+        }
+    }
+
+    private static void removePath(final Map<String, Object> item, final List<Object> path) {
+        final Object parent = getParent(item, path);
+        final Object last = path.get(path.size() - 1);
+        if (parent instanceof Map) {
+            ((Map<String, Object>) parent).remove(last);
+        } else {
+            final List<Object> list = (List<Object>) parent;
+            if ((Integer) last < list.size()) {
+                list.remove((int) (Integer) last);
+            }
+        }
+    }
+
+    private static void checkOverlappingPaths(final List<Action> actions) {
+        for (int i = 0; i < actions.size(); i++) {
+            for (int j = i + 1; j < actions.size(); j++) {
+                final List<Object> a = actions.get(i).path;
+                final List<Object> b = actions.get(j).path;
+                final int shortest = Math.min(a.size(), b.size());
+                if (a.subList(0, shortest).equals(b.subList(0, shortest))) {
+                    throw validationException(String.format(
+                        "Invalid UpdateExpression: Two document paths overlap with each other; must remove or "
+                            + "rewrite one of these paths; path one: %s, path two: %s", a, b));
+                }
+            }
+        }
+    }
+
+    private static int comparePathsForRemoval(final List<Object> a, final List<Object> b) {
+        final int shortest = Math.min(a.size(), b.size());
+        for (int i = 0; i < shortest; i++) {
+            final Object x = a.get(i);
+            final Object y = b.get(i);
+            if (x instanceof Integer && y instanceof Integer && !x.equals(y)) {
+                return Integer.compare((Integer) x, (Integer) y);
+            }
+            if (!x.equals(y)) {
+                return 0;
+            }
+        }
+        return 0;
+    }
+
+    // ---------------------------------------------------------------------------------------------------------------
+    // Update expressions
+    // ---------------------------------------------------------------------------------------------------------------
+
+    private enum ActionType {SET, REMOVE, ADD, DELETE}
+
+    private static class Action {
+
+        private final ActionType type;
+        private final List<Object> path;
+        private final Operand operand;
+        private Object value;
+
+        private Action(final ActionType type, final List<Object> path, final Operand operand) {
+            this.type = type;
+            this.path = path;
+            this.operand = operand;
+        }
+
+        private void apply(final Map<String, Object> item) {
+            switch (this.type) {
+                case SET:
+                    setPath(item, this.path, deepCopy(this.value));
+                    break;
+                case REMOVE:
+                    removePath(item, this.path);
+                    break;
+                case ADD:
+                    this.add(item);
+                    break;
+                case DELETE:
+                    this.delete(item);
+                    break;
+            }
+        }
+
+        private void add(final Map<String, Object> item) {
+            final Object current = getPath(item, this.path);
+            if (current == MISSING) {
+                if (!(this.value instanceof BigDecimal) && !(this.value instanceof Set)) {
+                    throw validationException("An operand in the update expression has an incorrect data type");
+                }
+                setPath(item, this.path, deepCopy(this.value));
+            } else if (current instanceof BigDecimal && this.value instanceof BigDecimal) {
+                setPath(item, this.path, ((BigDecimal) current).add((BigDecimal) this.value));
+            } else if (current instanceof Set && this.value instanceof Set && sameSetType((Set) current,
+                (Set) this.value)) {
+                final Set<Object> union = new LinkedHashSet<>((Set<Object>) current);
+                union.addAll((Set<Object>) this.value);
+                setPath(item, this.path, union);
+            } else {
+                throw validationException("An operand in the update expression has an incorrect data type");
+            }
+        }
+
+        private void delete(final Map<String, Object> item) {
+            final Object current = getPath(item, this.path);
+            if (current == MISSING) {
+                return;
+            }
+            if (!(current instanceof Set) || !(this.value instanceof Set) || !sameSetType((Set) current,
+                (Set) this.value)) {
+                throw validationException("An operand in the update expression has an incorrect data type");
+            }
+            final Set<Object> difference = new LinkedHashSet<>((Set<Object>) current);
+            difference.removeAll((Set<Object>) this.value);
+            if (difference.isEmpty()) {
+                // sets can't be empty, so the attribute goes away with its last element
+                removePath(item, this.path);
+            } else {
+                setPath(item, this.path, difference);
+            }
+        }
+    }
+
+    private List<Action> parseUpdate() {
+        final List<Action> actions = new ArrayList<>();
+        final Set<ActionType> seenClauses = new LinkedHashSet<>();
+        while (!this.atEnd()) {
+            final Token keyword = this.next();
+            final ActionType type;
+            try {
+                type = ActionType.valueOf(keyword.text.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw this.syntaxError(keyword);
+            }
+            if (!seenClauses.add(type)) {
+                throw validationException("Invalid UpdateExpression: The \"" + type + "\" section can only be used "
+                    + "once in an update expression");
+            }
+
+            do {
+                final List<Object> path = this.parsePath();
+                switch (type) {
+                    case SET:
+                        this.expect("=");
+                        actions.add(new Action(type, path, this.parseSetValue()));
+                        break;
+                    case REMOVE:
+                        actions.add(new Action(type, path, null));
+                        break;
+                    default:
+                        actions.add(new Action(type, path, this.parseValueReference()));
+                        break;
+                }
+            } while (this.accept(","));
+        }
+        if (actions.isEmpty()) {
+            throw validationException("Invalid UpdateExpression: The expression can not be empty");
+        }
+        return actions;
+    }
+
+    private Operand parseSetValue() {
+        final Operand left = this.parseSetOperand();
+        if (this.accept("+")) {
+            final Operand right = this.parseSetOperand();
+            return item -> arithmetic(left.evaluate(item), right.evaluate(item), true);
+        } else if (this.accept("-")) {
+            final Operand right = this.parseSetOperand();
+            return item -> arithmetic(left.evaluate(item), right.evaluate(item), false);
+        }
+        return left;
+    }
+
+    private Operand parseSetOperand() {
+        final Token token = this.peek();
+        if (token != null && token.isWord("if_not_exists") && this.peekIs(1, "(")) {
+            this.next();
+            this.expect("(");
+            final List<Object> path = this.parsePath();
+            this.expect(",");
+            final Operand fallback = this.parseSetOperand();
+            this.expect(")");
+            return item -> {
+                final Object existing = getPath(item, path);
+                return existing == MISSING ? fallback.evaluate(item) : existing;
+            };
+        } else if (token != null && token.isWord("list_append") && this.peekIs(1, "(")) {
+            this.next();
+            this.expect("(");
+            final Operand first = this.parseSetOperand();
+            this.expect(",");
+            final Operand second = this.parseSetOperand();
+            this.expect(")");
+            return item -> {
+                final Object a = first.evaluate(item);
+                final Object b = second.evaluate(item);
+                if (!(a instanceof List) || !(b instanceof List)) {
+                    throw validationException("Invalid UpdateExpression: Incorrect operand type for operator or "
+                        + "function; operator or function: list_append");
+                }
+                final List<Object> appended = new ArrayList<>((List<Object>) a);
+                appended.addAll((List<Object>) b);
+                return appended;
+            };
+        } else if (token != null && token.text.startsWith(":")) {
+            return this.parseValueReference();
+        }
+
+        final List<Object> path = this.parsePath();
+        return item -> {
+            final Object value = getPath(item, path);
+            if (value == MISSING) {
+                throw validationException("The provided expression refers to an attribute that does not exist in "
+                    + "the item");
+            }
+            return value;
+        };
+    }
+
+    private static Object arithmetic(final Object a, final Object b, final boolean add) {
+        if (!(a instanceof BigDecimal) || !(b instanceof BigDecimal)) {
+            throw validationException("An operand in the update expression has an incorrect data type");
+        }
+        return add ? ((BigDecimal) a).add((BigDecimal) b) : ((BigDecimal) a).subtract((BigDecimal) b);
+    }
+
+    private static boolean sameSetType(final Set<Object> a, final Set<Object> b) {
+        if (a.isEmpty() || b.isEmpty()) {
+            return true;
+        }
+        final Object x = a.iterator().next();
+        final Object y = b.iterator().next();
+        return x.getClass().equals(y.getClass()) || (x instanceof byte[] && y instanceof byte[]);
+    }
+
+    // ---------------------------------------------------------------------------------------------------------------
+    // Condition expressions
+    // ---------------------------------------------------------------------------------------------------------------
+
+    @FunctionalInterface
+    private interface Operand {
+
+        Object evaluate(Map<String, Object> item);
+    }
+
+    @FunctionalInterface
+    private interface Condition {
+
+        boolean test(Map<String, Object> item);
+    }
+
+    private Condition parseCondition() {
+        Condition condition = this.parseAnd();
+        while (this.acceptWord("or")) {
+            final Condition left = condition;
+            final Condition right = this.parseAnd();
+            condition = item -> left.test(item) || right.test(item);
+        }
+        return condition;
+    }
+
+    private Condition parseAnd() {
+        Condition condition = this.parseNot();
+        while (this.acceptWord("and")) {
+            final Condition left = condition;
+            final Condition right = this.parseNot();
+            condition = item -> left.test(item) && right.test(item);
+        }
+        return condition;
+    }
+
+    private Condition parseNot() {
+        if (this.acceptWord("not")) {
+            final Condition negated = this.parseNot();
+            return item -> !negated.test(item);
+        }
+        return this.parsePrimaryCondition();
+    }
+
+    private Condition parsePrimaryCondition() {
+        if (this.accept("(")) {
+            final Condition condition = this.parseCondition();
+            this.expect(")");
+            return condition;
+        }
+
+        final Token token = this.peek();
+        if (token != null && this.peekIs(1, "(")) {
+            final String function = token.text.toLowerCase();
+            switch (function) {
+                case "attribute_exists":
+                case "attribute_not_exists": {
+                    this.next();
+                    this.expect("(");
+                    final List<Object> path = this.parsePath();
+                    this.expect(")");
+                    final boolean exists = function.equals("attribute_exists");
+                    return item -> (getPath(item, path) != MISSING) == exists;
+                }
+                case "attribute_type": {
+                    this.next();
+                    this.expect("(");
+                    final List<Object> path = this.parsePath();
+                    this.expect(",");
+                    final Operand type = this.parseValueReference();
+                    this.expect(")");
+                    return item -> {
+                        final Object value = getPath(item, path);
+                        return value != MISSING && typeOf(value).equals(type.evaluate(item));
+                    };
+                }
+                case "begins_with": {
+                    this.next();
+                    this.expect("(");
+                    final Operand subject = this.parseConditionOperand();
+                    this.expect(",");
+                    final Operand prefix = this.parseConditionOperand();
+                    this.expect(")");
+                    return item -> {
+                        final Object value = subject.evaluate(item);
+                        final Object start = prefix.evaluate(item);
+                        return value instanceof String && start instanceof String
+                            && ((String) value).startsWith((String) start);
+                    };
+                }
+                case "contains": {
+                    this.next();
+                    this.expect("(");
+                    final Operand subject = this.parseConditionOperand();
+                    this.expect(",");
+                    final Operand operand = this.parseConditionOperand();
+                    this.expect(")");
+                    return item -> contains(subject.evaluate(item), operand.evaluate(item));
+                }
+                default:
+                    break;
+            }
+        }
+
+        final Operand left = this.parseConditionOperand();
+        if (this.acceptWord("between")) {
+            final Operand low = this.parseConditionOperand();
+            if (!this.acceptWord("and")) {
+                throw this.syntaxError(this.peek());
+            }
+            final Operand high = this.parseConditionOperand();
+            return item -> {
+                final Object value = left.evaluate(item);
+                return compare(value, low.evaluate(item)) >= 0 && compare(value, high.evaluate(item)) <= 0
+                    && comparable(value, low.evaluate(item)) && comparable(value, high.evaluate(item));
+            };
+        }
+        if (this.acceptWord("in")) {
+            this.expect("(");
+            final List<Operand> candidates = new ArrayList<>();
+            do {
+                candidates.add(this.parseConditionOperand());
+            } while (this.accept(","));
+            this.expect(")");
+            return item -> {
+                final Object value = left.evaluate(item);
+                for (Operand candidate : candidates) {
+                    if (value != MISSING && valuesEqual(value, candidate.evaluate(item))) {
+                        return true;
+                    }
+                }
+                return false;
+            };
+        }
+
+        final Token comparator = this.next();
+        final Operand right = this.parseConditionOperand();
+        switch (comparator == null ? "" : comparator.text) {
+            case "=":
+                return item -> {
+                    final Object a = left.evaluate(item);
+                    final Object b = right.evaluate(item);
+                    return a != MISSING && b != MISSING && valuesEqual(a, b);
+                };
+            case "<>":
+                return item -> {
+                    final Object a = left.evaluate(item);
+                    final Object b = right.evaluate(item);
+                    return a == MISSING || b == MISSING || !valuesEqual(a, b);
+                };
+            case "<":
+                return item -> comparable(left.evaluate(item), right.evaluate(item))
+                    && compare(left.evaluate(item), right.evaluate(item)) < 0;
+            case "<=":
+                return item -> comparable(left.evaluate(item), right.evaluate(item))
+                    && compare(left.evaluate(item), right.evaluate(item)) <= 0;
+            case ">":
+                return item -> comparable(left.evaluate(item), right.evaluate(item))
+                    && compare(left.evaluate(item), right.evaluate(item)) > 0;
+            case ">=":
+                return item -> comparable(left.evaluate(item), right.evaluate(item))
+                    && compare(left.evaluate(item), right.evaluate(item)) >= 0;
+            default:
+                throw this.syntaxError(comparator);
+        }
+    }
+
+    private Operand parseConditionOperand() {
+        final Token token = this.peek();
+        if (token != null && token.isWord("size") && this.peekIs(1, "(")) {
+            this.next();
+            this.expect("(");
+            final List<Object> path = this.parsePath();
+            this.expect(")");
+            return item -> {
+                final Object value = getPath(item, path);
+                final Integer size = sizeOf(value);
+                return size == null ? MISSING : new BigDecimal(size);
+            };
+        } else if (token != null && token.text.startsWith(":")) {
+            return this.parseValueReference();
+        }
+        final List<Object> path = this.parsePath();
+        return item -> getPath(item, path);
+    }
+
+    private Operand parseValueReference() {
+        final Token token = this.next();
+        if (token == null || !token.text.startsWith(":")) {
+            throw this.syntaxError(token);
+        }
+        if (!this.values.containsKey(token.text)) {
+            throw validationException("Invalid expression: An expression attribute value used in expression is not "
+                + "defined; attribute value: " + token.text);
+        }
+        final Object value = this.values.get(token.text);
+        return item -> value;
+    }
+
+    private static Integer sizeOf(final Object value) {
+        if (value instanceof String) {
+            return ((String) value).getBytes(StandardCharsets.UTF_8).length;
+        } else if (value instanceof byte[]) {
+            return ((byte[]) value).length;
+        } else if (value instanceof Collection) {
+            return ((Collection) value).size();
+        } else if (value instanceof Map) {
+            return ((Map) value).size();
+        }
+        return null;
+    }
+
+    private static String typeOf(final Object value) {
+        if (value == null) {
+            return "NULL";
+        } else if (value instanceof String) {
+            return "S";
+        } else if (value instanceof BigDecimal) {
+            return "N";
+        } else if (value instanceof Boolean) {
+            return "BOOL";
+        } else if (value instanceof byte[]) {
+            return "B";
+        } else if (value instanceof List) {
+            return "L";
+        } else if (value instanceof Map) {
+            return "M";
+        } else if (value instanceof Set) {
+            final Iterator iterator = ((Set) value).iterator();
+            final Object element = iterator.hasNext() ? iterator.next() : null;
+            return element instanceof BigDecimal ? "NS" : element instanceof byte[] ? "BS" : "SS";
+        }
+        return "UNKNOWN";
+    }
+
+    private static boolean contains(final Object subject, final Object operand) {
+        if (subject instanceof String && operand instanceof String) {
+            return ((String) subject).contains((String) operand);
+        } else if (subject instanceof Collection) {
+            for (Object element : (Collection) subject) {
+                if (valuesEqual(element, operand)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean comparable(final Object a, final Object b) {
+        return (a instanceof BigDecimal && b instanceof BigDecimal) || (a instanceof String && b instanceof String)
+            || (a instanceof byte[] && b instanceof byte[]);
+    }
+
+    /**
+     * Orders two values the way dynamo orders sort keys. Values of different types compare as equal.
+     */
+    static int compare(final Object a, final Object b) {
+        if (a instanceof BigDecimal && b instanceof BigDecimal) {
+            return ((BigDecimal) a).compareTo((BigDecimal) b);
+        } else if (a instanceof String && b instanceof String) {
+            return ((String) a).compareTo((String) b);
+        } else if (a instanceof byte[] && b instanceof byte[]) {
+            return Arrays.compareUnsigned((byte[]) a, (byte[]) b);
+        }
+        return 0;
+    }
+
+    private static boolean valuesEqual(final Object a, final Object b) {
+        if (a instanceof BigDecimal && b instanceof BigDecimal) {
+            return ((BigDecimal) a).compareTo((BigDecimal) b) == 0;
+        } else if (a instanceof byte[] && b instanceof byte[]) {
+            return Arrays.equals((byte[]) a, (byte[]) b);
+        } else if (a instanceof Map && b instanceof Map) {
+            final Map<String, Object> x = (Map<String, Object>) a;
+            final Map<String, Object> y = (Map<String, Object>) b;
+            if (x.size() != y.size()) {
+                return false;
+            }
+            for (Map.Entry<String, Object> entry : x.entrySet()) {
+                if (!y.containsKey(entry.getKey()) || !valuesEqual(entry.getValue(), y.get(entry.getKey()))) {
+                    return false;
+                }
+            }
+            return true;
+        } else if (a instanceof List && b instanceof List) {
+            final List<Object> x = (List<Object>) a;
+            final List<Object> y = (List<Object>) b;
+            if (x.size() != y.size()) {
+                return false;
+            }
+            for (int i = 0; i < x.size(); i++) {
+                if (!valuesEqual(x.get(i), y.get(i))) {
+                    return false;
+                }
+            }
+            return true;
+        } else if (a instanceof Set && b instanceof Set) {
+            final Set<Object> x = (Set<Object>) a;
+            final Set<Object> y = (Set<Object>) b;
+            return x.size() == y.size() && x.stream().allMatch(element -> contains(y, element));
+        }
+        return a == null ? b == null : a.equals(b);
+    }
+
+    // ---------------------------------------------------------------------------------------------------------------
+    // Tokens
+    // ---------------------------------------------------------------------------------------------------------------
+
+    private static class Token {
+
+        private final String text;
+
+        private Token(final String text) {
+            this.text = text;
+        }
+
+        private boolean isWord(final String word) {
+            return this.text.equalsIgnoreCase(word);
+        }
+    }
+
+    private static List<Token> tokenize(final String expression) {
+        if (expression == null) {
+            throw validationException("Invalid expression: The expression can not be empty");
+        }
+
+        final List<Token> tokens = new ArrayList<>();
+        int i = 0;
+        while (i < expression.length()) {
+            final char c = expression.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (Character.isLetterOrDigit(c) || c == '_' || c == '#' || c == ':') {
+                int end = i + 1;
+                while (end < expression.length() && (Character.isLetterOrDigit(expression.charAt(end))
+                    || expression.charAt(end) == '_' || expression.charAt(end) == '-')) {
+                    end++;
+                }
+                tokens.add(new Token(expression.substring(i, end)));
+                i = end;
+            } else if ((c == '<' || c == '>') && i + 1 < expression.length()
+                && (expression.charAt(i + 1) == '=' || (c == '<' && expression.charAt(i + 1) == '>'))) {
+                tokens.add(new Token(expression.substring(i, i + 2)));
+                i += 2;
+            } else if ("=<>()[],.+-".indexOf(c) != -1) {
+                tokens.add(new Token(String.valueOf(c)));
+                i++;
+            } else {
+                throw validationException("Invalid expression: Syntax error; token: \"" + c + "\", near: \""
+                    + expression + "\"");
+            }
+        }
+        return tokens;
+    }
+
+    private List<Object> parsePath() {
+        final List<Object> path = new ArrayList<>();
+        path.add(this.parseName());
+        while (true) {
+            if (this.accept(".")) {
+                path.add(this.parseName());
+            } else if (this.accept("[")) {
+                final Token index = this.next();
+                try {
+                    path.add(Integer.parseInt(index == null ? "" : index.text));
+                } catch (NumberFormatException e) {
+                    throw this.syntaxError(index);
+                }
+                this.expect("]");
+            } else {
+                return path;
+            }
+        }
+    }
+
+    private String parseName() {
+        final Token token = this.next();
+        if (token == null || token.text.startsWith(":") || !(Character.isLetter(token.text.charAt(0))
+            || token.text.charAt(0) == '_' || token.text.charAt(0) == '#')) {
+            throw this.syntaxError(token);
+        }
+        if (token.text.startsWith("#")) {
+            final String name = this.names.get(token.text);
+            if (name == null) {
+                throw validationException("Invalid expression: An expression attribute name used in the document "
+                    + "path is not defined; attribute name: " + token.text);
+            }
+            return name;
+        }
+        return token.text;
+    }
+
+    private Token peek() {
+        return this.position < this.tokens.size() ? this.tokens.get(this.position) : null;
+    }
+
+    private boolean peekIs(final int offset, final String text) {
+        final int index = this.position + offset;
+        return index < this.tokens.size() && this.tokens.get(index).text.equals(text);
+    }
+
+    private Token next() {
+        return this.position < this.tokens.size() ? this.tokens.get(this.position++) : null;
+    }
+
+    private boolean atEnd() {
+        return this.position >= this.tokens.size();
+    }
+
+    private boolean accept(final String text) {
+        if (this.peekIs(0, text)) {
+            this.position++;
+            return true;
+        }
+        return false;
+    }
+
+    private boolean acceptWord(final String word) {
+        final Token token = this.peek();
+        if (token != null && token.isWord(word)) {
+            this.position++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(final String text) {
+        if (!this.accept(text)) {
+            throw this.syntaxError(this.peek());
+        }
+    }
+
+    private void expectEnd() {
+        if (!this.atEnd()) {
+            throw this.syntaxError(this.peek());
+        }
+    }
+
+    private AmazonDynamoDBException syntaxError(final Token token) {
+        return validationException("Invalid expression: Syntax error; token: \""
+            + (token == null ? "<EOF>" : token.text) + "\"");
+    }
+}
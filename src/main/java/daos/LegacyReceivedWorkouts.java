@@ -0,0 +1,105 @@
+package daos;
+
+import com.amazonaws.services.dynamodbv2.document.Item;
+import com.amazonaws.services.dynamodbv2.document.spec.UpdateItemSpec;
+import com.amazonaws.services.dynamodbv2.document.utils.NameMap;
+import com.amazonaws.services.dynamodbv2.document.utils.ValueMap;
+import com.amazonaws.services.dynamodbv2.model.CancellationReason;
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+import com.amazonaws.services.dynamodbv2.model.Put;
+import com.amazonaws.services.dynamodbv2.model.TransactWriteItem;
+import com.amazonaws.services.dynamodbv2.model.TransactionCanceledException;
+import interfaces.ItemStore;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import models.SharedWorkoutMeta;
+import models.User;
+import utils.Parser;
+import utils.WritePlan;
+
+/**
+ * Received workouts used to be stored as a map on the user item. The received workouts migration of the Patcher moves
+ * them into their own table, and until it has run a user that still has the map is moved the first time it is read
+ * with its received workouts, so no manager has to know about the map.
+ * <p>
+ * The same steps as the Patcher are taken: every workout of the map is put into the table unless it already is there,
+ * then the counters of the user are added to and the map is removed in one write that only succeeds if the map is
+ * still there. So a move that runs twice at the same time, or that was cut off halfway, counts every workout once.
+ */
+class LegacyReceivedWorkouts {
+
+    private LegacyReceivedWorkouts() {
+    }
+
+    static boolean isIn(final Item userItem) {
+        return userItem != null && userItem.isPresent(User.RECEIVED_WORKOUTS);
+    }
+
+    static void move(final ItemStore itemStore, final Item userItem) {
+        final String recipient = userItem.getString(User.USERNAME);
+        final Long seenAt = Parser.convertObjectToLong(userItem.get(User.RECEIVED_WORKOUTS_SEEN_AT));
+        final Map<String, Object> legacyMap = userItem.getMap(User.RECEIVED_WORKOUTS);
+
+        final List<TransactWriteItem> puts = new ArrayList<>();
+        int unseen = 0;
+        for (Map.Entry<String, Object> entry : legacyMap.entrySet()) {
+            final SharedWorkoutMeta receivedWorkout = new SharedWorkoutMeta(
+                (Map<String, Object>) entry.getValue(), entry.getKey());
+            receivedWorkout.setRecipient(recipient);
+            receivedWorkout.setSentAt(Instant.parse(receivedWorkout.getDateSent()).toEpochMilli());
+            if (!receivedWorkout.isSeenAsOf(seenAt)) {
+                unseen++;
+            }
+            puts.add(new TransactWriteItem().withPut(new Put()
+                .withTableName(ReceivedWorkoutDAO.RECEIVED_WORKOUTS_TABLE_NAME)
+                .withItem(receivedWorkout.asItemAttributes())
+                .withConditionExpression("attribute_not_exists(#recipient)")
+                .withExpressionAttributeNames(
+                    Map.of("#recipient", ReceivedWorkoutDAO.RECEIVED_WORKOUTS_PARTITION_KEY))));
+        }
+        for (int start = 0; start < puts.size(); start += WritePlan.MAX_TRANSACTION_ITEMS) {
+            putMissing(itemStore, puts.subList(start, Math.min(start + WritePlan.MAX_TRANSACTION_ITEMS, puts.size())));
+        }
+
+        final UpdateItemSpec updateItemSpec = new UpdateItemSpec()
+            .withPrimaryKey(UserDAO.USERS_PRIMARY_KEY, recipient)
+            .withUpdateExpression("add #total :total, #unseen :unseen remove #legacyMap")
+            .withConditionExpression("attribute_exists(#legacyMap)")
+            .withNameMap(new NameMap()
+                .with("#total", User.TOTAL_RECEIVED_WORKOUTS)
+                .with("#unseen", User.UNSEEN_RECEIVED_WORKOUTS)
+                .with("#legacyMap", User.RECEIVED_WORKOUTS))
+            .withValueMap(new ValueMap().withInt(":total", puts.size()).withInt(":unseen", unseen));
+        try {
+            itemStore.updateItem(UserDAO.USERS_TABLE_NAME, updateItemSpec);
+        } catch (ConditionalCheckFailedException e) {
+            // moved in the meantime, and counted there
+        }
+    }
+
+    // a workout that is already in the table was put there by an earlier move and may have been seen since
+    private static void putMissing(final ItemStore itemStore, List<TransactWriteItem> puts) {
+        while (!puts.isEmpty()) {
+            try {
+                itemStore.executeWriteTransaction(puts);
+                return;
+            } catch (TransactionCanceledException e) {
+                final List<CancellationReason> reasons = e.getCancellationReasons();
+                if (reasons == null || reasons.stream()
+                    .anyMatch(reason -> !reason.getCode().equals("ConditionalCheckFailed")
+                        && !reason.getCode().equals("None"))) {
+                    throw e;
+                }
+                final List<TransactWriteItem> missing = new ArrayList<>();
+                for (int i = 0; i < puts.size(); i++) {
+                    if (!reasons.get(i).getCode().equals("ConditionalCheckFailed")) {
+                        missing.add(puts.get(i));
+                    }
+                }
+                puts = missing;
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package daos;
+
+import com.amazonaws.services.dynamodbv2.model.Put;
+import com.amazonaws.services.dynamodbv2.model.TableDescription;
+import com.amazonaws.services.dynamodbv2.model.TransactWriteItem;
+import interfaces.ItemStore;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import javax.inject.Inject;
+import models.NotificationData;
+import models.OutboxNotification;
+import utils.AttributeValueUtils;
+
+/**
+ * Push notifications are not sent by the request that causes them. They are written to the outbox in the same
+ * transaction as the change they are about, so one is only ever sent for a change that was written, and the request
+ * returns as soon as that commits. New items of the outbox are streamed to
+ * {@link controllers.NotificationStreamController}, or to {@link services.LocalNotificationWorker} when the tables
+ * are kept in memory, which send them. Sent or not, they are removed by the time to live of the table.
+ */
+public class NotificationOutboxDAO {
+
+    public static final String NOTIFICATION_OUTBOX_TABLE_NAME = "notificationOutbox";
+    public static final String NOTIFICATION_OUTBOX_PRIMARY_KEY = OutboxNotification.NOTIFICATION_ID;
+    // notifications are only of use while they are fresh, this is just long enough to outlast the stream retries
+    private static final Duration TIME_TO_LIVE = Duration.ofDays(1);
+    protected final ItemStore itemStore;
+
+    @Inject
+    public NotificationOutboxDAO(final Database database) {
+        this.itemStore = database.getItemStore();
+    }
+
+    /**
+     * Adds the write of a notification to the actions of a transaction, so that it is sent once the transaction
+     * commits. Users without a push endpoint can't be notified, so nothing is added for them.
+     *
+     * @param actions          actions of the transaction.
+     * @param targetArn        push endpoint of the user to notify, may be null.
+     * @param notificationData action and payload of the notification.
+     */
+    public void enqueue(final List<TransactWriteItem> actions, final String targetArn,
+        final NotificationData notificationData) {
+        if (targetArn == null) {
+            return;
+        }
+        final Instant now = Instant.now();
+        final OutboxNotification notification = new OutboxNotification();
+        notification.setNotificationId(UUID.randomUUID().toString());
+        notification.setTargetArn(targetArn);
+        notification.setAction(notificationData.getAction());
+        notification.setPayload(notificationData.getPayload());
+        notification.setCreatedAt(now.toString());
+        notification.setExpiresAt(now.plus(TIME_TO_LIVE).getEpochSecond());
+        actions.add(new TransactWriteItem().withPut(new Put().withTableName(NOTIFICATION_OUTBOX_TABLE_NAME)
+            .withItem(AttributeValueUtils.convertMapToAttributeValueMap(notification.asMap()))));
+    }
+
+    // for cold start mitigation
+    public List<TableDescription> describeNotificationOutboxTable() {
+        final ArrayList<TableDescription> descriptions = new ArrayList<>();
+        descriptions.add(this.itemStore.describeTable(NOTIFICATION_OUTBOX_TABLE_NAME));
+        return descriptions;
+    }
+}
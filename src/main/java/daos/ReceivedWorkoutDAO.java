@@ -0,0 +1,116 @@
+package daos;
+
+import com.amazonaws.services.dynamodbv2.document.Item;
+import com.amazonaws.services.dynamodbv2.document.PrimaryKey;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.QueryRequest;
+import com.amazonaws.services.dynamodbv2.model.QueryResult;
+import com.amazonaws.services.dynamodbv2.model.TableDescription;
+import com.amazonaws.services.dynamodbv2.model.TransactWriteItem;
+import com.amazonaws.services.dynamodbv2.model.TransactWriteItemsResult;
+import exceptions.WorkoutNotFoundException;
+import interfaces.ItemStore;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import javax.inject.Inject;
+import models.SharedWorkoutMeta;
+
+/**
+ * Received workouts are kept in their own table, one item per workout, so that a user can receive many of them
+ * without their user item growing. The items of a recipient are ordered by when they were sent through a local
+ * secondary index on the epoch millis they were sent at, so a batch is read straight off the index without parsing
+ * or sorting any dates.
+ */
+public class ReceivedWorkoutDAO {
+
+    public static final String RECEIVED_WORKOUTS_TABLE_NAME = "receivedWorkouts";
+    public static final String RECEIVED_WORKOUTS_PARTITION_KEY = SharedWorkoutMeta.RECIPIENT;
+    public static final String RECEIVED_WORKOUTS_SORT_KEY = SharedWorkoutMeta.WORKOUT_ID;
+    public static final String SENT_AT_INDEX = "sentAtIndex";
+    public static final String SENT_AT_INDEX_SORT_KEY = SharedWorkoutMeta.SENT_AT;
+    protected final ItemStore itemStore;
+    private final Database database;
+
+    @Inject
+    public ReceivedWorkoutDAO(final Database database) {
+        this.database = database;
+        this.itemStore = database.getItemStore();
+    }
+
+    private Item getReceivedWorkoutItem(final String recipient, final String workoutId) {
+        return this.itemStore.getItem(RECEIVED_WORKOUTS_TABLE_NAME,
+            new PrimaryKey(RECEIVED_WORKOUTS_PARTITION_KEY, recipient, RECEIVED_WORKOUTS_SORT_KEY, workoutId));
+    }
+
+    public SharedWorkoutMeta getReceivedWorkout(final String recipient, final String workoutId)
+        throws WorkoutNotFoundException {
+        final Item workoutItem = Optional.ofNullable(this.getReceivedWorkoutItem(recipient, workoutId))
+            .orElseThrow(
+                () -> new WorkoutNotFoundException(
+                    String.format("Received workout with ID: %s not found", workoutId)));
+        return new SharedWorkoutMeta(workoutItem.asMap());
+    }
+
+    public Optional<SharedWorkoutMeta> findReceivedWorkout(final String recipient, final String workoutId) {
+        return Optional.ofNullable(this.getReceivedWorkoutItem(recipient, workoutId))
+            .map(item -> new SharedWorkoutMeta(item.asMap()));
+    }
+
+    /**
+     * Same as {@link #getReceivedWorkout(String, String)}, without waiting for the read.
+     */
+    public CompletableFuture<SharedWorkoutMeta> getReceivedWorkoutAsync(final String recipient,
+        final String workoutId) {
+        return this.database.async(() -> this.getReceivedWorkout(recipient, workoutId));
+    }
+
+    /**
+     * Gets one page of the workouts a user received, newest first.
+     *
+     * @param recipient         user whose received workouts are returned.
+     * @param exclusiveStartKey last evaluated key of the previous page, null for the first page.
+     * @param limit             maximum number of workouts in the page.
+     * @param keysOnly          only return the keys of the workouts, e.g. when skipping over pages.
+     * @return the page. It has a last evaluated key if there may be more workouts after it.
+     */
+    public QueryResult queryBySentAt(final String recipient, final Map<String, AttributeValue> exclusiveStartKey,
+        final int limit, final boolean keysOnly) {
+        final Map<String, String> names = new HashMap<>();
+        names.put("#recipient", RECEIVED_WORKOUTS_PARTITION_KEY);
+        final QueryRequest queryRequest = new QueryRequest()
+            .withTableName(RECEIVED_WORKOUTS_TABLE_NAME)
+            .withIndexName(SENT_AT_INDEX)
+            .withKeyConditionExpression("#recipient = :recipient")
+            .withExpressionAttributeValues(recipientValue(recipient))
+            .withScanIndexForward(false)
+            .withExclusiveStartKey(exclusiveStartKey)
+            .withLimit(limit);
+        if (keysOnly) {
+            names.put("#workoutId", RECEIVED_WORKOUTS_SORT_KEY);
+            names.put("#sentAt", SENT_AT_INDEX_SORT_KEY);
+            queryRequest.withProjectionExpression("#recipient, #workoutId, #sentAt");
+        }
+        return this.itemStore.query(queryRequest.withExpressionAttributeNames(names));
+    }
+
+    public TransactWriteItemsResult executeWriteTransaction(final List<TransactWriteItem> actions) {
+        return this.database.executeWriteTransaction(actions);
+    }
+
+    // for cold start mitigation
+    public List<TableDescription> describeReceivedWorkoutsTable() {
+        final ArrayList<TableDescription> descriptions = new ArrayList<>();
+        descriptions.add(this.itemStore.describeTable(RECEIVED_WORKOUTS_TABLE_NAME));
+        return descriptions;
+    }
+
+    private static Map<String, AttributeValue> recipientValue(final String recipient) {
+        final Map<String, AttributeValue> values = new HashMap<>();
+        values.put(":recipient", new AttributeValue(recipient));
+        return values;
+    }
+}
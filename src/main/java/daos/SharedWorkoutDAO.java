@@ -1,12 +1,8 @@
 package daos;
 
-import com.amazonaws.auth.EnvironmentVariableCredentialsProvider;
-import com.amazonaws.services.dynamodbv2.AmazonDynamoDBClient;
-import com.amazonaws.services.dynamodbv2.document.DynamoDB;
 import com.amazonaws.services.dynamodbv2.document.Item;
 import com.amazonaws.services.dynamodbv2.document.PrimaryKey;
 import com.amazonaws.services.dynamodbv2.document.PutItemOutcome;
-import com.amazonaws.services.dynamodbv2.document.Table;
 import com.amazonaws.services.dynamodbv2.document.UpdateItemOutcome;
 import com.amazonaws.services.dynamodbv2.document.spec.UpdateItemSpec;
 import com.amazonaws.services.dynamodbv2.model.TableDescription;
@@ -15,11 +11,12 @@ import com.amazonaws.services.dynamodbv2.model.TransactGetItemsResult;
 import com.amazonaws.services.dynamodbv2.model.TransactWriteItem;
 import com.amazonaws.services.dynamodbv2.model.TransactWriteItemsResult;
 import exceptions.InvalidAttributeException;
+import interfaces.ItemStore;
 import exceptions.WorkoutNotFoundException;
-import imports.Config;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import javax.inject.Inject;
 import models.SharedWorkout;
 
@@ -27,27 +24,22 @@ public class SharedWorkoutDAO {
 
     public static final String SHARED_WORKOUTS_TABLE_NAME = "sharedWorkouts";
     public static final String SHARED_WORKOUTS_TABLE_PRIMARY_KEY = SharedWorkout.SHARED_WORKOUT_ID;
-    protected final Table sharedWorkoutsTable;
+    protected final ItemStore itemStore;
     private final Database database;
 
     @Inject
     public SharedWorkoutDAO(final Database database) {
-        AmazonDynamoDBClient client = (AmazonDynamoDBClient) AmazonDynamoDBClient.builder()
-            .withRegion(Config.REGION)
-            .withCredentials(new EnvironmentVariableCredentialsProvider())
-            .build();
-        final DynamoDB dynamoDb = new DynamoDB(client);
-
         this.database = database;
-        this.sharedWorkoutsTable = dynamoDb.getTable(SHARED_WORKOUTS_TABLE_NAME);
+        this.itemStore = database.getItemStore();
     }
 
     public PutItemOutcome putSharedWorkout(final Item workout) {
-        return this.sharedWorkoutsTable.putItem(workout);
+        return this.itemStore.putItem(SHARED_WORKOUTS_TABLE_NAME, workout);
     }
 
     private Item getSharedWorkoutItem(String currentWorkoutId) {
-        return this.sharedWorkoutsTable.getItem(new PrimaryKey(SHARED_WORKOUTS_TABLE_PRIMARY_KEY, currentWorkoutId));
+        return this.itemStore.getItem(SHARED_WORKOUTS_TABLE_NAME,
+            new PrimaryKey(SHARED_WORKOUTS_TABLE_PRIMARY_KEY, currentWorkoutId));
     }
 
     public SharedWorkout getSharedWorkout(String workoutId)
@@ -59,9 +51,16 @@ public class SharedWorkoutDAO {
         return new SharedWorkout(workoutItem);
     }
 
+    /**
+     * Same as {@link #getSharedWorkout(String)}, without waiting for the read.
+     */
+    public CompletableFuture<SharedWorkout> getSharedWorkoutAsync(final String workoutId) {
+        return this.database.async(() -> this.getSharedWorkout(workoutId));
+    }
+
     public UpdateItemOutcome updateSharedWorkout(final String workoutId, final UpdateItemSpec updateItemSpec) {
         updateItemSpec.withPrimaryKey(SHARED_WORKOUTS_TABLE_PRIMARY_KEY, workoutId);
-        return this.sharedWorkoutsTable.updateItem(updateItemSpec);
+        return this.itemStore.updateItem(SHARED_WORKOUTS_TABLE_NAME, updateItemSpec);
     }
 
     //transactions
@@ -76,7 +75,7 @@ public class SharedWorkoutDAO {
     //for cold start mitigation
     public List<TableDescription> describeSharedWorkoutsTable() {
         final ArrayList<TableDescription> descriptions = new ArrayList<>();
-        descriptions.add(this.sharedWorkoutsTable.describe());
+        descriptions.add(this.itemStore.describeTable(SHARED_WORKOUTS_TABLE_NAME));
         return descriptions;
     }
 
@@ -1,50 +1,53 @@
 package daos;
 
 import utils.UpdateItemTemplate;
-import com.amazonaws.auth.EnvironmentVariableCredentialsProvider;
-import com.amazonaws.services.dynamodbv2.AmazonDynamoDBClient;
-import com.amazonaws.services.dynamodbv2.document.DynamoDB;
 import com.amazonaws.services.dynamodbv2.document.Item;
 import com.amazonaws.services.dynamodbv2.document.PrimaryKey;
 import com.amazonaws.services.dynamodbv2.document.PutItemOutcome;
-import com.amazonaws.services.dynamodbv2.document.Table;
 import com.amazonaws.services.dynamodbv2.document.UpdateItemOutcome;
 import com.amazonaws.services.dynamodbv2.document.spec.UpdateItemSpec;
+import com.amazonaws.services.dynamodbv2.document.utils.NameMap;
+import com.amazonaws.services.dynamodbv2.document.utils.ValueMap;
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
 import com.amazonaws.services.dynamodbv2.model.TableDescription;
 import com.amazonaws.services.dynamodbv2.model.TransactWriteItem;
 import com.amazonaws.services.dynamodbv2.model.TransactWriteItemsResult;
 import exceptions.InvalidAttributeException;
+import interfaces.ItemStore;
 import exceptions.UserNotFoundException;
-import imports.Config;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 import javax.inject.Inject;
 import models.User;
+import models.UserField;
 
 public class UserDAO {
 
     public static final String USERS_TABLE_NAME = "users";
     public static final String USERS_PRIMARY_KEY = User.USERNAME;
-    protected final Table usersTable;
+    protected final ItemStore itemStore;
     private final Database database;
 
     @Inject
     public UserDAO(final Database database) {
-        AmazonDynamoDBClient client = (AmazonDynamoDBClient) AmazonDynamoDBClient.builder()
-            .withRegion(Config.REGION)
-            .withCredentials(new EnvironmentVariableCredentialsProvider())
-            .build();
-        final DynamoDB dynamoDb = new DynamoDB(client);
-
         this.database = database;
-        this.usersTable = dynamoDb.getTable(USERS_TABLE_NAME);
+        this.itemStore = database.getItemStore();
     }
 
     public PutItemOutcome putUser(final Item user) {
-        return this.usersTable.putItem(user);
+        return this.itemStore.putItem(USERS_TABLE_NAME, user);
     }
 
+    /**
+     * @param username username of the user.
+     * @return the whole user, e.g. when it is sent back to the client.
+     * @throws UserNotFoundException if the user does not exist.
+     */
     public User getUser(final String username)
         throws NullPointerException, InvalidAttributeException, UserNotFoundException {
         final Item userItem = Optional.ofNullable(this.getUserItem(username))
@@ -53,21 +56,107 @@ public class UserDAO {
         return new User(userItem);
     }
 
+    /**
+     * Reads only the attributes of the given fields, so what a read costs and how long the user takes to parse grows
+     * with what the caller needs rather than with the size of the account.
+     *
+     * @param username username of the user.
+     * @param fields   fields that are loaded, the username always is.
+     * @return the user, failing fast when any field that was not loaded is read.
+     * @throws UserNotFoundException if the user does not exist.
+     */
+    public User getUser(final String username, final UserField... fields)
+        throws InvalidAttributeException, UserNotFoundException {
+        final NameMap nameMap = new NameMap().with("#username", USERS_PRIMARY_KEY);
+        final StringJoiner projectionExpression = new StringJoiner(", ").add("#username");
+        for (UserField field : fields) {
+            for (String attributeName : field.getAttributeNames()) {
+                final String placeholder = "#" + attributeName;
+                if (nameMap.putIfAbsent(placeholder, attributeName) == null) {
+                    projectionExpression.add(placeholder);
+                }
+            }
+        }
+
+        final Item userItem = Optional.ofNullable(this.readMovingLegacyReceivedWorkouts(
+                () -> this.itemStore.getItem(USERS_TABLE_NAME, new PrimaryKey(USERS_PRIMARY_KEY, username),
+                    projectionExpression.toString(), nameMap)))
+            .orElseThrow(
+                () -> new UserNotFoundException(String.format("User \"%s\" not found", username)));
+        return new User(userItem.asMap(), Arrays.asList(fields));
+    }
+
+    /**
+     * Same as {@link #getUser(String)}, without waiting for the read.
+     */
+    public CompletableFuture<User> getUserAsync(final String username) {
+        return this.database.async(() -> this.getUser(username));
+    }
+
+    /**
+     * Same as {@link #getUser(String, UserField...)}, without waiting for the read.
+     */
+    public CompletableFuture<User> getUserAsync(final String username, final UserField... fields) {
+        return this.database.async(() -> this.getUser(username, fields));
+    }
+
     private Item getUserItem(final String username) throws NullPointerException {
-        return this.usersTable.getItem(new PrimaryKey(USERS_PRIMARY_KEY, username));
+        return this.readMovingLegacyReceivedWorkouts(
+            () -> this.itemStore.getItem(USERS_TABLE_NAME, new PrimaryKey(USERS_PRIMARY_KEY, username)));
+    }
+
+    // a user that still has its received workouts as a map is moved to the received workouts table and read again
+    private Item readMovingLegacyReceivedWorkouts(final Supplier<Item> read) {
+        final Item userItem = read.get();
+        if (!LegacyReceivedWorkouts.isIn(userItem)) {
+            return userItem;
+        }
+        LegacyReceivedWorkouts.move(this.itemStore, userItem);
+        return read.get();
     }
 
     public boolean userExists(final String username) {
         return this.getUserItem(username) != null;
     }
 
+    /**
+     * Sets everything sent to a user up to the given time to seen with a single small write, by moving a seen watermark
+     * forward and resetting the unseen counter that goes with it. A watermark that is already further along is kept
+     * as is, along with its counter.
+     *
+     * @param username      user that has seen everything.
+     * @param watermark     attribute of the seen watermark.
+     * @param unseenCounter attribute of the unseen counter that the watermark covers.
+     * @param seenAt        epoch millis up to which everything is seen.
+     * @throws UserNotFoundException if the user does not exist.
+     */
+    public void advanceSeenWatermark(final String username, final String watermark, final String unseenCounter,
+        final long seenAt) throws UserNotFoundException {
+        final UpdateItemSpec updateItemSpec = new UpdateItemSpec()
+            .withUpdateExpression("set #watermark = :seenAt, #unseenCounter = :zero")
+            .withConditionExpression("attribute_exists(#username) and "
+                + "(attribute_not_exists(#watermark) or #watermark < :seenAt)")
+            .withNameMap(new NameMap()
+                .with("#watermark", watermark)
+                .with("#unseenCounter", unseenCounter)
+                .with("#username", USERS_PRIMARY_KEY))
+            .withValueMap(new ValueMap().withLong(":seenAt", seenAt).withInt(":zero", 0));
+        try {
+            this.updateUser(username, updateItemSpec);
+        } catch (ConditionalCheckFailedException e) {
+            if (!this.userExists(username)) {
+                throw new UserNotFoundException(String.format("User \"%s\" not found", username));
+            }
+        }
+    }
+
     public UpdateItemOutcome updateUser(final String username, final UpdateItemSpec updateItemSpec) {
         updateItemSpec.withPrimaryKey(USERS_PRIMARY_KEY, username);
-        return this.usersTable.updateItem(updateItemSpec);
+        return this.itemStore.updateItem(USERS_TABLE_NAME, updateItemSpec);
     }
 
     public UpdateItemOutcome updateUser(final UpdateItemTemplate updateItemData) throws Exception {
-        return this.usersTable.updateItem(updateItemData.asUpdateItemSpec());
+        return this.itemStore.updateItem(USERS_TABLE_NAME, updateItemData.asUpdateItemSpec());
     }
 
     public TransactWriteItemsResult executeWriteTransaction(final List<TransactWriteItem> actions) {
@@ -77,7 +166,7 @@ public class UserDAO {
     // for cold start mitigation
     public List<TableDescription> describeUserTable() {
         final ArrayList<TableDescription> descriptions = new ArrayList<>();
-        descriptions.add(this.usersTable.describe());
+        descriptions.add(this.itemStore.describeTable(USERS_TABLE_NAME));
         return descriptions;
     }
 
@@ -1,54 +1,61 @@
 package daos;
 
-import com.amazonaws.auth.EnvironmentVariableCredentialsProvider;
-import com.amazonaws.services.dynamodbv2.AmazonDynamoDBClient;
-import com.amazonaws.services.dynamodbv2.document.DynamoDB;
 import com.amazonaws.services.dynamodbv2.document.Item;
+import com.amazonaws.services.dynamodbv2.document.ItemUtils;
 import com.amazonaws.services.dynamodbv2.document.PrimaryKey;
 import com.amazonaws.services.dynamodbv2.document.PutItemOutcome;
-import com.amazonaws.services.dynamodbv2.document.Table;
 import com.amazonaws.services.dynamodbv2.document.UpdateItemOutcome;
 import com.amazonaws.services.dynamodbv2.document.spec.UpdateItemSpec;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemResult;
+import com.amazonaws.services.dynamodbv2.model.KeysAndAttributes;
+import com.amazonaws.services.dynamodbv2.model.ProvisionedThroughputExceededException;
 import com.amazonaws.services.dynamodbv2.model.TableDescription;
 import com.amazonaws.services.dynamodbv2.model.TransactGetItemsRequest;
 import com.amazonaws.services.dynamodbv2.model.TransactGetItemsResult;
 import com.amazonaws.services.dynamodbv2.model.TransactWriteItem;
 import com.amazonaws.services.dynamodbv2.model.TransactWriteItemsResult;
 import exceptions.InvalidAttributeException;
+import interfaces.ItemStore;
 import exceptions.WorkoutNotFoundException;
-import imports.Config;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import javax.inject.Inject;
 import models.Workout;
+import utils.Metrics;
+import utils.WritePlan;
 
 public class WorkoutDAO {
 
     public static final String WORKOUT_TABLE_NAME = "workouts";
     public static final String WORKOUT_TABLE_PRIMARY_KEY = Workout.WORKOUT_ID;
+    private static final int MAX_BATCH_GET_KEYS = 100;
+    private static final int MAX_BATCH_GET_ATTEMPTS = 5;
+    private static final int BATCH_GET_BACKOFF_MILLIS = 25;
 
-    protected final Table workoutTable;
+    protected final ItemStore itemStore;
     private final Database database;
 
     @Inject
     public WorkoutDAO(final Database database) {
-        AmazonDynamoDBClient client = (AmazonDynamoDBClient) AmazonDynamoDBClient.builder()
-            .withRegion(Config.REGION)
-            .withCredentials(new EnvironmentVariableCredentialsProvider())
-            .build();
-        final DynamoDB dynamoDb = new DynamoDB(client);
-
         this.database = database;
-        this.workoutTable = dynamoDb.getTable(WORKOUT_TABLE_NAME);
+        this.itemStore = database.getItemStore();
     }
 
     public PutItemOutcome putWorkout(final Item workout) {
-        return this.workoutTable.putItem(workout);
+        return this.itemStore.putItem(WORKOUT_TABLE_NAME, workout);
     }
 
     private Item getWorkoutItem(String workoutId) {
-        return this.workoutTable.getItem(new PrimaryKey(WORKOUT_TABLE_PRIMARY_KEY, workoutId));
+        return this.itemStore.getItem(WORKOUT_TABLE_NAME, new PrimaryKey(WORKOUT_TABLE_PRIMARY_KEY, workoutId));
     }
 
     public Workout getWorkout(String workoutId)
@@ -60,10 +67,63 @@ public class WorkoutDAO {
         return new Workout(workoutItem);
     }
 
+    /**
+     * Same as {@link #getWorkout(String)}, without waiting for the read.
+     */
+    public CompletableFuture<Workout> getWorkoutAsync(final String workoutId) {
+        return this.database.async(() -> this.getWorkout(workoutId));
+    }
+
+    /**
+     * Reads many workouts with as few requests as possible. Keys that dynamo did not get to, e.g. when throttled, are
+     * read again with a backoff.
+     *
+     * @param workoutIds ids of the workouts.
+     * @return the workouts that exist, by their id. Ids of workouts that don't exist are left out.
+     * @throws ProvisionedThroughputExceededException if some keys are still not read after all attempts.
+     */
+    public Map<String, Workout> getWorkouts(final Collection<String> workoutIds)
+        throws InvalidAttributeException, InterruptedException {
+        final Map<String, Workout> workouts = new HashMap<>();
+        // a batch must not have the same key twice
+        final List<String> uniqueWorkoutIds = new ArrayList<>(new LinkedHashSet<>(workoutIds));
+        for (int start = 0; start < uniqueWorkoutIds.size(); start += MAX_BATCH_GET_KEYS) {
+            final List<Map<String, AttributeValue>> keys = new ArrayList<>();
+            for (String workoutId : uniqueWorkoutIds.subList(start,
+                Math.min(start + MAX_BATCH_GET_KEYS, uniqueWorkoutIds.size()))) {
+                keys.add(Collections.singletonMap(WORKOUT_TABLE_PRIMARY_KEY, new AttributeValue(workoutId)));
+            }
+
+            Map<String, KeysAndAttributes> requestItems = Collections.singletonMap(WORKOUT_TABLE_NAME,
+                new KeysAndAttributes().withKeys(keys));
+            for (int attempt = 1; !requestItems.isEmpty(); attempt++) {
+                if (attempt > MAX_BATCH_GET_ATTEMPTS) {
+                    throw new ProvisionedThroughputExceededException(
+                        String.format("Unable to read %d workouts", requestItems.get(WORKOUT_TABLE_NAME)
+                            .getKeys().size()));
+                }
+                if (attempt > 1) {
+                    Thread.sleep((long) BATCH_GET_BACKOFF_MILLIS << (attempt - 2));
+                }
+                final BatchGetItemResult result = this.itemStore.batchGetItem(new BatchGetItemRequest()
+                    .withRequestItems(requestItems));
+                for (Map<String, AttributeValue> item : result.getResponses()
+                    .getOrDefault(WORKOUT_TABLE_NAME, Collections.emptyList())) {
+                    final Workout workout = new Workout(ItemUtils.toItem(item));
+                    workouts.put(workout.getWorkoutId(), workout);
+                }
+                requestItems = result.getUnprocessedKeys() == null
+                    ? Collections.emptyMap()
+                    : result.getUnprocessedKeys();
+            }
+        }
+        return workouts;
+    }
+
     public UpdateItemOutcome updateWorkout(final String workoutId,
         final UpdateItemSpec updateItemSpec) {
         updateItemSpec.withPrimaryKey(WORKOUT_TABLE_PRIMARY_KEY, workoutId);
-        return this.workoutTable.updateItem(updateItemSpec);
+        return this.itemStore.updateItem(WORKOUT_TABLE_NAME, updateItemSpec);
     }
 
     //transactions
@@ -71,6 +131,11 @@ public class WorkoutDAO {
         return this.database.executeWriteTransaction(actions);
     }
 
+    public List<TransactWriteItemsResult> executeWritePlan(final WritePlan writePlan, final Metrics metrics)
+        throws Exception {
+        return this.database.executeWritePlan(writePlan, metrics);
+    }
+
     public TransactGetItemsResult executeGetTransaction(final TransactGetItemsRequest transactGetItemsRequest) {
         return this.database.executeGetTransaction(transactGetItemsRequest);
     }
@@ -78,7 +143,7 @@ public class WorkoutDAO {
     //for cold start mitigation
     public List<TableDescription> describeWorkoutTable() {
         final ArrayList<TableDescription> descriptions = new ArrayList<>();
-        descriptions.add(this.workoutTable.describe());
+        descriptions.add(this.itemStore.describeTable(WORKOUT_TABLE_NAME));
         return descriptions;
     }
 
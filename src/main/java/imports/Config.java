@@ -8,4 +8,59 @@ public class Config {
     public static final String PUSH_EMAIL_PLATFORM_ARN = "arn:aws:sns:us-east-1:438338746171:LiteWeightDevEmail";
     public static final String COGNITO_USER_POOL = "us-east-1_vLSsBubHd";
     public static final Regions REGION = Regions.US_EAST_1;
+
+    // Backend the DAOs persist to: "dynamodb", or "memory" to keep every table in memory for offline load tests
+    public static final String ITEM_STORE = getStringEnv("ITEM_STORE", "dynamodb");
+
+    // DynamoDB client settings. Can be overridden per function using environment variables of the same name
+    public static final int DYNAMO_MAX_CONNECTIONS = getIntEnv("DYNAMO_MAX_CONNECTIONS", 50);
+    public static final boolean DYNAMO_TCP_KEEP_ALIVE = getBooleanEnv("DYNAMO_TCP_KEEP_ALIVE", true);
+    public static final long DYNAMO_CONNECTION_MAX_IDLE_MILLIS = getIntEnv("DYNAMO_CONNECTION_MAX_IDLE_MILLIS",
+        60000);
+    public static final int DYNAMO_CONNECTION_TIMEOUT_MILLIS = getIntEnv("DYNAMO_CONNECTION_TIMEOUT_MILLIS", 2000);
+    public static final int DYNAMO_SOCKET_TIMEOUT_MILLIS = getIntEnv("DYNAMO_SOCKET_TIMEOUT_MILLIS", 5000);
+    public static final int DYNAMO_REQUEST_TIMEOUT_MILLIS = getIntEnv("DYNAMO_REQUEST_TIMEOUT_MILLIS", 5000);
+    public static final int DYNAMO_CLIENT_EXECUTION_TIMEOUT_MILLIS = getIntEnv(
+        "DYNAMO_CLIENT_EXECUTION_TIMEOUT_MILLIS", 10000);
+
+    // Threads the DAOs run async requests on, so a manager can read or write several items at the same time instead
+    // of one by one. Also the most requests a single fan-out runs at once
+    public static final int DYNAMO_ASYNC_THREADS = getIntEnv("DYNAMO_ASYNC_THREADS", 8);
+
+    // Cognito signing keys and verified id tokens are cached for the lifetime of the container
+    public static final long JWKS_REFRESH_MILLIS = getIntEnv("JWKS_REFRESH_MILLIS", 3600000);
+    public static final long JWKS_MIN_FORCED_REFRESH_MILLIS = getIntEnv("JWKS_MIN_FORCED_REFRESH_MILLIS", 60000);
+    public static final int VERIFIED_TOKEN_CACHE_SIZE = getIntEnv("VERIFIED_TOKEN_CACHE_SIZE", 256);
+
+    // Attempts a manager makes at a read-modify-write of versioned items before giving up on concurrent writers
+    public static final int VERSION_CONFLICT_MAX_ATTEMPTS = getIntEnv("VERSION_CONFLICT_MAX_ATTEMPTS", 3);
+
+    // Attempts at publishing a push notification of the outbox before it is dropped
+    public static final int NOTIFICATION_MAX_ATTEMPTS = getIntEnv("NOTIFICATION_MAX_ATTEMPTS", 3);
+
+    // Routines written to the workouts table are stored packed by utils.RoutineCodec instead of as a map. Workouts are
+    // read in either form, so this can be turned on and off at any time
+    public static final boolean PACK_ROUTINES = getBooleanEnv("PACK_ROUTINES", false);
+
+    private static String getStringEnv(final String name, final String defaultValue) {
+        final String value = System.getenv(name);
+        return value == null || value.trim().isEmpty() ? defaultValue : value.trim();
+    }
+
+    private static int getIntEnv(final String name, final int defaultValue) {
+        final String value = System.getenv(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    private static boolean getBooleanEnv(final String name, final boolean defaultValue) {
+        final String value = System.getenv(name);
+        return value == null ? defaultValue : Boolean.parseBoolean(value.trim());
+    }
 }
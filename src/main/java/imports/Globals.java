@@ -14,4 +14,5 @@ public class Globals {
     public static final int MAX_FREE_EXERCISES = 100;
     public static final int MAX_PREMIUM_EXERCISES = 200;
     public static final int MAX_FREE_WORKOUTS_SENT = 50;
+    public static final int MAX_UPDATE_EXPRESSION_LENGTH = 4096; // imposed by dynamo
 }
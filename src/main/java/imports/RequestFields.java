@@ -14,9 +14,13 @@ public class RequestFields {
     public static final String EXERCISE_ID = "exerciseId";
     public static final String NEXT_WORKOUT_ID = "nextWorkoutId";
     public static final String BATCH_NUMBER = "batchNumber";
+    public static final String CURSOR = "cursor";
+    public static final String NEXT_CURSOR = "nextCursor";
     public static final String WORKOUT_META = "workoutMeta";
     public static final String EXERCISES = "exercises";
     public static final String WORKOUT_PRESENT = "workoutPresent";
     public static final String FEEDBACK = "feedback";
     public static final String FEEDBACK_TIME = "feedbackTime";
+    public static final String PATCHES = "patches";
+    public static final String OLD_WORKOUT_ID = "oldWorkoutId";
 }
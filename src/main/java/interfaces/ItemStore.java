@@ -0,0 +1,71 @@
+package interfaces;
+
+import com.amazonaws.services.dynamodbv2.document.Item;
+import com.amazonaws.services.dynamodbv2.document.PrimaryKey;
+import com.amazonaws.services.dynamodbv2.document.PutItemOutcome;
+import com.amazonaws.services.dynamodbv2.document.UpdateItemOutcome;
+import com.amazonaws.services.dynamodbv2.document.spec.UpdateItemSpec;
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemResult;
+import com.amazonaws.services.dynamodbv2.model.QueryRequest;
+import com.amazonaws.services.dynamodbv2.model.QueryResult;
+import com.amazonaws.services.dynamodbv2.model.TableDescription;
+import com.amazonaws.services.dynamodbv2.model.TransactGetItemsRequest;
+import com.amazonaws.services.dynamodbv2.model.TransactGetItemsResult;
+import com.amazonaws.services.dynamodbv2.model.TransactWriteItem;
+import com.amazonaws.services.dynamodbv2.model.TransactWriteItemsResult;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The persistence operations the DAOs are built on. Implementations must honour DynamoDB semantics: update and
+ * condition expressions, upserts on update, and all-or-nothing transactions. Failures are reported with the same
+ * exceptions the DynamoDB client throws.
+ */
+public interface ItemStore {
+
+    Item getItem(final String tableName, final PrimaryKey primaryKey);
+
+    /**
+     * @param tableName            table the item is in.
+     * @param primaryKey           key of the item.
+     * @param projectionExpression attributes of the item to return.
+     * @param nameMap              expression attribute names used by the projection, may be null.
+     */
+    Item getItem(final String tableName, final PrimaryKey primaryKey, final String projectionExpression,
+        final Map<String, String> nameMap);
+
+    PutItemOutcome putItem(final String tableName, final Item item);
+
+    /**
+     * @param tableName       table the item is in.
+     * @param updateItemSpec  update to apply. Must already have its primary key set.
+     */
+    UpdateItemOutcome updateItem(final String tableName, final UpdateItemSpec updateItemSpec);
+
+    /**
+     * @param queryRequest query on a table or one of its indexes. Returns a single page, the next one starts after
+     *                     the last evaluated key of the result.
+     */
+    QueryResult query(final QueryRequest queryRequest);
+
+    /**
+     * @param batchGetItemRequest up to 100 keys. Items that are not found are left out of the result, and keys that
+     *                            were not read this time are returned as unprocessed keys.
+     */
+    BatchGetItemResult batchGetItem(final BatchGetItemRequest batchGetItemRequest);
+
+    TransactWriteItemsResult executeWriteTransaction(final List<TransactWriteItem> actions);
+
+    /**
+     * @param actions            up to 25 writes of different items.
+     * @param clientRequestToken makes the transaction idempotent: sending it again with the same token and actions
+     *                           succeeds without writing anything, with different actions it fails.
+     */
+    TransactWriteItemsResult executeWriteTransaction(final List<TransactWriteItem> actions,
+        final String clientRequestToken);
+
+    TransactGetItemsResult executeGetTransaction(final TransactGetItemsRequest transactGetItemsRequest);
+
+    TableDescription describeTable(final String tableName);
+}
@@ -6,28 +6,34 @@ import com.amazonaws.services.dynamodbv2.document.utils.ValueMap;
 import com.amazonaws.services.dynamodbv2.model.TransactWriteItem;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
+import daos.NotificationOutboxDAO;
 import daos.UserDAO;
 import exceptions.ManagerExecutionException;
 import imports.Globals;
+import utils.ConcurrencyUtils;
+import utils.FriendRequestUtils;
 import utils.Metrics;
+import utils.QuotaUtils;
 import utils.UpdateItemTemplate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import javax.inject.Inject;
 import models.Friend;
 import models.NotificationData;
 import models.User;
+import models.UserField;
 
 public class AcceptFriendRequestManager {
 
-    private final NotificationService notificationService;
+    private final NotificationOutboxDAO notificationOutboxDAO;
     private final UserDAO userDAO;
     private final Metrics metrics;
 
     @Inject
-    public AcceptFriendRequestManager(final NotificationService notificationService, final UserDAO userDAO,
+    public AcceptFriendRequestManager(final NotificationOutboxDAO notificationOutboxDAO, final UserDAO userDAO,
         final Metrics metrics) {
-        this.notificationService = notificationService;
+        this.notificationOutboxDAO = notificationOutboxDAO;
         this.userDAO = userDAO;
         this.metrics = metrics;
     }
@@ -45,44 +51,57 @@ public class AcceptFriendRequestManager {
         this.metrics.commonSetup(classMethod);
 
         try {
-            final User activeUserObject = this.userDAO.getUser(activeUser);
-            final User userToAccept = this.userDAO.getUser(usernameToAccept);
+            ConcurrencyUtils.retryOnConflict(this.metrics, () -> {
+                // both users are read at the same time
+                final CompletableFuture<User> activeUserRead = this.userDAO.getUserAsync(activeUser,
+                    UserField.FRIENDS, UserField.FRIEND_REQUESTS);
+                final CompletableFuture<User> userToAcceptRead = this.userDAO.getUserAsync(usernameToAccept,
+                    UserField.ICON, UserField.PUSH_ENDPOINT_ARN);
+                final User activeUserObject = ConcurrencyUtils.await(activeUserRead);
+                final User userToAccept = ConcurrencyUtils.await(userToAcceptRead);
 
-            if (!activeUserObject.getFriendRequests().containsKey(usernameToAccept)) {
-                // sanity check to make sure that the request is still there
-                this.metrics.commonClose(false);
-                throw new ManagerExecutionException(
-                    String.format("User %s no longer has this friend request.", usernameToAccept));
-            }
-            if (activeUserObject.getFriends().size() >= Globals.MAX_NUMBER_FRIENDS) {
-                this.metrics.commonClose(false);
-                throw new ManagerExecutionException("Max number of friends reached.");
-            }
+                if (!activeUserObject.getFriendRequests().containsKey(usernameToAccept)) {
+                    // sanity check to make sure that the request is still there
+                    this.metrics.commonClose(false);
+                    throw new ManagerExecutionException(
+                        String.format("User %s no longer has this friend request.", usernameToAccept));
+                }
+                if (activeUserObject.getFriends().size() >= Globals.MAX_NUMBER_FRIENDS) {
+                    this.metrics.commonClose(false);
+                    throw new ManagerExecutionException("Max number of friends reached.");
+                }
 
-            // remove request from active user and add the new friend
-            Friend newFriend = new Friend(userToAccept, true);
-            UpdateItemTemplate activeUserData = new UpdateItemTemplate(activeUser, UserDAO.USERS_TABLE_NAME)
-                .withUpdateExpression("set " + User.FRIENDS + ".#username = :friendVal " +
-                    "remove " + User.FRIEND_REQUESTS + ".#username")
-                .withNameMap(new NameMap().with("#username", usernameToAccept))
-                .withValueMap(new ValueMap().withMap(":friendVal", newFriend.asMap()));
+                // remove request from active user and add the new friend
+                Friend newFriend = new Friend(userToAccept, true);
+                UpdateItemTemplate activeUserData = new UpdateItemTemplate(activeUser, UserDAO.USERS_TABLE_NAME)
+                    .withUpdateExpression("set " + User.FRIENDS + ".#username = :friendVal")
+                    .withNameMap(new NameMap().with("#username", usernameToAccept))
+                    .withValueMap(new ValueMap().withMap(":friendVal", newFriend.asMap()))
+                    .merge(QuotaUtils.getRoomForFriend(activeUser))
+                    .merge(FriendRequestUtils.getRemoveFriendRequest(activeUser, usernameToAccept,
+                        activeUserObject.getFriendRequests().get(usernameToAccept)));
 
-            // update the active user to be confirmed in the newly accepted friends mapping
-            UpdateItemTemplate updateFriendData = new UpdateItemTemplate(usernameToAccept, UserDAO.USERS_TABLE_NAME)
-                .withUpdateExpression("set " + User.FRIENDS + ".#username." + Friend.CONFIRMED + " = :confirmedVal")
-                .withNameMap(new NameMap().with("#username", activeUser))
-                .withValueMap(new ValueMap().withBoolean(":confirmedVal", true));
+                // update the active user to be confirmed in the newly accepted friends mapping
+                UpdateItemTemplate updateFriendData = new UpdateItemTemplate(usernameToAccept,
+                    UserDAO.USERS_TABLE_NAME)
+                    .withUpdateExpression(
+                        "set " + User.FRIENDS + ".#username." + Friend.CONFIRMED + " = :confirmedVal")
+                    .withNameMap(new NameMap().with("#username", activeUser))
+                    .withValueMap(new ValueMap().withBoolean(":confirmedVal", true));
 
-            final List<TransactWriteItem> actions = new ArrayList<>();
-            actions.add(new TransactWriteItem().withUpdate(activeUserData.asUpdate()));
-            actions.add(new TransactWriteItem().withUpdate(updateFriendData.asUpdate()));
-            this.userDAO.executeWriteTransaction(actions);
+                final List<TransactWriteItem> actions = new ArrayList<>();
+                actions.add(new TransactWriteItem().withUpdate(activeUserData.asUpdate()));
+                actions.add(new TransactWriteItem().withUpdate(updateFriendData.asUpdate()));
+                // the accepted user is notified once the transaction commits (only need username)
+                this.notificationOutboxDAO.enqueue(actions, userToAccept.getPushEndpointArn(),
+                    new NotificationData(NotificationService.acceptedFriendRequestAction,
+                        Maps.newHashMap(ImmutableMap.<String, String>builder().put(User.USERNAME, activeUser)
+                            .build())));
+
+                this.userDAO.executeWriteTransaction(actions);
+                return null;
+            });
 
-            // if this succeeds, go ahead and send a notification to the accepted user (only need to send username)
-            this.notificationService.sendMessage(userToAccept.getPushEndpointArn(),
-                new NotificationData(NotificationService.acceptedFriendRequestAction,
-                    Maps.newHashMap(ImmutableMap.<String, String>builder().put(User.USERNAME, activeUser)
-                        .build())));
             this.metrics.commonClose(true);
         } catch (Exception e) {
             this.metrics.commonClose(false);
@@ -4,7 +4,7 @@ import com.amazonaws.services.dynamodbv2.document.utils.NameMap;
 import com.amazonaws.services.dynamodbv2.document.utils.ValueMap;
 import com.amazonaws.services.dynamodbv2.model.Put;
 import com.amazonaws.services.dynamodbv2.model.TransactWriteItem;
-import com.google.common.collect.Sets;
+import daos.ReceivedWorkoutDAO;
 import daos.SharedWorkoutDAO;
 import daos.UserDAO;
 import daos.WorkoutDAO;
@@ -13,17 +13,20 @@ import models.SharedDay;
 import models.SharedWeek;
 import utils.AttributeValueUtils;
 import imports.Globals;
+import utils.ConcurrencyUtils;
 import utils.Metrics;
+import utils.OwnedExercisesDiff;
+import utils.QuotaUtils;
+import utils.ReceivedWorkoutUtils;
 import utils.UpdateItemTemplate;
 import utils.WorkoutUtils;
 import java.time.Instant;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import javax.inject.Inject;
 import models.OwnedExercise;
 import models.SharedWorkoutMeta;
@@ -31,6 +34,7 @@ import models.Routine;
 import models.SharedExercise;
 import models.SharedWorkout;
 import models.User;
+import models.UserField;
 import models.Workout;
 import models.WorkoutMeta;
 import responses.AcceptWorkoutResponse;
@@ -39,13 +43,16 @@ public class AcceptReceivedWorkoutManager {
 
     private final UserDAO userDAO;
     private final SharedWorkoutDAO sharedWorkoutDAO;
+    private final ReceivedWorkoutDAO receivedWorkoutDAO;
     private final Metrics metrics;
 
     @Inject
     public AcceptReceivedWorkoutManager(final SharedWorkoutDAO sharedWorkoutDAO,
+        final ReceivedWorkoutDAO receivedWorkoutDAO,
         final UserDAO userDAO,
         final Metrics metrics) {
         this.sharedWorkoutDAO = sharedWorkoutDAO;
+        this.receivedWorkoutDAO = receivedWorkoutDAO;
         this.userDAO = userDAO;
         this.metrics = metrics;
     }
@@ -68,84 +75,95 @@ public class AcceptReceivedWorkoutManager {
         this.metrics.commonSetup(classMethod);
 
         try {
-            final User activeUserObject = this.userDAO.getUser(activeUser);
-            final SharedWorkout workoutToAccept = this.sharedWorkoutDAO.getSharedWorkout(workoutIdToAccept);
-            final SharedWorkoutMeta sharedWorkoutMeta = activeUserObject.getReceivedWorkouts().get(workoutIdToAccept);
-
-            if (optionalName != null) {
-                workoutToAccept.setWorkoutName(optionalName);
-            }
+            final AcceptWorkoutResponse result = ConcurrencyUtils.retryOnConflict(this.metrics, () -> {
+                // the user, the shared workout and its received workout are read at the same time
+                final CompletableFuture<User> activeUserRead = this.userDAO.getUserAsync(activeUser,
+                    UserField.VERSION, UserField.PREMIUM_TOKEN, UserField.CURRENT_WORKOUT, UserField.USER_PREFERENCES,
+                    UserField.WORKOUT_METAS, UserField.OWNED_EXERCISES, UserField.RECEIVED_WORKOUTS);
+                final CompletableFuture<SharedWorkout> workoutToAcceptRead = this.sharedWorkoutDAO
+                    .getSharedWorkoutAsync(workoutIdToAccept);
+                final CompletableFuture<SharedWorkoutMeta> sharedWorkoutMetaRead = this.receivedWorkoutDAO
+                    .getReceivedWorkoutAsync(activeUser, workoutIdToAccept);
+                final User activeUserObject = ConcurrencyUtils.await(activeUserRead);
+                final OwnedExercisesDiff exercisesDiff = OwnedExercisesDiff.track(activeUserObject);
+                final SharedWorkout workoutToAccept = ConcurrencyUtils.await(workoutToAcceptRead);
+                final SharedWorkoutMeta sharedWorkoutMeta = ConcurrencyUtils.await(sharedWorkoutMetaRead);
+
+                if (optionalName != null) {
+                    workoutToAccept.setWorkoutName(optionalName);
+                }
 
-            String errorMessage = validInput(activeUserObject, workoutToAccept);
-            if (!errorMessage.isEmpty()) {
-                this.metrics.commonClose(false);
-                throw new ManagerExecutionException(errorMessage);
-            }
+                String errorMessage = validInput(activeUserObject, workoutToAccept);
+                if (!errorMessage.isEmpty()) {
+                    this.metrics.commonClose(false);
+                    throw new ManagerExecutionException(errorMessage);
+                }
 
-            // add any exercises that the user does not already own
-            addNewExercises(workoutToAccept, activeUserObject);
-
-            // user has no workouts yet, so make this newly accepted one the current workout
-            boolean updateCurrentWorkout = activeUserObject.getCurrentWorkout() == null;
-
-            // create the workout as a new one. Not a separate method due to transactions
-            final String workoutId = UUID.randomUUID().toString();
-            final String creationTime = Instant.now().toString();
-            final Workout newWorkout = new Workout();
-            Map<String, String> exerciseNameToId = new HashMap<>();
-            for (String exerciseId : activeUserObject.getOwnedExercises().keySet()) {
-                exerciseNameToId.putIfAbsent(
-                    activeUserObject.getOwnedExercises().get(exerciseId).getExerciseName(),
-                    exerciseId);
-            }
-            final Routine routine = new Routine(workoutToAccept.getRoutine(), exerciseNameToId);
-            newWorkout.setCreationDate(creationTime);
-            newWorkout.setCreator(activeUser);
-            newWorkout.setWorkoutId(workoutId);
-            newWorkout.setWorkoutName(workoutToAccept.getWorkoutName());
-            newWorkout.setRoutine(routine);
-            newWorkout.setCurrentDay(0);
-            newWorkout.setCurrentWeek(0);
-
-            final WorkoutMeta workoutMeta = new WorkoutMeta();
-            workoutMeta.setWorkoutName(workoutToAccept.getWorkoutName().trim());
-            workoutMeta.setAverageExercisesCompleted(0.0);
-            workoutMeta.setDateLast(creationTime);
-            workoutMeta.setTimesCompleted(0);
-            workoutMeta.setTotalExercisesSum(0);
-
-            // update all the exercises that are now a part of this workout
-            WorkoutUtils.updateOwnedExercises(activeUserObject, routine, workoutId, workoutToAccept.getWorkoutName());
-
-            UpdateItemTemplate updateUserItemData = new UpdateItemTemplate(activeUser, UserDAO.USERS_TABLE_NAME)
-                .withUpdateExpression("set " +
-                    User.CURRENT_WORKOUT + " = :currentWorkoutVal, " +
-                    User.WORKOUTS + ".#workoutId= :workoutUserMap, " +
-                    User.EXERCISES + "= :exercisesMap "
-                    + "remove " + User.RECEIVED_WORKOUTS + ".#receivedWorkoutId")
-                .withValueMap(new ValueMap()
-                    .withString(":currentWorkoutVal",
-                        updateCurrentWorkout ? workoutId : activeUserObject.getCurrentWorkout())
-                    .withMap(":workoutUserMap", workoutMeta.asMap())
-                    .withMap(":exercisesMap", activeUserObject.getOwnedExercisesMap()))
-                .withNameMap(new NameMap()
-                    .with("#receivedWorkoutId", workoutIdToAccept)
-                    .with("#workoutId", workoutId));
-            // since user is accepting the workout, delete the shared workout from the table - it's no longer needed
-            UpdateItemTemplate updateSharedWorkoutData = new UpdateItemTemplate(
-                workoutToAccept.getSharedWorkoutId(), SharedWorkoutDAO.SHARED_WORKOUTS_TABLE_NAME);
-
-            List<TransactWriteItem> actions = new ArrayList<>();
-            actions.add(new TransactWriteItem().withUpdate(updateUserItemData.asUpdate()));
-            actions.add(new TransactWriteItem().withDelete(updateSharedWorkoutData.asDelete()));
-            actions.add(new TransactWriteItem()
-                .withPut(new Put().withTableName(WorkoutDAO.WORKOUT_TABLE_NAME).withItem(
-                    AttributeValueUtils.convertMapToAttributeValueMap(newWorkout.asMap()))));
-            this.userDAO.executeWriteTransaction(actions);
+                // add any exercises that the user does not already own
+                addNewExercises(workoutToAccept, activeUserObject);
+
+                // user has no workouts yet, so make this newly accepted one the current workout
+                boolean updateCurrentWorkout = activeUserObject.getCurrentWorkout() == null;
+
+                // create the workout as a new one. Not a separate method due to transactions
+                final String workoutId = UUID.randomUUID().toString();
+                final String creationTime = Instant.now().toString();
+                final Workout newWorkout = new Workout();
+                final Routine routine = new Routine(workoutToAccept.getRoutine(),
+                    activeUserObject::getExerciseIdByName);
+                newWorkout.setCreationDate(creationTime);
+                newWorkout.setCreator(activeUser);
+                newWorkout.setWorkoutId(workoutId);
+                newWorkout.setWorkoutName(workoutToAccept.getWorkoutName());
+                newWorkout.setRoutine(routine);
+                newWorkout.setCurrentDay(0);
+                newWorkout.setCurrentWeek(0);
+
+                final WorkoutMeta workoutMeta = new WorkoutMeta();
+                workoutMeta.setWorkoutName(workoutToAccept.getWorkoutName().trim());
+                workoutMeta.setAverageExercisesCompleted(0.0);
+                workoutMeta.setDateLast(creationTime);
+                workoutMeta.setTimesCompleted(0);
+                workoutMeta.setTotalExercisesSum(0);
+
+                // update all the exercises that are now a part of this workout
+                WorkoutUtils.updateOwnedExercises(activeUserObject, routine, workoutId,
+                    workoutToAccept.getWorkoutName());
+
+                UpdateItemTemplate updateUserItemData = exercisesDiff.addTo(
+                    new UpdateItemTemplate(activeUser, UserDAO.USERS_TABLE_NAME)
+                        .withExpectedVersion(activeUserObject.getVersion())
+                        .withUpdateExpression("set " +
+                            User.CURRENT_WORKOUT + " = :currentWorkoutVal, " +
+                            User.WORKOUTS + ".#workoutId= :workoutUserMap")
+                        .withValueMap(new ValueMap()
+                            .withString(":currentWorkoutVal",
+                                updateCurrentWorkout ? workoutId : activeUserObject.getCurrentWorkout())
+                            .withMap(":workoutUserMap", workoutMeta.asMap()))
+                        .withNameMap(new NameMap().with("#workoutId", workoutId))
+                        .merge(QuotaUtils.getRoomForWorkout(activeUser, activeUserObject.getPremiumToken()))
+                        .merge(ReceivedWorkoutUtils.getDecrementReceivedCounters(activeUser, sharedWorkoutMeta,
+                            activeUserObject.getReceivedWorkoutsSeenAt())));
+                // since user is accepting the workout, delete the shared workout from the table - it's no longer needed
+                UpdateItemTemplate updateSharedWorkoutData = new UpdateItemTemplate(
+                    workoutToAccept.getSharedWorkoutId(), SharedWorkoutDAO.SHARED_WORKOUTS_TABLE_NAME);
+
+                List<TransactWriteItem> actions = new ArrayList<>();
+                actions.add(new TransactWriteItem().withUpdate(updateUserItemData.asUpdate()));
+                actions.add(new TransactWriteItem().withDelete(updateSharedWorkoutData.asDelete()));
+                actions.add(new TransactWriteItem().withDelete(
+                    ReceivedWorkoutUtils.getRemoveReceivedWorkout(activeUser, sharedWorkoutMeta).asDelete()));
+                actions.add(new TransactWriteItem()
+                    .withPut(new Put().withTableName(WorkoutDAO.WORKOUT_TABLE_NAME).withItem(
+                        AttributeValueUtils.convertMapToAttributeValueMap(newWorkout.asItemMap()))));
+                this.userDAO.executeWriteTransaction(actions);
+
+                return new AcceptWorkoutResponse(workoutId, workoutMeta, newWorkout,
+                    activeUserObject.getOwnedExercises());
+            });
 
             this.metrics.commonClose(true);
-            return new AcceptWorkoutResponse(workoutId, workoutMeta, newWorkout,
-                activeUserObject.getOwnedExercises());
+            return result;
         } catch (Exception e) {
             this.metrics.commonClose(false);
             throw e;
@@ -162,52 +180,39 @@ public class AcceptReceivedWorkoutManager {
             && activeUserObject.getWorkoutMetas().size() >= Globals.MAX_WORKOUTS) {
             error.append("Maximum workouts would be exceeded.");
         }
-        Set<String> sharedWorkoutExercises = new HashSet<>();
-        for (SharedWeek week : sharedWorkout.getRoutine()) {
-            for (SharedDay day : week) {
-                for (SharedExercise sharedExercise : day) {
-                    sharedWorkoutExercises.add(sharedExercise.getExerciseName());
-                }
-            }
-        }
-
-        List<WorkoutMeta> workoutMetas = new ArrayList<>(activeUserObject.getWorkoutMetas().values());
-        for (WorkoutMeta workoutMeta : workoutMetas) {
-            if (workoutMeta.getWorkoutName().equals(sharedWorkout.getWorkoutName())) {
-                error.append("Workout with this name already exists.");
-            }
+        if (activeUserObject.getWorkoutIdByName(sharedWorkout.getWorkoutName()) != null) {
+            error.append("Workout with this name already exists.");
         }
 
-        Set<String> ownedExercises = new HashSet<>();
-        for (String exerciseId : activeUserObject.getOwnedExercises().keySet()) {
-            ownedExercises.add(activeUserObject.getOwnedExercises().get(exerciseId).getExerciseName());
-        }
-        Set<String> totalExercises = Sets.union(sharedWorkoutExercises, ownedExercises);
-        if (activeUserObject.getPremiumToken() == null && totalExercises.size() > Globals.MAX_FREE_EXERCISES) {
+        final int totalExercises = activeUserObject.getOwnedExercises().size()
+            + newExerciseNames(sharedWorkout, activeUserObject).size();
+        if (activeUserObject.getPremiumToken() == null && totalExercises > Globals.MAX_FREE_EXERCISES) {
             error.append("Accepting this workout would put you above the amount of exercises allowed.");
         }
-        if (activeUserObject.getPremiumToken() != null && totalExercises.size() > Globals.MAX_PREMIUM_EXERCISES) {
+        if (activeUserObject.getPremiumToken() != null && totalExercises > Globals.MAX_PREMIUM_EXERCISES) {
             error.append("Accepting this workout would put you above the amount of exercises allowed.");
         }
 
         return error.toString().trim();
     }
 
-    private void addNewExercises(final SharedWorkout sharedWorkout, final User user) {
-        Set<String> sharedWorkoutExercises = new HashSet<>();
+    // names of the exercises of the shared workout that the user doesn't own
+    private static Set<String> newExerciseNames(final SharedWorkout sharedWorkout, final User user) {
+        Set<String> newExercises = new HashSet<>();
         for (SharedWeek week : sharedWorkout.getRoutine()) {
             for (SharedDay day : week) {
                 for (SharedExercise sharedExercise : day) {
-                    sharedWorkoutExercises.add(sharedExercise.getExerciseName());
+                    if (user.getExerciseIdByName(sharedExercise.getExerciseName()) == null) {
+                        newExercises.add(sharedExercise.getExerciseName());
+                    }
                 }
             }
         }
-        Set<String> ownedExercises = new HashSet<>();
-        for (String exerciseId : user.getOwnedExercises().keySet()) {
-            ownedExercises.add(user.getOwnedExercises().get(exerciseId).getExerciseName());
-        }
-        Set<String> newExercises = Sets.difference(sharedWorkoutExercises, ownedExercises);
-        for (String exerciseName : newExercises) {
+        return newExercises;
+    }
+
+    private void addNewExercises(final SharedWorkout sharedWorkout, final User user) {
+        for (String exerciseName : newExerciseNames(sharedWorkout, user)) {
             // for each of the exercises that the user doesn't own, make a new entry for them in the owned mapping
             OwnedExercise ownedExercise = new OwnedExercise(sharedWorkout.getExercises().get(exerciseName),
                 exerciseName);
@@ -1,14 +1,19 @@
 package managers;
 
-import com.amazonaws.services.dynamodbv2.document.spec.UpdateItemSpec;
 import com.amazonaws.services.dynamodbv2.document.utils.NameMap;
 import com.amazonaws.services.dynamodbv2.document.utils.ValueMap;
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
 import daos.UserDAO;
 import exceptions.ManagerExecutionException;
 import imports.Globals;
+import utils.ConcurrencyUtils;
 import utils.Metrics;
+import utils.QuotaUtils;
+import utils.UpdateItemTemplate;
+import java.util.concurrent.CompletableFuture;
 import javax.inject.Inject;
 import models.User;
+import models.UserField;
 
 public class BlockUserManager {
 
@@ -45,12 +50,17 @@ public class BlockUserManager {
         this.metrics.commonSetup(classMethod);
 
         try {
-            final User activeUserObject = this.userDAO.getUser(activeUser);
-            final User userToBlockObject = this.userDAO.getUser(userToBlock);
+            // both users are read at the same time
+            final CompletableFuture<User> activeUserRead = this.userDAO.getUserAsync(activeUser,
+                UserField.BLOCKED, UserField.FRIENDS, UserField.FRIEND_REQUESTS);
+            final CompletableFuture<User> userToBlockRead = this.userDAO.getUserAsync(userToBlock, UserField.ICON);
+            final User activeUserObject = ConcurrencyUtils.await(activeUserRead);
+            final User userToBlockObject = ConcurrencyUtils.await(userToBlockRead);
 
+            final String limitErrorMessage = String.format("User %s has exceeded blocked limit.", activeUser);
             if (activeUserObject.getBlocked().size() >= Globals.MAX_BLOCKED) {
                 this.metrics.commonClose(false);
-                throw new ManagerExecutionException(String.format("User %s has exceeded blocked limit.", activeUser));
+                throw new ManagerExecutionException(limitErrorMessage);
             }
 
             if (activeUserObject.getFriendRequests().containsKey(userToBlock)) {
@@ -67,12 +77,18 @@ public class BlockUserManager {
             }
             // note that any notifications are taken care of by the managers above, an exception would have been thrown if something went wrong
 
-            // go ahead and block the user
-            UpdateItemSpec updateItemSpec = new UpdateItemSpec()
+            // go ahead and block the user, unless others were blocked in the meantime and there is no room left
+            UpdateItemTemplate updateItemData = new UpdateItemTemplate(activeUser, UserDAO.USERS_TABLE_NAME)
                 .withUpdateExpression("set " + User.BLOCKED + ".#username =:blockedUserIcon")
                 .withValueMap(new ValueMap().withString(":blockedUserIcon", userToBlockObject.getIcon()))
-                .withNameMap(new NameMap().with("#username", userToBlock));
-            this.userDAO.updateUser(activeUser, updateItemSpec);
+                .withNameMap(new NameMap().with("#username", userToBlock))
+                .merge(QuotaUtils.getRoomForBlocked(activeUser));
+            try {
+                this.userDAO.updateUser(updateItemData);
+            } catch (ConditionalCheckFailedException e) {
+                this.metrics.commonClose(false);
+                throw new ManagerExecutionException(limitErrorMessage);
+            }
 
             // return the icon in case user doesn't already have the icon to display in the blocked list
             this.metrics.commonClose(true);
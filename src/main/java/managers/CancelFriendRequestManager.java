@@ -5,7 +5,10 @@ import com.amazonaws.services.dynamodbv2.document.utils.NameMap;
 import com.amazonaws.services.dynamodbv2.model.TransactWriteItem;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
+import daos.NotificationOutboxDAO;
 import daos.UserDAO;
+import utils.ConcurrencyUtils;
+import utils.FriendRequestUtils;
 import utils.Metrics;
 import utils.UpdateItemTemplate;
 import java.util.ArrayList;
@@ -13,18 +16,19 @@ import java.util.List;
 import javax.inject.Inject;
 import models.NotificationData;
 import models.User;
+import models.UserField;
 
 public class CancelFriendRequestManager {
 
-    private final NotificationService notificationService;
+    private final NotificationOutboxDAO notificationOutboxDAO;
     private final UserDAO userDAO;
     private final Metrics metrics;
 
     @Inject
-    public CancelFriendRequestManager(final NotificationService notificationService,
+    public CancelFriendRequestManager(final NotificationOutboxDAO notificationOutboxDAO,
         final UserDAO userDAO,
         final Metrics metrics) {
-        this.notificationService = notificationService;
+        this.notificationOutboxDAO = notificationOutboxDAO;
         this.userDAO = userDAO;
         this.metrics = metrics;
     }
@@ -40,27 +44,31 @@ public class CancelFriendRequestManager {
         this.metrics.commonSetup(classMethod);
 
         try {
-            final User userToCancel = this.userDAO.getUser(usernameToCancel);
+            ConcurrencyUtils.retryOnConflict(this.metrics, () -> {
+                final User userToCancel = this.userDAO.getUser(usernameToCancel,
+                    UserField.PUSH_ENDPOINT_ARN, UserField.FRIEND_REQUESTS);
 
-            // for canceled user, remove the friend request
-            UpdateItemTemplate updateFriendData = new UpdateItemTemplate(usernameToCancel, UserDAO.USERS_TABLE_NAME)
-                .withUpdateExpression("remove " + User.FRIEND_REQUESTS + ".#username")
-                .withNameMap(new NameMap().with("#username", activeUser));
-            // for active user, remove the (unconfirmed) user from their friends mapping
-            UpdateItemTemplate updateActiveUserData = new UpdateItemTemplate(activeUser, UserDAO.USERS_TABLE_NAME)
-                .withUpdateExpression("remove " + User.FRIENDS + ".#username")
-                .withNameMap(new NameMap().with("#username", usernameToCancel));
+                // for canceled user, remove the friend request
+                UpdateItemTemplate updateFriendData = FriendRequestUtils.getRemoveFriendRequest(usernameToCancel,
+                    activeUser, userToCancel.getFriendRequests().get(activeUser));
+                // for active user, remove the (unconfirmed) user from their friends mapping
+                UpdateItemTemplate updateActiveUserData = new UpdateItemTemplate(activeUser, UserDAO.USERS_TABLE_NAME)
+                    .withUpdateExpression("remove " + User.FRIENDS + ".#username")
+                    .withNameMap(new NameMap().with("#username", usernameToCancel));
 
-            final List<TransactWriteItem> actions = new ArrayList<>();
-            actions.add(new TransactWriteItem().withUpdate(updateFriendData.asUpdate()));
-            actions.add(new TransactWriteItem().withUpdate(updateActiveUserData.asUpdate()));
+                final List<TransactWriteItem> actions = new ArrayList<>();
+                actions.add(new TransactWriteItem().withUpdate(updateFriendData.asUpdate()));
+                actions.add(new TransactWriteItem().withUpdate(updateActiveUserData.asUpdate()));
 
-            this.userDAO.executeWriteTransaction(actions);
-            // if this succeeds, go ahead and send a notification to the canceled user (only need to send username)
-            this.notificationService.sendMessage(userToCancel.getPushEndpointArn(),
-                new NotificationData(NotificationService.canceledFriendRequestAction,
-                    Maps.newHashMap(ImmutableMap.<String, String>builder().put(User.USERNAME, activeUser)
-                        .build())));
+                // the canceled user is notified once the transaction commits (only need to send username)
+                this.notificationOutboxDAO.enqueue(actions, userToCancel.getPushEndpointArn(),
+                    new NotificationData(NotificationService.canceledFriendRequestAction,
+                        Maps.newHashMap(ImmutableMap.<String, String>builder().put(User.USERNAME, activeUser)
+                            .build())));
+
+                this.userDAO.executeWriteTransaction(actions);
+                return null;
+            });
 
             this.metrics.commonClose(true);
         } catch (Exception e) {
@@ -9,12 +9,13 @@ import daos.WorkoutDAO;
 import exceptions.ManagerExecutionException;
 import java.time.Instant;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import models.Routine;
-import models.RoutineDay;
-import models.RoutineExercise;
-import models.RoutineWeek;
 import utils.AttributeValueUtils;
+import utils.ConcurrencyUtils;
 import utils.Metrics;
+import utils.OwnedExercisesDiff;
+import utils.QuotaUtils;
 import utils.UpdateItemTemplate;
 import java.util.ArrayList;
 import java.util.List;
@@ -22,6 +23,7 @@ import javax.inject.Inject;
 import models.User;
 import models.Workout;
 import models.WorkoutMeta;
+import models.WorkoutProgressDelta;
 import responses.UserWithWorkout;
 import utils.Validator;
 import utils.WorkoutUtils;
@@ -29,12 +31,17 @@ import utils.WorkoutUtils;
 public class CopyWorkoutManager {
 
     private final UserDAO userDAO;
+    private final WorkoutDAO workoutDAO;
     private final Metrics metrics;
+    private final SyncWorkoutManager syncWorkoutManager;
 
     @Inject
-    public CopyWorkoutManager(final UserDAO userDAO, final Metrics metrics) {
+    public CopyWorkoutManager(final UserDAO userDAO, final WorkoutDAO workoutDAO, final Metrics metrics,
+        final SyncWorkoutManager syncWorkoutManager) {
         this.userDAO = userDAO;
+        this.workoutDAO = workoutDAO;
         this.metrics = metrics;
+        this.syncWorkoutManager = syncWorkoutManager;
     }
 
     /**
@@ -53,90 +60,143 @@ public class CopyWorkoutManager {
         this.metrics.commonSetup(classMethod);
 
         try {
-            final User activeUserObject = this.userDAO.getUser(activeUser);
-            final String oldWorkoutId = oldWorkout.getWorkoutId();
-            Validator.ensureWorkoutOwnership(activeUser, oldWorkout);
+            final UserWithWorkout result = ConcurrencyUtils.retryOnConflict(this.metrics, () -> {
+                final User activeUserObject = this.userDAO.getUser(activeUser);
+                final OwnedExercisesDiff exercisesDiff = OwnedExercisesDiff.track(activeUserObject);
+                final String oldWorkoutId = oldWorkout.getWorkoutId();
+                Validator.ensureWorkoutOwnership(activeUser, oldWorkout);
 
-            final String errorMessage = Validator.validNewWorkoutInput(newWorkoutName, activeUserObject,
-                oldWorkout.getRoutine());
+                final List<TransactWriteItem> actions = new ArrayList<>();
+                final Workout newWorkout = this.addCopy(activeUserObject, exercisesDiff, newWorkoutName,
+                    oldWorkout.getRoutine(), actions);
 
-            if (!errorMessage.isEmpty()) {
-                this.metrics.commonClose(false);
-                throw new ManagerExecutionException(errorMessage);
-            }
+                // persist the current week/day/routine of the old workout
+                UpdateItemTemplate updateOldWorkoutItemData = new UpdateItemTemplate(oldWorkoutId,
+                    WorkoutDAO.WORKOUT_TABLE_NAME)
+                    .withUpdateExpression("set " +
+                        Workout.CURRENT_DAY + " = :currentDay, " +
+                        Workout.CURRENT_WEEK + " = :currentWeek")
+                    .withValueMap(new ValueMap()
+                        .withNumber(":currentDay", oldWorkout.getCurrentDay())
+                        .withNumber(":currentWeek", oldWorkout.getCurrentWeek()))
+                    .merge(WorkoutUtils.getRoutineUpdate(oldWorkoutId, oldWorkout.getRoutine()));
+                actions.add(new TransactWriteItem().withUpdate(updateOldWorkoutItemData.asUpdate()));
+                this.userDAO.executeWriteTransaction(actions);
+
+                return new UserWithWorkout(activeUserObject, newWorkout);
+            });
 
-            // copy the workout as a new one. Not using manager due to transactions
-            final String workoutId = UUID.randomUUID().toString();
-            final String creationTime = Instant.now().toString();
-            final Workout newWorkout = new Workout();
-            // remove any progress of the workout that is being copied
-            Routine newRoutine = new Routine(oldWorkout.getRoutine());
-            for (RoutineWeek week : newRoutine) {
-                for (RoutineDay day : week) {
-                    for (RoutineExercise exercise : day) {
-                        exercise.setCompleted(false);
-                    }
-                }
+            this.metrics.commonClose(true);
+            return result;
+        } catch (Exception e) {
+            this.metrics.commonClose(false);
+            throw e;
+        }
+    }
+
+    /**
+     * Same as {@link #copyWorkout(String, String, Workout)}, but the workout that is copied is read by its id instead
+     * of being sent by the frontend. Only the progress made on it since it was last synced is sent, which is written
+     * before the workout is read.
+     *
+     * @param activeUser     username doing the copying.
+     * @param newWorkoutName workout name for the copy of the old workout.
+     * @param oldWorkoutId   id of the workout that is being copied.
+     * @param progress       progress made on the old workout, null if there is none to write.
+     * @return user with workout object that contains all the changed fields, as well as the new copied workout set as
+     * current.
+     */
+    public UserWithWorkout copyWorkoutById(final String activeUser, final String newWorkoutName,
+        final String oldWorkoutId, final WorkoutProgressDelta progress) throws Exception {
+        final String classMethod = this.getClass().getSimpleName() + ".copyWorkoutById";
+        this.metrics.commonSetup(classMethod);
+
+        try {
+            if (progress != null) {
+                this.syncWorkoutManager.syncWorkoutDelta(activeUser, oldWorkoutId, progress.getCurrentWeek(),
+                    progress.getCurrentDay(), progress.getPatches());
             }
-            newWorkout.setCreationDate(creationTime);
-            newWorkout.setCreator(activeUser);
-            newWorkout.setWorkoutId(workoutId);
-            newWorkout.setWorkoutName(newWorkoutName.trim());
-            newWorkout.setRoutine(newRoutine);
-            newWorkout.setCurrentDay(0);
-            newWorkout.setCurrentWeek(0);
-
-            final WorkoutMeta workoutMeta = new WorkoutMeta();
-            workoutMeta.setWorkoutName(newWorkoutName.trim());
-            workoutMeta.setAverageExercisesCompleted(0.0);
-            workoutMeta.setDateLast(creationTime);
-            workoutMeta.setTimesCompleted(0);
-            workoutMeta.setTotalExercisesSum(0);
-            // need to set it here so frontend gets updated user item back
-            activeUserObject.putNewWorkoutMeta(workoutId, workoutMeta);
-            activeUserObject.setCurrentWorkout(workoutId);
-
-            // update all the exercises that are now a part of this newly copied workout
-            WorkoutUtils.updateOwnedExercises(activeUserObject, oldWorkout.getRoutine(), workoutId, newWorkoutName);
-
-            // update user object with this newly copied workout
-            UpdateItemTemplate updateUserItemData = new UpdateItemTemplate(activeUser, UserDAO.USERS_TABLE_NAME)
-                .withUpdateExpression("set " +
-                    User.CURRENT_WORKOUT + " = :currentWorkoutVal, " +
-                    User.WORKOUTS + ".#newWorkoutId= :newWorkoutMeta, " +
-                    User.EXERCISES + "= :exercisesMap")
-                .withValueMap(new ValueMap()
-                    .withString(":currentWorkoutVal", newWorkout.getWorkoutId())
-                    .withMap(":newWorkoutMeta", workoutMeta.asMap())
-                    .withMap(":exercisesMap", activeUserObject.getOwnedExercisesMap()))
-                .withNameMap(new NameMap().with("#newWorkoutId", newWorkout.getWorkoutId()));
 
-            // persist the current week/day/routine of the old workout
-            UpdateItemTemplate updateOldWorkoutItemData = new UpdateItemTemplate(oldWorkoutId,
-                WorkoutDAO.WORKOUT_TABLE_NAME)
-                .withUpdateExpression("set " +
-                    Workout.CURRENT_DAY + " = :currentDay, " +
-                    Workout.CURRENT_WEEK + " = :currentWeek, " +
-                    "#routine" + " =:routineValue")
-                .withValueMap(new ValueMap()
-                    .withNumber(":currentDay", oldWorkout.getCurrentDay())
-                    .withNumber(":currentWeek", oldWorkout.getCurrentWeek())
-                    .withMap(":routineValue", oldWorkout.getRoutine().asMap()))
-                .withNameMap(new NameMap().with("#routine", Workout.ROUTINE));
-
-            final List<TransactWriteItem> actions = new ArrayList<>();
-            actions.add(new TransactWriteItem().withUpdate(updateUserItemData.asUpdate()));
-            actions.add(new TransactWriteItem().withUpdate(updateOldWorkoutItemData.asUpdate()));
-            actions.add(new TransactWriteItem()
-                .withPut(new Put().withTableName(WorkoutDAO.WORKOUT_TABLE_NAME)
-                    .withItem(AttributeValueUtils.convertMapToAttributeValueMap(newWorkout.asMap()))));
-            this.userDAO.executeWriteTransaction(actions);
+            final UserWithWorkout result = ConcurrencyUtils.retryOnConflict(this.metrics, () -> {
+                final CompletableFuture<User> userRead = this.userDAO.getUserAsync(activeUser);
+                final CompletableFuture<Workout> oldWorkoutRead = this.workoutDAO.getWorkoutAsync(oldWorkoutId);
+                final User activeUserObject = ConcurrencyUtils.await(userRead);
+                final Workout oldWorkout = ConcurrencyUtils.await(oldWorkoutRead);
+                final OwnedExercisesDiff exercisesDiff = OwnedExercisesDiff.track(activeUserObject);
+                Validator.ensureWorkoutOwnership(activeUser, oldWorkout);
+
+                // the old workout is already stored as it is, so only the user and the copy are written
+                final List<TransactWriteItem> actions = new ArrayList<>();
+                final Workout newWorkout = this.addCopy(activeUserObject, exercisesDiff, newWorkoutName,
+                    oldWorkout.getRoutine(), actions);
+                this.userDAO.executeWriteTransaction(actions);
+
+                return new UserWithWorkout(activeUserObject, newWorkout);
+            });
 
             this.metrics.commonClose(true);
-            return new UserWithWorkout(activeUserObject, newWorkout);
+            return result;
         } catch (Exception e) {
             this.metrics.commonClose(false);
             throw e;
         }
     }
+
+    // adds the writes of the copy and of the user it is set as current for to the actions, returns the copy
+    private Workout addCopy(final User activeUserObject, final OwnedExercisesDiff exercisesDiff,
+        final String newWorkoutName, final Routine oldRoutine, final List<TransactWriteItem> actions)
+        throws Exception {
+        final String activeUser = activeUserObject.getUsername();
+        final String errorMessage = Validator.validNewWorkoutInput(newWorkoutName, activeUserObject, oldRoutine);
+
+        if (!errorMessage.isEmpty()) {
+            this.metrics.commonClose(false);
+            throw new ManagerExecutionException(errorMessage);
+        }
+
+        // copy the workout as a new one. Not using manager due to transactions
+        final String workoutId = UUID.randomUUID().toString();
+        final String creationTime = Instant.now().toString();
+        final Workout newWorkout = new Workout();
+        newWorkout.setCreationDate(creationTime);
+        newWorkout.setCreator(activeUser);
+        newWorkout.setWorkoutId(workoutId);
+        newWorkout.setWorkoutName(newWorkoutName.trim());
+        // remove any progress of the workout that is being copied
+        newWorkout.setRoutine(oldRoutine.copyWithoutProgress());
+        newWorkout.setCurrentDay(0);
+        newWorkout.setCurrentWeek(0);
+
+        final WorkoutMeta workoutMeta = new WorkoutMeta();
+        workoutMeta.setWorkoutName(newWorkoutName.trim());
+        workoutMeta.setAverageExercisesCompleted(0.0);
+        workoutMeta.setDateLast(creationTime);
+        workoutMeta.setTimesCompleted(0);
+        workoutMeta.setTotalExercisesSum(0);
+        // need to set it here so frontend gets updated user item back
+        activeUserObject.putNewWorkoutMeta(workoutId, workoutMeta);
+        activeUserObject.setCurrentWorkout(workoutId);
+
+        // update all the exercises that are now a part of this newly copied workout
+        WorkoutUtils.updateOwnedExercises(activeUserObject, oldRoutine, workoutId, newWorkoutName);
+
+        // update user object with this newly copied workout
+        UpdateItemTemplate updateUserItemData = exercisesDiff.addTo(
+            new UpdateItemTemplate(activeUser, UserDAO.USERS_TABLE_NAME)
+                .withExpectedVersion(activeUserObject.getVersion())
+                .withUpdateExpression("set " +
+                    User.CURRENT_WORKOUT + " = :currentWorkoutVal, " +
+                    User.WORKOUTS + ".#newWorkoutId= :newWorkoutMeta")
+                .withValueMap(new ValueMap()
+                    .withString(":currentWorkoutVal", newWorkout.getWorkoutId())
+                    .withMap(":newWorkoutMeta", workoutMeta.asMap()))
+                .withNameMap(new NameMap().with("#newWorkoutId", newWorkout.getWorkoutId()))
+                .merge(QuotaUtils.getRoomForWorkout(activeUser, activeUserObject.getPremiumToken())));
+
+        actions.add(new TransactWriteItem().withUpdate(updateUserItemData.asUpdate()));
+        actions.add(new TransactWriteItem()
+            .withPut(new Put().withTableName(WorkoutDAO.WORKOUT_TABLE_NAME)
+                .withItem(AttributeValueUtils.convertMapToAttributeValueMap(newWorkout.asItemMap()))));
+        return newWorkout;
+    }
 }
@@ -5,27 +5,32 @@ import com.amazonaws.services.dynamodbv2.document.utils.NameMap;
 import com.amazonaws.services.dynamodbv2.model.TransactWriteItem;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
+import daos.NotificationOutboxDAO;
 import daos.UserDAO;
 import exceptions.ManagerExecutionException;
+import utils.ConcurrencyUtils;
+import utils.FriendRequestUtils;
 import utils.Metrics;
 import utils.UpdateItemTemplate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import javax.inject.Inject;
 import models.NotificationData;
 import models.User;
+import models.UserField;
 
 public class DeclineFriendRequestManager {
 
-    private final NotificationService notificationService;
+    private final NotificationOutboxDAO notificationOutboxDAO;
     private final UserDAO userDAO;
     private final Metrics metrics;
 
     @Inject
-    public DeclineFriendRequestManager(final NotificationService notificationService,
+    public DeclineFriendRequestManager(final NotificationOutboxDAO notificationOutboxDAO,
         final UserDAO userDAO,
         final Metrics metrics) {
-        this.notificationService = notificationService;
+        this.notificationOutboxDAO = notificationOutboxDAO;
         this.userDAO = userDAO;
         this.metrics = metrics;
     }
@@ -41,36 +46,44 @@ public class DeclineFriendRequestManager {
         this.metrics.commonSetup(classMethod);
 
         try {
-            final User activeUserObject = this.userDAO.getUser(activeUser);
-            final User declinedUserObject = this.userDAO.getUser(declinedUser);
+            ConcurrencyUtils.retryOnConflict(this.metrics, () -> {
+                // both users are read at the same time
+                final CompletableFuture<User> activeUserRead = this.userDAO.getUserAsync(activeUser,
+                    UserField.FRIEND_REQUESTS);
+                final CompletableFuture<User> declinedUserRead = this.userDAO.getUserAsync(declinedUser,
+                    UserField.PUSH_ENDPOINT_ARN);
+                final User activeUserObject = ConcurrencyUtils.await(activeUserRead);
+                final User declinedUserObject = ConcurrencyUtils.await(declinedUserRead);
 
-            if (!activeUserObject.getFriendRequests().containsKey(declinedUser)) {
-                // sanity check to make sure that the friend request is still there
-                this.metrics.commonClose(false);
-                throw new ManagerExecutionException(
-                    String.format("Friend request for %s no longer present.", declinedUser));
-            }
+                if (!activeUserObject.getFriendRequests().containsKey(declinedUser)) {
+                    // sanity check to make sure that the friend request is still there
+                    this.metrics.commonClose(false);
+                    throw new ManagerExecutionException(
+                        String.format("Friend request for %s no longer present.", declinedUser));
+                }
 
-            // remove friend from active user
-            UpdateItemTemplate activeUserData = new UpdateItemTemplate(activeUser, UserDAO.USERS_TABLE_NAME)
-                .withUpdateExpression("remove " + User.FRIEND_REQUESTS + ".#username")
-                .withNameMap(new NameMap().with("#username", declinedUser));
+                // remove friend from active user
+                UpdateItemTemplate activeUserData = FriendRequestUtils.getRemoveFriendRequest(activeUser,
+                    declinedUser, activeUserObject.getFriendRequests().get(declinedUser));
 
-            // remove the (unconfirmed) active user from friend's mapping
-            UpdateItemTemplate updateFriendData = new UpdateItemTemplate(declinedUser, UserDAO.USERS_TABLE_NAME)
-                .withUpdateExpression("remove " + User.FRIENDS + ".#username")
-                .withNameMap(new NameMap().with("#username", activeUser));
+                // remove the (unconfirmed) active user from friend's mapping
+                UpdateItemTemplate updateFriendData = new UpdateItemTemplate(declinedUser, UserDAO.USERS_TABLE_NAME)
+                    .withUpdateExpression("remove " + User.FRIENDS + ".#username")
+                    .withNameMap(new NameMap().with("#username", activeUser));
 
-            final List<TransactWriteItem> actions = new ArrayList<>();
-            actions.add(new TransactWriteItem().withUpdate(activeUserData.asUpdate()));
-            actions.add(new TransactWriteItem().withUpdate(updateFriendData.asUpdate()));
+                final List<TransactWriteItem> actions = new ArrayList<>();
+                actions.add(new TransactWriteItem().withUpdate(activeUserData.asUpdate()));
+                actions.add(new TransactWriteItem().withUpdate(updateFriendData.asUpdate()));
 
-            this.userDAO.executeWriteTransaction(actions);
-            // if this succeeds, go ahead and send a notification to the declined user (only need to send username)
-            this.notificationService.sendMessage(declinedUserObject.getPushEndpointArn(),
-                new NotificationData(NotificationService.declinedFriendRequestAction,
-                    Maps.newHashMap(ImmutableMap.<String, String>builder().put(User.USERNAME, activeUser)
-                        .build())));
+                // the declined user is notified once the transaction commits (only need to send username)
+                this.notificationOutboxDAO.enqueue(actions, declinedUserObject.getPushEndpointArn(),
+                    new NotificationData(NotificationService.declinedFriendRequestAction,
+                        Maps.newHashMap(ImmutableMap.<String, String>builder().put(User.USERNAME, activeUser)
+                            .build())));
+
+                this.userDAO.executeWriteTransaction(actions);
+                return null;
+            });
 
             this.metrics.commonClose(true);
         } catch (Exception e) {
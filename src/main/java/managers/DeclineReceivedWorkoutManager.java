@@ -1,24 +1,30 @@
 package managers;
 
-import com.amazonaws.services.dynamodbv2.document.utils.NameMap;
 import com.amazonaws.services.dynamodbv2.model.TransactWriteItem;
+import daos.ReceivedWorkoutDAO;
 import daos.SharedWorkoutDAO;
 import daos.UserDAO;
 import exceptions.ManagerExecutionException;
+import utils.ConcurrencyUtils;
 import utils.Metrics;
+import utils.ReceivedWorkoutUtils;
 import java.util.ArrayList;
 import java.util.List;
 import javax.inject.Inject;
-import models.User;
+import models.SharedWorkoutMeta;
+import models.UserField;
 import utils.UpdateItemTemplate;
 
 public class DeclineReceivedWorkoutManager {
 
+    private final ReceivedWorkoutDAO receivedWorkoutDAO;
     private final UserDAO userDAO;
     private final Metrics metrics;
 
     @Inject
-    public DeclineReceivedWorkoutManager(final UserDAO userDAO, final Metrics metrics) {
+    public DeclineReceivedWorkoutManager(final ReceivedWorkoutDAO receivedWorkoutDAO, final UserDAO userDAO,
+        final Metrics metrics) {
+        this.receivedWorkoutDAO = receivedWorkoutDAO;
         this.userDAO = userDAO;
         this.metrics = metrics;
     }
@@ -35,28 +41,33 @@ public class DeclineReceivedWorkoutManager {
         this.metrics.commonSetup(classMethod);
 
         try {
-            final User activeUserObject = this.userDAO.getUser(activeUser);
+            ConcurrencyUtils.retryOnConflict(this.metrics, () -> {
+                final SharedWorkoutMeta declinedWorkout = this.receivedWorkoutDAO
+                    .findReceivedWorkout(activeUser, declinedWorkoutId)
+                    .orElse(null);
 
-            if (!activeUserObject.getReceivedWorkouts().containsKey(declinedWorkoutId)) {
-                // sanity check to make sure that the friend request is still there
-                this.metrics.commonClose(false);
-                throw new ManagerExecutionException(
-                    String.format("Received workout with id %s no longer present.", declinedWorkoutId));
-            }
+                if (declinedWorkout == null) {
+                    // sanity check to make sure that the received workout is still there
+                    this.metrics.commonClose(false);
+                    throw new ManagerExecutionException(
+                        String.format("Received workout with id %s no longer present.", declinedWorkoutId));
+                }
+                final Long receivedWorkoutsSeenAt = this.userDAO
+                    .getUser(activeUser, UserField.RECEIVED_WORKOUTS).getReceivedWorkoutsSeenAt();
 
-            // remove workout from sent workout table
-            UpdateItemTemplate updateSharedWorkoutData = new UpdateItemTemplate(declinedWorkoutId,
-                SharedWorkoutDAO.SHARED_WORKOUTS_TABLE_NAME);
+                // remove workout from sent workout table
+                UpdateItemTemplate updateSharedWorkoutData = new UpdateItemTemplate(declinedWorkoutId,
+                    SharedWorkoutDAO.SHARED_WORKOUTS_TABLE_NAME);
 
-            // remove workout from active user
-            UpdateItemTemplate activeUserData = new UpdateItemTemplate(activeUser, UserDAO.USERS_TABLE_NAME)
-                .withUpdateExpression("remove " + User.RECEIVED_WORKOUTS + ".#workoutId")
-                .withNameMap(new NameMap().with("#workoutId", declinedWorkoutId));
-
-            List<TransactWriteItem> actions = new ArrayList<>();
-            actions.add(new TransactWriteItem().withUpdate(activeUserData.asUpdate()));
-            actions.add(new TransactWriteItem().withDelete(updateSharedWorkoutData.asDelete()));
-            this.userDAO.executeWriteTransaction(actions);
+                List<TransactWriteItem> actions = new ArrayList<>();
+                actions.add(new TransactWriteItem().withDelete(
+                    ReceivedWorkoutUtils.getRemoveReceivedWorkout(activeUser, declinedWorkout).asDelete()));
+                actions.add(new TransactWriteItem().withUpdate(ReceivedWorkoutUtils
+                    .getDecrementReceivedCounters(activeUser, declinedWorkout, receivedWorkoutsSeenAt).asUpdate()));
+                actions.add(new TransactWriteItem().withDelete(updateSharedWorkoutData.asDelete()));
+                this.receivedWorkoutDAO.executeWriteTransaction(actions);
+                return null;
+            });
 
             this.metrics.commonClose(true);
         } catch (Exception e) {
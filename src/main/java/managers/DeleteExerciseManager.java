@@ -1,22 +1,27 @@
 package managers;
 
-import com.amazonaws.services.dynamodbv2.document.spec.UpdateItemSpec;
-import com.amazonaws.services.dynamodbv2.document.utils.NameMap;
-import com.amazonaws.services.dynamodbv2.document.utils.ValueMap;
 import daos.UserDAO;
 import daos.WorkoutDAO;
+import utils.ConcurrencyUtils;
 import utils.Metrics;
+import utils.UpdateItemTemplate;
+import utils.OwnedExercisesDiff;
 import utils.WorkoutUtils;
-import java.util.ArrayList;
-import java.util.List;
+import utils.WritePlan;
+import java.util.Collection;
+import java.util.Map;
 import javax.inject.Inject;
 import models.OwnedExercise;
 import models.Routine;
 import models.User;
+import models.UserField;
 import models.Workout;
 
 public class DeleteExerciseManager {
 
+    public static final String WORKOUTS_TO_UPDATE = "WorkoutsToUpdate";
+    public static final String WRITE_TRANSACTIONS = "WriteTransactions";
+
     public final UserDAO userDAO;
     public final Metrics metrics;
     public final WorkoutDAO workoutDAO;
@@ -32,6 +37,10 @@ public class DeleteExerciseManager {
     /**
      * This method deletes an exercise from a user's owned exercise mapping. It also removes this exercise from any
      * workout that contains it.
+     * <p>
+     * The workouts and the user are written as one plan, with the user last so that the exercise is only gone once it
+     * is gone from all of its workouts. Unless the exercise is in more workouts than fit in a transaction, that is a
+     * single transaction.
      *
      * @param exerciseId Id of the exercise that is to be deleted
      */
@@ -40,17 +49,23 @@ public class DeleteExerciseManager {
         this.metrics.commonSetup(classMethod);
 
         try {
-            final User user = this.userDAO.getUser(activeUser);
+            ConcurrencyUtils.retryOnConflict(this.metrics, () -> {
+                final User user = this.userDAO.getUser(activeUser,
+                    UserField.VERSION, UserField.OWNED_EXERCISES);
+                final OwnedExercisesDiff exercisesDiff = OwnedExercisesDiff.track(user);
 
-            final OwnedExercise ownedExercise = user.getOwnedExercises().get(exerciseId);
-            List<String> workoutsToUpdate = new ArrayList<>(ownedExercise.getWorkouts().keySet());
-            updateWorkouts(exerciseId, workoutsToUpdate);
-            user.getOwnedExercises().remove(exerciseId);
+                final OwnedExercise ownedExercise = user.getOwnedExercises().get(exerciseId);
+                final WritePlan writePlan = new WritePlan();
+                addWorkoutUpdates(exerciseId, ownedExercise.getWorkouts().keySet(), writePlan);
+                user.getOwnedExercises().remove(exerciseId);
 
-            UpdateItemSpec updateItemSpec = new UpdateItemSpec()
-                .withUpdateExpression("set " + User.EXERCISES + "= :exerciseMap")
-                .withValueMap(new ValueMap().withMap(":exerciseMap", user.getOwnedExercisesMap()));
-            this.userDAO.updateUser(user.getUsername(), updateItemSpec);
+                writePlan.update(exercisesDiff
+                    .addTo(new UpdateItemTemplate(user.getUsername(), UserDAO.USERS_TABLE_NAME)
+                        .withExpectedVersion(user.getVersion())));
+                this.metrics.addIntegerMetric(WRITE_TRANSACTIONS,
+                    this.workoutDAO.executeWritePlan(writePlan, this.metrics).size());
+                return null;
+            });
             this.metrics.commonClose(true);
         } catch (Exception e) {
             this.metrics.commonClose(false);
@@ -58,17 +73,27 @@ public class DeleteExerciseManager {
         }
     }
 
-    private void updateWorkouts(final String exerciseId, final List<String> workoutIds) throws Exception {
-        // because the number of workouts could go above 25 (max for transaction) just have to do a bunch of blind updates
-        for (String workoutId : workoutIds) {
-            final Workout workout = this.workoutDAO.getWorkout(workoutId);
-            Routine.deleteExerciseFromRoutine(exerciseId, workout.getRoutine());
+    /**
+     * Adds the removal of the exercise from every workout it is in to the plan. The workouts are read with batch gets
+     * and each one is only written if it was not changed since it was read. If a later transaction of the plan fails,
+     * the routine the workout had is written back.
+     */
+    private void addWorkoutUpdates(final String exerciseId, final Collection<String> workoutIds,
+        final WritePlan writePlan) throws Exception {
+        // a workout that no longer exists has nothing to remove the exercise from
+        final Map<String, Workout> workoutsToUpdate = this.workoutDAO.getWorkouts(workoutIds);
+        this.metrics.addIntegerMetric(WORKOUTS_TO_UPDATE, workoutsToUpdate.size());
 
-            final UpdateItemSpec updateItemSpec = new UpdateItemSpec()
-                .withUpdateExpression("set #routine =:routineMap")
-                .withValueMap(new ValueMap().withMap(":routineMap", workout.getRoutine().asMap()))
-                .withNameMap(new NameMap().with("#routine", Workout.ROUTINE));
-            this.workoutDAO.updateWorkout(workoutId, updateItemSpec);
+        for (Workout workout : workoutsToUpdate.values()) {
+            final Routine originalRoutine = new Routine(workout.getRoutine());
+            Routine.deleteExerciseFromRoutine(exerciseId, workout.getRoutine());
+            // the write increments the version, which is what undoing it expects
+            final int writtenVersion = workout.getVersion() == null ? 1 : workout.getVersion() + 1;
+            writePlan.update(
+                WorkoutUtils.getRoutineUpdate(workout.getWorkoutId(), workout.getRoutine())
+                    .withExpectedVersion(workout.getVersion()),
+                WorkoutUtils.getRoutineUpdate(workout.getWorkoutId(), originalRoutine)
+                    .withExpectedVersion(writtenVersion));
         }
     }
 }
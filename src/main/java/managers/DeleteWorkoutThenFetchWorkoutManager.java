@@ -5,10 +5,13 @@ import com.amazonaws.services.dynamodbv2.model.TransactWriteItem;
 import daos.UserDAO;
 import daos.WorkoutDAO;
 import exceptions.UnauthorizedException;
+import utils.ConcurrencyUtils;
 import utils.Metrics;
+import utils.OwnedExercisesDiff;
 import utils.UpdateItemTemplate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import javax.inject.Inject;
 import models.User;
 import models.Workout;
@@ -44,43 +47,53 @@ public class DeleteWorkoutThenFetchWorkoutManager {
         this.metrics.commonSetup(classMethod);
 
         try {
-            final User user = this.userDAO.getUser(activeUser);
-            final Workout oldWorkout = this.workoutDAO.getWorkout(deletedWorkoutId);
-            Validator.ensureWorkoutOwnership(activeUser, oldWorkout);
+            final UserWithWorkout result = ConcurrencyUtils.retryOnConflict(this.metrics, () -> {
+                // the user and both workouts are read at the same time
+                final CompletableFuture<User> userRead = this.userDAO.getUserAsync(activeUser);
+                final CompletableFuture<Workout> oldWorkoutRead = this.workoutDAO.getWorkoutAsync(deletedWorkoutId);
+                final CompletableFuture<Workout> nextWorkoutRead = nextWorkoutId == null
+                    ? CompletableFuture.completedFuture(null) // if null then that signals no workouts left
+                    : this.workoutDAO.getWorkoutAsync(nextWorkoutId);
+                final User user = ConcurrencyUtils.await(userRead);
+                final OwnedExercisesDiff exercisesDiff = OwnedExercisesDiff.track(user);
+                final Workout oldWorkout = ConcurrencyUtils.await(oldWorkoutRead);
+                Validator.ensureWorkoutOwnership(activeUser, oldWorkout);
 
-            // remove the workout everywhere in the user object
-            for (String exerciseId : user.getOwnedExercises().keySet()) {
-                user.getOwnedExercises().get(exerciseId).getWorkouts().remove(deletedWorkoutId);
-            }
-            user.getWorkoutMetas().remove(deletedWorkoutId);
+                // remove the workout everywhere in the user object
+                for (String exerciseId : new ArrayList<>(user.getExerciseIdsInWorkout(deletedWorkoutId))) {
+                    user.removeExerciseFromWorkout(exerciseId, deletedWorkoutId);
+                }
+                user.getWorkoutMetas().remove(deletedWorkoutId);
 
-            Workout nextWorkout = null; // if null then that signals no workouts left
-            if (nextWorkoutId != null) {
-                nextWorkout = this.workoutDAO.getWorkout(nextWorkoutId);
-                Validator.ensureWorkoutOwnership(activeUser, nextWorkout);
-            }
-            user.setCurrentWorkout(nextWorkoutId);
+                final Workout nextWorkout = ConcurrencyUtils.await(nextWorkoutRead);
+                if (nextWorkout != null) {
+                    Validator.ensureWorkoutOwnership(activeUser, nextWorkout);
+                }
+                user.setCurrentWorkout(nextWorkoutId);
 
-            UpdateItemTemplate updateUserItemData = new UpdateItemTemplate(activeUser, UserDAO.USERS_TABLE_NAME)
-                .withUpdateExpression("set " +
-                    User.CURRENT_WORKOUT + " = :currentWorkoutVal, " +
-                    User.WORKOUTS + "= :userWorkoutsMap, " +
-                    User.EXERCISES + "= :exercisesMap")
-                .withValueMap(new ValueMap()
-                    .withString(":currentWorkoutVal", nextWorkoutId)
-                    .withMap(":userWorkoutsMap", user.getWorkoutMetasMap())
-                    .withMap(":exercisesMap", user.getOwnedExercisesMap()));
+                UpdateItemTemplate updateUserItemData = exercisesDiff.addTo(
+                    new UpdateItemTemplate(activeUser, UserDAO.USERS_TABLE_NAME)
+                        .withExpectedVersion(user.getVersion())
+                        .withUpdateExpression("set " +
+                            User.CURRENT_WORKOUT + " = :currentWorkoutVal, " +
+                            User.WORKOUTS + "= :userWorkoutsMap")
+                        .withValueMap(new ValueMap()
+                            .withString(":currentWorkoutVal", nextWorkoutId)
+                            .withMap(":userWorkoutsMap", user.getWorkoutMetasMap())));
 
-            UpdateItemTemplate updateWorkoutItemData = new UpdateItemTemplate(deletedWorkoutId,
-                WorkoutDAO.WORKOUT_TABLE_NAME);
+                UpdateItemTemplate updateWorkoutItemData = new UpdateItemTemplate(deletedWorkoutId,
+                    WorkoutDAO.WORKOUT_TABLE_NAME);
 
-            final List<TransactWriteItem> actions = new ArrayList<>();
-            actions.add(new TransactWriteItem().withUpdate(updateUserItemData.asUpdate()));
-            actions.add(new TransactWriteItem().withDelete(updateWorkoutItemData.asDelete()));
-            this.userDAO.executeWriteTransaction(actions);
+                final List<TransactWriteItem> actions = new ArrayList<>();
+                actions.add(new TransactWriteItem().withUpdate(updateUserItemData.asUpdate()));
+                actions.add(new TransactWriteItem().withDelete(updateWorkoutItemData.asDelete()));
+                this.userDAO.executeWriteTransaction(actions);
+
+                return new UserWithWorkout(user, nextWorkout);
+            });
 
             this.metrics.commonClose(true);
-            return new UserWithWorkout(user, nextWorkout);
+            return result;
         } catch (Exception e) {
             this.metrics.commonClose(false);
             throw e;
@@ -1,17 +1,19 @@
 package managers;
 
-import com.amazonaws.services.dynamodbv2.document.utils.NameMap;
 import com.amazonaws.services.dynamodbv2.document.utils.ValueMap;
 import com.amazonaws.services.dynamodbv2.model.TransactWriteItem;
 import daos.UserDAO;
 import daos.WorkoutDAO;
 import exceptions.ManagerExecutionException;
+import utils.ConcurrencyUtils;
 import utils.Metrics;
+import utils.OwnedExercisesDiff;
 import utils.UpdateItemTemplate;
 import utils.Validator;
 import utils.WorkoutUtils;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import javax.inject.Inject;
 import models.User;
 import models.Workout;
@@ -46,46 +48,57 @@ public class EditWorkoutManager {
         this.metrics.commonSetup(classMethod);
 
         try {
-            final User user = this.userDAO.getUser(activeUser);
-            final Workout oldWorkout = this.workoutDAO.getWorkout(editedWorkout.getWorkoutId());
-            Validator.ensureWorkoutOwnership(activeUser, oldWorkout);
-
-            final String workoutId = oldWorkout.getWorkoutId();
-            final String errorMessage = Validator.validEditWorkoutInput(editedWorkout.getRoutine());
-
-            if (!errorMessage.isEmpty()) {
-                this.metrics.commonClose(false);
-                throw new ManagerExecutionException(errorMessage);
-            }
-
-            // update all the exercises that are now a part of this workout
-            WorkoutUtils.updateOwnedExercisesOnEdit(user, editedWorkout.getRoutine(),
-                oldWorkout.getRoutine(), workoutId, oldWorkout.getWorkoutName());
-
-            // Need to determine if the current week/day is valid (responsibility of frontend)
-            confirmValidCurrentDayAndWeek(editedWorkout);
-            UpdateItemTemplate updateUserItemData = new UpdateItemTemplate(activeUser, UserDAO.USERS_TABLE_NAME)
-                .withUpdateExpression("set " + User.EXERCISES + "= :exerciseMap")
-                .withValueMap(new ValueMap().withMap(":exerciseMap", user.getOwnedExercisesMap()));
-
-            UpdateItemTemplate updateWorkoutItemData = new UpdateItemTemplate(workoutId, WorkoutDAO.WORKOUT_TABLE_NAME)
-                .withUpdateExpression("set " +
-                    Workout.CURRENT_WEEK + " =:currentWeekVal, " +
-                    Workout.CURRENT_DAY + " =:currentDayVal, " +
-                    "#routine = :routineMap")
-                .withValueMap(new ValueMap()
-                    .withNumber(":currentWeekVal", editedWorkout.getCurrentWeek())
-                    .withNumber(":currentDayVal", editedWorkout.getCurrentDay())
-                    .withMap(":routineMap", editedWorkout.getRoutine().asMap()))
-                .withNameMap(new NameMap().with("#routine", Workout.ROUTINE));
-
-            final List<TransactWriteItem> actions = new ArrayList<>();
-            actions.add(new TransactWriteItem().withUpdate(updateUserItemData.asUpdate()));
-            actions.add(new TransactWriteItem().withUpdate(updateWorkoutItemData.asUpdate()));
-            this.workoutDAO.executeWriteTransaction(actions);
+            final UserWithWorkout result = ConcurrencyUtils.retryOnConflict(this.metrics, () -> {
+                final CompletableFuture<User> userRead = this.userDAO.getUserAsync(activeUser);
+                final CompletableFuture<Workout> oldWorkoutRead = this.workoutDAO
+                    .getWorkoutAsync(editedWorkout.getWorkoutId());
+                final User user = ConcurrencyUtils.await(userRead);
+                final OwnedExercisesDiff exercisesDiff = OwnedExercisesDiff.track(user);
+                final Workout oldWorkout = ConcurrencyUtils.await(oldWorkoutRead);
+                Validator.ensureWorkoutOwnership(activeUser, oldWorkout);
+
+                final String workoutId = oldWorkout.getWorkoutId();
+                final String errorMessage = Validator.validEditWorkoutInput(editedWorkout.getRoutine());
+
+                if (!errorMessage.isEmpty()) {
+                    this.metrics.commonClose(false);
+                    throw new ManagerExecutionException(errorMessage);
+                }
+
+                // update all the exercises that are now a part of this workout
+                WorkoutUtils.updateOwnedExercisesOnEdit(user, editedWorkout.getRoutine(),
+                    oldWorkout.getRoutine(), workoutId, oldWorkout.getWorkoutName());
+
+                // Need to determine if the current week/day is valid (responsibility of frontend)
+                confirmValidCurrentDayAndWeek(editedWorkout);
+                UpdateItemTemplate updateUserItemData = exercisesDiff
+                    .addTo(new UpdateItemTemplate(activeUser, UserDAO.USERS_TABLE_NAME)
+                        .withExpectedVersion(user.getVersion()));
+
+                UpdateItemTemplate updateWorkoutItemData = new UpdateItemTemplate(workoutId,
+                    WorkoutDAO.WORKOUT_TABLE_NAME)
+                    .withExpectedVersion(oldWorkout.getVersion())
+                    .withUpdateExpression("set " +
+                        Workout.CURRENT_WEEK + " =:currentWeekVal, " +
+                        Workout.CURRENT_DAY + " =:currentDayVal")
+                    .withValueMap(new ValueMap()
+                        .withNumber(":currentWeekVal", editedWorkout.getCurrentWeek())
+                        .withNumber(":currentDayVal", editedWorkout.getCurrentDay()))
+                    .merge(WorkoutUtils.getRoutineUpdate(workoutId, editedWorkout.getRoutine()));
+
+                final List<TransactWriteItem> actions = new ArrayList<>();
+                if (updateUserItemData.getUpdateExpression() != null) {
+                    // exercises may be unchanged if only sets/reps/weights of the routine were edited
+                    actions.add(new TransactWriteItem().withUpdate(updateUserItemData.asUpdate()));
+                }
+                actions.add(new TransactWriteItem().withUpdate(updateWorkoutItemData.asUpdate()));
+                this.workoutDAO.executeWriteTransaction(actions);
+
+                return new UserWithWorkout(user, editedWorkout);
+            });
 
             this.metrics.commonClose(true);
-            return new UserWithWorkout(user, editedWorkout);
+            return result;
         } catch (Exception e) {
             this.metrics.commonClose(false);
             throw e;
@@ -1,81 +1,119 @@
 package managers;
 
+import com.amazonaws.services.dynamodbv2.document.ItemUtils;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.QueryResult;
+import daos.ReceivedWorkoutDAO;
 import daos.UserDAO;
 import utils.Metrics;
-import java.util.ArrayList;
+import utils.ReceivedWorkoutsCursor;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import javax.inject.Inject;
 import models.SharedWorkoutMeta;
-import models.User;
-import org.joda.time.DateTime;
+import models.UserField;
+import responses.ReceivedWorkoutsResponse;
 
 public class GetReceivedWorkoutsManager {
 
+    private final ReceivedWorkoutDAO receivedWorkoutDAO;
     private final UserDAO userDAO;
     private final Metrics metrics;
     public static final int WORKOUT_BATCH_SIZE = 25;
 
     @Inject
-    public GetReceivedWorkoutsManager(final UserDAO userDAO, final Metrics metrics) {
+    public GetReceivedWorkoutsManager(final ReceivedWorkoutDAO receivedWorkoutDAO, final UserDAO userDAO,
+        final Metrics metrics) {
+        this.receivedWorkoutDAO = receivedWorkoutDAO;
         this.userDAO = userDAO;
         this.metrics = metrics;
     }
 
     /**
-     * Gets a batch of received workout metas to the active user based on the current batch number after all workouts
-     * are sorted by date sent. E.g. if there are 10 received workouts with a batch size of 2 and the user passes in
-     * batch number 3, this method will return a map of workout metas indexed 6 and 7.
+     * Gets the batch of received workout metas that comes after the given cursor, newest first. Only the workouts of
+     * the batch are read.
      *
-     * @param activeUser  username of the user that made the api request, trying to get data about themselves.
-     * @param batchNumber batch number that the user is currently on.
-     * @return Map of the received workout metas that fall into this batch
+     * @param activeUser username of the user that made the api request, trying to get data about themselves.
+     * @param cursor     cursor returned with the previous batch, null for the first batch.
+     * @return the received workout metas of this batch and the cursor of the next one.
      */
-    public Map<String, SharedWorkoutMeta> getReceivedWorkouts(final String activeUser, final int batchNumber)
+    public ReceivedWorkoutsResponse getReceivedWorkouts(final String activeUser, final String cursor)
         throws Exception {
         final String classMethod = this.getClass().getSimpleName() + ".getReceivedWorkouts";
         this.metrics.commonSetup(classMethod);
 
         try {
-            final User activeUserObject = this.userDAO.getUser(activeUser);
-            final Map<String, SharedWorkoutMeta> receivedWorkouts = activeUserObject.getReceivedWorkouts();
+            final ReceivedWorkoutsResponse workoutsBatch = this.getBatchOfWorkouts(activeUser,
+                ReceivedWorkoutsCursor.decode(activeUser, cursor), this.getReceivedWorkoutsSeenAt(activeUser));
 
             this.metrics.commonClose(true);
-            return getBatchOfWorkouts(receivedWorkouts, batchNumber);
+            return workoutsBatch;
         } catch (Exception e) {
             this.metrics.commonClose(false);
             throw e;
         }
     }
 
-    public static Map<String, SharedWorkoutMeta> getBatchOfWorkouts(
-        final Map<String, SharedWorkoutMeta> receivedWorkouts, final Integer batchNumber) {
-        int newestReceivedWorkoutIndex = batchNumber * WORKOUT_BATCH_SIZE;
-        int oldestReceivedWorkoutIndex = ((batchNumber + 1) * WORKOUT_BATCH_SIZE) - 1;
-
-        ArrayList<String> workoutIds = new ArrayList<>(receivedWorkouts.keySet());
-        Map<String, SharedWorkoutMeta> workoutsBatch = new LinkedHashMap<>();
+    /**
+     * Gets a batch of received workout metas to the active user based on the current batch number, newest first.
+     * E.g. if there are 10 received workouts with a batch size of 2 and the user passes in batch number 3, this method
+     * will return a map of workout metas indexed 6 and 7.
+     * <p>
+     * Kept for clients that page by batch number, the keys of every batch before the requested one have to be read.
+     *
+     * @param activeUser  username of the user that made the api request, trying to get data about themselves.
+     * @param batchNumber batch number that the user is currently on.
+     * @return Map of the received workout metas that fall into this batch, in the order they were sent.
+     */
+    public Map<String, SharedWorkoutMeta> getReceivedWorkouts(final String activeUser, final int batchNumber)
+        throws Exception {
+        final String classMethod = this.getClass().getSimpleName() + ".getReceivedWorkouts";
+        this.metrics.commonSetup(classMethod);
 
-        // get all the received workouts from the first workout to the oldest workout in the batch
-        if (workoutIds.size() > newestReceivedWorkoutIndex) {
-            if (workoutIds.size() <= oldestReceivedWorkoutIndex) {
-                // if on the last batch and remainder doesn't fit into the entire batch, last index is the size
-                oldestReceivedWorkoutIndex = workoutIds.size() - 1;
+        try {
+            // the batches before the requested one are only read for their keys to find where it starts
+            Map<String, AttributeValue> startKey = null;
+            for (int i = 0; i < batchNumber; i++) {
+                startKey = this.receivedWorkoutDAO.queryBySentAt(activeUser, startKey, WORKOUT_BATCH_SIZE, true)
+                    .getLastEvaluatedKey();
+                if (startKey == null) {
+                    // no workouts in this index range
+                    this.metrics.commonClose(true);
+                    return new LinkedHashMap<>();
+                }
             }
 
-            // sort the workouts based on sent time of the workout
-            workoutIds.sort((o1, o2) -> {
-                DateTime dateTime = DateTime.parse(receivedWorkouts.get(o1).getDateSent());
-                DateTime dateTimeOther = DateTime.parse(receivedWorkouts.get(o2).getDateSent());
-                return dateTimeOther.compareTo(dateTime);
-            });
+            final Map<String, SharedWorkoutMeta> workoutsBatch = this.getBatchOfWorkouts(activeUser, startKey,
+                this.getReceivedWorkoutsSeenAt(activeUser)).getReceivedWorkouts();
+            this.metrics.commonClose(true);
+            return workoutsBatch;
+        } catch (Exception e) {
+            this.metrics.commonClose(false);
+            throw e;
+        }
+    }
 
-            for (int i = newestReceivedWorkoutIndex; i <= oldestReceivedWorkoutIndex; i++) {
-                String workoutId = workoutIds.get(i);
-                workoutsBatch.put(workoutId, receivedWorkouts.get(workoutId));
-            }
-        } // else no workouts in this index range
+    private Long getReceivedWorkoutsSeenAt(final String activeUser) throws Exception {
+        return this.userDAO.getUser(activeUser, UserField.RECEIVED_WORKOUTS).getReceivedWorkoutsSeenAt();
+    }
 
-        return workoutsBatch;
+    /**
+     * @param activeUser             user whose received workouts are returned.
+     * @param startKey               key of the last workout of the previous batch, null for the first batch.
+     * @param receivedWorkoutsSeenAt received workouts seen watermark of the user, applied to the seen flags.
+     * @return the received workouts of the batch, newest first, and the cursor of the next batch.
+     */
+    public ReceivedWorkoutsResponse getBatchOfWorkouts(final String activeUser,
+        final Map<String, AttributeValue> startKey, final Long receivedWorkoutsSeenAt) {
+        final QueryResult batch = this.receivedWorkoutDAO
+            .queryBySentAt(activeUser, startKey, WORKOUT_BATCH_SIZE, false);
+        final Map<String, SharedWorkoutMeta> workoutsBatch = new LinkedHashMap<>();
+        for (Map<String, AttributeValue> item : batch.getItems()) {
+            final SharedWorkoutMeta workoutMeta = new SharedWorkoutMeta(ItemUtils.toSimpleMapValue(item));
+            workoutMeta.setSeen(workoutMeta.isSeenAsOf(receivedWorkoutsSeenAt));
+            workoutsBatch.put(workoutMeta.getWorkoutId(), workoutMeta);
+        }
+        return new ReceivedWorkoutsResponse(workoutsBatch,
+            ReceivedWorkoutsCursor.encode(batch.getLastEvaluatedKey()));
     }
 }
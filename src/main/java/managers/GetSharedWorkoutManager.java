@@ -1,9 +1,8 @@
 package managers;
 
+import daos.ReceivedWorkoutDAO;
 import daos.SharedWorkoutDAO;
-import daos.UserDAO;
 import exceptions.ManagerExecutionException;
-import models.User;
 import utils.Metrics;
 import javax.inject.Inject;
 import models.SharedWorkout;
@@ -12,15 +11,15 @@ public class GetSharedWorkoutManager {
 
     private final SharedWorkoutDAO sharedWorkoutDAO;
     private final Metrics metrics;
-    private final UserDAO userDAO;
+    private final ReceivedWorkoutDAO receivedWorkoutDAO;
 
 
     @Inject
     public GetSharedWorkoutManager(final SharedWorkoutDAO sharedWorkoutDAO, final Metrics metrics,
-        final UserDAO userDAO) {
+        final ReceivedWorkoutDAO receivedWorkoutDAO) {
         this.sharedWorkoutDAO = sharedWorkoutDAO;
         this.metrics = metrics;
-        this.userDAO = userDAO;
+        this.receivedWorkoutDAO = receivedWorkoutDAO;
     }
 
     /**
@@ -36,8 +35,7 @@ public class GetSharedWorkoutManager {
         this.metrics.commonSetup(classMethod);
 
         try {
-            User activeUserObject = this.userDAO.getUser(activeUser);
-            if (!activeUserObject.getReceivedWorkouts().containsKey(workoutId)) {
+            if (!this.receivedWorkoutDAO.findReceivedWorkout(activeUser, workoutId).isPresent()) {
                 this.metrics.commonClose(false);
                 throw new ManagerExecutionException("User is not a recipient for this workout.");
             }
@@ -8,19 +8,22 @@ import java.util.Optional;
 import javax.inject.Inject;
 import utils.Metrics;
 import models.User;
+import responses.ReceivedWorkoutsResponse;
 
 public class GetUserDataManager {
 
     private final UserDAO userDAO;
     private final Metrics metrics;
     private final NewUserManager newUserManager;
+    private final GetReceivedWorkoutsManager getReceivedWorkoutsManager;
 
     @Inject
     public GetUserDataManager(final UserDAO userDAO, final Metrics metrics,
-        final NewUserManager newUserManager) {
+        final NewUserManager newUserManager, final GetReceivedWorkoutsManager getReceivedWorkoutsManager) {
         this.userDAO = userDAO;
         this.metrics = metrics;
         this.newUserManager = newUserManager;
+        this.getReceivedWorkoutsManager = getReceivedWorkoutsManager;
     }
 
     /**
@@ -63,8 +66,12 @@ public class GetUserDataManager {
                 // user has not been added yet in the DB, so create an entry for them
                 user = this.newUserManager.createNewUser(activeUser);
             } else {
-                // user already exists in DB so just return their data
+                // user already exists in DB so just return their data along with their newest received workouts
                 user = this.userDAO.getUser(activeUser);
+                final ReceivedWorkoutsResponse receivedWorkouts = this.getReceivedWorkoutsManager
+                    .getBatchOfWorkouts(activeUser, null, user.getReceivedWorkoutsSeenAt());
+                user.setReceivedWorkouts(receivedWorkouts.getReceivedWorkouts());
+                user.setReceivedWorkoutsCursor(receivedWorkouts.getNextCursor());
             }
             this.metrics.commonClose(true);
             return user;
@@ -1,11 +1,12 @@
 package managers;
 
-import com.amazonaws.services.dynamodbv2.document.spec.UpdateItemSpec;
 import com.amazonaws.services.dynamodbv2.document.utils.NameMap;
 import com.amazonaws.services.dynamodbv2.document.utils.ValueMap;
 import daos.UserDAO;
 import exceptions.ManagerExecutionException;
+import utils.ConcurrencyUtils;
 import utils.Metrics;
+import utils.UpdateItemTemplate;
 import utils.Validator;
 import java.util.ArrayList;
 import java.util.List;
@@ -13,6 +14,7 @@ import java.util.UUID;
 import javax.inject.Inject;
 import models.OwnedExercise;
 import models.User;
+import models.UserField;
 import responses.OwnedExerciseResponse;
 
 public class NewExerciseManager {
@@ -43,30 +45,38 @@ public class NewExerciseManager {
         this.metrics.commonSetup(classMethod);
 
         try {
-            final User user = this.userDAO.getUser(activeUser);
+            final OwnedExerciseResponse result = ConcurrencyUtils.retryOnConflict(this.metrics, () -> {
+                // the limit on exercises is checked against the user as it was read, so it only holds if the user is
+                // written at the version it was read at
+                final User user = this.userDAO.getUser(activeUser,
+                    UserField.PREMIUM_TOKEN, UserField.OWNED_EXERCISES, UserField.VERSION);
 
-            List<String> focusList = new ArrayList<>(focuses);
-            final String errorMessage = Validator.validNewExercise(user, exerciseName, weight, sets, reps, details,
-                videUrl, focusList);
+                List<String> focusList = new ArrayList<>(focuses);
+                final String errorMessage = Validator.validNewExercise(user, exerciseName, weight, sets, reps,
+                    details, videUrl, focusList);
 
-            if (!errorMessage.isEmpty()) {
-                this.metrics.commonClose(false);
-                throw new ManagerExecutionException(errorMessage);
-            }
+                if (!errorMessage.isEmpty()) {
+                    this.metrics.commonClose(false);
+                    throw new ManagerExecutionException(errorMessage);
+                }
 
-            // all input is valid so go ahead and make the new exercise
-            OwnedExercise ownedExercise = new OwnedExercise(exerciseName, weight, sets, reps, details, videUrl,
-                focusList);
-            String exerciseId = UUID.randomUUID().toString();
+                // all input is valid so go ahead and make the new exercise
+                OwnedExercise ownedExercise = new OwnedExercise(exerciseName, weight, sets, reps, details, videUrl,
+                    focusList);
+                String exerciseId = UUID.randomUUID().toString();
 
-            UpdateItemSpec updateItemSpec = new UpdateItemSpec()
-                .withUpdateExpression("set " + User.EXERCISES + ".#exerciseId= :exerciseMap")
-                .withNameMap(new NameMap().with("#exerciseId", exerciseId))
-                .withValueMap(new ValueMap().withMap(":exerciseMap", ownedExercise.asMap()));
-            this.userDAO.updateUser(user.getUsername(), updateItemSpec);
+                UpdateItemTemplate updateUserData = new UpdateItemTemplate(activeUser, UserDAO.USERS_TABLE_NAME)
+                    .withExpectedVersion(user.getVersion())
+                    .withUpdateExpression("set " + User.EXERCISES + ".#exerciseId= :exerciseMap")
+                    .withNameMap(new NameMap().with("#exerciseId", exerciseId))
+                    .withValueMap(new ValueMap().withMap(":exerciseMap", ownedExercise.asMap()));
+                this.userDAO.updateUser(updateUserData);
+
+                return new OwnedExerciseResponse(exerciseId, ownedExercise);
+            });
 
             this.metrics.commonClose(true);
-            return new OwnedExerciseResponse(exerciseId, ownedExercise);
+            return result;
         } catch (Exception e) {
             this.metrics.commonClose(false);
             throw e;
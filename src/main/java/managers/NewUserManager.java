@@ -3,7 +3,7 @@ package managers;
 import services.StorageService;
 import com.amazonaws.services.dynamodbv2.document.Item;
 import daos.UserDAO;
-import utils.FileReader;
+import utils.ExerciseCatalogue;
 import utils.Metrics;
 import java.util.HashMap;
 import java.util.UUID;
@@ -41,8 +41,8 @@ public class NewUserManager {
             // whenever a user is created, give them a unique UUID file path that will always get updated
             final UUID uuid = UUID.randomUUID();
             final String fileName = String.format("%s.%s", uuid, StorageService.JPG_TYPE);
-            byte[] defaultImageBytes = storageService.downloadDefaultImage(this.metrics);
-            storageService.uploadImage(defaultImageBytes, fileName, this.metrics);
+            // the default image is copied within S3, it never passes through here
+            this.storageService.copyDefaultImage(fileName, this.metrics);
 
             final UserPreferences userPreferences = new UserPreferences();
             userPreferences.setMetricUnits(false);
@@ -62,8 +62,12 @@ public class NewUserManager {
                 .withMap(User.FRIENDS, new HashMap<>())
                 .withMap(User.BLOCKED, new HashMap<>())
                 .withMap(User.FRIEND_REQUESTS, new HashMap<>())
-                .withMap(User.RECEIVED_WORKOUTS, new HashMap<>())
-                .withMap(User.EXERCISES, FileReader.getDefaultExercises());
+                .withInt(User.TOTAL_RECEIVED_WORKOUTS, 0)
+                .withInt(User.UNSEEN_RECEIVED_WORKOUTS, 0)
+                .withInt(User.UNSEEN_FRIEND_REQUESTS, 0)
+                // the default exercises come from the catalogue, only changes to them are stored
+                .withInt(User.EXERCISE_CATALOGUE, ExerciseCatalogue.CURRENT_VERSION)
+                .withMap(User.EXERCISES, new HashMap<>());
             this.userDAO.putUser(user);
 
             this.metrics.commonClose(true);
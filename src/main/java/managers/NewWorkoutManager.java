@@ -8,7 +8,10 @@ import daos.UserDAO;
 import daos.WorkoutDAO;
 import exceptions.ManagerExecutionException;
 import utils.AttributeValueUtils;
+import utils.ConcurrencyUtils;
 import utils.Metrics;
+import utils.OwnedExercisesDiff;
+import utils.QuotaUtils;
 import utils.UpdateItemTemplate;
 import utils.Validator;
 import utils.WorkoutUtils;
@@ -54,59 +57,65 @@ public class NewWorkoutManager {
         this.metrics.commonSetup(classMethod);
 
         try {
-            final User user = this.userDAO.getUser(activeUser);
+            final UserWithWorkout result = ConcurrencyUtils.retryOnConflict(this.metrics, () -> {
+                final User user = this.userDAO.getUser(activeUser);
+                final OwnedExercisesDiff exercisesDiff = OwnedExercisesDiff.track(user);
 
-            final String workoutId = UUID.randomUUID().toString();
-            final String errorMessage = Validator.validNewWorkoutInput(workoutName, user, routine);
+                final String workoutId = UUID.randomUUID().toString();
+                final String errorMessage = Validator.validNewWorkoutInput(workoutName, user, routine);
 
-            if (!errorMessage.isEmpty()) {
-                this.metrics.commonClose(false);
-                throw new ManagerExecutionException(errorMessage);
-            }
-            final String creationTime = Instant.now().toString();
+                if (!errorMessage.isEmpty()) {
+                    this.metrics.commonClose(false);
+                    throw new ManagerExecutionException(errorMessage);
+                }
+                final String creationTime = Instant.now().toString();
 
-            // no error, so go ahead and try and insert this new workout along with updating active user
-            final Workout newWorkout = new Workout();
-            newWorkout.setCreationDate(creationTime);
-            newWorkout.setCreator(activeUser);
-            newWorkout.setWorkoutId(workoutId);
-            newWorkout.setWorkoutName(workoutName);
-            newWorkout.setRoutine(routine);
-            newWorkout.setCurrentDay(0);
-            newWorkout.setCurrentWeek(0);
+                // no error, so go ahead and try and insert this new workout along with updating active user
+                final Workout newWorkout = new Workout();
+                newWorkout.setCreationDate(creationTime);
+                newWorkout.setCreator(activeUser);
+                newWorkout.setWorkoutId(workoutId);
+                newWorkout.setWorkoutName(workoutName);
+                newWorkout.setRoutine(routine);
+                newWorkout.setCurrentDay(0);
+                newWorkout.setCurrentWeek(0);
 
-            final WorkoutMeta workoutMeta = new WorkoutMeta();
-            workoutMeta.setWorkoutName(workoutName);
-            workoutMeta.setAverageExercisesCompleted(0.0);
-            workoutMeta.setDateLast(creationTime);
-            workoutMeta.setTimesCompleted(0);
-            workoutMeta.setTotalExercisesSum(0);
-            // need to set it here so frontend gets updated user item back
-            user.putNewWorkoutMeta(workoutId, workoutMeta);
-            user.setCurrentWorkout(workoutId);
-            // update all the exercises that are now a part of this workout
-            WorkoutUtils.updateOwnedExercises(user, routine, workoutId, workoutName);
+                final WorkoutMeta workoutMeta = new WorkoutMeta();
+                workoutMeta.setWorkoutName(workoutName);
+                workoutMeta.setAverageExercisesCompleted(0.0);
+                workoutMeta.setDateLast(creationTime);
+                workoutMeta.setTimesCompleted(0);
+                workoutMeta.setTotalExercisesSum(0);
+                // need to set it here so frontend gets updated user item back
+                user.putNewWorkoutMeta(workoutId, workoutMeta);
+                user.setCurrentWorkout(workoutId);
+                // update all the exercises that are now a part of this workout
+                WorkoutUtils.updateOwnedExercises(user, routine, workoutId, workoutName);
 
-            UpdateItemTemplate updateItemData = new UpdateItemTemplate(activeUser, UserDAO.USERS_TABLE_NAME)
-                .withUpdateExpression("set " +
-                    User.CURRENT_WORKOUT + " = :currentWorkoutVal, " +
-                    User.WORKOUTS + ".#workoutId= :workoutUserMap, " +
-                    User.EXERCISES + "= :exercisesMap")
-                .withValueMap(new ValueMap()
-                    .withString(":currentWorkoutVal", workoutId)
-                    .withMap(":workoutUserMap", workoutMeta.asMap())
-                    .withMap(":exercisesMap", user.getOwnedExercisesMap()))
-                .withNameMap(new NameMap().with("#workoutId", workoutId));
+                UpdateItemTemplate updateItemData = exercisesDiff.addTo(
+                    new UpdateItemTemplate(activeUser, UserDAO.USERS_TABLE_NAME)
+                        .withExpectedVersion(user.getVersion())
+                        .withUpdateExpression("set " +
+                            User.CURRENT_WORKOUT + " = :currentWorkoutVal, " +
+                            User.WORKOUTS + ".#workoutId= :workoutUserMap")
+                        .withValueMap(new ValueMap()
+                            .withString(":currentWorkoutVal", workoutId)
+                            .withMap(":workoutUserMap", workoutMeta.asMap()))
+                        .withNameMap(new NameMap().with("#workoutId", workoutId))
+                        .merge(QuotaUtils.getRoomForWorkout(activeUser, user.getPremiumToken())));
 
-            final List<TransactWriteItem> actions = new ArrayList<>();
-            actions.add(new TransactWriteItem().withUpdate(updateItemData.asUpdate()));
-            actions.add(new TransactWriteItem()
-                .withPut(new Put().withTableName(WorkoutDAO.WORKOUT_TABLE_NAME).withItem(
-                    AttributeValueUtils.convertMapToAttributeValueMap(newWorkout.asMap()))));
-            this.workoutDAO.executeWriteTransaction(actions);
+                final List<TransactWriteItem> actions = new ArrayList<>();
+                actions.add(new TransactWriteItem().withUpdate(updateItemData.asUpdate()));
+                actions.add(new TransactWriteItem()
+                    .withPut(new Put().withTableName(WorkoutDAO.WORKOUT_TABLE_NAME).withItem(
+                        AttributeValueUtils.convertMapToAttributeValueMap(newWorkout.asItemMap()))));
+                this.workoutDAO.executeWriteTransaction(actions);
+
+                return new UserWithWorkout(user, newWorkout);
+            });
 
             this.metrics.commonClose(true);
-            return new UserWithWorkout(user, newWorkout);
+            return result;
         } catch (Exception e) {
             this.metrics.commonClose(false);
             throw e;
@@ -10,6 +10,7 @@ import exceptions.UserNotFoundException;
 import utils.Metrics;
 import javax.inject.Inject;
 import models.User;
+import models.UserField;
 
 public class RemoveEndpointTokenManager {
 
@@ -39,7 +40,7 @@ public class RemoveEndpointTokenManager {
         this.metrics.commonSetup(classMethod);
 
         try {
-            final User user = this.userDAO.getUser(activeUser);
+            final User user = this.userDAO.getUser(activeUser, UserField.PUSH_ENDPOINT_ARN);
 
             if (user.getPushEndpointArn() != null) {
                 UpdateItemSpec updateItemSpec = new UpdateItemSpec()
@@ -5,26 +5,30 @@ import com.amazonaws.services.dynamodbv2.document.utils.NameMap;
 import com.amazonaws.services.dynamodbv2.model.TransactWriteItem;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
+import daos.NotificationOutboxDAO;
 import daos.UserDAO;
 import exceptions.ManagerExecutionException;
+import utils.ConcurrencyUtils;
 import utils.Metrics;
 import utils.UpdateItemTemplate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import javax.inject.Inject;
 import models.NotificationData;
 import models.User;
+import models.UserField;
 
 public class RemoveFriendManager {
 
-    private final NotificationService notificationService;
+    private final NotificationOutboxDAO notificationOutboxDAO;
     private final UserDAO userDAO;
     private final Metrics metrics;
 
     @Inject
-    public RemoveFriendManager(final NotificationService notificationService, final UserDAO userDAO,
+    public RemoveFriendManager(final NotificationOutboxDAO notificationOutboxDAO, final UserDAO userDAO,
         final Metrics metrics) {
-        this.notificationService = notificationService;
+        this.notificationOutboxDAO = notificationOutboxDAO;
         this.userDAO = userDAO;
         this.metrics = metrics;
     }
@@ -42,8 +46,12 @@ public class RemoveFriendManager {
         this.metrics.commonSetup(classMethod);
 
         try {
-            final User activeUserObject = this.userDAO.getUser(activeUser);
-            final User userToRemove = this.userDAO.getUser(usernameToRemove);
+            // both users are read at the same time
+            final CompletableFuture<User> activeUserRead = this.userDAO.getUserAsync(activeUser, UserField.FRIENDS);
+            final CompletableFuture<User> userToRemoveRead = this.userDAO.getUserAsync(usernameToRemove,
+                UserField.PUSH_ENDPOINT_ARN);
+            final User activeUserObject = ConcurrencyUtils.await(activeUserRead);
+            final User userToRemove = ConcurrencyUtils.await(userToRemoveRead);
             if (!activeUserObject.getFriends().containsKey(usernameToRemove)) {
                 this.metrics.commonClose(false);
                 throw new ManagerExecutionException(String.format("User %s no longer has this friend.", activeUser));
@@ -63,12 +71,13 @@ public class RemoveFriendManager {
             actions.add(new TransactWriteItem().withUpdate(activeUserData.asUpdate()));
             actions.add(new TransactWriteItem().withUpdate(updateFriendData.asUpdate()));
 
-            this.userDAO.executeWriteTransaction(actions);
-            // if this succeeds, go ahead and send a notification to the accepted user (only need to send username)
-            this.notificationService.sendMessage(userToRemove.getPushEndpointArn(),
+            // the removed user is notified once the transaction commits (only need to send username)
+            this.notificationOutboxDAO.enqueue(actions, userToRemove.getPushEndpointArn(),
                 new NotificationData(NotificationService.removedAsFriendAction,
                     Maps.newHashMap(ImmutableMap.<String, String>builder().put(User.USERNAME, activeUser)
                         .build())));
+
+            this.userDAO.executeWriteTransaction(actions);
             this.metrics.commonClose(true);
         } catch (Exception e) {
             this.metrics.commonClose(false);
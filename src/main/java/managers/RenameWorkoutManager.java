@@ -7,7 +7,9 @@ import daos.UserDAO;
 import daos.WorkoutDAO;
 import exceptions.ManagerExecutionException;
 import exceptions.UnauthorizedException;
+import utils.ConcurrencyUtils;
 import utils.Metrics;
+import utils.OwnedExercisesDiff;
 import utils.UpdateItemTemplate;
 import utils.Validator;
 import java.util.ArrayList;
@@ -47,56 +49,50 @@ public class RenameWorkoutManager {
         this.metrics.commonSetup(classMethod);
 
         try {
-            final User user = this.userDAO.getUser(activeUser);
+            final User result = ConcurrencyUtils.retryOnConflict(this.metrics, () -> {
+                final User user = this.userDAO.getUser(activeUser);
+                final OwnedExercisesDiff exercisesDiff = OwnedExercisesDiff.track(user);
 
-            final String errorMessage = Validator.validWorkoutName(newWorkoutName, user);
-            if (!errorMessage.isEmpty()) {
-                this.metrics.commonClose(false);
-                throw new ManagerExecutionException(errorMessage);
-            }
+                final String errorMessage = Validator.validWorkoutName(newWorkoutName, user);
+                if (!errorMessage.isEmpty()) {
+                    this.metrics.commonClose(false);
+                    throw new ManagerExecutionException(errorMessage);
+                }
 
-            // no error, so go ahead and try and rename the workout
-            final Workout workout = this.workoutDAO.getWorkout(workoutId);
-            Validator.ensureWorkoutOwnership(activeUser, workout);
+                // no error, so go ahead and try and rename the workout
+                final Workout workout = this.workoutDAO.getWorkout(workoutId);
+                Validator.ensureWorkoutOwnership(activeUser, workout);
 
-            workout.setWorkoutName(newWorkoutName);
-            // update all the exercises that are a part of this newly renamed workout
-            updateUserExercises(user, workoutId, newWorkoutName);
-            WorkoutMeta workoutMeta = user.getWorkoutMetas().get(workoutId);
-            workoutMeta.setWorkoutName(newWorkoutName);
+                workout.setWorkoutName(newWorkoutName);
+                // also updates all the exercises that are a part of this newly renamed workout
+                user.renameWorkout(workoutId, newWorkoutName);
+                WorkoutMeta workoutMeta = user.getWorkoutMetas().get(workoutId);
 
-            UpdateItemTemplate updateUserItemData = new UpdateItemTemplate(activeUser, UserDAO.USERS_TABLE_NAME)
-                .withUpdateExpression("set " +
-                    User.WORKOUTS + ".#workoutId = :workoutMap, " +
-                    User.EXERCISES + "= :exercisesMap")
-                .withValueMap(new ValueMap()
-                    .withMap(":workoutMap", workoutMeta.asMap())
-                    .withMap(":exercisesMap", user.getOwnedExercisesMap()))
-                .withNameMap(new NameMap().with("#workoutId", workoutId));
+                UpdateItemTemplate updateUserItemData = exercisesDiff.addTo(
+                    new UpdateItemTemplate(activeUser, UserDAO.USERS_TABLE_NAME)
+                        .withExpectedVersion(user.getVersion())
+                        .withUpdateExpression("set " + User.WORKOUTS + ".#workoutId = :workoutMap")
+                        .withValueMap(new ValueMap().withMap(":workoutMap", workoutMeta.asMap()))
+                        .withNameMap(new NameMap().with("#workoutId", workoutId)));
 
-            UpdateItemTemplate updateWorkoutItemData = new UpdateItemTemplate(workoutId, WorkoutDAO.WORKOUT_TABLE_NAME)
-                .withUpdateExpression("set " + Workout.WORKOUT_NAME + "= :workoutNameVal")
-                .withValueMap(new ValueMap().withString(":workoutNameVal", newWorkoutName));
+                UpdateItemTemplate updateWorkoutItemData = new UpdateItemTemplate(workoutId,
+                    WorkoutDAO.WORKOUT_TABLE_NAME)
+                    .withUpdateExpression("set " + Workout.WORKOUT_NAME + "= :workoutNameVal")
+                    .withValueMap(new ValueMap().withString(":workoutNameVal", newWorkoutName));
 
-            final List<TransactWriteItem> actions = new ArrayList<>();
-            actions.add(new TransactWriteItem().withUpdate(updateUserItemData.asUpdate()));
-            actions.add(new TransactWriteItem().withUpdate(updateWorkoutItemData.asUpdate()));
-            this.userDAO.executeWriteTransaction(actions);
+                final List<TransactWriteItem> actions = new ArrayList<>();
+                actions.add(new TransactWriteItem().withUpdate(updateUserItemData.asUpdate()));
+                actions.add(new TransactWriteItem().withUpdate(updateWorkoutItemData.asUpdate()));
+                this.userDAO.executeWriteTransaction(actions);
+
+                return user;
+            });
 
             this.metrics.commonClose(true);
-            return user;
+            return result;
         } catch (Exception e) {
             this.metrics.commonClose(false);
             throw e;
         }
     }
-
-    private static void updateUserExercises(final User user, final String workoutId, final String newWorkoutName) {
-        for (String exerciseId : user.getOwnedExercises().keySet()) {
-            if (user.getOwnedExercises().get(exerciseId).getWorkouts().containsKey(workoutId)) {
-                // old workout name found, replace it with newly named one
-                user.getOwnedExercises().get(exerciseId).getWorkouts().put(workoutId, newWorkoutName);
-            }
-        }
-    }
 }
@@ -1,14 +1,14 @@
 package managers;
 
-import com.amazonaws.services.dynamodbv2.document.spec.UpdateItemSpec;
 import com.amazonaws.services.dynamodbv2.document.utils.NameMap;
 import com.amazonaws.services.dynamodbv2.document.utils.ValueMap;
 import daos.UserDAO;
-import exceptions.InvalidAttributeException;
-import exceptions.UserNotFoundException;
+import utils.ConcurrencyUtils;
 import utils.Metrics;
+import utils.UpdateItemTemplate;
 import javax.inject.Inject;
 import models.User;
+import models.UserField;
 import models.WorkoutMeta;
 
 public class ResetWorkoutStatisticsManager {
@@ -30,27 +30,30 @@ public class ResetWorkoutStatisticsManager {
      * @param workoutId  id of the workout whose statistics are to be reset.
      * @return updated workout meta with all statistics reset.
      */
-    public WorkoutMeta resetStatistics(final String activeUser, final String workoutId)
-        throws InvalidAttributeException, UserNotFoundException {
+    public WorkoutMeta resetStatistics(final String activeUser, final String workoutId) throws Exception {
         final String classMethod = this.getClass().getSimpleName() + ".resetStatistics";
         this.metrics.commonSetup(classMethod);
 
         try {
-            final User user = this.userDAO.getUser(activeUser);
-
-            final WorkoutMeta workoutMeta = user.getWorkoutMetas().get(workoutId);
-            workoutMeta.setAverageExercisesCompleted(0.0);
-            workoutMeta.setTimesCompleted(0);
-            workoutMeta.setTotalExercisesSum(0);
-
-            UpdateItemSpec updateUserItemData = new UpdateItemSpec()
-                .withUpdateExpression("set " + User.WORKOUTS + ".#workoutId= :workoutsMap")
-                .withValueMap(new ValueMap().withMap(":workoutsMap", workoutMeta.asMap()))
-                .withNameMap(new NameMap().with("#workoutId", workoutId));
-            this.userDAO.updateUser(activeUser, updateUserItemData);
+            final WorkoutMeta result = ConcurrencyUtils.retryOnConflict(this.metrics, () -> {
+                final User user = this.userDAO.getUser(activeUser, UserField.WORKOUT_METAS, UserField.VERSION);
+
+                final WorkoutMeta workoutMeta = user.getWorkoutMetas().get(workoutId);
+                workoutMeta.setAverageExercisesCompleted(0.0);
+                workoutMeta.setTimesCompleted(0);
+                workoutMeta.setTotalExercisesSum(0);
+
+                UpdateItemTemplate updateUserItemData = new UpdateItemTemplate(activeUser, UserDAO.USERS_TABLE_NAME)
+                    .withExpectedVersion(user.getVersion())
+                    .withUpdateExpression("set " + User.WORKOUTS + ".#workoutId= :workoutsMap")
+                    .withValueMap(new ValueMap().withMap(":workoutsMap", workoutMeta.asMap()))
+                    .withNameMap(new NameMap().with("#workoutId", workoutId));
+                this.userDAO.updateUser(updateUserItemData);
+                return workoutMeta;
+            });
 
             this.metrics.commonClose(true);
-            return workoutMeta;
+            return result;
         } catch (Exception e) {
             this.metrics.commonClose(false);
             throw e;
@@ -7,7 +7,9 @@ import daos.UserDAO;
 import daos.WorkoutDAO;
 import models.RoutineDay;
 import models.RoutineWeek;
+import utils.ConcurrencyUtils;
 import utils.Metrics;
+import utils.OwnedExercisesDiff;
 import utils.UpdateItemTemplate;
 import java.util.ArrayList;
 import java.util.List;
@@ -19,6 +21,7 @@ import models.Workout;
 import models.WorkoutMeta;
 import responses.UserWithWorkout;
 import utils.Validator;
+import utils.WorkoutUtils;
 
 public class RestartWorkoutManager {
 
@@ -35,55 +38,59 @@ public class RestartWorkoutManager {
      * Resets all exercises in a workout to be not completed and sets the current day and current week to the first
      * day/week of the workout. Also updates the statistics of this workout given the workout before it was restarted.
      *
-     * @param activeUser user that is restarting their workout.
-     * @param workout    the workout that is to be restarted.
+     * @param activeUser       user that is restarting their workout.
+     * @param workoutToRestart the workout that is to be restarted.
      * @return UserWithWorkout with the workout being reset and the updated statistics added to the user object.
      * @throws Exception if the user or workout does not exist.
      */
-    public UserWithWorkout restartWorkout(final String activeUser, final Workout workout) throws Exception {
+    public UserWithWorkout restartWorkout(final String activeUser, final Workout workoutToRestart) throws Exception {
         final String classMethod = this.getClass().getSimpleName() + ".execute";
         this.metrics.commonSetup(classMethod);
 
         try {
-            final User user = this.userDAO.getUser(activeUser);
-            Validator.ensureWorkoutOwnership(activeUser, workout);
-
-            final String workoutId = workout.getWorkoutId();
-            final WorkoutMeta workoutMeta = user.getWorkoutMetas().get(workoutId);
-            restartWorkout(workout, workoutMeta, user);
-
-            workoutMeta.setTimesCompleted(workoutMeta.getTimesCompleted() + 1);
-            workout.setCurrentDay(0);
-            workout.setCurrentWeek(0);
-
-            // update the newly restarted workout (routine and current day/week)
-            UpdateItemTemplate updateWorkoutData = new UpdateItemTemplate(workoutId, WorkoutDAO.WORKOUT_TABLE_NAME)
-                .withUpdateExpression("set " +
-                    Workout.CURRENT_DAY + " =:currentDay, " +
-                    Workout.CURRENT_WEEK + " =:currentWeek, " +
-                    "#routine =:routineMap")
-                .withValueMap(new ValueMap()
-                    .withNumber(":currentDay", workout.getCurrentDay())
-                    .withNumber(":currentWeek", workout.getCurrentWeek())
-                    .withMap(":routineMap", workout.getRoutine().asMap()))
-                .withNameMap(new NameMap().with("#routine", Workout.ROUTINE));
-
-            UpdateItemTemplate updateUserData = new UpdateItemTemplate(activeUser, UserDAO.USERS_TABLE_NAME)
-                .withUpdateExpression("set " +
-                    User.WORKOUTS + ".#workoutId= :userWorkoutsMap, " +
-                    User.EXERCISES + " = :exercisesMap")
-                .withValueMap(new ValueMap()
-                    .withMap(":userWorkoutsMap", workoutMeta.asMap())
-                    .withMap(":exercisesMap", user.getOwnedExercisesMap()))
-                .withNameMap(new NameMap().with("#workoutId", workoutId));
-
-            final List<TransactWriteItem> actions = new ArrayList<>();
-            actions.add(new TransactWriteItem().withUpdate(updateUserData.asUpdate()));
-            actions.add(new TransactWriteItem().withUpdate(updateWorkoutData.asUpdate()));
-            this.userDAO.executeWriteTransaction(actions);
+            final UserWithWorkout result = ConcurrencyUtils.retryOnConflict(this.metrics, () -> {
+                // restarting mutates the workout, so every attempt starts from the workout as it was sent
+                final Workout workout = new Workout(workoutToRestart.asMap());
+                final User user = this.userDAO.getUser(activeUser);
+                final OwnedExercisesDiff exercisesDiff = OwnedExercisesDiff.track(user);
+                Validator.ensureWorkoutOwnership(activeUser, workout);
+
+                final String workoutId = workout.getWorkoutId();
+                final WorkoutMeta workoutMeta = user.getWorkoutMetas().get(workoutId);
+                restartWorkout(workout, workoutMeta, user);
+
+                workoutMeta.setTimesCompleted(workoutMeta.getTimesCompleted() + 1);
+                workout.setCurrentDay(0);
+                workout.setCurrentWeek(0);
+
+                // update the newly restarted workout (routine and current day/week)
+                UpdateItemTemplate updateWorkoutData = new UpdateItemTemplate(workoutId,
+                    WorkoutDAO.WORKOUT_TABLE_NAME)
+                    .withUpdateExpression("set " +
+                        Workout.CURRENT_DAY + " =:currentDay, " +
+                        Workout.CURRENT_WEEK + " =:currentWeek")
+                    .withValueMap(new ValueMap()
+                        .withNumber(":currentDay", workout.getCurrentDay())
+                        .withNumber(":currentWeek", workout.getCurrentWeek()))
+                    .merge(WorkoutUtils.getRoutineUpdate(workoutId, workout.getRoutine()));
+
+                UpdateItemTemplate updateUserData = exercisesDiff.addTo(
+                    new UpdateItemTemplate(activeUser, UserDAO.USERS_TABLE_NAME)
+                        .withExpectedVersion(user.getVersion())
+                        .withUpdateExpression("set " + User.WORKOUTS + ".#workoutId= :userWorkoutsMap")
+                        .withValueMap(new ValueMap().withMap(":userWorkoutsMap", workoutMeta.asMap()))
+                        .withNameMap(new NameMap().with("#workoutId", workoutId)));
+
+                final List<TransactWriteItem> actions = new ArrayList<>();
+                actions.add(new TransactWriteItem().withUpdate(updateUserData.asUpdate()));
+                actions.add(new TransactWriteItem().withUpdate(updateWorkoutData.asUpdate()));
+                this.userDAO.executeWriteTransaction(actions);
+
+                return new UserWithWorkout(user, workout);
+            });
 
             this.metrics.commonClose(true);
-            return new UserWithWorkout(user, workout);
+            return result;
         } catch (Exception e) {
             this.metrics.commonClose(false);
             throw e;
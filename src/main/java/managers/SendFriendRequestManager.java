@@ -4,33 +4,39 @@ import services.NotificationService;
 import com.amazonaws.services.dynamodbv2.document.utils.NameMap;
 import com.amazonaws.services.dynamodbv2.document.utils.ValueMap;
 import com.amazonaws.services.dynamodbv2.model.TransactWriteItem;
+import daos.NotificationOutboxDAO;
 import daos.UserDAO;
 import exceptions.ManagerExecutionException;
 import imports.Globals;
+import utils.ConcurrencyUtils;
+import utils.FriendRequestUtils;
 import utils.Metrics;
+import utils.QuotaUtils;
 import utils.UpdateItemTemplate;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import javax.inject.Inject;
 import models.Friend;
 import models.FriendRequest;
 import models.NotificationData;
 import models.User;
+import models.UserField;
 import responses.FriendRequestResponse;
 import responses.FriendResponse;
 
 public class SendFriendRequestManager {
 
-    private final NotificationService notificationService;
+    private final NotificationOutboxDAO notificationOutboxDAO;
     private final UserDAO userDAO;
     private final Metrics metrics;
 
     @Inject
-    public SendFriendRequestManager(final NotificationService notificationService,
+    public SendFriendRequestManager(final NotificationOutboxDAO notificationOutboxDAO,
         final UserDAO userDAO,
         final Metrics metrics) {
-        this.notificationService = notificationService;
+        this.notificationOutboxDAO = notificationOutboxDAO;
         this.userDAO = userDAO;
         this.metrics = metrics;
     }
@@ -50,41 +56,60 @@ public class SendFriendRequestManager {
         this.metrics.commonSetup(classMethod);
 
         try {
-            final User activeUserObject = this.userDAO.getUser(activeUser);
-            final User userToAdd = this.userDAO.getUser(usernameToAdd);
+            final FriendResponse friendResponse = ConcurrencyUtils.retryOnConflict(this.metrics, () -> {
+                // both users are read at the same time
+                final CompletableFuture<User> activeUserRead = this.userDAO.getUserAsync(activeUser,
+                    UserField.ICON, UserField.FRIENDS, UserField.BLOCKED);
+                final CompletableFuture<User> userToAddRead = this.userDAO.getUserAsync(usernameToAdd,
+                    UserField.ICON, UserField.PUSH_ENDPOINT_ARN, UserField.USER_PREFERENCES, UserField.FRIEND_REQUESTS,
+                    UserField.BLOCKED);
+                final User activeUserObject = ConcurrencyUtils.await(activeUserRead);
+                final User userToAdd = ConcurrencyUtils.await(userToAddRead);
 
-            String errorMessage = validConditions(activeUserObject, userToAdd);
-            if (!errorMessage.isEmpty()) {
-                this.metrics.commonClose(false);
-                throw new ManagerExecutionException(errorMessage);
-            }
+                String errorMessage = validConditions(activeUserObject, userToAdd);
+                if (!errorMessage.isEmpty()) {
+                    this.metrics.commonClose(false);
+                    throw new ManagerExecutionException(errorMessage);
+                }
 
-            Friend friendToAdd = new Friend(userToAdd, false);
-            FriendRequest friendRequest = new FriendRequest(activeUserObject, Instant.now().toString());
+                Friend friendToAdd = new Friend(userToAdd, false);
+                final Instant requestedAt = Instant.now();
+                FriendRequest friendRequest = new FriendRequest(activeUserObject, requestedAt.toString());
 
-            // the active user needs to have this (unconfirmed) friend added to its friends list
-            UpdateItemTemplate updateFriendData = new UpdateItemTemplate(usernameToAdd, UserDAO.USERS_TABLE_NAME)
-                .withUpdateExpression("set " + User.FRIEND_REQUESTS + ".#username= :requestsVal")
-                .withValueMap(new ValueMap().withMap(":requestsVal", friendRequest.asMap()))
-                .withNameMap(new NameMap().with("#username", activeUser));
-            // friend to add needs to have the friend request added to its friend request list
-            UpdateItemTemplate updateActiveUserData = new UpdateItemTemplate(activeUser, UserDAO.USERS_TABLE_NAME)
-                .withUpdateExpression("set " + User.FRIENDS + ".#username= :friendsVal")
-                .withValueMap(new ValueMap().withMap(":friendsVal", friendToAdd.asMap()))
-                .withNameMap(new NameMap().with("#username", usernameToAdd));
+                // friend to add needs to have the friend request added to its friend request list, counted as unseen
+                UpdateItemTemplate updateFriendData = new UpdateItemTemplate(usernameToAdd, UserDAO.USERS_TABLE_NAME)
+                    .withUpdateExpression("set " + User.FRIEND_REQUESTS + ".#username= :requestsVal "
+                        + "add " + User.UNSEEN_FRIEND_REQUESTS + " :one")
+                    .withConditionExpression("attribute_not_exists(" + User.FRIEND_REQUESTS + ".#username) and ("
+                        + FriendRequestUtils.getNotCoveredBySeenAtCondition(":requestedAt") + ")")
+                    .withValueMap(new ValueMap()
+                        .withMap(":requestsVal", friendRequest.asMap())
+                        .withInt(":one", 1)
+                        .withLong(":requestedAt", requestedAt.toEpochMilli()))
+                    .withNameMap(new NameMap().with("#username", activeUser))
+                    .merge(QuotaUtils.getRoomForFriendRequest(usernameToAdd));
+                // the active user needs to have this (unconfirmed) friend added to its friends list
+                UpdateItemTemplate updateActiveUserData = new UpdateItemTemplate(activeUser, UserDAO.USERS_TABLE_NAME)
+                    .withUpdateExpression("set " + User.FRIENDS + ".#username= :friendsVal")
+                    .withValueMap(new ValueMap().withMap(":friendsVal", friendToAdd.asMap()))
+                    .withNameMap(new NameMap().with("#username", usernameToAdd))
+                    .merge(QuotaUtils.getRoomForFriend(activeUser));
 
-            final List<TransactWriteItem> actions = new ArrayList<>();
-            actions.add(new TransactWriteItem().withUpdate(updateFriendData.asUpdate()));
-            actions.add(new TransactWriteItem().withUpdate(updateActiveUserData.asUpdate()));
+                final List<TransactWriteItem> actions = new ArrayList<>();
+                actions.add(new TransactWriteItem().withUpdate(updateFriendData.asUpdate()));
+                actions.add(new TransactWriteItem().withUpdate(updateActiveUserData.asUpdate()));
 
-            this.userDAO.executeWriteTransaction(actions);
-            // if this succeeds, go ahead and send a notification to the added user
-            this.notificationService.sendMessage(userToAdd.getPushEndpointArn(),
-                new NotificationData(NotificationService.friendRequestAction,
-                    new FriendRequestResponse(friendRequest, activeUser).asMap()));
+                // the added user is notified once the transaction commits
+                this.notificationOutboxDAO.enqueue(actions, userToAdd.getPushEndpointArn(),
+                    new NotificationData(NotificationService.friendRequestAction,
+                        new FriendRequestResponse(friendRequest, activeUser).asMap()));
+
+                this.userDAO.executeWriteTransaction(actions);
+                return new FriendResponse(friendToAdd, usernameToAdd);
+            });
 
             this.metrics.commonClose(true);
-            return new FriendResponse(friendToAdd, usernameToAdd);
+            return friendResponse;
         } catch (Exception e) {
             this.metrics.commonClose(false);
             throw e;
@@ -2,46 +2,55 @@ package managers;
 
 import exceptions.UnauthorizedException;
 import services.NotificationService;
-import com.amazonaws.services.dynamodbv2.document.utils.NameMap;
 import com.amazonaws.services.dynamodbv2.document.utils.ValueMap;
 import com.amazonaws.services.dynamodbv2.model.AttributeValue;
 import com.amazonaws.services.dynamodbv2.model.Put;
 import com.amazonaws.services.dynamodbv2.model.TransactWriteItem;
+import daos.NotificationOutboxDAO;
+import daos.ReceivedWorkoutDAO;
 import daos.SharedWorkoutDAO;
 import daos.UserDAO;
 import daos.WorkoutDAO;
 import exceptions.ManagerExecutionException;
 import imports.Globals;
+import utils.ConcurrencyUtils;
 import utils.Metrics;
+import utils.QuotaUtils;
+import utils.ReceivedWorkoutUtils;
 import utils.UpdateItemTemplate;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import javax.inject.Inject;
 import models.NotificationData;
 import models.SharedWorkoutMeta;
 import models.SharedWorkout;
 import models.User;
+import models.UserField;
 import models.Workout;
 import utils.Validator;
 import utils.WorkoutUtils;
 
 public class SendWorkoutManager {
 
-    private final NotificationService notificationService;
+    private final NotificationOutboxDAO notificationOutboxDAO;
     private final UserDAO userDAO;
     private final WorkoutDAO workoutDAO;
+    private final ReceivedWorkoutDAO receivedWorkoutDAO;
     private final Metrics metrics;
 
     @Inject
-    public SendWorkoutManager(final NotificationService notificationService, final UserDAO userDAO,
-        final WorkoutDAO workoutDAO,
+    public SendWorkoutManager(final NotificationOutboxDAO notificationOutboxDAO, final UserDAO userDAO,
+        final WorkoutDAO workoutDAO, final ReceivedWorkoutDAO receivedWorkoutDAO,
         final Metrics metrics) {
-        this.notificationService = notificationService;
+        this.notificationOutboxDAO = notificationOutboxDAO;
         this.userDAO = userDAO;
         this.workoutDAO = workoutDAO;
+        this.receivedWorkoutDAO = receivedWorkoutDAO;
         this.metrics = metrics;
     }
 
@@ -50,7 +59,8 @@ public class SendWorkoutManager {
      * name and not by id.
      * <p>
      * If a workout has already been sent by the active user with the same name, the old shared workout is overwritten
-     * and updated.
+     * and updated. The received workout is stored as its own item and only the counters of the recipient are
+     * updated.
      * <p>
      * A push notification is sent to the recipient upon successful creation of the sent workout.
      *
@@ -66,68 +76,87 @@ public class SendWorkoutManager {
         this.metrics.commonSetup(classMethod);
 
         try {
-            final User activeUserObject = this.userDAO.getUser(activeUser);
-            final User recipientUser = this.userDAO.getUser(recipientUsername);
-
-            String errorMessage = validConditions(activeUserObject, recipientUser);
-            if (!errorMessage.isEmpty()) {
-                this.metrics.commonClose(false);
-                throw new ManagerExecutionException(errorMessage);
-            }
-
-            final Workout originalWorkout = this.workoutDAO.getWorkout(workoutId);
-            Validator.ensureWorkoutOwnership(activeUser, originalWorkout);
-
-            String sharedWorkoutId = null;
-            for (String workoutIdMeta : recipientUser.getReceivedWorkouts().keySet()) {
-                final SharedWorkoutMeta meta = recipientUser.getReceivedWorkouts().get(workoutIdMeta);
-                if (meta.getWorkoutName().equals(originalWorkout.getWorkoutName()) && meta.getSender().equals(activeUser)) {
-                    // sender has already sent a workout with this name
-                    sharedWorkoutId = meta.getWorkoutId();
-                    break;
+            final String sharedWorkoutId = ConcurrencyUtils.retryOnConflict(this.metrics, () -> {
+                // the users and the workout are read at the same time
+                final CompletableFuture<User> activeUserRead = this.userDAO.getUserAsync(activeUser, UserField.ICON,
+                    UserField.WORKOUTS_SENT, UserField.OWNED_EXERCISES, UserField.BLOCKED);
+                final CompletableFuture<User> recipientUserRead = this.userDAO.getUserAsync(recipientUsername,
+                    UserField.PUSH_ENDPOINT_ARN, UserField.USER_PREFERENCES, UserField.FRIENDS, UserField.BLOCKED,
+                    UserField.RECEIVED_WORKOUTS);
+                final CompletableFuture<Workout> originalWorkoutRead = this.workoutDAO.getWorkoutAsync(workoutId);
+                final User activeUserObject = ConcurrencyUtils.await(activeUserRead);
+                final User recipientUser = ConcurrencyUtils.await(recipientUserRead);
+
+                String errorMessage = validConditions(activeUserObject, recipientUser);
+                if (!errorMessage.isEmpty()) {
+                    this.metrics.commonClose(false);
+                    throw new ManagerExecutionException(errorMessage);
                 }
-            }
-            if (sharedWorkoutId == null) {
-                // this is the first time this workout has been sent by the active user with this workout name, so we need an id
-                sharedWorkoutId = UUID.randomUUID().toString();
-            }
-
-            String mostFrequentFocus = WorkoutUtils.findMostFrequentFocus(activeUserObject, originalWorkout.getRoutine());
-
-            final SharedWorkoutMeta sharedWorkoutMeta = new SharedWorkoutMeta();
-            sharedWorkoutMeta.setDateSent(Instant.now().toString());
-            sharedWorkoutMeta.setWorkoutId(sharedWorkoutId);
-            sharedWorkoutMeta.setSeen(false);
-            sharedWorkoutMeta.setSender(activeUser);
-            sharedWorkoutMeta.setMostFrequentFocus(mostFrequentFocus);
-            sharedWorkoutMeta.setWorkoutName(originalWorkout.getWorkoutName());
-            sharedWorkoutMeta.setTotalDays(originalWorkout.getRoutine().getTotalNumberOfDays());
-            sharedWorkoutMeta.setIcon(activeUserObject.getIcon());
-
-            final SharedWorkout workoutToSend = new SharedWorkout(originalWorkout, activeUserObject, sharedWorkoutId);
-            final Map<String, AttributeValue> workoutToSendItemValues = workoutToSend.asItemAttributes();
-
-            // if meta is already there with this workout name, we just overwrite it for recipient
-            UpdateItemTemplate recipientItemData = new UpdateItemTemplate(recipientUsername, UserDAO.USERS_TABLE_NAME)
-                .withUpdateExpression("set " + User.RECEIVED_WORKOUTS + ".#workoutId= :workoutMetaVal")
-                .withValueMap(new ValueMap().withMap(":workoutMetaVal", sharedWorkoutMeta.asMap()))
-                .withNameMap(new NameMap().with("#workoutId", sharedWorkoutId));
-            // need to update the number of sent workouts for the active user
-            UpdateItemTemplate activeUserItemData = new UpdateItemTemplate(activeUser, UserDAO.USERS_TABLE_NAME)
-                .withUpdateExpression("set " + User.WORKOUTS_SENT + "= :sentVal")
-                .withValueMap(new ValueMap().withNumber(":sentVal", activeUserObject.getWorkoutsSent() + 1));
-
-            final List<TransactWriteItem> actions = new ArrayList<>();
-            actions.add(new TransactWriteItem().withUpdate(recipientItemData.asUpdate()));
-            actions.add(new TransactWriteItem().withUpdate(activeUserItemData.asUpdate()));
-            actions.add(new TransactWriteItem().withPut(new Put()
-                .withItem(workoutToSendItemValues)
-                .withTableName(SharedWorkoutDAO.SHARED_WORKOUTS_TABLE_NAME)));
-
-            this.userDAO.executeWriteTransaction(actions);
-            // if this succeeds, go ahead and send a notification to the recipient with the workout meta
-            this.notificationService.sendMessage(recipientUser.getPushEndpointArn(),
-                new NotificationData(NotificationService.receivedWorkoutAction, sharedWorkoutMeta.asResponse()));
+
+                final Workout originalWorkout = ConcurrencyUtils.await(originalWorkoutRead);
+                Validator.ensureWorkoutOwnership(activeUser, originalWorkout);
+
+                // the id is derived from the sender and name so a workout sent again overwrites the old one
+                final String receivedWorkoutId = getSharedWorkoutId(activeUser, recipientUsername,
+                    originalWorkout.getWorkoutName());
+                final SharedWorkoutMeta oldMeta = this.receivedWorkoutDAO
+                    .findReceivedWorkout(recipientUsername, receivedWorkoutId).orElse(null);
+
+                String mostFrequentFocus = WorkoutUtils.findMostFrequentFocus(activeUserObject,
+                    originalWorkout.getRoutine());
+
+                final Instant dateSent = Instant.now();
+                final SharedWorkoutMeta sharedWorkoutMeta = new SharedWorkoutMeta();
+                sharedWorkoutMeta.setDateSent(dateSent.toString());
+                sharedWorkoutMeta.setSentAt(dateSent.toEpochMilli());
+                sharedWorkoutMeta.setWorkoutId(receivedWorkoutId);
+                sharedWorkoutMeta.setRecipient(recipientUsername);
+                sharedWorkoutMeta.setSeen(false);
+                sharedWorkoutMeta.setSender(activeUser);
+                sharedWorkoutMeta.setMostFrequentFocus(mostFrequentFocus);
+                sharedWorkoutMeta.setWorkoutName(originalWorkout.getWorkoutName());
+                sharedWorkoutMeta.setTotalDays(originalWorkout.getRoutine().getTotalNumberOfDays());
+                sharedWorkoutMeta.setIcon(activeUserObject.getIcon());
+
+                final SharedWorkout workoutToSend = new SharedWorkout(originalWorkout, activeUserObject,
+                    receivedWorkoutId);
+                final Map<String, AttributeValue> workoutToSendItemValues = workoutToSend.asItemAttributes();
+
+                final List<TransactWriteItem> actions = new ArrayList<>();
+                // the counters of the recipient are only right if the received workout is still as it was read
+                final Put receivedWorkoutPut = new Put()
+                    .withItem(sharedWorkoutMeta.asItemAttributes())
+                    .withTableName(ReceivedWorkoutDAO.RECEIVED_WORKOUTS_TABLE_NAME);
+                if (oldMeta == null) {
+                    receivedWorkoutPut.withConditionExpression("attribute_not_exists(#workoutId)")
+                        .addExpressionAttributeNamesEntry("#workoutId", SharedWorkoutMeta.WORKOUT_ID);
+                } else {
+                    receivedWorkoutPut.withConditionExpression("#seen = :oldSeen")
+                        .addExpressionAttributeNamesEntry("#seen", SharedWorkoutMeta.SEEN)
+                        .addExpressionAttributeValuesEntry(":oldSeen",
+                            new AttributeValue().withBOOL(oldMeta.isSeen()));
+                }
+                actions.add(new TransactWriteItem().withPut(receivedWorkoutPut));
+                final TransactWriteItem recipientCountersUpdate = getRecipientCountersUpdate(recipientUser,
+                    sharedWorkoutMeta, oldMeta);
+                if (recipientCountersUpdate != null) {
+                    actions.add(recipientCountersUpdate);
+                }
+
+                // need to update the number of sent workouts for the active user, as long as it is below the limit
+                actions.add(new TransactWriteItem().withUpdate(
+                    QuotaUtils.getIncrementWorkoutsSent(activeUser).asUpdate()));
+                actions.add(new TransactWriteItem().withPut(new Put()
+                    .withItem(workoutToSendItemValues)
+                    .withTableName(SharedWorkoutDAO.SHARED_WORKOUTS_TABLE_NAME)));
+
+                // the recipient is notified with the workout meta once the transaction commits
+                this.notificationOutboxDAO.enqueue(actions, recipientUser.getPushEndpointArn(),
+                    new NotificationData(NotificationService.receivedWorkoutAction, sharedWorkoutMeta.asResponse()));
+
+                this.userDAO.executeWriteTransaction(actions);
+                return receivedWorkoutId;
+            });
 
             this.metrics.commonClose(true);
             return sharedWorkoutId;
@@ -137,6 +166,54 @@ public class SendWorkoutManager {
         }
     }
 
+    /**
+     * The workout is sent as unseen, so it is counted as such unless it overwrites a workout that still is. Every
+     * case checks that the received workouts seen watermark of the recipient has not been moved past the workout that
+     * is counted as unseen since the recipient was read. Null if nothing about the recipient has to be written or
+     * checked.
+     */
+    private static TransactWriteItem getRecipientCountersUpdate(final User recipientUser,
+        final SharedWorkoutMeta sharedWorkoutMeta, final SharedWorkoutMeta oldMeta) throws Exception {
+        final UpdateItemTemplate recipientItemData = new UpdateItemTemplate(recipientUser.getUsername(),
+            UserDAO.USERS_TABLE_NAME);
+        if (oldMeta == null) {
+            return new TransactWriteItem().withUpdate(recipientItemData
+                .withUpdateExpression("add " + User.TOTAL_RECEIVED_WORKOUTS + " :one, "
+                    + User.UNSEEN_RECEIVED_WORKOUTS + " :one")
+                .withConditionExpression("(attribute_not_exists(" + User.TOTAL_RECEIVED_WORKOUTS + ") or "
+                    + User.TOTAL_RECEIVED_WORKOUTS + " < :maxReceived) and ("
+                    + ReceivedWorkoutUtils.getNotCoveredBySeenAtCondition(":sentAt") + ")")
+                .withValueMap(new ValueMap()
+                    .withInt(":one", 1)
+                    .withInt(":maxReceived", Globals.MAX_RECEIVED_WORKOUTS)
+                    .withLong(":sentAt", sharedWorkoutMeta.getSentAt()))
+                .asUpdate());
+        } else if (oldMeta.isSeenAsOf(recipientUser.getReceivedWorkoutsSeenAt())) {
+            // workout is overwritten as unseen
+            return new TransactWriteItem().withUpdate(recipientItemData
+                .withUpdateExpression("add " + User.UNSEEN_RECEIVED_WORKOUTS + " :one")
+                .withConditionExpression(ReceivedWorkoutUtils.getNotCoveredBySeenAtCondition(":sentAt"))
+                .withValueMap(new ValueMap()
+                    .withInt(":one", 1)
+                    .withLong(":sentAt", sharedWorkoutMeta.getSentAt()))
+                .asUpdate());
+        } else if (oldMeta.getSentAt() == null) {
+            // workout already is counted as unseen and the watermark can't cover it
+            return null;
+        } else {
+            // workout already is counted as unseen, as long as the watermark still doesn't cover it
+            return new TransactWriteItem().withConditionCheck(recipientItemData
+                .withConditionExpression(ReceivedWorkoutUtils.getNotCoveredBySeenAtCondition(":oldSentAt"))
+                .withValueMap(new ValueMap().withLong(":oldSentAt", oldMeta.getSentAt()))
+                .asConditionCheck());
+        }
+    }
+
+    private static String getSharedWorkoutId(final String sender, final String recipient, final String workoutName) {
+        final String seed = String.join("/", sender, recipient, workoutName);
+        return UUID.nameUUIDFromBytes(seed.getBytes(StandardCharsets.UTF_8)).toString();
+    }
+
     private String validConditions(final User activeUser, final User otherUser) {
         StringBuilder stringBuilder = new StringBuilder();
         String activeUserUsername = activeUser.getUsername();
@@ -152,7 +229,7 @@ public class SendWorkoutManager {
         if (activeUser.getBlocked().containsKey(otherUserUsername)) {
             stringBuilder.append("You are currently blocking this user.\n");
         }
-        if (otherUser.getReceivedWorkouts().size() >= Globals.MAX_RECEIVED_WORKOUTS) {
+        if (otherUser.getTotalReceivedWorkouts() >= Globals.MAX_RECEIVED_WORKOUTS) {
             stringBuilder.append(otherUserUsername).append(" has too many received workouts.\n");
         }
         if (activeUser.getWorkoutsSent() >= Globals.MAX_FREE_WORKOUTS_SENT) {
@@ -1,11 +1,9 @@
 package managers;
 
-import com.amazonaws.services.dynamodbv2.document.spec.UpdateItemSpec;
-import com.amazonaws.services.dynamodbv2.document.utils.ValueMap;
 import daos.UserDAO;
-import exceptions.InvalidAttributeException;
 import exceptions.UserNotFoundException;
 import utils.Metrics;
+import java.time.Instant;
 import javax.inject.Inject;
 import models.User;
 
@@ -21,28 +19,19 @@ public class SetAllFriendRequestsSeenManager {
     }
 
     /**
-     * Loops through all the friend requests of a user and sets them to seen.
+     * Sets all the friend requests of a user to seen. The requests themselves are not touched, the friend requests
+     * seen watermark of the user is moved to now so that it covers all of them.
      *
      * @param activeUser user whose requests are being set to seen.
-     * @throws InvalidAttributeException if error with user item.
-     * @throws UserNotFoundException     if active user is not found.
+     * @throws UserNotFoundException if active user is not found.
      */
-    public void setAllFriendRequestsSeen(final String activeUser)
-        throws InvalidAttributeException, UserNotFoundException {
+    public void setAllFriendRequestsSeen(final String activeUser) throws UserNotFoundException {
         final String classMethod = this.getClass().getSimpleName() + ".setAllFriendRequestsSeen";
         this.metrics.commonSetup(classMethod);
 
         try {
-            final User user = this.userDAO.getUser(activeUser);
-
-            for (String username : user.getFriendRequests().keySet()) {
-                user.getFriendRequests().get(username).setSeen(true);
-            }
-
-            UpdateItemSpec updateActiveUserData = new UpdateItemSpec()
-                .withUpdateExpression("set " + User.FRIEND_REQUESTS + "=:friendRequestsVal")
-                .withValueMap(new ValueMap().withMap(":friendRequestsVal", user.getFriendRequestsMap()));
-            this.userDAO.updateUser(activeUser, updateActiveUserData);
+            this.userDAO.advanceSeenWatermark(activeUser, User.FRIEND_REQUESTS_SEEN_AT, User.UNSEEN_FRIEND_REQUESTS,
+                Instant.now().toEpochMilli());
 
             this.metrics.commonClose(true);
         } catch (Exception e) {
@@ -1,14 +1,10 @@
 package managers;
 
-import com.amazonaws.services.dynamodbv2.document.spec.UpdateItemSpec;
-import com.amazonaws.services.dynamodbv2.document.utils.ValueMap;
 import daos.UserDAO;
-import exceptions.InvalidAttributeException;
 import exceptions.UserNotFoundException;
 import utils.Metrics;
-import java.util.Map;
+import java.time.Instant;
 import javax.inject.Inject;
-import models.SharedWorkoutMeta;
 import models.User;
 
 public class SetAllReceivedWorkoutsSeenManager {
@@ -23,27 +19,19 @@ public class SetAllReceivedWorkoutsSeenManager {
     }
 
     /**
-     * Loops through all the received workouts of a user and sets them to seen.
+     * Sets all the received workouts of a user to seen. The received workouts themselves are not touched, the
+     * received workouts seen watermark of the user is moved to now so that it covers all of them.
      *
-     * @param activeUser user whose requests are being set to seen.
-     * @throws InvalidAttributeException if error with user item.
-     * @throws UserNotFoundException     if active user is not found.
+     * @param activeUser user whose received workouts are being set to seen.
+     * @throws UserNotFoundException if active user is not found.
      */
-    public void setAllReceivedWorkoutsSeen(final String activeUser) throws InvalidAttributeException, UserNotFoundException {
+    public void setAllReceivedWorkoutsSeen(final String activeUser) throws UserNotFoundException {
         final String classMethod = this.getClass().getSimpleName() + ".setAllReceivedWorkoutsSeen";
         this.metrics.commonSetup(classMethod);
 
         try {
-            final User user = this.userDAO.getUser(activeUser);
-            final Map<String, SharedWorkoutMeta> receivedWorkouts = user.getReceivedWorkouts();
-            for (String workoutId : receivedWorkouts.keySet()) {
-                receivedWorkouts.get(workoutId).setSeen(true);
-            }
-
-            UpdateItemSpec updateActiveUserData = new UpdateItemSpec()
-                .withUpdateExpression("set " + User.RECEIVED_WORKOUTS + "=:receivedWorkoutsVal")
-                .withValueMap(new ValueMap().withMap(":receivedWorkoutsVal", user.getReceivedWorkoutMetaMap()));
-            this.userDAO.updateUser(activeUser, updateActiveUserData);
+            this.userDAO.advanceSeenWatermark(activeUser, User.RECEIVED_WORKOUTS_SEEN_AT,
+                User.UNSEEN_RECEIVED_WORKOUTS, Instant.now().toEpochMilli());
 
             this.metrics.commonClose(true);
         } catch (Exception e) {
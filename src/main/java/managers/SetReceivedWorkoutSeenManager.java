@@ -1,53 +1,49 @@
 package managers;
 
-import com.amazonaws.services.dynamodbv2.document.spec.UpdateItemSpec;
 import com.amazonaws.services.dynamodbv2.document.utils.NameMap;
 import com.amazonaws.services.dynamodbv2.document.utils.ValueMap;
+import com.amazonaws.services.dynamodbv2.model.TransactWriteItem;
+import com.amazonaws.services.dynamodbv2.model.TransactionCanceledException;
+import daos.ReceivedWorkoutDAO;
 import daos.UserDAO;
-import exceptions.InvalidAttributeException;
-import exceptions.UserNotFoundException;
 import utils.Metrics;
+import java.util.ArrayList;
+import java.util.List;
 import javax.inject.Inject;
 import models.SharedWorkoutMeta;
 import models.User;
+import utils.ReceivedWorkoutUtils;
+import utils.UpdateItemTemplate;
 
 public class SetReceivedWorkoutSeenManager {
 
-    private final UserDAO userDAO;
+    private final ReceivedWorkoutDAO receivedWorkoutDAO;
     private final Metrics metrics;
 
     @Inject
-    public SetReceivedWorkoutSeenManager(final UserDAO userDAO, final Metrics metrics) {
-        this.userDAO = userDAO;
+    public SetReceivedWorkoutSeenManager(final ReceivedWorkoutDAO receivedWorkoutDAO, final Metrics metrics) {
+        this.receivedWorkoutDAO = receivedWorkoutDAO;
         this.metrics = metrics;
     }
 
     /**
-     * Sets a specific received workout to be seen.
+     * Sets a specific received workout to be seen. Nothing is done if it already is seen, either on its own or by the
+     * received workouts seen watermark of the user, or if it no longer exists.
      *
      * @param activeUser user whose requests are being set to seen.
-     * @throws InvalidAttributeException if error with user item.
-     * @throws UserNotFoundException     if active user is not found.
+     * @param workoutId  id of the received workout that is being set to seen.
      */
-    public void setReceivedWorkoutSeen(final String activeUser, final String workoutId)
-        throws InvalidAttributeException, UserNotFoundException {
+    public void setReceivedWorkoutSeen(final String activeUser, final String workoutId) throws Exception {
         final String classMethod = this.getClass().getSimpleName() + ".setReceivedWorkoutSeen";
         this.metrics.commonSetup(classMethod);
 
         try {
-            final User user = this.userDAO.getUser(activeUser);
-            SharedWorkoutMeta workoutMeta = user.getReceivedWorkouts().get(workoutId);
-            if (workoutMeta.isSeen()) {
-                this.metrics.commonClose(true);
-                return;
+            final SharedWorkoutMeta receivedWorkout = this.receivedWorkoutDAO
+                .findReceivedWorkout(activeUser, workoutId).orElse(null);
+            // workouts written before they had a sent at are not listed, so they are never set to seen either
+            if (receivedWorkout != null && !receivedWorkout.isSeen() && receivedWorkout.getSentAt() != null) {
+                this.setSeen(activeUser, receivedWorkout);
             }
-            workoutMeta.setSeen(true);
-
-            UpdateItemSpec updateActiveUserData = new UpdateItemSpec()
-                .withUpdateExpression("set " + User.RECEIVED_WORKOUTS + ".#workoutId=:receivedWorkoutVal")
-                .withValueMap(new ValueMap().withMap(":receivedWorkoutVal", workoutMeta.asMap()))
-                .withNameMap(new NameMap().with("#workoutId", workoutId));
-            this.userDAO.updateUser(activeUser, updateActiveUserData);
 
             this.metrics.commonClose(true);
         } catch (Exception e) {
@@ -55,4 +51,40 @@ public class SetReceivedWorkoutSeenManager {
             throw e;
         }
     }
+
+    private void setSeen(final String activeUser, final SharedWorkoutMeta receivedWorkout) throws Exception {
+        // the condition also fails if the workout is gone or was sent again, so it is never created by the update
+        UpdateItemTemplate updateReceivedWorkoutData = new UpdateItemTemplate(activeUser,
+            ReceivedWorkoutDAO.RECEIVED_WORKOUTS_TABLE_NAME)
+            .withSortKeyValue(receivedWorkout.getWorkoutId())
+            .withUpdateExpression("set #seen = :seenVal")
+            .withConditionExpression("#seen = :unseenVal and #sentAt = :sentAt")
+            .withValueMap(new ValueMap()
+                .withBoolean(":seenVal", true)
+                .withBoolean(":unseenVal", false)
+                .withLong(":sentAt", receivedWorkout.getSentAt()))
+            .withNameMap(new NameMap()
+                .with("#seen", SharedWorkoutMeta.SEEN)
+                .with("#sentAt", SharedWorkoutMeta.SENT_AT));
+        // a workout covered by the watermark is no longer counted as unseen
+        UpdateItemTemplate updateActiveUserData = new UpdateItemTemplate(activeUser, UserDAO.USERS_TABLE_NAME)
+            .withUpdateExpression("add " + User.UNSEEN_RECEIVED_WORKOUTS + " :unseenDecrement")
+            .withConditionExpression(ReceivedWorkoutUtils.getNotCoveredBySeenAtCondition(":sentAt"))
+            .withValueMap(new ValueMap()
+                .withInt(":unseenDecrement", -1)
+                .withLong(":sentAt", receivedWorkout.getSentAt()));
+
+        final List<TransactWriteItem> actions = new ArrayList<>();
+        actions.add(new TransactWriteItem().withUpdate(updateReceivedWorkoutData.asUpdate()));
+        actions.add(new TransactWriteItem().withUpdate(updateActiveUserData.asUpdate()));
+        try {
+            this.receivedWorkoutDAO.executeWriteTransaction(actions);
+        } catch (TransactionCanceledException e) {
+            if (e.getCancellationReasons() == null || e.getCancellationReasons().stream()
+                .noneMatch(reason -> "ConditionalCheckFailed".equals(reason.getCode()))) {
+                throw e;
+            }
+            // already seen or changed in the meantime, so the counter must not be decremented again
+        }
+    }
 }
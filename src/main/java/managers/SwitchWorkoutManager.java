@@ -1,18 +1,21 @@
 package managers;
 
-import com.amazonaws.services.dynamodbv2.document.spec.UpdateItemSpec;
 import com.amazonaws.services.dynamodbv2.document.utils.NameMap;
 import com.amazonaws.services.dynamodbv2.document.utils.ValueMap;
 import daos.UserDAO;
 import daos.WorkoutDAO;
 import exceptions.UnauthorizedException;
+import utils.ConcurrencyUtils;
 import utils.Metrics;
 import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
 import javax.inject.Inject;
 import models.User;
 import models.Workout;
 import models.WorkoutMeta;
+import models.WorkoutProgressDelta;
 import responses.UserWithWorkout;
+import utils.UpdateItemTemplate;
 import utils.Validator;
 
 public class SwitchWorkoutManager {
@@ -47,35 +50,87 @@ public class SwitchWorkoutManager {
         this.metrics.commonSetup(classMethod);
 
         try {
-            final User user = this.userDAO.getUser(activeUser);
-            final Workout newWorkout = this.workoutDAO.getWorkout(newWorkoutId);
-            Validator.ensureWorkoutOwnership(activeUser, newWorkout);
-            Validator.ensureWorkoutOwnership(activeUser, oldWorkout);
+            final UserWithWorkout result = ConcurrencyUtils.retryOnConflict(this.metrics, () -> {
+                final CompletableFuture<User> userRead = this.userDAO.getUserAsync(activeUser);
+                final CompletableFuture<Workout> newWorkoutRead = this.workoutDAO.getWorkoutAsync(newWorkoutId);
+                final User user = ConcurrencyUtils.await(userRead);
+                final Workout newWorkout = ConcurrencyUtils.await(newWorkoutRead);
+                Validator.ensureWorkoutOwnership(activeUser, newWorkout);
+                Validator.ensureWorkoutOwnership(activeUser, oldWorkout);
 
-            user.setCurrentWorkout(newWorkoutId);
-            final String timeNow = Instant.now().toString();
-            final WorkoutMeta workoutMetaNew = user.getWorkoutMetas().get(newWorkoutId);
-            workoutMetaNew.setDateLast(timeNow);
+                // persist the current week/day/routine of the old workout, syncing it again on a retry is harmless
+                this.syncWorkoutManager.syncWorkout(activeUser, oldWorkout);
+                this.userDAO.updateUser(this.setCurrentWorkout(user, newWorkoutId));
+                return new UserWithWorkout(user, newWorkout);
+            });
 
-            // update user object with new access time of the newly selected workout
-            UpdateItemSpec updateItemSpec = new UpdateItemSpec()
-                .withUpdateExpression("set " +
-                    User.CURRENT_WORKOUT + " = :currentWorkoutVal, " +
-                    User.WORKOUTS + ".#newWorkoutId= :newWorkoutMeta")
-                .withValueMap(new ValueMap()
-                    .withString(":currentWorkoutVal", newWorkoutId)
-                    .withMap(":newWorkoutMeta", workoutMetaNew.asMap()))
-                .withNameMap(new NameMap().with("#newWorkoutId", newWorkoutId));
+            this.metrics.commonClose(true);
+            return result;
+        } catch (Exception e) {
+            this.metrics.commonClose(false);
+            throw e;
+        }
+    }
+
+    /**
+     * Same as {@link #switchWorkout(String, String, Workout)}, but the old workout is only referenced by its id and
+     * only the progress made on it since it was last synced is written, so the frontend doesn't send either workout.
+     *
+     * @param activeUser         user that is attempting to switch workouts.
+     * @param newWorkoutId       id of the workout to be switched to.
+     * @param oldWorkoutId       id of the workout the user is switching from.
+     * @param oldWorkoutProgress progress made on the old workout, null if there is none to write.
+     * @return UserWithWorkout has the newly switched workout and the user object updated with the new current workout.
+     * @throws Exception if user/workout does not exist.
+     */
+    public UserWithWorkout switchWorkoutById(final String activeUser, final String newWorkoutId,
+        final String oldWorkoutId, final WorkoutProgressDelta oldWorkoutProgress) throws Exception {
+        final String classMethod = this.getClass().getSimpleName() + ".switchWorkoutById";
+        this.metrics.commonSetup(classMethod);
 
-            // persist the current week/day/routine of the old workout
-            this.syncWorkoutManager.syncWorkout(activeUser, oldWorkout);
-            this.userDAO.updateUser(activeUser, updateItemSpec);
+        try {
+            final UserWithWorkout result = ConcurrencyUtils.retryOnConflict(this.metrics, () -> {
+                final CompletableFuture<User> userRead = this.userDAO.getUserAsync(activeUser);
+                final CompletableFuture<Workout> newWorkoutRead = this.workoutDAO.getWorkoutAsync(newWorkoutId);
+                final User user = ConcurrencyUtils.await(userRead);
+                final Workout newWorkout = ConcurrencyUtils.await(newWorkoutRead);
+                Validator.ensureWorkoutOwnership(activeUser, newWorkout);
+
+                // nothing is written unless the user owns both workouts, the sync is conditioned on the old one. It
+                // only sets what was sent, so writing it again on a retry is harmless
+                if (oldWorkoutProgress != null) {
+                    this.syncWorkoutManager.syncWorkoutDelta(activeUser, oldWorkoutId,
+                        oldWorkoutProgress.getCurrentWeek(), oldWorkoutProgress.getCurrentDay(),
+                        oldWorkoutProgress.getPatches());
+                }
+                this.userDAO.updateUser(this.setCurrentWorkout(user, newWorkoutId));
+                return new UserWithWorkout(user, newWorkout);
+            });
 
             this.metrics.commonClose(true);
-            return new UserWithWorkout(user, newWorkout);
+            return result;
         } catch (Exception e) {
             this.metrics.commonClose(false);
             throw e;
         }
     }
+
+    // sets the current workout of the user, returns the update that persists it at the version the user was read at
+    private UpdateItemTemplate setCurrentWorkout(final User user, final String newWorkoutId) {
+        user.setCurrentWorkout(newWorkoutId);
+        final String timeNow = Instant.now().toString();
+        final WorkoutMeta workoutMetaNew = user.getWorkoutMetas().get(newWorkoutId);
+        workoutMetaNew.setDateLast(timeNow);
+
+        // update user object with new access time of the newly selected workout
+        return new UpdateItemTemplate(user.getUsername(), UserDAO.USERS_TABLE_NAME)
+            .withExpectedVersion(user.getVersion())
+            .withUpdateExpression("set " +
+                User.CURRENT_WORKOUT + " = :currentWorkoutVal, " +
+                User.WORKOUTS + ".#newWorkoutId= :newWorkoutMeta")
+            .withValueMap(new ValueMap()
+                .withString(":currentWorkoutVal", newWorkoutId)
+                .withMap(":newWorkoutMeta", workoutMetaNew.asMap()))
+            .withNameMap(new NameMap().with("#newWorkoutId", newWorkoutId));
+    }
 }
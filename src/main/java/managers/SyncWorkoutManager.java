@@ -3,12 +3,32 @@ package managers;
 import com.amazonaws.services.dynamodbv2.document.spec.UpdateItemSpec;
 import com.amazonaws.services.dynamodbv2.document.utils.NameMap;
 import com.amazonaws.services.dynamodbv2.document.utils.ValueMap;
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+import com.google.common.collect.ImmutableMap;
 import daos.WorkoutDAO;
+import exceptions.ManagerExecutionException;
 import exceptions.UnauthorizedException;
+import imports.Config;
+import imports.Globals;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import models.Routine;
+import models.RoutineDay;
+import models.RoutineExercise;
+import models.RoutineExercisePatch;
+import models.RoutineWeek;
+import utils.ConcurrencyUtils;
 import utils.Metrics;
 import javax.inject.Inject;
 import models.Workout;
+import utils.UpdateItemTemplate;
 import utils.Validator;
+import utils.WorkoutUtils;
 
 public class SyncWorkoutManager {
 
@@ -37,18 +57,93 @@ public class SyncWorkoutManager {
             String workoutId = workout.getWorkoutId();
             confirmValidCurrentDayAndWeek(workout);
 
-            // persist the current workout (routine and current day/week)
-            UpdateItemSpec updateItemSpec = new UpdateItemSpec()
+            // persist the current workout (routine and current day/week). The client's copy replaces the stored one
+            // whatever it was based on, so the write is only conditioned on who owns the stored workout
+            UpdateItemTemplate updateWorkoutData = new UpdateItemTemplate(workoutId, WorkoutDAO.WORKOUT_TABLE_NAME)
                 .withUpdateExpression("set " +
                     Workout.CURRENT_DAY + " =:currentDayVal, " +
-                    Workout.CURRENT_WEEK + " =:currentWeekVal, " +
-                    "#routine =:routineMap")
-                .withNameMap(new NameMap().with("#routine", Workout.ROUTINE))
+                    Workout.CURRENT_WEEK + " =:currentWeekVal " +
+                    "add #version :versionIncrement")
+                .withConditionExpression("#creator = :activeUser")
+                .withNameMap(new NameMap()
+                    .with("#version", Workout.VERSION)
+                    .with("#creator", Workout.CREATOR))
                 .withValueMap(new ValueMap()
                     .withNumber(":currentDayVal", workout.getCurrentDay())
                     .withNumber(":currentWeekVal", workout.getCurrentWeek())
-                    .withMap(":routineMap", workout.getRoutine().asMap()));
-            this.workoutDAO.updateWorkout(workoutId, updateItemSpec);
+                    .withInt(":versionIncrement", 1)
+                    .withString(":activeUser", activeUser))
+                .merge(WorkoutUtils.getRoutineUpdate(workoutId, workout.getRoutine()));
+            try {
+                this.workoutDAO.updateWorkout(workoutId, updateWorkoutData.asUpdateItemSpec());
+            } catch (ConditionalCheckFailedException e) {
+                throw new UnauthorizedException("User does not have permissions to modify workout.");
+            }
+
+            this.metrics.commonClose(true);
+        } catch (Exception e) {
+            this.metrics.commonClose(false);
+            throw e;
+        }
+    }
+
+    /**
+     * Syncs the progress of a workout by only writing the exercises that changed since the last sync, along with the
+     * current week/day. Exercises are addressed by their position in the routine, so the sync is rejected if the
+     * workout is not owned by the user or if any position no longer holds the exercise its patch was made for, e.g.
+     * because the day was reordered or the exercise was swapped for another one since.
+     * <p>
+     * A packed routine has no paths to write the exercises to, so it is read, patched and written as a whole instead.
+     * That is done for every workout while routines are packed, and for any workout whose paths turn out to be
+     * missing otherwise.
+     *
+     * @param activeUser  user that owns the workout.
+     * @param workoutId   id of the workout that is to be synced.
+     * @param currentWeek current week of the workout.
+     * @param currentDay  current day of the workout.
+     * @param patches     changes made to exercises of the routine.
+     * @throws ManagerExecutionException if the patches don't match the stored workout.
+     */
+    public void syncWorkoutDelta(final String activeUser, final String workoutId, final int currentWeek,
+        final int currentDay, final List<RoutineExercisePatch> patches) throws Exception {
+        final String classMethod = this.getClass().getSimpleName() + ".syncWorkoutDelta";
+        this.metrics.commonSetup(classMethod);
+
+        try {
+            final String errorMessage = validPatches(currentWeek, currentDay, patches);
+            if (!errorMessage.isEmpty()) {
+                this.metrics.commonClose(false);
+                throw new ManagerExecutionException(errorMessage);
+            }
+
+            if (Config.PACK_ROUTINES) {
+                this.patchStoredRoutine(activeUser, workoutId, currentWeek, currentDay, patches);
+                this.metrics.commonClose(true);
+                return;
+            }
+
+            // patches are written in as many updates as needed to keep each expression within dynamo's limits. Each
+            // one is idempotent, so a sync that fails halfway can simply be sent again
+            final List<UpdateItemSpec> updates = new ArrayList<>();
+            ProgressUpdate progressUpdate = new ProgressUpdate(activeUser);
+            for (RoutineExercisePatch patch : coalescePatches(patches)) {
+                if (!progressUpdate.fits(patch)) {
+                    updates.add(progressUpdate.asUpdateItemSpec());
+                    progressUpdate = new ProgressUpdate(activeUser);
+                }
+                progressUpdate.addPatch(patch);
+            }
+            progressUpdate.setCurrentWeekAndDay(currentWeek, currentDay);
+            updates.add(progressUpdate.asUpdateItemSpec());
+
+            try {
+                for (UpdateItemSpec updateItemSpec : updates) {
+                    this.workoutDAO.updateWorkout(workoutId, updateItemSpec);
+                }
+            } catch (ConditionalCheckFailedException e) {
+                // either the routine is packed or the patches really are outdated, which the stored routine tells
+                this.patchStoredRoutine(activeUser, workoutId, currentWeek, currentDay, patches);
+            }
 
             this.metrics.commonClose(true);
         } catch (Exception e) {
@@ -57,6 +152,212 @@ public class SyncWorkoutManager {
         }
     }
 
+    private void patchStoredRoutine(final String activeUser, final String workoutId, final int currentWeek,
+        final int currentDay, final List<RoutineExercisePatch> patches) throws Exception {
+        ConcurrencyUtils.retryOnConflict(this.metrics, () -> {
+            final Workout workout = this.workoutDAO.getWorkout(workoutId);
+            Validator.ensureWorkoutOwnership(activeUser, workout);
+
+            final Routine routine = workout.getRoutine();
+            if (!applyPatches(routine, currentWeek, currentDay, patches)) {
+                this.metrics.commonClose(false);
+                throw new ManagerExecutionException(
+                    "Workout has changed since it was last synced. Please sync the entire workout.");
+            }
+
+            final UpdateItemTemplate updateWorkoutData = new UpdateItemTemplate(workoutId,
+                WorkoutDAO.WORKOUT_TABLE_NAME)
+                .withExpectedVersion(workout.getVersion())
+                .withUpdateExpression("set " +
+                    Workout.CURRENT_WEEK + " =:currentWeekVal, " +
+                    Workout.CURRENT_DAY + " =:currentDayVal")
+                .withValueMap(new ValueMap()
+                    .withNumber(":currentWeekVal", currentWeek)
+                    .withNumber(":currentDayVal", currentDay))
+                .merge(WorkoutUtils.getRoutineUpdate(workoutId, routine));
+            this.workoutDAO.updateWorkout(workoutId, updateWorkoutData.asUpdateItemSpec());
+            return null;
+        });
+    }
+
+    // applies the patches to the routine, false if it has another exercise or none at one of their positions or no
+    // current day
+    private static boolean applyPatches(final Routine routine, final int currentWeek, final int currentDay,
+        final List<RoutineExercisePatch> patches) {
+        if (currentWeek >= routine.getNumberOfWeeks()
+            || currentDay >= routine.getWeek(currentWeek).getNumberOfDays()) {
+            return false;
+        }
+        for (RoutineExercisePatch patch : patches) {
+            if (patch.getWeek() >= routine.getNumberOfWeeks()
+                || patch.getDay() >= routine.getWeek(patch.getWeek()).getNumberOfDays()
+                || patch.getIndex() >= routine.getWeek(patch.getWeek()).getDay(patch.getDay()).getExercises().size()
+                || !patch.getExerciseId().equals(routine.getWeek(patch.getWeek()).getDay(patch.getDay())
+                .getExercises().get(patch.getIndex()).getExerciseId())) {
+                return false;
+            }
+        }
+        for (RoutineExercisePatch patch : patches) {
+            final RoutineExercise exercise = routine.getWeek(patch.getWeek()).getDay(patch.getDay()).getExercises()
+                .get(patch.getIndex());
+            if (patch.getCompleted() != null) {
+                exercise.setCompleted(patch.getCompleted());
+            }
+            if (patch.getWeight() != null) {
+                exercise.setWeight(patch.getWeight());
+            }
+            if (patch.getSets() != null) {
+                exercise.setSets(patch.getSets());
+            }
+            if (patch.getReps() != null) {
+                exercise.setReps(patch.getReps());
+            }
+        }
+        return true;
+    }
+
+    private static String validPatches(final int currentWeek, final int currentDay,
+        final List<RoutineExercisePatch> patches) {
+        if (currentWeek < 0 || currentWeek >= Globals.MAX_WEEKS_ROUTINE
+            || currentDay < 0 || currentDay >= Globals.MAX_DAYS_ROUTINE) {
+            return "Invalid current week or day.";
+        }
+        final Map<String, String> exerciseIdsByPosition = new HashMap<>();
+        for (RoutineExercisePatch patch : patches) {
+            if (patch.getWeek() == null || patch.getDay() == null || patch.getIndex() == null
+                || patch.getWeek() < 0 || patch.getWeek() >= Globals.MAX_WEEKS_ROUTINE
+                || patch.getDay() < 0 || patch.getDay() >= Globals.MAX_DAYS_ROUTINE
+                || patch.getIndex() < 0) {
+                return "Invalid exercise position in patch.";
+            }
+            if (patch.getExerciseId() == null) {
+                return "Patch has no exercise id.";
+            }
+            final String exerciseId = exerciseIdsByPosition.putIfAbsent(
+                patch.getWeek() + "/" + patch.getDay() + "/" + patch.getIndex(), patch.getExerciseId());
+            if (exerciseId != null && !exerciseId.equals(patch.getExerciseId())) {
+                return "Patches of the same position have different exercise ids.";
+            }
+            if (patch.isEmpty()) {
+                return "Patch has no changes.";
+            }
+        }
+        return "";
+    }
+
+    private static Collection<RoutineExercisePatch> coalescePatches(final List<RoutineExercisePatch> patches) {
+        // an expression can only set a path once, so later patches of the same exercise are merged into earlier ones
+        final Map<String, RoutineExercisePatch> patchesByPosition = new LinkedHashMap<>();
+        for (RoutineExercisePatch patch : patches) {
+            final String position = patch.getWeek() + "/" + patch.getDay() + "/" + patch.getIndex();
+            final RoutineExercisePatch existing = patchesByPosition.putIfAbsent(position, patch);
+            if (existing != null) {
+                if (patch.getCompleted() != null) {
+                    existing.setCompleted(patch.getCompleted());
+                }
+                if (patch.getWeight() != null) {
+                    existing.setWeight(patch.getWeight());
+                }
+                if (patch.getSets() != null) {
+                    existing.setSets(patch.getSets());
+                }
+                if (patch.getReps() != null) {
+                    existing.setReps(patch.getReps());
+                }
+            }
+        }
+        return patchesByPosition.values();
+    }
+
+    private static class ProgressUpdate {
+
+        private static final Map<String, String> PLACEHOLDER_NAMES = ImmutableMap.<String, String>builder()
+            .put("#creator", Workout.CREATOR)
+            .put("#version", Workout.VERSION)
+            .put("#routine", Workout.ROUTINE)
+            .put("#weeks", Routine.WEEKS)
+            .put("#days", RoutineWeek.DAYS)
+            .put("#exercises", RoutineDay.EXERCISES)
+            .put("#exerciseId", RoutineExercise.EXERCISE_ID)
+            .put("#completed", RoutineExercise.COMPLETED)
+            .put("#weight", RoutineExercise.WEIGHT)
+            .put("#sets", RoutineExercise.SETS)
+            .put("#reps", RoutineExercise.REPS)
+            .build();
+        // longest clauses of a single patch plus some slack for the separators
+        private static final int MAX_PATCH_LENGTH = 300;
+
+        private final StringJoiner setClauses;
+        private final StringJoiner conditions;
+        private final ValueMap valueMap;
+
+        private ProgressUpdate(final String activeUser) {
+            this.setClauses = new StringJoiner(", ");
+            this.conditions = new StringJoiner(" and ");
+            this.valueMap = new ValueMap()
+                .withString(":activeUser", activeUser)
+                .withInt(":versionIncrement", 1);
+            this.conditions.add("#creator = :activeUser");
+        }
+
+        private boolean fits(final RoutineExercisePatch patch) {
+            return this.setClauses.length() + MAX_PATCH_LENGTH < Globals.MAX_UPDATE_EXPRESSION_LENGTH
+                && this.conditions.length() + MAX_PATCH_LENGTH < Globals.MAX_UPDATE_EXPRESSION_LENGTH;
+        }
+
+        private void addPatch(final RoutineExercisePatch patch) {
+            final String exercisePath = String.format("#routine.#weeks[%d].#days[%d].#exercises[%d]",
+                patch.getWeek(), patch.getDay(), patch.getIndex());
+            if (patch.getCompleted() != null) {
+                this.setClauses.add(exercisePath + ".#completed = " + this.addValue(patch.getCompleted()));
+            }
+            if (patch.getWeight() != null) {
+                this.setClauses.add(exercisePath + ".#weight = " + this.addValue(patch.getWeight()));
+            }
+            if (patch.getSets() != null) {
+                this.setClauses.add(exercisePath + ".#sets = " + this.addValue(patch.getSets()));
+            }
+            if (patch.getReps() != null) {
+                this.setClauses.add(exercisePath + ".#reps = " + this.addValue(patch.getReps()));
+            }
+
+            // the exercise the patch was made for must still be at this position, otherwise the patch was made on an
+            // outdated routine. This also fails if there is no exercise at the position anymore
+            this.conditions.add(exercisePath + ".#exerciseId = " + this.addValue(patch.getExerciseId()));
+        }
+
+        private void setCurrentWeekAndDay(final int currentWeek, final int currentDay) {
+            this.setClauses.add(Workout.CURRENT_WEEK + " = " + this.addValue(currentWeek));
+            this.setClauses.add(Workout.CURRENT_DAY + " = " + this.addValue(currentDay));
+            this.conditions.add(String.format("size(#routine.#weeks[%d].#days) > %s", currentWeek,
+                this.addValue(currentDay)));
+        }
+
+        private String addValue(final Object value) {
+            final String placeholder = ":p" + this.valueMap.size();
+            this.valueMap.with(placeholder, value);
+            return placeholder;
+        }
+
+        private UpdateItemSpec asUpdateItemSpec() {
+            final String updateExpression = "set " + this.setClauses + " add #version :versionIncrement";
+            final String conditionExpression = this.conditions.toString();
+
+            // dynamo rejects names that aren't used by any of the expressions
+            final NameMap nameMap = new NameMap();
+            for (Map.Entry<String, String> name : PLACEHOLDER_NAMES.entrySet()) {
+                if (updateExpression.contains(name.getKey()) || conditionExpression.contains(name.getKey())) {
+                    nameMap.with(name.getKey(), name.getValue());
+                }
+            }
+            return new UpdateItemSpec()
+                .withUpdateExpression(updateExpression)
+                .withConditionExpression(conditionExpression)
+                .withNameMap(nameMap)
+                .withValueMap(this.valueMap);
+        }
+    }
+
     private void confirmValidCurrentDayAndWeek(final Workout workout) {
         // make sure that the current week according to the frontend is actually valid
         int currentDay = workout.getCurrentDay();
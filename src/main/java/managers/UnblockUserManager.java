@@ -9,6 +9,7 @@ import exceptions.UserNotFoundException;
 import utils.Metrics;
 import javax.inject.Inject;
 import models.User;
+import models.UserField;
 
 public class UnblockUserManager {
 
@@ -36,7 +37,7 @@ public class UnblockUserManager {
         this.metrics.commonSetup(classMethod);
 
         try {
-            final User activeUserObject = this.userDAO.getUser(activeUser);
+            final User activeUserObject = this.userDAO.getUser(activeUser, UserField.BLOCKED);
 
             if (!activeUserObject.getBlocked().containsKey(userToUnblock)) {
                 this.metrics.commonClose(false);
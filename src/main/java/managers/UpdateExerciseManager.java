@@ -1,16 +1,15 @@
 package managers;
 
-import com.amazonaws.services.dynamodbv2.document.spec.UpdateItemSpec;
 import com.amazonaws.services.dynamodbv2.document.utils.NameMap;
 import com.amazonaws.services.dynamodbv2.document.utils.ValueMap;
 import daos.UserDAO;
 import exceptions.InvalidAttributeException;
 import exceptions.ManagerExecutionException;
 import exceptions.UserNotFoundException;
+import utils.ConcurrencyUtils;
 import utils.Metrics;
+import utils.UpdateItemTemplate;
 import utils.Validator;
-import java.util.ArrayList;
-import java.util.List;
 import javax.inject.Inject;
 import models.OwnedExercise;
 import models.User;
@@ -39,35 +38,35 @@ public class UpdateExerciseManager {
      * @throws ManagerExecutionException if there is any input errors.
      */
     public User updateExercise(final String activeUser, final String exerciseId, final OwnedExercise updatedExercise)
-        throws UserNotFoundException, InvalidAttributeException, ManagerExecutionException {
+        throws Exception {
         final String classMethod = this.getClass().getSimpleName() + ".updateExercise";
         this.metrics.commonSetup(classMethod);
 
         try {
-            final User user = this.userDAO.getUser(activeUser);
+            final User result = ConcurrencyUtils.retryOnConflict(this.metrics, () -> {
+                final User user = this.userDAO.getUser(activeUser);
 
-            List<String> exerciseNames = new ArrayList<>();
-            for (String _exerciseId : user.getOwnedExercises().keySet()) {
-                exerciseNames.add(user.getOwnedExercises().get(_exerciseId).getExerciseName());
-            }
-            final String oldExerciseName = user.getOwnedExercises().get(exerciseId).getExerciseName();
-            final String exerciseError = Validator.validOwnedExercise(updatedExercise, exerciseNames, oldExerciseName);
-            if (!exerciseError.isEmpty()) {
-                this.metrics.commonClose(false);
-                throw new ManagerExecutionException(exerciseError);
-            }
+                final String exerciseError = Validator.validOwnedExercise(updatedExercise, user, exerciseId);
+                if (!exerciseError.isEmpty()) {
+                    this.metrics.commonClose(false);
+                    throw new ManagerExecutionException(exerciseError);
+                }
 
-            // all input is valid so go ahead and just replace old exercise in db with updated one
-            UpdateItemSpec updateItemSpec = new UpdateItemSpec()
-                .withUpdateExpression("set " + User.EXERCISES + ".#exerciseId= :exerciseMap")
-                .withValueMap(new ValueMap().withMap(":exerciseMap", updatedExercise.asMap()))
-                .withNameMap(new NameMap().with("#exerciseId", exerciseId));
-            this.userDAO.updateUser(user.getUsername(), updateItemSpec);
+                // all input is valid so go ahead and just replace old exercise in db with updated one
+                UpdateItemTemplate updateUserData = new UpdateItemTemplate(activeUser, UserDAO.USERS_TABLE_NAME)
+                    .withExpectedVersion(user.getVersion())
+                    .withUpdateExpression("set " + User.EXERCISES + ".#exerciseId= :exerciseMap")
+                    .withValueMap(new ValueMap().withMap(":exerciseMap", updatedExercise.asMap()))
+                    .withNameMap(new NameMap().with("#exerciseId", exerciseId));
+                this.userDAO.updateUser(updateUserData);
+
+                // make sure to update user that is returned to frontend
+                user.getOwnedExercises().put(exerciseId, updatedExercise);
+                return user;
+            });
 
-            // make sure to update user that is returned to frontend
-            user.getOwnedExercises().put(exerciseId, updatedExercise);
             this.metrics.commonClose(true);
-            return user;
+            return result;
         } catch (Exception e) {
             this.metrics.commonClose(false);
             throw e;
@@ -8,6 +8,7 @@ import exceptions.UserNotFoundException;
 import utils.Metrics;
 import javax.inject.Inject;
 import models.User;
+import models.UserField;
 
 public class UpdateIconManager {
 
@@ -38,7 +39,7 @@ public class UpdateIconManager {
         this.metrics.commonSetup(classMethod);
 
         try {
-            final User user = this.userDAO.getUser(activeUser);
+            final User user = this.userDAO.getUser(activeUser, UserField.ICON);
             // same filename is always used. Content is just overwritten
             String fileName = user.getIcon();
             this.storageService.uploadImage(imageData, fileName, this.metrics);
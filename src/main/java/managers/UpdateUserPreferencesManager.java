@@ -1,12 +1,14 @@
 package managers;
 
 import services.StorageService;
-import com.amazonaws.services.dynamodbv2.document.spec.UpdateItemSpec;
 import com.amazonaws.services.dynamodbv2.document.utils.ValueMap;
 import daos.UserDAO;
+import utils.ConcurrencyUtils;
 import utils.Metrics;
+import utils.UpdateItemTemplate;
 import javax.inject.Inject;
 import models.User;
+import models.UserField;
 import models.UserPreferences;
 
 public class UpdateUserPreferencesManager {
@@ -30,16 +32,22 @@ public class UpdateUserPreferencesManager {
      * @param activeUser username of the user that is updating their preferences.
      * @param userPrefs  the preferences to be updated.
      */
-    public void updateUserPreferences(final String activeUser, final UserPreferences userPrefs) {
+    public void updateUserPreferences(final String activeUser, final UserPreferences userPrefs) throws Exception {
         final String classMethod = this.getClass().getSimpleName() + ".updateUserPreferences";
         this.metrics.commonSetup(classMethod);
 
         try {
-            // right now just overwrite values in DB with these new ones
-            UpdateItemSpec updateItemSpec = new UpdateItemSpec()
-                .withUpdateExpression("set " + User.USER_PREFERENCES + " =:userPrefsVal")
-                .withValueMap(new ValueMap().withMap(":userPrefsVal", userPrefs.asMap()));
-            this.userDAO.updateUser(activeUser, updateItemSpec);
+            ConcurrencyUtils.retryOnConflict(this.metrics, () -> {
+                final User user = this.userDAO.getUser(activeUser, UserField.VERSION);
+
+                // right now just overwrite values in DB with these new ones
+                UpdateItemTemplate updateUserData = new UpdateItemTemplate(activeUser, UserDAO.USERS_TABLE_NAME)
+                    .withExpectedVersion(user.getVersion())
+                    .withUpdateExpression("set " + User.USER_PREFERENCES + " =:userPrefsVal")
+                    .withValueMap(new ValueMap().withMap(":userPrefsVal", userPrefs.asMap()));
+                this.userDAO.updateUser(updateUserData);
+                return null;
+            });
 
             this.metrics.commonClose(true);
         } catch (Exception e) {
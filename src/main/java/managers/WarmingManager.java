@@ -1,5 +1,7 @@
 package managers;
 
+import daos.NotificationOutboxDAO;
+import daos.ReceivedWorkoutDAO;
 import daos.SharedWorkoutDAO;
 import services.NotificationService;
 import daos.UserDAO;
@@ -13,14 +15,18 @@ public class WarmingManager {
     private final UserDAO userDAO;
     private final WorkoutDAO workoutDAO;
     private final SharedWorkoutDAO sharedWorkoutDAO;
+    private final ReceivedWorkoutDAO receivedWorkoutDAO;
+    private final NotificationOutboxDAO notificationOutboxDAO;
     private final NotificationService notificationService;
     private final Metrics metrics;
 
     @Inject
     public WarmingManager(final UserDAO userDAO, final WorkoutDAO workoutDAO,
-        final SharedWorkoutDAO sharedWorkoutDAO, final Metrics metrics,
-        final NotificationService notificationService) {
+        final SharedWorkoutDAO sharedWorkoutDAO, final ReceivedWorkoutDAO receivedWorkoutDAO, final Metrics metrics,
+        final NotificationOutboxDAO notificationOutboxDAO, final NotificationService notificationService) {
         this.sharedWorkoutDAO = sharedWorkoutDAO;
+        this.receivedWorkoutDAO = receivedWorkoutDAO;
+        this.notificationOutboxDAO = notificationOutboxDAO;
         this.userDAO = userDAO;
         this.workoutDAO = workoutDAO;
         this.metrics = metrics;
@@ -39,7 +45,9 @@ public class WarmingManager {
         try {
             this.userDAO.describeUserTable();
             this.sharedWorkoutDAO.describeSharedWorkoutsTable();
+            this.receivedWorkoutDAO.describeReceivedWorkoutsTable();
             this.workoutDAO.describeWorkoutTable();
+            this.notificationOutboxDAO.describeNotificationOutboxTable();
             this.notificationService.getPlatformAttributes(Config.PUSH_SNS_PLATFORM_ARN);
 
             this.metrics.commonClose(true);
@@ -1,6 +1,7 @@
 package models;
 
 import interfaces.Model;
+import java.time.Instant;
 import java.util.HashMap;
 import java.util.Map;
 import lombok.Data;
@@ -28,6 +29,31 @@ public class FriendRequest implements Model {
         this.setSeen(false);
     }
 
+    /**
+     * @return epoch millis the request was sent at, to compare it with the friend requests seen watermark of a user.
+     */
+    public long requestedAtMillis() {
+        return Instant.parse(this.requestTimeStamp).toEpochMilli();
+    }
+
+    /**
+     * @param friendRequestsSeenAt friend requests seen watermark of the recipient, null if they never set all of them
+     *                             to seen.
+     * @return whether the recipient has seen this request, either on its own or by setting all of them to seen.
+     */
+    public boolean isSeenAsOf(final Long friendRequestsSeenAt) {
+        return isSeenAsOf(this.seen, this.requestTimeStamp, friendRequestsSeenAt);
+    }
+
+    /**
+     * Same as {@link #isSeenAsOf(Long)}, for a request that is not parsed into its model.
+     */
+    public static boolean isSeenAsOf(final boolean seen, final String requestTimeStamp,
+        final Long friendRequestsSeenAt) {
+        return seen || (friendRequestsSeenAt != null
+            && Instant.parse(requestTimeStamp).toEpochMilli() <= friendRequestsSeenAt);
+    }
+
     @Override
     public Map<String, Object> asMap() {
         Map<String, Object> retVal = new HashMap<>();
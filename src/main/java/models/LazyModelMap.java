@@ -0,0 +1,143 @@
+package models;
+
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Section of an item (e.g. the workouts of a user) that keeps the attributes it was read with and only parses an entry
+ * into its model when it is first read. Parsed entries are memoised, so changes made to them are kept.
+ * <p>
+ * Lookups and the size are answered from the attributes. Anything that changes the map or goes over all of its
+ * entries parses the remaining ones first, from then on it is a plain HashMap of models. The attributes it was read
+ * with are never changed.
+ *
+ * @param <V> model of an entry.
+ */
+public class LazyModelMap<V> extends AbstractMap<String, V> {
+
+    private final Function<Map<String, Object>, V> parser;
+    private Map<String, Object> attributes; // null once every entry is parsed
+    private final Map<String, V> parsed = new HashMap<>();
+    private int modCount; // number of entries put or removed so far
+
+    public LazyModelMap(final Map<String, Object> attributes, final Function<Map<String, Object>, V> parser) {
+        this.attributes = attributes;
+        this.parser = parser;
+    }
+
+    @Override
+    public V get(final Object key) {
+        final V model = this.parsed.get(key);
+        if (model != null || this.attributes == null || !this.attributes.containsKey(key)) {
+            return model;
+        }
+        final V parsedModel = this.parser.apply((Map<String, Object>) this.attributes.get(key));
+        this.parsed.put((String) key, parsedModel);
+        return parsedModel;
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return this.attributes == null ? this.parsed.containsKey(key) : this.attributes.containsKey(key);
+    }
+
+    @Override
+    public int size() {
+        return this.attributes == null ? this.parsed.size() : this.attributes.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.size() == 0;
+    }
+
+    @Override
+    public V put(final String key, final V value) {
+        this.modCount++;
+        return this.parseAll().put(key, value);
+    }
+
+    @Override
+    public V remove(final Object key) {
+        this.modCount++;
+        return this.parseAll().remove(key);
+    }
+
+    @Override
+    public void clear() {
+        this.modCount++;
+        this.parseAll().clear();
+    }
+
+    @Override
+    public Set<Entry<String, V>> entrySet() {
+        return this.parseAll().entrySet();
+    }
+
+    /**
+     * @return a number that changes whenever an entry is put or removed, so that anything derived from the entries
+     * can tell when it is out of date. Changes made to the models themselves are not counted.
+     */
+    public int getModCount() {
+        return this.modCount;
+    }
+
+    /**
+     * @return attributes of the entries that were not parsed yet, keyed like the map. Empty once all of them are.
+     */
+    public Map<String, Map<String, Object>> getUnparsedAttributes() {
+        if (this.attributes == null) {
+            return Collections.emptyMap();
+        }
+        final Map<String, Map<String, Object>> unparsed = new HashMap<>();
+        for (Entry<String, Object> entry : this.attributes.entrySet()) {
+            if (!this.parsed.containsKey(entry.getKey())) {
+                unparsed.put(entry.getKey(), (Map<String, Object>) entry.getValue());
+            }
+        }
+        return unparsed;
+    }
+
+    /**
+     * @return models of the entries that were parsed so far.
+     */
+    public Map<String, V> getParsed() {
+        return Collections.unmodifiableMap(this.parsed);
+    }
+
+    /**
+     * Gets the map as attributes again. Entries that were never parsed are passed through as they were read, only the
+     * parsed ones are converted back from their models.
+     *
+     * @param toAttributes converts a model back into its attributes.
+     * @return a new map of the attributes of every entry.
+     */
+    public Map<String, Map<String, Object>> asAttributes(final Function<V, Map<String, Object>> toAttributes) {
+        final Map<String, Map<String, Object>> retVal = new HashMap<>(this.size());
+        if (this.attributes != null) {
+            for (Entry<String, Object> entry : this.attributes.entrySet()) {
+                retVal.put(entry.getKey(), (Map<String, Object>) entry.getValue());
+            }
+        }
+        for (Entry<String, V> entry : this.parsed.entrySet()) {
+            retVal.put(entry.getKey(), toAttributes.apply(entry.getValue()));
+        }
+        return retVal;
+    }
+
+    private Map<String, V> parseAll() {
+        if (this.attributes != null) {
+            for (Entry<String, Object> entry : this.attributes.entrySet()) {
+                if (!this.parsed.containsKey(entry.getKey())) {
+                    this.parsed.put(entry.getKey(), this.parser.apply((Map<String, Object>) entry.getValue()));
+                }
+            }
+            this.attributes = null;
+        }
+        return this.parsed;
+    }
+}
@@ -0,0 +1,53 @@
+package models;
+
+import utils.Parser;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A push notification waiting in the outbox to be sent to a device.
+ */
+@Data
+@NoArgsConstructor
+public class OutboxNotification {
+
+    public static final String NOTIFICATION_ID = "notificationId";
+    public static final String TARGET_ARN = "targetArn";
+    public static final String ACTION = "action";
+    public static final String PAYLOAD = "payload";
+    public static final String CREATED_AT = "createdAt";
+    public static final String EXPIRES_AT = "expiresAt";
+
+    private String notificationId;
+    private String targetArn;
+    private String action;
+    private Map<String, Object> payload;
+    private String createdAt;
+    private Long expiresAt; // epoch seconds, the time to live of the outbox removes it after that
+
+    public OutboxNotification(final Map<String, Object> json) {
+        this.notificationId = (String) json.get(NOTIFICATION_ID);
+        this.targetArn = (String) json.get(TARGET_ARN);
+        this.action = (String) json.get(ACTION);
+        this.payload = (Map<String, Object>) json.get(PAYLOAD);
+        this.createdAt = (String) json.get(CREATED_AT);
+        this.expiresAt = Parser.convertObjectToLong(json.get(EXPIRES_AT));
+    }
+
+    public NotificationData getNotificationData() {
+        return new NotificationData(this.action, this.payload);
+    }
+
+    public Map<String, Object> asMap() {
+        final Map<String, Object> retVal = new HashMap<>();
+        retVal.put(NOTIFICATION_ID, this.notificationId);
+        retVal.put(TARGET_ARN, this.targetArn);
+        retVal.put(ACTION, this.action);
+        retVal.put(PAYLOAD, this.payload);
+        retVal.put(CREATED_AT, this.createdAt);
+        retVal.put(EXPIRES_AT, this.expiresAt);
+        return retVal;
+    }
+}
@@ -7,6 +7,7 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 import lombok.Data;
 
 @Data
@@ -45,7 +46,7 @@ public class Routine implements Model, Iterable<RoutineWeek> {
         }
     }
 
-    public Routine(final SharedRoutine routine, final Map<String, String> exerciseNameToId) {
+    public Routine(final SharedRoutine routine, final Function<String, String> exerciseIdByName) {
         // this constructor is used to convert from a shared routine back to a normal workout routine
         this.weeks = new ArrayList<>();
         for (SharedWeek week : routine) {
@@ -55,7 +56,7 @@ public class Routine implements Model, Iterable<RoutineWeek> {
                 routineDay.setTag(day.getTag());
                 for (SharedExercise sharedExercise : day) {
                     RoutineExercise routineExercise = new RoutineExercise(sharedExercise,
-                        exerciseNameToId.get(sharedExercise.getExerciseName()));
+                        exerciseIdByName.apply(sharedExercise.getExerciseName()));
                     routineDay.appendExercise(routineExercise);
                 }
                 routineWeek.appendDay(routineDay);
@@ -64,6 +65,28 @@ public class Routine implements Model, Iterable<RoutineWeek> {
         }
     }
 
+    /**
+     * @return a deep copy of the routine with none of its exercises completed, made in a single pass over it.
+     */
+    public Routine copyWithoutProgress() {
+        final Routine copy = new Routine();
+        for (RoutineWeek week : this) {
+            final RoutineWeek weekCopy = new RoutineWeek();
+            for (RoutineDay day : week) {
+                final RoutineDay dayCopy = new RoutineDay();
+                dayCopy.setTag(day.getTag());
+                for (RoutineExercise exercise : day) {
+                    final RoutineExercise exerciseCopy = new RoutineExercise(exercise);
+                    exerciseCopy.setCompleted(false);
+                    dayCopy.appendExercise(exerciseCopy);
+                }
+                weekCopy.appendDay(dayCopy);
+            }
+            copy.appendWeek(weekCopy);
+        }
+        return copy;
+    }
+
     public RoutineWeek getWeek(int week) {
         return this.weeks.get(week);
     }
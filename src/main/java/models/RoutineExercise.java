@@ -5,8 +5,10 @@ import interfaces.Model;
 import java.util.HashMap;
 import java.util.Map;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
+@NoArgsConstructor
 public class RoutineExercise implements Model {
 
     public static final String COMPLETED = "completed";
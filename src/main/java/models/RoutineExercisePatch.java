@@ -0,0 +1,65 @@
+package models;
+
+import utils.Parser;
+import interfaces.Model;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Progress made on a single exercise of a routine, as sent by the frontend when syncing a workout. Fields that are
+ * null were not changed. The exercise is addressed by its position, along with the id of the exercise that was at that
+ * position when the patch was made, so a patch made on an outdated routine is never written to another exercise.
+ */
+@Data
+@NoArgsConstructor
+public class RoutineExercisePatch implements Model {
+
+    public static final String WEEK = "week";
+    public static final String DAY = "day";
+    public static final String INDEX = "index";
+
+    private Integer week;
+    private Integer day;
+    private Integer index;
+    private String exerciseId;
+    private Boolean completed;
+    private Double weight;
+    private Integer sets;
+    private Integer reps;
+
+    public RoutineExercisePatch(Map<String, Object> json) {
+        this.week = Parser.convertObjectToInteger(json.get(WEEK));
+        this.day = Parser.convertObjectToInteger(json.get(DAY));
+        this.index = Parser.convertObjectToInteger(json.get(INDEX));
+        this.exerciseId = (String) json.get(RoutineExercise.EXERCISE_ID);
+        this.completed = (Boolean) json.get(RoutineExercise.COMPLETED);
+        this.weight = Parser.convertObjectToDouble(json.get(RoutineExercise.WEIGHT));
+        this.sets = Parser.convertObjectToInteger(json.get(RoutineExercise.SETS));
+        this.reps = Parser.convertObjectToInteger(json.get(RoutineExercise.REPS));
+    }
+
+    public boolean isEmpty() {
+        return this.completed == null && this.weight == null && this.sets == null && this.reps == null;
+    }
+
+    @Override
+    public Map<String, Object> asMap() {
+        HashMap<String, Object> retVal = new HashMap<>();
+        retVal.putIfAbsent(WEEK, this.week);
+        retVal.putIfAbsent(DAY, this.day);
+        retVal.putIfAbsent(INDEX, this.index);
+        retVal.putIfAbsent(RoutineExercise.EXERCISE_ID, this.exerciseId);
+        retVal.putIfAbsent(RoutineExercise.COMPLETED, this.completed);
+        retVal.putIfAbsent(RoutineExercise.WEIGHT, this.weight);
+        retVal.putIfAbsent(RoutineExercise.SETS, this.sets);
+        retVal.putIfAbsent(RoutineExercise.REPS, this.reps);
+        return retVal;
+    }
+
+    @Override
+    public Map<String, Object> asResponse() {
+        return this.asMap();
+    }
+}
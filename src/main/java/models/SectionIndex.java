@@ -0,0 +1,86 @@
+package models;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Secondary index of a section of a user, e.g. the ids of the exercises by their name. It is built from the section
+ * the first time it is used, with the entries that were not parsed yet read straight from their attributes, and is
+ * built again once entries were put into or removed from the section. Changes made to the models themselves are not
+ * seen by it, these have to be passed on with {@link #add} and {@link #remove}.
+ *
+ * @param <V> model of an entry of the section.
+ */
+class SectionIndex<V> {
+
+    private final Function<Map<String, Object>, Collection<String>> attributeKeys;
+    private final Function<V, Collection<String>> modelKeys;
+    private LazyModelMap<V> section; // section the index was built from, null if it was not built yet
+    private int modCount;
+    private Map<String, Set<String>> ids;
+
+    /**
+     * @param attributeKeys keys an entry is indexed under, from the attributes of the entry.
+     * @param modelKeys     keys an entry is indexed under, from the model of the entry.
+     */
+    SectionIndex(final Function<Map<String, Object>, Collection<String>> attributeKeys,
+        final Function<V, Collection<String>> modelKeys) {
+        this.attributeKeys = attributeKeys;
+        this.modelKeys = modelKeys;
+    }
+
+    /**
+     * @return ids of the entries of the section indexed under the given key.
+     */
+    Set<String> get(final LazyModelMap<V> section, final String key) {
+        if (section == null) {
+            return Collections.emptySet();
+        }
+        if (!this.isBuiltFrom(section)) {
+            this.build(section);
+        }
+        return Collections.unmodifiableSet(this.ids.getOrDefault(key, Collections.emptySet()));
+    }
+
+    void add(final LazyModelMap<V> section, final String key, final String id) {
+        if (this.isBuiltFrom(section)) {
+            this.ids.computeIfAbsent(key, k -> new HashSet<>()).add(id);
+        }
+    }
+
+    void remove(final LazyModelMap<V> section, final String key, final String id) {
+        if (this.isBuiltFrom(section)) {
+            final Set<String> keyIds = this.ids.get(key);
+            if (keyIds != null && keyIds.remove(id) && keyIds.isEmpty()) {
+                this.ids.remove(key);
+            }
+        }
+    }
+
+    private boolean isBuiltFrom(final LazyModelMap<V> section) {
+        return this.section == section && this.modCount == section.getModCount();
+    }
+
+    private void build(final LazyModelMap<V> section) {
+        this.ids = new HashMap<>();
+        for (Map.Entry<String, Map<String, Object>> entry : section.getUnparsedAttributes().entrySet()) {
+            this.index(entry.getKey(), this.attributeKeys.apply(entry.getValue()));
+        }
+        for (Map.Entry<String, V> entry : section.getParsed().entrySet()) {
+            this.index(entry.getKey(), this.modelKeys.apply(entry.getValue()));
+        }
+        this.section = section;
+        this.modCount = section.getModCount();
+    }
+
+    private void index(final String id, final Collection<String> keys) {
+        for (String key : keys) {
+            this.ids.computeIfAbsent(key, k -> new HashSet<>()).add(id);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package models;
 
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import utils.AttributeValueUtils;
 import utils.Parser;
 import interfaces.Model;
 import java.util.HashMap;
@@ -7,6 +9,10 @@ import java.util.Map;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+/**
+ * A workout that was sent to a user, as stored in the received workouts table. Only the metadata is kept here, the
+ * workout itself is in the shared workouts table under the same id.
+ */
 @Data
 @NoArgsConstructor
 public class SharedWorkoutMeta implements Model {
@@ -19,6 +25,8 @@ public class SharedWorkoutMeta implements Model {
     public static final String MOST_FREQUENT_FOCUS = "mostFrequentFocus";
     public static final String TOTAL_DAYS = "totalDays";
     public static final String WORKOUT_ID = "receivedWorkoutId";
+    public static final String RECIPIENT = "recipient";
+    public static final String SENT_AT = "sentAt";
 
     private String workoutName;
     private String workoutId;
@@ -28,6 +36,14 @@ public class SharedWorkoutMeta implements Model {
     private Integer totalDays;
     private String mostFrequentFocus;
     private String icon;
+    private String recipient;
+    private Long sentAt; // epoch millis of dateSent, received workouts are ordered by it
+
+    public SharedWorkoutMeta(Map<String, Object> json) {
+        this(json, (String) json.get(WORKOUT_ID));
+        this.recipient = (String) json.get(RECIPIENT);
+        this.sentAt = Parser.convertObjectToLong(json.get(SENT_AT));
+    }
 
     public SharedWorkoutMeta(Map<String, Object> json, String workoutId) {
         this.workoutName = (String) json.get(WORKOUT_NAME);
@@ -40,6 +56,16 @@ public class SharedWorkoutMeta implements Model {
         this.icon = (String) json.get(ICON);
     }
 
+    /**
+     * @param receivedWorkoutsSeenAt received workouts seen watermark of the recipient, null if they never set all of
+     *                               them to seen.
+     * @return whether the recipient has seen this workout, either on its own or by setting all of them to seen.
+     */
+    public boolean isSeenAsOf(final Long receivedWorkoutsSeenAt) {
+        return this.seen || (receivedWorkoutsSeenAt != null && this.sentAt != null
+            && this.sentAt <= receivedWorkoutsSeenAt);
+    }
+
     @Override
     public Map<String, Object> asMap() {
         HashMap<String, Object> retVal = new HashMap<>();
@@ -59,4 +85,12 @@ public class SharedWorkoutMeta implements Model {
         retVal.putIfAbsent(WORKOUT_ID, this.workoutId);
         return retVal;
     }
+
+    public Map<String, AttributeValue> asItemAttributes() {
+        final Map<String, Object> item = this.asMap();
+        item.putIfAbsent(RECIPIENT, this.recipient);
+        item.putIfAbsent(WORKOUT_ID, this.workoutId);
+        item.putIfAbsent(SENT_AT, this.sentAt);
+        return AttributeValueUtils.convertMapToAttributeValueMap(item);
+    }
 }
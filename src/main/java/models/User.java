@@ -5,17 +5,42 @@ import static java.util.stream.Collectors.toMap;
 
 import com.amazonaws.services.dynamodbv2.document.Item;
 import exceptions.InvalidAttributeException;
+import utils.ExerciseCatalogue;
 import utils.Parser;
+import utils.UpdateItemTemplate;
 import interfaces.Model;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.Setter;
-import managers.GetReceivedWorkoutsManager;
+import lombok.ToString;
 
+/**
+ * A user as read from the users table. It is either loaded whole, or with only the {@link UserField}s a manager needs
+ * in which case the getters of the other fields throw. The username is always loaded.
+ * <p>
+ * The workouts, exercises, friends and friend requests are kept as they were read and an entry is only parsed into its
+ * model once it is read, see {@link LazyModelMap}. Most requests only look at a few of them, if any.
+ * <p>
+ * Users created against a version of the {@link ExerciseCatalogue} only store how their exercises differ from it, the
+ * owned exercises are the catalogue with those laid over it. Older users store all of their exercises.
+ * <p>
+ * Lookups by exercise name, by workout name and of the exercises of a workout use indexes that are built when first
+ * needed, see {@link SectionIndex}. Names and the workouts of an exercise are changed through the methods of the user
+ * so that the indexes stay up to date.
+ */
 @Data
+@EqualsAndHashCode(doNotUseGetters = true)
+@ToString(doNotUseGetters = true)
 public class User implements Model {
 
     // Database keys
@@ -26,16 +51,23 @@ public class User implements Model {
     public static final String WORKOUTS = "workouts";
     public static final String WORKOUTS_SENT = "workoutsSent";
     public static final String EXERCISES = "exercises";
+    public static final String EXERCISE_CATALOGUE = "exerciseCatalogue";
     public static final String PUSH_ENDPOINT_ARN = "pushEndpointArn";
     public static final String FRIENDS = "friends";
     public static final String FRIEND_REQUESTS = "friendRequests";
     public static final String RECEIVED_WORKOUTS = "receivedWorkouts";
     public static final String USER_PREFERENCES = "preferences";
     public static final String BLOCKED = "blocked";
-    public static final String NEW_WORKOUTS = "newWorkouts";
-    // not database keys, but keys for responses to front end
+    // counters of the workouts in the received workouts table
     public static final String UNSEEN_RECEIVED_WORKOUTS = "unseenReceivedWorkouts";
     public static final String TOTAL_RECEIVED_WORKOUTS = "totalReceivedWorkouts";
+    public static final String UNSEEN_FRIEND_REQUESTS = "unseenFriendRequests";
+    // epoch millis up to which everything was set to seen at once, anything sent at or before it counts as seen
+    public static final String RECEIVED_WORKOUTS_SEEN_AT = "receivedWorkoutsSeenAt";
+    public static final String FRIEND_REQUESTS_SEEN_AT = "friendRequestsSeenAt";
+    public static final String VERSION = UpdateItemTemplate.VERSION;
+    // not a database key, cursor of the batch of received workouts after the ones sent with the user
+    public static final String RECEIVED_WORKOUTS_CURSOR = "receivedWorkoutsCursor";
 
     private String username;
     private String icon;
@@ -43,22 +75,61 @@ public class User implements Model {
     private String premiumToken;
     private String currentWorkout;
     private Integer workoutsSent;
-    private Integer newWorkouts;
+    private Integer version; // not sent to the frontend, only used to detect concurrent writes
+    private int totalReceivedWorkouts;
+    private int unseenReceivedWorkouts;
+    private int unseenFriendRequests;
+    private Long receivedWorkoutsSeenAt;
+    private Long friendRequestsSeenAt;
     private UserPreferences userPreferences;
 
     @Setter(AccessLevel.NONE)
     private Map<String, String> blocked;
     @Setter(AccessLevel.NONE)
-    private Map<String, WorkoutMeta> workoutMetas;
+    private LazyModelMap<WorkoutMeta> workoutMetas;
     @Setter(AccessLevel.NONE)
-    private Map<String, OwnedExercise> ownedExercises;
+    private LazyModelMap<OwnedExercise> ownedExercises;
     @Setter(AccessLevel.NONE)
-    private Map<String, Friend> friends;
+    private Integer exerciseCatalogueVersion; // null if the user stores all of their exercises
+    // exercises as they were read from the item, before the catalogue was laid over them
+    @Getter(AccessLevel.NONE)
     @Setter(AccessLevel.NONE)
-    private Map<String, FriendRequest> friendRequests;
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private Map<String, Object> storedExercises;
     @Setter(AccessLevel.NONE)
+    private LazyModelMap<Friend> friends;
+    @Setter(AccessLevel.NONE)
+    private LazyModelMap<FriendRequest> friendRequests;
+    // newest received workouts, not part of the user item. Only loaded when the user fetches their own data
     private Map<String, SharedWorkoutMeta> receivedWorkouts;
-
+    private String receivedWorkoutsCursor;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final Set<UserField> loadedFields;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final SectionIndex<OwnedExercise> exerciseIdsByName = new SectionIndex<>(
+        attributes -> Collections.singleton((String) attributes.get(OwnedExercise.EXERCISE_NAME)),
+        exercise -> Collections.singleton(exercise.getExerciseName()));
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final SectionIndex<OwnedExercise> exerciseIdsByWorkout = new SectionIndex<>(
+        attributes -> keys((Map<String, Object>) attributes.get(WORKOUTS)),
+        exercise -> keys(exercise.getWorkouts()));
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final SectionIndex<WorkoutMeta> workoutIdsByName = new SectionIndex<>(
+        attributes -> Collections.singleton((String) attributes.get(WorkoutMeta.WORKOUT_NAME)),
+        workoutMeta -> Collections.singleton(workoutMeta.getWorkoutName()));
 
     public User(final Item userItem)
         throws InvalidAttributeException {
@@ -66,31 +137,228 @@ public class User implements Model {
     }
 
     public User(Map<String, Object> json) throws InvalidAttributeException {
+        this(json, EnumSet.allOf(UserField.class));
+    }
+
+    /**
+     * @param json         attributes of the user item that were read.
+     * @param loadedFields fields the attributes were read for, any others are not in the item.
+     */
+    public User(Map<String, Object> json, Collection<UserField> loadedFields) throws InvalidAttributeException {
+        this.loadedFields = EnumSet.noneOf(UserField.class);
+        this.loadedFields.addAll(loadedFields);
+
         this.setUsername((String) json.get(USERNAME));
         this.setIcon((String) json.get(ICON));
         this.setPushEndpointArn((String) json.get(PUSH_ENDPOINT_ARN));
         this.setPremiumToken((String) json.get(PREMIUM_TOKEN));
         this.setCurrentWorkout((String) json.get(CURRENT_WORKOUT));
         this.setWorkoutsSent(Parser.convertObjectToInteger(json.get(WORKOUTS_SENT)));
-        this.setUserPreferences(new UserPreferences((Map<String, Object>) json.get(USER_PREFERENCES)));
+        this.setVersion(Parser.convertObjectToInteger(json.get(VERSION)));
+        if (this.loadedFields.contains(UserField.USER_PREFERENCES)) {
+            this.setUserPreferences(new UserPreferences((Map<String, Object>) json.get(USER_PREFERENCES)));
+        }
         this.setWorkoutMetas((Map<String, Object>) json.get(WORKOUTS));
+        this.exerciseCatalogueVersion = Parser.convertObjectToInteger(json.get(EXERCISE_CATALOGUE));
         this.setOwnedExercises((Map<String, Object>) json.get(EXERCISES));
         this.setFriends((Map<String, Object>) json.get(FRIENDS));
+        this.setFriendRequestsSeenAt(Parser.convertObjectToLong(json.get(FRIEND_REQUESTS_SEEN_AT)));
         this.setFriendRequests((Map<String, Object>) json.get(FRIEND_REQUESTS));
-        this.setReceivedWorkouts((Map<String, Object>) json.get(RECEIVED_WORKOUTS));
+        this.setUnseenFriendRequests(json.containsKey(UNSEEN_FRIEND_REQUESTS)
+            ? getCounter(json, UNSEEN_FRIEND_REQUESTS)
+            : countUnseenFriendRequests((Map<String, Object>) json.get(FRIEND_REQUESTS), this.friendRequestsSeenAt));
+        this.setReceivedWorkoutsSeenAt(Parser.convertObjectToLong(json.get(RECEIVED_WORKOUTS_SEEN_AT)));
+        this.setTotalReceivedWorkouts(getCounter(json, TOTAL_RECEIVED_WORKOUTS));
+        this.setUnseenReceivedWorkouts(getCounter(json, UNSEEN_RECEIVED_WORKOUTS));
+        this.setReceivedWorkouts(new LinkedHashMap<>());
         this.setBlocked((Map<String, Object>) json.get(BLOCKED));
     }
 
+    /**
+     * @return whether the given field was loaded, e.g. when a user is passed to code shared by several managers.
+     */
+    public boolean isLoaded(final UserField field) {
+        return this.loadedFields.contains(field);
+    }
+
+    private void requireLoaded(final UserField field) {
+        if (!this.loadedFields.contains(field)) {
+            throw new IllegalStateException(
+                String.format("User field %s was not loaded for \"%s\"", field, this.username));
+        }
+    }
+
+    // Getters of the fields that are only there if they were loaded
+    public String getIcon() {
+        this.requireLoaded(UserField.ICON);
+        return this.icon;
+    }
+
+    public String getPushEndpointArn() {
+        this.requireLoaded(UserField.PUSH_ENDPOINT_ARN);
+        return this.pushEndpointArn;
+    }
+
+    public String getPremiumToken() {
+        this.requireLoaded(UserField.PREMIUM_TOKEN);
+        return this.premiumToken;
+    }
+
+    public String getCurrentWorkout() {
+        this.requireLoaded(UserField.CURRENT_WORKOUT);
+        return this.currentWorkout;
+    }
+
+    public Integer getWorkoutsSent() {
+        this.requireLoaded(UserField.WORKOUTS_SENT);
+        return this.workoutsSent;
+    }
+
+    public Integer getVersion() {
+        this.requireLoaded(UserField.VERSION);
+        return this.version;
+    }
+
+    public int getTotalReceivedWorkouts() {
+        this.requireLoaded(UserField.RECEIVED_WORKOUTS);
+        return this.totalReceivedWorkouts;
+    }
+
+    public int getUnseenReceivedWorkouts() {
+        this.requireLoaded(UserField.RECEIVED_WORKOUTS);
+        return this.unseenReceivedWorkouts;
+    }
+
+    public Long getReceivedWorkoutsSeenAt() {
+        this.requireLoaded(UserField.RECEIVED_WORKOUTS);
+        return this.receivedWorkoutsSeenAt;
+    }
+
+    public int getUnseenFriendRequests() {
+        this.requireLoaded(UserField.FRIEND_REQUESTS);
+        return this.unseenFriendRequests;
+    }
+
+    public Long getFriendRequestsSeenAt() {
+        this.requireLoaded(UserField.FRIEND_REQUESTS);
+        return this.friendRequestsSeenAt;
+    }
+
+    public UserPreferences getUserPreferences() {
+        this.requireLoaded(UserField.USER_PREFERENCES);
+        return this.userPreferences;
+    }
+
+    public Map<String, String> getBlocked() {
+        this.requireLoaded(UserField.BLOCKED);
+        return this.blocked;
+    }
+
+    public Map<String, WorkoutMeta> getWorkoutMetas() {
+        this.requireLoaded(UserField.WORKOUT_METAS);
+        return this.workoutMetas;
+    }
+
+    public LazyModelMap<OwnedExercise> getOwnedExercises() {
+        this.requireLoaded(UserField.OWNED_EXERCISES);
+        return this.ownedExercises;
+    }
+
+    public Integer getExerciseCatalogueVersion() {
+        this.requireLoaded(UserField.OWNED_EXERCISES);
+        return this.exerciseCatalogueVersion;
+    }
+
+    /**
+     * @return the catalogue the owned exercises are laid over, null if the user stores all of them.
+     */
+    public ExerciseCatalogue getExerciseCatalogue() {
+        this.requireLoaded(UserField.OWNED_EXERCISES);
+        return this.exerciseCatalogueVersion == null ? null : ExerciseCatalogue.get(this.exerciseCatalogueVersion);
+    }
+
+    /**
+     * @return ids of the exercises that are on the user item as they were read, i.e. the ones that can be changed in
+     * place. Any other owned exercise comes from the catalogue.
+     */
+    public Set<String> getStoredExerciseIds() {
+        this.requireLoaded(UserField.OWNED_EXERCISES);
+        return this.storedExercises == null
+            ? Collections.emptySet() : Collections.unmodifiableSet(this.storedExercises.keySet());
+    }
+
+    /**
+     * @return id of the owned exercise with the given name, null if the user has none.
+     */
+    public String getExerciseIdByName(final String exerciseName) {
+        this.requireLoaded(UserField.OWNED_EXERCISES);
+        return any(this.exerciseIdsByName.get(this.ownedExercises, exerciseName));
+    }
+
+    /**
+     * @return ids of the owned exercises that are in the given workout.
+     */
+    public Set<String> getExerciseIdsInWorkout(final String workoutId) {
+        this.requireLoaded(UserField.OWNED_EXERCISES);
+        return this.exerciseIdsByWorkout.get(this.ownedExercises, workoutId);
+    }
+
+    /**
+     * @return id of the workout with the given name, null if the user has none.
+     */
+    public String getWorkoutIdByName(final String workoutName) {
+        this.requireLoaded(UserField.WORKOUT_METAS);
+        return any(this.workoutIdsByName.get(this.workoutMetas, workoutName));
+    }
+
+    public void addExerciseToWorkout(final String exerciseId, final String workoutId, final String workoutName) {
+        if (this.getOwnedExercises().get(exerciseId).getWorkouts().putIfAbsent(workoutId, workoutName) == null) {
+            this.exerciseIdsByWorkout.add(this.ownedExercises, workoutId, exerciseId);
+        }
+    }
+
+    public void removeExerciseFromWorkout(final String exerciseId, final String workoutId) {
+        if (this.getOwnedExercises().get(exerciseId).getWorkouts().remove(workoutId) != null) {
+            this.exerciseIdsByWorkout.remove(this.ownedExercises, workoutId, exerciseId);
+        }
+    }
+
+    /**
+     * Renames the given workout, both its meta and where its exercises refer to it.
+     */
+    public void renameWorkout(final String workoutId, final String workoutName) {
+        final WorkoutMeta workoutMeta = this.getWorkoutMetas().get(workoutId);
+        this.workoutIdsByName.remove(this.workoutMetas, workoutMeta.getWorkoutName(), workoutId);
+        workoutMeta.setWorkoutName(workoutName);
+        this.workoutIdsByName.add(this.workoutMetas, workoutName, workoutId);
+        for (String exerciseId : this.getExerciseIdsInWorkout(workoutId)) {
+            this.ownedExercises.get(exerciseId).getWorkouts().put(workoutId, workoutName);
+        }
+    }
+
+    public Map<String, Friend> getFriends() {
+        this.requireLoaded(UserField.FRIENDS);
+        return this.friends;
+    }
+
+    public Map<String, FriendRequest> getFriendRequests() {
+        this.requireLoaded(UserField.FRIEND_REQUESTS);
+        return this.friendRequests;
+    }
+
     // Setters
+    /**
+     * @param json exercises as stored on the user item.
+     */
     public void setOwnedExercises(Map<String, Object> json) {
+        this.storedExercises = json;
         if (json == null) {
             this.ownedExercises = null;
+        } else if (this.exerciseCatalogueVersion == null) {
+            this.ownedExercises = new LazyModelMap<>(json, OwnedExercise::new);
         } else {
-            this.ownedExercises = new HashMap<>();
-            for (String exerciseId : json.keySet()) {
-                this.ownedExercises.putIfAbsent(exerciseId,
-                    new OwnedExercise((Map<String, Object>) json.get(exerciseId)));
-            }
+            this.ownedExercises = new LazyModelMap<>(ExerciseCatalogue.get(this.exerciseCatalogueVersion).overlay(json),
+                OwnedExercise::new);
         }
     }
 
@@ -106,68 +374,72 @@ public class User implements Model {
     }
 
     public void setFriends(Map<String, Object> json) {
-        if (json == null) {
-            this.friends = null;
-        } else {
-            this.friends = new HashMap<>();
-            for (String username : json.keySet()) {
-                this.friends.putIfAbsent(username, new Friend((Map<String, Object>) json.get(username)));
-            }
-        }
+        this.friends = json == null ? null : new LazyModelMap<>(json, Friend::new);
     }
 
     public void setFriendRequests(Map<String, Object> json) {
-        if (json == null) {
-            this.friendRequests = null;
-        } else {
-            this.friendRequests = new HashMap<>();
-            for (String username : json.keySet()) {
-                this.friendRequests.putIfAbsent(username, new FriendRequest((Map<String, Object>) json.get(username)));
-            }
-        }
+        this.friendRequests = json == null ? null : new LazyModelMap<>(json, this::parseFriendRequest);
+    }
+
+    private FriendRequest parseFriendRequest(Map<String, Object> json) {
+        final FriendRequest friendRequest = new FriendRequest(json);
+        // requests are not set to seen one by one when all of them are seen, the watermark covers them
+        friendRequest.setSeen(friendRequest.isSeenAsOf(this.friendRequestsSeenAt));
+        return friendRequest;
     }
 
     public void putNewWorkoutMeta(String workoutId, WorkoutMeta workoutMeta) {
-        this.workoutMetas.putIfAbsent(workoutId, workoutMeta);
+        this.getWorkoutMetas().putIfAbsent(workoutId, workoutMeta);
     }
 
-    public void setReceivedWorkouts(Map<String, Object> json) {
-        if (json == null) {
-            this.receivedWorkouts = null;
-        } else {
-            this.receivedWorkouts = new HashMap<>();
-            for (String workoutId : json.keySet()) {
-                this.receivedWorkouts.putIfAbsent(workoutId,
-                    new SharedWorkoutMeta((Map<String, Object>) json.get(workoutId), workoutId));
+    private static Collection<String> keys(final Map<String, ?> map) {
+        return map == null ? Collections.emptySet() : map.keySet();
+    }
+
+    private static String any(final Set<String> ids) {
+        return ids.isEmpty() ? null : ids.iterator().next();
+    }
+
+    private static int getCounter(Map<String, Object> json, String key) {
+        final Integer counter = Parser.convertObjectToInteger(json.get(key));
+        return counter == null ? 0 : counter;
+    }
+
+    // users from before the counter was kept have it counted from their requests until the Patcher has set it
+    private static int countUnseenFriendRequests(Map<String, Object> friendRequests, Long friendRequestsSeenAt) {
+        if (friendRequests == null) {
+            return 0;
+        }
+
+        int unseen = 0;
+        for (Object request : friendRequests.values()) {
+            final Map<String, Object> requestJson = (Map<String, Object>) request;
+            if (!FriendRequest.isSeenAsOf((Boolean) requestJson.get(FriendRequest.SEEN),
+                (String) requestJson.get(FriendRequest.REQUEST_TIME_STAMP), friendRequestsSeenAt)) {
+                unseen++;
             }
         }
+        return unseen;
     }
 
     public void setWorkoutMetas(Map<String, Object> json) {
-        if (json == null) {
-            this.workoutMetas = null;
-        } else {
-            this.workoutMetas = new HashMap<>();
-            for (String workoutId : json.keySet()) {
-                this.workoutMetas.putIfAbsent(workoutId, new WorkoutMeta((Map<String, Object>) json.get(workoutId)));
-            }
-        }
+        this.workoutMetas = json == null ? null : new LazyModelMap<>(json, WorkoutMeta::new);
     }
 
     public Map<String, Map<String, Object>> getFriendRequestsMap() {
+        this.requireLoaded(UserField.FRIEND_REQUESTS);
         if (this.friendRequests == null) {
             return null;
         }
 
-        Map<String, Map<String, Object>> retVal = new HashMap<>();
-        for (String username : this.friendRequests.keySet()) {
-            retVal.putIfAbsent(username, this.friendRequests.get(username).asMap());
-        }
-        return retVal;
+        return this.friendRequests.asAttributes(FriendRequest::asMap);
     }
 
     @Override
     public Map<String, Object> asMap() {
+        for (UserField field : UserField.values()) {
+            this.requireLoaded(field);
+        }
         Map<String, Object> retVal = new HashMap<>();
         retVal.putIfAbsent(USERNAME, this.username);
         retVal.putIfAbsent(ICON, this.icon);
@@ -178,8 +450,13 @@ public class User implements Model {
         retVal.putIfAbsent(BLOCKED, this.blocked);
         retVal.putIfAbsent(WORKOUTS, this.getWorkoutMetasMap());
         retVal.putIfAbsent(EXERCISES, this.getOwnedExercisesMap());
+        retVal.putIfAbsent(EXERCISE_CATALOGUE, this.exerciseCatalogueVersion);
         retVal.putIfAbsent(FRIENDS, this.getFriendsMap());
-        retVal.putIfAbsent(RECEIVED_WORKOUTS, this.getReceivedWorkoutMetaMap());
+        retVal.putIfAbsent(TOTAL_RECEIVED_WORKOUTS, this.totalReceivedWorkouts);
+        retVal.putIfAbsent(UNSEEN_RECEIVED_WORKOUTS, this.unseenReceivedWorkouts);
+        retVal.putIfAbsent(RECEIVED_WORKOUTS_SEEN_AT, this.receivedWorkoutsSeenAt);
+        retVal.putIfAbsent(UNSEEN_FRIEND_REQUESTS, this.unseenFriendRequests);
+        retVal.putIfAbsent(FRIEND_REQUESTS_SEEN_AT, this.friendRequestsSeenAt);
         retVal.putIfAbsent(USER_PREFERENCES, this.userPreferences.asMap());
         retVal.putIfAbsent(FRIEND_REQUESTS, this.getFriendRequestsMap());
         return retVal;
@@ -188,76 +465,73 @@ public class User implements Model {
     @Override
     public Map<String, Object> asResponse() {
         Map<String, Object> map = this.asMap();
+        // the sections are sent as their models would write them, not as they were read
+        map.put(WORKOUTS, asResponse(this.workoutMetas));
+        map.put(EXERCISES, asResponse(this.ownedExercises));
+        map.put(FRIENDS, asResponse(this.friends));
+        map.put(FRIEND_REQUESTS, asResponse(this.friendRequests));
         map.remove(PUSH_ENDPOINT_ARN);
-        map.remove(RECEIVED_WORKOUTS);
+        map.remove(EXERCISE_CATALOGUE);
+        // the watermarks are already applied to the seen flags
+        map.remove(RECEIVED_WORKOUTS_SEEN_AT);
+        map.remove(FRIEND_REQUESTS_SEEN_AT);
         map.putIfAbsent(RECEIVED_WORKOUTS, getReceivedWorkoutsResponse()); // is a batch
-        map.putIfAbsent(UNSEEN_RECEIVED_WORKOUTS, getUnseenWorkoutsCount());
-        map.putIfAbsent(TOTAL_RECEIVED_WORKOUTS, this.receivedWorkouts.size());
+        map.putIfAbsent(RECEIVED_WORKOUTS_CURSOR, this.receivedWorkoutsCursor);
         return map;
     }
 
-    private Map<String, Object> getReceivedWorkoutsResponse() {
-        // give the user their first batch of received workouts. Any other ones will have to be added via API call
-        Map<String, SharedWorkoutMeta> firstBatch = GetReceivedWorkoutsManager.getBatchOfWorkouts(
-            this.getReceivedWorkouts(), 0);
-        Map<String, Object> retMap = new HashMap<>();
-        for (String workoutId : firstBatch.keySet()) {
-            retMap.putIfAbsent(workoutId, receivedWorkouts.get(workoutId).asResponse());
+    private static Map<String, Map<String, Object>> asResponse(final Map<String, ? extends Model> section) {
+        if (section == null) {
+            return null;
         }
-        return retMap;
+
+        return section.entrySet().stream().collect(
+            collectingAndThen(
+                toMap(Entry::getKey, (Map.Entry<String, ? extends Model> e) -> e.getValue().asResponse()),
+                HashMap::new));
     }
 
-    private int getUnseenWorkoutsCount() {
-        int retVal = 0;
-        for (String workoutId : this.receivedWorkouts.keySet()) {
-            if (!receivedWorkouts.get(workoutId).isSeen()) {
-                retVal++;
+    private Map<String, Object> getReceivedWorkoutsResponse() {
+        // the user only gets their first batch of received workouts. Any other ones will have to be added via API call
+        Map<String, Object> retMap = new HashMap<>();
+        if (this.receivedWorkouts != null) {
+            for (String workoutId : this.receivedWorkouts.keySet()) {
+                retMap.putIfAbsent(workoutId, this.receivedWorkouts.get(workoutId).asResponse());
             }
         }
-        return retVal;
+        return retMap;
     }
 
     public Map<String, Map<String, Object>> getWorkoutMetasMap() {
+        this.requireLoaded(UserField.WORKOUT_METAS);
         if (this.workoutMetas == null) {
             return null;
         }
 
-        return this.workoutMetas.entrySet().stream().collect(
-            collectingAndThen(
-                toMap(Entry::getKey, (Map.Entry<String, WorkoutMeta> e) -> e.getValue().asMap()),
-                HashMap::new));
-    }
-
-    public Map<String, Map<String, Object>> getReceivedWorkoutMetaMap() {
-        if (this.receivedWorkouts == null) {
-            return null;
-        }
-
-        return this.receivedWorkouts.entrySet().stream().collect(
-            collectingAndThen(
-                toMap(Entry::getKey, (Map.Entry<String, SharedWorkoutMeta> e) -> e.getValue().asMap()),
-                HashMap::new));
+        return this.workoutMetas.asAttributes(WorkoutMeta::asMap);
     }
 
+    /**
+     * @return the owned exercises as they are stored on the user item, so without the ones the catalogue has.
+     */
     public Map<String, Map<String, Object>> getOwnedExercisesMap() {
+        this.requireLoaded(UserField.OWNED_EXERCISES);
         if (this.ownedExercises == null) {
             return null;
         }
 
-        return this.ownedExercises.entrySet().stream().collect(
-            collectingAndThen(
-                toMap(Entry::getKey, (Map.Entry<String, OwnedExercise> e) -> e.getValue().asMap()),
-                HashMap::new));
+        final Map<String, Map<String, Object>> ownedExercisesMap = this.ownedExercises.asAttributes(
+            OwnedExercise::asMap);
+        return this.exerciseCatalogueVersion == null
+            ? ownedExercisesMap : ExerciseCatalogue.get(this.exerciseCatalogueVersion).toStored(ownedExercisesMap);
     }
 
     public Map<String, Map<String, Object>> getFriendsMap() {
+        this.requireLoaded(UserField.FRIENDS);
         if (this.friends == null) {
             return null;
         }
 
-        return this.friends.entrySet().stream().collect(
-            collectingAndThen(
-                toMap(Entry::getKey, (Map.Entry<String, Friend> e) -> e.getValue().asMap()),
-                HashMap::new));
+        return this.friends.asAttributes(Friend::asMap);
     }
 }
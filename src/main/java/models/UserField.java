@@ -0,0 +1,40 @@
+package models;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The parts of a user item that can be loaded on their own, each with the attributes it is read from. A user loaded
+ * with only some of them fails fast when any other one is read, so a manager that forgets a field it needs finds out
+ * on its first run rather than by working with an empty value.
+ */
+public enum UserField {
+    ICON(User.ICON),
+    PUSH_ENDPOINT_ARN(User.PUSH_ENDPOINT_ARN),
+    PREMIUM_TOKEN(User.PREMIUM_TOKEN),
+    CURRENT_WORKOUT(User.CURRENT_WORKOUT),
+    WORKOUTS_SENT(User.WORKOUTS_SENT),
+    VERSION(User.VERSION),
+    USER_PREFERENCES(User.USER_PREFERENCES),
+    WORKOUT_METAS(User.WORKOUTS),
+    // the exercises are laid over the catalogue version the user was created against
+    OWNED_EXERCISES(User.EXERCISES, User.EXERCISE_CATALOGUE),
+    FRIENDS(User.FRIENDS),
+    // the watermark is applied to the seen flags of the requests when they are parsed
+    FRIEND_REQUESTS(User.FRIEND_REQUESTS, User.FRIEND_REQUESTS_SEEN_AT, User.UNSEEN_FRIEND_REQUESTS),
+    BLOCKED(User.BLOCKED),
+    // also the map the received workouts were kept in before they had their own table, which is moved out when read
+    RECEIVED_WORKOUTS(User.TOTAL_RECEIVED_WORKOUTS, User.UNSEEN_RECEIVED_WORKOUTS, User.RECEIVED_WORKOUTS_SEEN_AT,
+        User.RECEIVED_WORKOUTS);
+
+    private final List<String> attributeNames;
+
+    UserField(final String... attributeNames) {
+        this.attributeNames = Collections.unmodifiableList(Arrays.asList(attributeNames));
+    }
+
+    public List<String> getAttributeNames() {
+        return this.attributeNames;
+    }
+}
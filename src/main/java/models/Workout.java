@@ -2,7 +2,10 @@ package models;
 
 import com.amazonaws.services.dynamodbv2.document.Item;
 import exceptions.InvalidAttributeException;
+import imports.Config;
+import utils.RoutineCodec;
 import utils.Parser;
+import utils.UpdateItemTemplate;
 import interfaces.Model;
 import java.util.HashMap;
 import java.util.Map;
@@ -18,8 +21,11 @@ public class Workout implements Model {
     public static final String CREATION_DATE = "creationDate";
     public static final String CREATOR = "creator";
     public static final String ROUTINE = "routine";
+    // the routine packed by RoutineCodec, stored instead of the routine map when routines are packed
+    public static final String ROUTINE_PACKED = "routinePacked";
     public static final String CURRENT_DAY = "currentDay";
     public static final String CURRENT_WEEK = "currentWeek";
+    public static final String VERSION = UpdateItemTemplate.VERSION;
 
     private String workoutId;
     private String workoutName;
@@ -28,6 +34,7 @@ public class Workout implements Model {
     private Routine routine;
     private Integer currentDay;
     private Integer currentWeek;
+    private Integer version; // not sent to the frontend, only used to detect concurrent writes
 
     public Workout(final Item userItem) throws InvalidAttributeException {
         this(userItem.asMap());
@@ -38,9 +45,12 @@ public class Workout implements Model {
         this.workoutName = (String) json.get(WORKOUT_NAME);
         this.creationDate = (String) json.get(CREATION_DATE);
         this.creator = (String) json.get(CREATOR);
-        this.routine = new Routine((Map<String, Object>) json.get(ROUTINE));
+        this.routine = json.get(ROUTINE_PACKED) != null
+            ? RoutineCodec.decode((byte[]) json.get(ROUTINE_PACKED))
+            : new Routine((Map<String, Object>) json.get(ROUTINE));
         this.currentDay = Parser.convertObjectToInteger(json.get(CURRENT_DAY));
         this.currentWeek = Parser.convertObjectToInteger(json.get(CURRENT_WEEK));
+        this.version = Parser.convertObjectToInteger(json.get(VERSION));
     }
 
     @Override
@@ -56,6 +66,25 @@ public class Workout implements Model {
         return retVal;
     }
 
+    /**
+     * @return attributes of the workout as it is stored in the workouts table, where the routine may be packed.
+     */
+    public Map<String, Object> asItemMap() {
+        final Map<String, Object> retVal = this.asMap();
+        if (isPackable(this.routine)) {
+            retVal.remove(ROUTINE);
+            retVal.put(ROUTINE_PACKED, RoutineCodec.encode(this.routine));
+        }
+        return retVal;
+    }
+
+    /**
+     * @return whether the routine is stored packed when it is written.
+     */
+    public static boolean isPackable(final Routine routine) {
+        return Config.PACK_ROUTINES && RoutineCodec.canEncode(routine);
+    }
+
     @Override
     public Map<String, Object> asResponse() {
         return this.asMap();
@@ -0,0 +1,51 @@
+package models;
+
+import exceptions.ManagerExecutionException;
+import imports.RequestFields;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import utils.Parser;
+
+/**
+ * Progress made on a workout since it was last synced, as sent by the frontend along with requests that only pass
+ * the id of the workout. It is written the same way as {@link managers.SyncWorkoutManager#syncWorkoutDelta}.
+ */
+@Data
+@NoArgsConstructor
+public class WorkoutProgressDelta {
+
+    private int currentWeek;
+    private int currentDay;
+    private List<RoutineExercisePatch> patches = new ArrayList<>();
+
+    public WorkoutProgressDelta(Map<String, Object> json) {
+        this.currentWeek = Parser.convertObjectToInteger(json.get(Workout.CURRENT_WEEK));
+        this.currentDay = Parser.convertObjectToInteger(json.get(Workout.CURRENT_DAY));
+        final List<Object> patches = (List<Object>) json.get(RequestFields.PATCHES);
+        if (patches != null) {
+            for (Object patch : patches) {
+                this.patches.add(new RoutineExercisePatch((Map<String, Object>) patch));
+            }
+        }
+    }
+
+    /**
+     * @param json body of a request.
+     * @return the progress in the body, null if it has none.
+     * @throws ManagerExecutionException if the body has progress without both a current week and day.
+     */
+    public static WorkoutProgressDelta fromRequest(Map<String, Object> json) throws ManagerExecutionException {
+        final boolean hasCurrentWeek = json.get(Workout.CURRENT_WEEK) != null;
+        final boolean hasCurrentDay = json.get(Workout.CURRENT_DAY) != null;
+        if (!hasCurrentWeek && !hasCurrentDay && json.get(RequestFields.PATCHES) == null) {
+            return null;
+        }
+        if (!hasCurrentWeek || !hasCurrentDay) {
+            throw new ManagerExecutionException("Progress of a workout needs both its current week and day.");
+        }
+        return new WorkoutProgressDelta(json);
+    }
+}
@@ -0,0 +1,18 @@
+package modules;
+
+import dagger.Component;
+import javax.inject.Singleton;
+import services.NotificationDispatcher;
+
+/**
+ * Container-lifetime graph holding the clients, DAOs and services. Built once per warm container, each request then
+ * only creates a thin {@link LiteWeightComponent} on top of it.
+ */
+@Singleton
+@Component(modules = LiteWeightModule.class)
+public interface ApplicationComponent {
+
+    LiteWeightComponent newRequestComponent(RequestModule requestModule);
+
+    NotificationDispatcher notificationDispatcher();
+}
@@ -1,13 +1,28 @@
 package modules;
 
+import services.NotificationDispatcher;
 import utils.Metrics;
 
 public class Injector {
 
+    private static volatile ApplicationComponent applicationComponent;
+
     public static LiteWeightComponent getInjector(final Metrics metrics) {
-        return DaggerLiteWeightComponent
-            .builder()
-            .liteWeightModule(new LiteWeightModule(metrics))
-            .build();
+        return getApplicationComponent().newRequestComponent(new RequestModule(metrics));
+    }
+
+    public static NotificationDispatcher getNotificationDispatcher() {
+        return getApplicationComponent().notificationDispatcher();
+    }
+
+    private static ApplicationComponent getApplicationComponent() {
+        if (applicationComponent == null) {
+            synchronized (Injector.class) {
+                if (applicationComponent == null) {
+                    applicationComponent = DaggerApplicationComponent.create();
+                }
+            }
+        }
+        return applicationComponent;
     }
 }
@@ -4,6 +4,7 @@ import controllers.AcceptFriendRequestController;
 import controllers.AcceptReceivedWorkoutController;
 import controllers.BlockUserController;
 import controllers.CancelFriendRequestController;
+import controllers.CopyWorkoutByIdController;
 import controllers.CopyWorkoutController;
 import controllers.DeclineFriendRequestController;
 import controllers.DeclineReceivedWorkoutController;
@@ -29,89 +30,101 @@ import controllers.SendWorkoutController;
 import controllers.SetAllReceivedWorkoutsSeenController;
 import controllers.SetAllFriendRequestsSeenController;
 import controllers.SetReceivedWorkoutSeenController;
+import controllers.SwitchWorkoutByIdController;
 import controllers.SwitchWorkoutController;
 import controllers.SyncWorkoutController;
+import controllers.SyncWorkoutDeltaController;
 import controllers.UnblockUserController;
 import controllers.UpdateExerciseController;
 import controllers.UpdateIconController;
 import controllers.UpdateUserPreferencesController;
 import controllers.WarmingController;
-import dagger.Component;
-import javax.inject.Singleton;
-
-@Singleton
-@Component(modules = LiteWeightModule.class)
+import dagger.Subcomponent;
+
+/**
+ * Per-invocation graph. Binds the Metrics of the current request and everything that depends on it (managers and the
+ * controllers using them), while clients, DAOs and services are inherited from the container-lifetime
+ * {@link ApplicationComponent}.
+ */
+@RequestScope
+@Subcomponent(modules = RequestModule.class)
 public interface LiteWeightComponent {
 
-    void inject(GetUserDataController getUserDataController);
+    GetUserDataController getUserDataController();
+
+    NewUserController newUserController();
+
+    NewWorkoutController newWorkoutController();
+
+    WarmingController warmingController();
 
-    void inject(NewUserController newUserController);
+    GetUserWorkoutController getUserWorkoutController();
 
-    void inject(NewWorkoutController newWorkoutController);
+    SwitchWorkoutController switchWorkoutController();
 
-    void inject(WarmingController warmingController);
+    CopyWorkoutController copyWorkoutController();
 
-    void inject(GetUserWorkoutController getUserWorkoutController);
+    RenameWorkoutController renameWorkoutController();
 
-    void inject(SwitchWorkoutController switchWorkoutController);
+    DeleteWorkoutThenFetchController deleteWorkoutThenFetchController();
 
-    void inject(CopyWorkoutController copyWorkoutController);
+    ResetWorkoutStatisticsController resetWorkoutStatisticsController();
 
-    void inject(RenameWorkoutController renameWorkoutController);
+    EditWorkoutController editWorkoutController();
 
-    void inject(DeleteWorkoutThenFetchController deleteWorkoutThenFetchController);
+    UpdateExerciseController updateExerciseController();
 
-    void inject(ResetWorkoutStatisticsController resetWorkoutStatisticsController);
+    NewExerciseController newExerciseController();
 
-    void inject(EditWorkoutController editWorkoutController);
+    SyncWorkoutController syncWorkoutController();
 
-    void inject(UpdateExerciseController updateExerciseController);
+    SyncWorkoutDeltaController syncWorkoutDeltaController();
 
-    void inject(NewExerciseController newExerciseController);
+    SwitchWorkoutByIdController switchWorkoutByIdController();
 
-    void inject(SyncWorkoutController syncWorkoutController);
+    CopyWorkoutByIdController copyWorkoutByIdController();
 
-    void inject(RestartWorkoutController restartWorkoutController);
+    RestartWorkoutController restartWorkoutController();
 
-    void inject(DeleteExerciseController deleteExerciseController);
+    DeleteExerciseController deleteExerciseController();
 
-    void inject(UpdateIconController updateIconController);
+    UpdateIconController updateIconController();
 
-    void inject(RegisterEndpointTokenController registerEndpointTokenController);
+    RegisterEndpointTokenController registerEndpointTokenController();
 
-    void inject(RemoveEndpointTokenController removeEndpointTokenController);
+    RemoveEndpointTokenController removeEndpointTokenController();
 
-    void inject(SendFriendRequestController sendFriendRequestController);
+    SendFriendRequestController sendFriendRequestController();
 
-    void inject(CancelFriendRequestController cancelFriendRequestController);
+    CancelFriendRequestController cancelFriendRequestController();
 
-    void inject(SetAllFriendRequestsSeenController setAllFriendRequestsSeenController);
+    SetAllFriendRequestsSeenController setAllFriendRequestsSeenController();
 
-    void inject(UpdateUserPreferencesController updateUserPreferencesController);
+    UpdateUserPreferencesController updateUserPreferencesController();
 
-    void inject(AcceptFriendRequestController acceptFriendRequestController);
+    AcceptFriendRequestController acceptFriendRequestController();
 
-    void inject(RemoveFriendController removeFriendController);
+    RemoveFriendController removeFriendController();
 
-    void inject(DeclineFriendRequestController declineFriendRequestController);
+    DeclineFriendRequestController declineFriendRequestController();
 
-    void inject(BlockUserController blockUserController);
+    BlockUserController blockUserController();
 
-    void inject(UnblockUserController unblockUserController);
+    UnblockUserController unblockUserController();
 
-    void inject(SendWorkoutController sendWorkoutController);
+    SendWorkoutController sendWorkoutController();
 
-    void inject(GetReceivedWorkoutsController getReceivedWorkoutsController);
+    GetReceivedWorkoutsController getReceivedWorkoutsController();
 
-    void inject(GetSharedWorkoutController getSharedWorkoutController);
+    GetSharedWorkoutController getSharedWorkoutController();
 
-    void inject(SetAllReceivedWorkoutsSeenController setAllReceivedWorkoutsSeenController);
+    SetAllReceivedWorkoutsSeenController setAllReceivedWorkoutsSeenController();
 
-    void inject(SetReceivedWorkoutSeenController setReceivedWorkoutSeenController);
+    SetReceivedWorkoutSeenController setReceivedWorkoutSeenController();
 
-    void inject(AcceptReceivedWorkoutController acceptReceivedWorkoutController);
+    AcceptReceivedWorkoutController acceptReceivedWorkoutController();
 
-    void inject(DeclineReceivedWorkoutController declineReceivedWorkoutController);
+    DeclineReceivedWorkoutController declineReceivedWorkoutController();
 
-    void inject(SendFeedbackController sendFeedbackController);
+    SendFeedbackController sendFeedbackController();
 }
\ No newline at end of file
@@ -1,22 +1,56 @@
 package modules;
 
+import services.LocalNotificationWorker;
+import services.NotificationDispatcher;
 import services.StorageService;
 import services.NotificationService;
 import dagger.Module;
 import dagger.Provides;
 
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
 import daos.Database;
+import daos.DynamoDbClientProvider;
+import daos.DynamoDbItemStore;
+import daos.InMemoryItemStore;
+import daos.NotificationOutboxDAO;
+import daos.ReceivedWorkoutDAO;
+import daos.SharedWorkoutDAO;
 import daos.UserDAO;
 import daos.WorkoutDAO;
+import imports.Config;
+import interfaces.ItemStore;
+import javax.inject.Provider;
 import javax.inject.Singleton;
-import lombok.RequiredArgsConstructor;
-import utils.Metrics;
 
 @Module
-@RequiredArgsConstructor
 public class LiteWeightModule {
 
-    private final Metrics metrics;
+    @Provides
+    @Singleton
+    public AmazonDynamoDB provideDynamoDbClient() {
+        return DynamoDbClientProvider.getClient();
+    }
+
+    @Provides
+    @Singleton
+    public ItemStore provideItemStore(final Provider<AmazonDynamoDB> client,
+        final Provider<NotificationDispatcher> notificationDispatcher) {
+        // the client is only built when it's actually going to be used
+        if (!Config.ITEM_STORE.equalsIgnoreCase("memory")) {
+            return new DynamoDbItemStore(client.get());
+        }
+        // nothing streams the outbox of a store in memory, so the notifications are sent from the container
+        final InMemoryItemStore itemStore = new InMemoryItemStore();
+        itemStore.onInsert(NotificationOutboxDAO.NOTIFICATION_OUTBOX_TABLE_NAME,
+            new LocalNotificationWorker(notificationDispatcher)::enqueue);
+        return itemStore;
+    }
+
+    @Provides
+    @Singleton
+    public Database provideDatabase(final ItemStore itemStore) {
+        return new Database(itemStore);
+    }
 
     @Provides
     @Singleton
@@ -30,6 +64,24 @@ public class LiteWeightModule {
         return new WorkoutDAO(database);
     }
 
+    @Provides
+    @Singleton
+    public SharedWorkoutDAO provideSharedWorkoutDAO(final Database database) {
+        return new SharedWorkoutDAO(database);
+    }
+
+    @Provides
+    @Singleton
+    public ReceivedWorkoutDAO provideReceivedWorkoutDAO(final Database database) {
+        return new ReceivedWorkoutDAO(database);
+    }
+
+    @Provides
+    @Singleton
+    public NotificationOutboxDAO provideNotificationOutboxDAO(final Database database) {
+        return new NotificationOutboxDAO(database);
+    }
+
     @Provides
     @Singleton
     public StorageService provideS3Access() {
@@ -43,7 +95,8 @@ public class LiteWeightModule {
     }
 
     @Provides
-    public Metrics provideMetrics() {
-        return this.metrics;
+    @Singleton
+    public NotificationDispatcher provideNotificationDispatcher(final NotificationService notificationService) {
+        return new NotificationDispatcher(notificationService);
     }
 }
@@ -0,0 +1,19 @@
+package modules;
+
+import dagger.Module;
+import dagger.Provides;
+import lombok.RequiredArgsConstructor;
+import utils.Metrics;
+
+@Module
+@RequiredArgsConstructor
+public class RequestModule {
+
+    private final Metrics metrics;
+
+    @Provides
+    @RequestScope
+    public Metrics provideMetrics() {
+        return this.metrics;
+    }
+}
@@ -0,0 +1,17 @@
+package modules;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import javax.inject.Scope;
+
+/**
+ * Scope of a single API request. Bindings with this scope live as long as the {@link LiteWeightComponent} created for
+ * that request.
+ */
+@Scope
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RequestScope {
+
+}
@@ -0,0 +1,37 @@
+package responses;
+
+import imports.RequestFields;
+import interfaces.Model;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import models.SharedWorkoutMeta;
+import models.User;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReceivedWorkoutsResponse implements Model {
+
+    private Map<String, SharedWorkoutMeta> receivedWorkouts;
+    private String nextCursor; // null once the oldest received workout has been returned
+
+    @Override
+    public Map<String, Object> asMap() {
+        Map<String, Object> retVal = new HashMap<>();
+        Map<String, Object> receivedWorkoutsMap = new HashMap<>();
+        for (String workoutId : this.receivedWorkouts.keySet()) {
+            receivedWorkoutsMap.putIfAbsent(workoutId, this.receivedWorkouts.get(workoutId).asResponse());
+        }
+        retVal.putIfAbsent(User.RECEIVED_WORKOUTS, receivedWorkoutsMap);
+        retVal.putIfAbsent(RequestFields.NEXT_CURSOR, this.nextCursor);
+        return retVal;
+    }
+
+    @Override
+    public Map<String, Object> asResponse() {
+        return this.asMap();
+    }
+}
@@ -0,0 +1,66 @@
+package serializers;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Base of the serializers that stream a model's response straight into the output buffer instead of building it as a
+ * tree of HashMaps first. Null values are written out explicitly, just as they would be from the model's map.
+ */
+public abstract class ModelSerializer<T> extends StdSerializer<T> {
+
+    protected ModelSerializer(final Class<T> clazz) {
+        super(clazz);
+    }
+
+    static void writeIntegerField(final JsonGenerator gen, final String fieldName, final Integer value)
+        throws IOException {
+        gen.writeFieldName(fieldName);
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(value);
+        }
+    }
+
+    static void writeDoubleField(final JsonGenerator gen, final String fieldName, final Double value)
+        throws IOException {
+        gen.writeFieldName(fieldName);
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(value);
+        }
+    }
+
+    static void writeStringListField(final JsonGenerator gen, final String fieldName, final List<String> values)
+        throws IOException {
+        gen.writeFieldName(fieldName);
+        if (values == null) {
+            gen.writeNull();
+            return;
+        }
+        gen.writeStartArray();
+        for (String value : values) {
+            gen.writeString(value);
+        }
+        gen.writeEndArray();
+    }
+
+    static void writeStringMapField(final JsonGenerator gen, final String fieldName, final Map<String, String> values)
+        throws IOException {
+        gen.writeFieldName(fieldName);
+        if (values == null) {
+            gen.writeNull();
+            return;
+        }
+        gen.writeStartObject();
+        for (Map.Entry<String, String> entry : values.entrySet()) {
+            gen.writeStringField(entry.getKey(), entry.getValue());
+        }
+        gen.writeEndObject();
+    }
+}
@@ -0,0 +1,74 @@
+package serializers;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import java.io.IOException;
+import java.util.Map;
+import models.SharedDay;
+import models.SharedExercise;
+import models.SharedRoutine;
+import models.SharedWeek;
+import models.SharedWorkout;
+import models.SharedWorkoutExercise;
+
+public class SharedWorkoutSerializer extends ModelSerializer<SharedWorkout> {
+
+    public SharedWorkoutSerializer() {
+        super(SharedWorkout.class);
+    }
+
+    @Override
+    public void serialize(final SharedWorkout sharedWorkout, final JsonGenerator gen,
+        final SerializerProvider provider) throws IOException {
+        gen.writeStartObject();
+        gen.writeStringField(SharedWorkout.WORKOUT_NAME, sharedWorkout.getWorkoutName());
+        gen.writeStringField(SharedWorkout.SHARED_WORKOUT_ID, sharedWorkout.getSharedWorkoutId());
+        gen.writeStringField(SharedWorkout.CREATOR, sharedWorkout.getCreator());
+        gen.writeFieldName(SharedWorkout.ROUTINE);
+        writeSharedRoutine(gen, sharedWorkout.getRoutine());
+
+        gen.writeFieldName(SharedWorkout.EXERCISES);
+        if (sharedWorkout.getExercises() == null) {
+            gen.writeNull();
+        } else {
+            gen.writeStartObject();
+            for (Map.Entry<String, SharedWorkoutExercise> entry : sharedWorkout.getExercises().entrySet()) {
+                gen.writeObjectFieldStart(entry.getKey());
+                gen.writeStringField(SharedWorkoutExercise.VIDEO_URL, entry.getValue().getVideoUrl());
+                writeStringListField(gen, SharedWorkoutExercise.FOCUSES, entry.getValue().getFocuses());
+                gen.writeEndObject();
+            }
+            gen.writeEndObject();
+        }
+        gen.writeEndObject();
+    }
+
+    private static void writeSharedRoutine(final JsonGenerator gen, final SharedRoutine routine) throws IOException {
+        gen.writeStartObject();
+        gen.writeArrayFieldStart(SharedRoutine.WEEKS);
+        for (SharedWeek week : routine) {
+            gen.writeStartObject();
+            gen.writeArrayFieldStart(SharedWeek.DAYS);
+            for (SharedDay day : week) {
+                gen.writeStartObject();
+                gen.writeArrayFieldStart(SharedDay.EXERCISES);
+                for (SharedExercise exercise : day) {
+                    gen.writeStartObject();
+                    writeDoubleField(gen, SharedExercise.WEIGHT, exercise.getWeight());
+                    gen.writeStringField(SharedExercise.EXERCISE_NAME, exercise.getExerciseName());
+                    writeIntegerField(gen, SharedExercise.SETS, exercise.getSets());
+                    writeIntegerField(gen, SharedExercise.REPS, exercise.getReps());
+                    gen.writeStringField(SharedExercise.DETAILS, exercise.getDetails());
+                    gen.writeEndObject();
+                }
+                gen.writeEndArray();
+                gen.writeStringField(SharedDay.TAG, day.getTag());
+                gen.writeEndObject();
+            }
+            gen.writeEndArray();
+            gen.writeEndObject();
+        }
+        gen.writeEndArray();
+        gen.writeEndObject();
+    }
+}
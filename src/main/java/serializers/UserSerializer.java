@@ -0,0 +1,237 @@
+package serializers;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import models.Friend;
+import models.FriendRequest;
+import models.LazyModelMap;
+import models.OwnedExercise;
+import models.SharedWorkoutMeta;
+import models.User;
+import models.UserPreferences;
+import models.WorkoutMeta;
+import utils.Parser;
+
+/**
+ * Writes the same document as {@link User#asResponse()}.
+ */
+public class UserSerializer extends ModelSerializer<User> {
+
+    public UserSerializer() {
+        super(User.class);
+    }
+
+    @Override
+    public void serialize(final User user, final JsonGenerator gen, final SerializerProvider provider)
+        throws IOException {
+        gen.writeStartObject();
+        gen.writeStringField(User.USERNAME, user.getUsername());
+        gen.writeStringField(User.ICON, user.getIcon());
+        gen.writeStringField(User.PREMIUM_TOKEN, user.getPremiumToken());
+        gen.writeStringField(User.CURRENT_WORKOUT, user.getCurrentWorkout());
+        writeIntegerField(gen, User.WORKOUTS_SENT, user.getWorkoutsSent());
+        writeStringMapField(gen, User.BLOCKED, user.getBlocked());
+        writeWorkoutMetas(gen, user.getWorkoutMetas());
+        writeOwnedExercises(gen, user.getOwnedExercises());
+        writeFriends(gen, user.getFriends());
+        writeUserPreferences(gen, user.getUserPreferences());
+        writeFriendRequests(gen, user.getFriendRequests(), user.getFriendRequestsSeenAt());
+        writeReceivedWorkouts(gen, user.getReceivedWorkouts());
+        gen.writeStringField(User.RECEIVED_WORKOUTS_CURSOR, user.getReceivedWorkoutsCursor());
+        gen.writeNumberField(User.UNSEEN_RECEIVED_WORKOUTS, user.getUnseenReceivedWorkouts());
+        gen.writeNumberField(User.TOTAL_RECEIVED_WORKOUTS, user.getTotalReceivedWorkouts());
+        gen.writeNumberField(User.UNSEEN_FRIEND_REQUESTS, user.getUnseenFriendRequests());
+        gen.writeEndObject();
+    }
+
+    private static void writeWorkoutMetas(final JsonGenerator gen, final Map<String, WorkoutMeta> workoutMetas)
+        throws IOException {
+        gen.writeFieldName(User.WORKOUTS);
+        if (workoutMetas == null) {
+            gen.writeNull();
+            return;
+        }
+        gen.writeStartObject();
+        for (Map.Entry<String, WorkoutMeta> entry : parsedEntries(workoutMetas).entrySet()) {
+            final WorkoutMeta workoutMeta = entry.getValue();
+            writeWorkoutMeta(gen, entry.getKey(), workoutMeta.getWorkoutName(), workoutMeta.getDateLast(),
+                workoutMeta.getTimesCompleted(), workoutMeta.getAverageExercisesCompleted(),
+                workoutMeta.getTotalExercisesSum());
+        }
+        for (Map.Entry<String, Map<String, Object>> entry : unparsedEntries(workoutMetas).entrySet()) {
+            final Map<String, Object> attributes = entry.getValue();
+            writeWorkoutMeta(gen, entry.getKey(), (String) attributes.get(WorkoutMeta.WORKOUT_NAME),
+                (String) attributes.get(WorkoutMeta.DATE_LAST),
+                Parser.convertObjectToInteger(attributes.get(WorkoutMeta.TIMES_COMPLETED)),
+                Parser.convertObjectToDouble(attributes.get(WorkoutMeta.AVERAGE_EXERCISES_COMPLETED)),
+                Parser.convertObjectToInteger(attributes.get(WorkoutMeta.TOTAL_EXERCISES_SUM)));
+        }
+        gen.writeEndObject();
+    }
+
+    private static void writeWorkoutMeta(final JsonGenerator gen, final String workoutId, final String workoutName,
+        final String dateLast, final Integer timesCompleted, final Double averageExercisesCompleted,
+        final Integer totalExercisesSum) throws IOException {
+        gen.writeObjectFieldStart(workoutId);
+        gen.writeStringField(WorkoutMeta.WORKOUT_NAME, workoutName);
+        gen.writeStringField(WorkoutMeta.DATE_LAST, dateLast);
+        writeIntegerField(gen, WorkoutMeta.TIMES_COMPLETED, timesCompleted);
+        writeDoubleField(gen, WorkoutMeta.AVERAGE_EXERCISES_COMPLETED, averageExercisesCompleted);
+        writeIntegerField(gen, WorkoutMeta.TOTAL_EXERCISES_SUM, totalExercisesSum);
+        gen.writeEndObject();
+    }
+
+    private static void writeOwnedExercises(final JsonGenerator gen, final Map<String, OwnedExercise> ownedExercises)
+        throws IOException {
+        gen.writeFieldName(User.EXERCISES);
+        if (ownedExercises == null) {
+            gen.writeNull();
+            return;
+        }
+        gen.writeStartObject();
+        for (Map.Entry<String, OwnedExercise> entry : parsedEntries(ownedExercises).entrySet()) {
+            final OwnedExercise ownedExercise = entry.getValue();
+            writeOwnedExercise(gen, entry.getKey(), ownedExercise.getExerciseName(), ownedExercise.getDefaultWeight(),
+                ownedExercise.getDefaultReps(), ownedExercise.getDefaultSets(), ownedExercise.getDefaultDetails(),
+                ownedExercise.getVideoUrl(), ownedExercise.getFocuses(), ownedExercise.getWorkouts());
+        }
+        for (Map.Entry<String, Map<String, Object>> entry : unparsedEntries(ownedExercises).entrySet()) {
+            final Map<String, Object> attributes = entry.getValue();
+            writeOwnedExercise(gen, entry.getKey(), (String) attributes.get(OwnedExercise.EXERCISE_NAME),
+                Parser.convertObjectToDouble(attributes.get(OwnedExercise.DEFAULT_WEIGHT)),
+                Parser.convertObjectToInteger(attributes.get(OwnedExercise.DEFAULT_REPS)),
+                Parser.convertObjectToInteger(attributes.get(OwnedExercise.DEFAULT_SETS)),
+                (String) attributes.get(OwnedExercise.DEFAULT_DETAILS),
+                (String) attributes.get(OwnedExercise.VIDEO_URL),
+                (List<String>) attributes.get(OwnedExercise.FOCUSES),
+                (Map<String, String>) attributes.get(User.WORKOUTS));
+        }
+        gen.writeEndObject();
+    }
+
+    private static void writeOwnedExercise(final JsonGenerator gen, final String exerciseId,
+        final String exerciseName, final Double defaultWeight, final Integer defaultReps, final Integer defaultSets,
+        final String defaultDetails, final String videoUrl, final List<String> focuses,
+        final Map<String, String> workouts) throws IOException {
+        gen.writeObjectFieldStart(exerciseId);
+        gen.writeStringField(OwnedExercise.EXERCISE_NAME, exerciseName);
+        writeDoubleField(gen, OwnedExercise.DEFAULT_WEIGHT, defaultWeight);
+        writeIntegerField(gen, OwnedExercise.DEFAULT_REPS, defaultReps);
+        writeIntegerField(gen, OwnedExercise.DEFAULT_SETS, defaultSets);
+        gen.writeStringField(OwnedExercise.DEFAULT_DETAILS, defaultDetails);
+        gen.writeStringField(OwnedExercise.VIDEO_URL, videoUrl);
+        writeStringListField(gen, OwnedExercise.FOCUSES, focuses);
+        writeStringMapField(gen, User.WORKOUTS, workouts);
+        gen.writeEndObject();
+    }
+
+    private static void writeFriends(final JsonGenerator gen, final Map<String, Friend> friends) throws IOException {
+        gen.writeFieldName(User.FRIENDS);
+        if (friends == null) {
+            gen.writeNull();
+            return;
+        }
+        gen.writeStartObject();
+        for (Map.Entry<String, Friend> entry : parsedEntries(friends).entrySet()) {
+            writeFriend(gen, entry.getKey(), entry.getValue().getIcon(), entry.getValue().isConfirmed());
+        }
+        for (Map.Entry<String, Map<String, Object>> entry : unparsedEntries(friends).entrySet()) {
+            writeFriend(gen, entry.getKey(), (String) entry.getValue().get(User.ICON),
+                (boolean) entry.getValue().get(Friend.CONFIRMED));
+        }
+        gen.writeEndObject();
+    }
+
+    private static void writeFriend(final JsonGenerator gen, final String username, final String icon,
+        final boolean confirmed) throws IOException {
+        gen.writeObjectFieldStart(username);
+        gen.writeStringField(User.ICON, icon);
+        gen.writeBooleanField(Friend.CONFIRMED, confirmed);
+        gen.writeEndObject();
+    }
+
+    private static void writeUserPreferences(final JsonGenerator gen, final UserPreferences userPreferences)
+        throws IOException {
+        gen.writeObjectFieldStart(User.USER_PREFERENCES);
+        gen.writeBooleanField(UserPreferences.PRIVATE_ACCOUNT, userPreferences.isPrivateAccount());
+        gen.writeBooleanField(UserPreferences.METRIC, userPreferences.isMetricUnits());
+        gen.writeBooleanField(UserPreferences.UPDATE_DEFAULT_WEIGHT_ON_SAVE,
+            userPreferences.isUpdateDefaultWeightOnSave());
+        gen.writeBooleanField(UserPreferences.UPDATE_DEFAULT_WEIGHT_ON_RESTART,
+            userPreferences.isUpdateDefaultWeightOnRestart());
+        gen.writeEndObject();
+    }
+
+    private static void writeFriendRequests(final JsonGenerator gen, final Map<String, FriendRequest> friendRequests,
+        final Long friendRequestsSeenAt) throws IOException {
+        gen.writeFieldName(User.FRIEND_REQUESTS);
+        if (friendRequests == null) {
+            gen.writeNull();
+            return;
+        }
+        gen.writeStartObject();
+        for (Map.Entry<String, FriendRequest> entry : parsedEntries(friendRequests).entrySet()) {
+            // the watermark was applied to the seen flag when the request was parsed
+            writeFriendRequest(gen, entry.getKey(), entry.getValue().getIcon(), entry.getValue().isSeen(),
+                entry.getValue().getRequestTimeStamp());
+        }
+        for (Map.Entry<String, Map<String, Object>> entry : unparsedEntries(friendRequests).entrySet()) {
+            final Map<String, Object> attributes = entry.getValue();
+            final String requestTimeStamp = (String) attributes.get(FriendRequest.REQUEST_TIME_STAMP);
+            writeFriendRequest(gen, entry.getKey(), (String) attributes.get(FriendRequest.ICON),
+                FriendRequest.isSeenAsOf((Boolean) attributes.get(FriendRequest.SEEN), requestTimeStamp,
+                    friendRequestsSeenAt),
+                requestTimeStamp);
+        }
+        gen.writeEndObject();
+    }
+
+    private static void writeFriendRequest(final JsonGenerator gen, final String username, final String icon,
+        final boolean seen, final String requestTimeStamp) throws IOException {
+        gen.writeObjectFieldStart(username);
+        gen.writeStringField(FriendRequest.ICON, icon);
+        gen.writeBooleanField(FriendRequest.SEEN, seen);
+        gen.writeStringField(FriendRequest.REQUEST_TIME_STAMP, requestTimeStamp);
+        gen.writeEndObject();
+    }
+
+    // entries of a section that were parsed into models, which are all of them unless the section is lazy
+    private static <V> Map<String, V> parsedEntries(final Map<String, V> section) {
+        return section instanceof LazyModelMap ? ((LazyModelMap<V>) section).getParsed() : section;
+    }
+
+    // entries of a lazy section that were never read, these are written straight from their attributes
+    private static Map<String, Map<String, Object>> unparsedEntries(final Map<String, ?> section) {
+        return section instanceof LazyModelMap
+            ? ((LazyModelMap<?>) section).getUnparsedAttributes()
+            : Collections.emptyMap();
+    }
+
+    private static void writeReceivedWorkouts(final JsonGenerator gen,
+        final Map<String, SharedWorkoutMeta> receivedWorkouts) throws IOException {
+        // only the first batch is loaded, any other ones will have to be fetched via API call
+        gen.writeObjectFieldStart(User.RECEIVED_WORKOUTS);
+        if (receivedWorkouts == null) {
+            gen.writeEndObject();
+            return;
+        }
+        for (Map.Entry<String, SharedWorkoutMeta> entry : receivedWorkouts.entrySet()) {
+            final SharedWorkoutMeta workoutMeta = entry.getValue();
+            gen.writeObjectFieldStart(entry.getKey());
+            gen.writeStringField(SharedWorkoutMeta.WORKOUT_NAME, workoutMeta.getWorkoutName());
+            gen.writeStringField(SharedWorkoutMeta.DATE_SENT, workoutMeta.getDateSent());
+            gen.writeBooleanField(SharedWorkoutMeta.SEEN, workoutMeta.isSeen());
+            gen.writeStringField(SharedWorkoutMeta.MOST_FREQUENT_FOCUS, workoutMeta.getMostFrequentFocus());
+            gen.writeStringField(SharedWorkoutMeta.SENDER, workoutMeta.getSender());
+            writeIntegerField(gen, SharedWorkoutMeta.TOTAL_DAYS, workoutMeta.getTotalDays());
+            gen.writeStringField(SharedWorkoutMeta.ICON, workoutMeta.getIcon());
+            gen.writeStringField(SharedWorkoutMeta.WORKOUT_ID, workoutMeta.getWorkoutId());
+            gen.writeEndObject();
+        }
+        gen.writeEndObject();
+    }
+}
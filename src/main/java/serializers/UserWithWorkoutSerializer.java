@@ -0,0 +1,35 @@
+package serializers;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import imports.RequestFields;
+import java.io.IOException;
+import responses.UserWithWorkout;
+
+public class UserWithWorkoutSerializer extends ModelSerializer<UserWithWorkout> {
+
+    private final UserSerializer userSerializer = new UserSerializer();
+    private final WorkoutSerializer workoutSerializer = new WorkoutSerializer();
+
+    public UserWithWorkoutSerializer() {
+        super(UserWithWorkout.class);
+    }
+
+    @Override
+    public void serialize(final UserWithWorkout userWithWorkout, final JsonGenerator gen,
+        final SerializerProvider provider) throws IOException {
+        gen.writeStartObject();
+        gen.writeFieldName(RequestFields.USER);
+        this.userSerializer.serialize(userWithWorkout.getUser(), gen, provider);
+        gen.writeFieldName(RequestFields.WORKOUT);
+        if (userWithWorkout.isWorkoutPresent()) {
+            this.workoutSerializer.serialize(userWithWorkout.getWorkout(), gen, provider);
+        } else {
+            // in case the user has no workout, just return an empty map
+            gen.writeStartObject();
+            gen.writeEndObject();
+        }
+        gen.writeBooleanField(RequestFields.WORKOUT_PRESENT, userWithWorkout.isWorkoutPresent());
+        gen.writeEndObject();
+    }
+}
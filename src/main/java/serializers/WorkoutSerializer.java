@@ -0,0 +1,62 @@
+package serializers;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import java.io.IOException;
+import models.Routine;
+import models.RoutineDay;
+import models.RoutineExercise;
+import models.RoutineWeek;
+import models.Workout;
+
+public class WorkoutSerializer extends ModelSerializer<Workout> {
+
+    public WorkoutSerializer() {
+        super(Workout.class);
+    }
+
+    @Override
+    public void serialize(final Workout workout, final JsonGenerator gen, final SerializerProvider provider)
+        throws IOException {
+        gen.writeStartObject();
+        gen.writeStringField(Workout.WORKOUT_NAME, workout.getWorkoutName());
+        gen.writeStringField(Workout.WORKOUT_ID, workout.getWorkoutId());
+        gen.writeStringField(Workout.CREATION_DATE, workout.getCreationDate());
+        gen.writeStringField(Workout.CREATOR, workout.getCreator());
+        gen.writeFieldName(Workout.ROUTINE);
+        writeRoutine(gen, workout.getRoutine());
+        writeIntegerField(gen, Workout.CURRENT_WEEK, workout.getCurrentWeek());
+        writeIntegerField(gen, Workout.CURRENT_DAY, workout.getCurrentDay());
+        gen.writeEndObject();
+    }
+
+    static void writeRoutine(final JsonGenerator gen, final Routine routine) throws IOException {
+        gen.writeStartObject();
+        gen.writeArrayFieldStart(Routine.WEEKS);
+        for (RoutineWeek week : routine) {
+            gen.writeStartObject();
+            gen.writeArrayFieldStart(RoutineWeek.DAYS);
+            for (RoutineDay day : week) {
+                gen.writeStartObject();
+                gen.writeArrayFieldStart(RoutineDay.EXERCISES);
+                for (RoutineExercise exercise : day) {
+                    gen.writeStartObject();
+                    gen.writeBooleanField(RoutineExercise.COMPLETED, exercise.isCompleted());
+                    gen.writeStringField(RoutineExercise.EXERCISE_ID, exercise.getExerciseId());
+                    writeDoubleField(gen, RoutineExercise.WEIGHT, exercise.getWeight());
+                    writeIntegerField(gen, RoutineExercise.SETS, exercise.getSets());
+                    writeIntegerField(gen, RoutineExercise.REPS, exercise.getReps());
+                    gen.writeStringField(RoutineExercise.DETAILS, exercise.getDetails());
+                    gen.writeEndObject();
+                }
+                gen.writeEndArray();
+                gen.writeStringField(RoutineDay.TAG, day.getTag());
+                gen.writeEndObject();
+            }
+            gen.writeEndArray();
+            gen.writeEndObject();
+        }
+        gen.writeEndArray();
+        gen.writeEndObject();
+    }
+}
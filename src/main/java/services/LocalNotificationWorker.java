@@ -0,0 +1,59 @@
+package services;
+
+import com.amazonaws.services.lambda.runtime.LambdaRuntime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import javax.inject.Provider;
+import models.OutboxNotification;
+import utils.Metrics;
+
+/**
+ * Stands in for the stream of the notification outbox when the tables are kept in memory. Notifications are queued
+ * as their items are written and sent in batches by a daemon thread, so requests don't wait for them here either.
+ */
+public class LocalNotificationWorker {
+
+    // most records a stream hands to its handler at once
+    private static final int BATCH_SIZE = 100;
+
+    private final BlockingQueue<OutboxNotification> queue;
+    private final Provider<NotificationDispatcher> notificationDispatcher;
+
+    public LocalNotificationWorker(final Provider<NotificationDispatcher> notificationDispatcher) {
+        this.queue = new LinkedBlockingQueue<>();
+        this.notificationDispatcher = notificationDispatcher;
+        final Thread thread = new Thread(this::run, "notification-worker");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * @param item item that was written to the outbox.
+     */
+    public void enqueue(final Map<String, Object> item) {
+        this.queue.add(new OutboxNotification(item));
+    }
+
+    private void run() {
+        while (true) {
+            final List<OutboxNotification> batch = new ArrayList<>();
+            try {
+                batch.add(this.queue.take());
+                this.queue.drainTo(batch, BATCH_SIZE - 1);
+
+                final Metrics metrics = new Metrics(UUID.randomUUID().toString(), LambdaRuntime.getLogger());
+                this.notificationDispatcher.get().dispatch(batch, metrics);
+                metrics.logMetrics();
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                // like a stream, the worker keeps going with the next batch
+                LambdaRuntime.getLogger().log("Unable to dispatch notifications: " + e.getMessage());
+            }
+        }
+    }
+}
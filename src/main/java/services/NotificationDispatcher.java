@@ -0,0 +1,66 @@
+package services;
+
+import imports.Config;
+import java.util.List;
+import javax.inject.Inject;
+import models.OutboxNotification;
+import utils.Metrics;
+
+/**
+ * Sends the notifications of the outbox, a batch at a time as they are streamed from it. A notification that can't
+ * be published is tried again a few times before it is dropped. Dropping it only costs the user a push notification,
+ * while failing the whole batch would have every other notification of it sent again.
+ */
+public class NotificationDispatcher {
+
+    public static final String NOTIFICATIONS_SENT = "NotificationsSent";
+    public static final String NOTIFICATIONS_DROPPED = "NotificationsDropped";
+    public static final String NOTIFICATION_RETRIES = "NotificationRetries";
+
+    private static final long BASE_BACKOFF_MILLIS = 100;
+
+    private final NotificationService notificationService;
+
+    @Inject
+    public NotificationDispatcher(final NotificationService notificationService) {
+        this.notificationService = notificationService;
+    }
+
+    /**
+     * @param notifications notifications to send, in the order they were written.
+     * @param metrics       metrics of the invocation sending them.
+     */
+    public void dispatch(final List<OutboxNotification> notifications, final Metrics metrics)
+        throws InterruptedException {
+        final String classMethod = this.getClass().getSimpleName() + ".dispatch";
+        metrics.commonSetup(classMethod);
+
+        int sent = 0;
+        int dropped = 0;
+        int retries = 0;
+        for (OutboxNotification notification : notifications) {
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    this.notificationService.sendMessage(notification.getTargetArn(),
+                        notification.getNotificationData());
+                    sent++;
+                    break;
+                } catch (RuntimeException e) {
+                    if (attempt >= Config.NOTIFICATION_MAX_ATTEMPTS) {
+                        metrics.log(String.format("Dropping notification %s after %d attempts: %s",
+                            notification.getNotificationId(), attempt, e.getMessage()));
+                        dropped++;
+                        break;
+                    }
+                    retries++;
+                    Thread.sleep(BASE_BACKOFF_MILLIS << (attempt - 1));
+                }
+            }
+        }
+
+        metrics.addIntegerMetric(NOTIFICATIONS_SENT, sent);
+        metrics.addIntegerMetric(NOTIFICATIONS_DROPPED, dropped);
+        metrics.addIntegerMetric(NOTIFICATION_RETRIES, retries);
+        metrics.commonClose(dropped == 0);
+    }
+}
@@ -3,11 +3,9 @@ package services;
 import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.AmazonS3ClientBuilder;
 import com.amazonaws.services.s3.model.CannedAccessControlList;
-import com.amazonaws.services.s3.model.GetObjectRequest;
+import com.amazonaws.services.s3.model.CopyObjectRequest;
 import com.amazonaws.services.s3.model.ObjectMetadata;
 import com.amazonaws.services.s3.model.PutObjectRequest;
-import com.amazonaws.services.s3.model.S3Object;
-import com.amazonaws.util.IOUtils;
 import imports.Config;
 import java.io.IOException;
 import utils.Metrics;
@@ -48,16 +46,21 @@ public class StorageService {
         return true;
     }
 
-    public byte[] downloadDefaultImage(final Metrics metrics) throws IOException {
-        final String classMethod = this.getClass().getSimpleName() + ".downloadDefaultImage";
+    /**
+     * Copies the default image to a new file within S3, so the image is never downloaded and uploaded again. The copy
+     * is public like any other uploaded image.
+     *
+     * @param fileName name of the new file.
+     * @param metrics  metrics of the request.
+     */
+    public void copyDefaultImage(final String fileName, final Metrics metrics) {
+        final String classMethod = this.getClass().getSimpleName() + ".copyDefaultImage";
         metrics.commonSetup(classMethod);
 
-        GetObjectRequest request = new GetObjectRequest(S3_DEFAULT_IMAGE_BUCKET, S3_DEFAULT_IMAGE_FILE);
-        S3Object s3Object = this.s3Client.getObject(request);
-        s3Object.getObjectContent();
-        byte[] defaultImageBytes = IOUtils.toByteArray(s3Object.getObjectContent());
+        CopyObjectRequest copyObjectRequest = new CopyObjectRequest(S3_DEFAULT_IMAGE_BUCKET, S3_DEFAULT_IMAGE_FILE,
+            S3_IMAGE_BUCKET, fileName).withCannedAccessControlList(CannedAccessControlList.PublicRead);
+        this.s3Client.copyObject(copyObjectRequest);
 
-        metrics.commonClose(defaultImageBytes.length > 0);
-        return defaultImageBytes;
+        metrics.commonClose(true);
     }
 }
@@ -1,6 +1,7 @@
 package utils;
 
 import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import java.nio.ByteBuffer;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -21,6 +22,8 @@ public class AttributeValueUtils {
                 AttributeValueUtils.convertIterableToAttributeValueList((Iterable) value));
         } else if (value instanceof Number) {
             attributeValue = new AttributeValue().withN(value.toString());
+        } else if (value instanceof byte[]) {
+            attributeValue = new AttributeValue().withB(ByteBuffer.wrap((byte[]) value));
         } else if (value instanceof Boolean) {
             attributeValue = new AttributeValue().withBOOL((Boolean) value);
         } else {
@@ -0,0 +1,99 @@
+package utils;
+
+import com.amazonaws.services.dynamodbv2.model.CancellationReason;
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+import com.amazonaws.services.dynamodbv2.model.TransactionCanceledException;
+import exceptions.ManagerExecutionException;
+import imports.Config;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+
+public class ConcurrencyUtils {
+
+    public static final String VERSION_CONFLICTS = "VersionConflicts";
+    public static final String RETRY_DEPTH = "RetryDepth";
+
+    private static final int MAX_BACKOFF_MILLIS = 25;
+
+    @FunctionalInterface
+    public interface VersionedWrite<T> {
+
+        /**
+         * Reads the items, applies the mutation and writes them back with their expected versions. Must be safe to run
+         * again from scratch, so any input that is mutated has to be copied first.
+         */
+        T execute() throws Exception;
+    }
+
+    /**
+     * Runs a read-modify-write of versioned items, running it again with freshly read items whenever another writer
+     * got to one of them first. The number of conflicts and the retry depth are emitted as metrics of the calling
+     * action.
+     *
+     * @param metrics metrics of the action doing the write.
+     * @param write   the read-modify-write.
+     * @return whatever the write returns.
+     * @throws ManagerExecutionException if the items keep being changed by others.
+     * @throws Exception                 anything else the write throws.
+     */
+    public static <T> T retryOnConflict(final Metrics metrics, final VersionedWrite<T> write) throws Exception {
+        int conflicts = 0;
+        while (true) {
+            try {
+                final T result = write.execute();
+                metrics.addIntegerMetric(VERSION_CONFLICTS, conflicts);
+                metrics.addIntegerMetric(RETRY_DEPTH, conflicts);
+                return result;
+            } catch (final ConditionalCheckFailedException | TransactionCanceledException e) {
+                if (!isConflict(e)) {
+                    throw e;
+                }
+                conflicts++;
+                if (conflicts >= Config.VERSION_CONFLICT_MAX_ATTEMPTS) {
+                    metrics.addIntegerMetric(VERSION_CONFLICTS, conflicts);
+                    metrics.addIntegerMetric(RETRY_DEPTH, conflicts - 1);
+                    throw new ManagerExecutionException(
+                        "Your data was changed on another device. Please refresh and try again.");
+                }
+                // spread out writers that collided so they don't collide again
+                Thread.sleep(ThreadLocalRandom.current().nextInt(MAX_BACKOFF_MILLIS * conflicts));
+            }
+        }
+    }
+
+    /**
+     * Waits for a request that was started with {@link daos.Database#async}.
+     *
+     * @param request the request.
+     * @return what the request returned.
+     * @throws Exception whatever the request threw, as it was thrown.
+     */
+    public static <T> T await(final CompletableFuture<T> request) throws Exception {
+        try {
+            return request.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            throw (Error) e.getCause();
+        }
+    }
+
+    private static boolean isConflict(final Exception e) {
+        if (e instanceof ConditionalCheckFailedException) {
+            return true;
+        }
+        final TransactionCanceledException transactionCanceledException = (TransactionCanceledException) e;
+        if (transactionCanceledException.getCancellationReasons() == null) {
+            return false;
+        }
+        for (CancellationReason reason : transactionCanceledException.getCancellationReasons()) {
+            if ("ConditionalCheckFailed".equals(reason.getCode())
+                || "TransactionConflict".equals(reason.getCode())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
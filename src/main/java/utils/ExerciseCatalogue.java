@@ -0,0 +1,121 @@
+package utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import models.OwnedExercise;
+import models.User;
+
+/**
+ * The default exercises every user starts with. A version of the catalogue never changes once released and is loaded
+ * once per container, so user items only store what differs from it: the exercises they changed or created and a
+ * tombstone for every default one they deleted. The user item keeps the version it was created against, which lets
+ * the catalogue get new versions without changing what existing users see.
+ * <p>
+ * The ids of the default exercises are derived from the version and the name, so they are the same for every user and
+ * every container.
+ */
+public class ExerciseCatalogue {
+
+    public static final int CURRENT_VERSION = 1;
+    // stored in place of a default exercise that the user deleted
+    public static final String DELETED = "deleted";
+
+    private static final Map<Integer, String> FILES = Collections.singletonMap(1, FileReader.DEFAULT_EXERCISES_FILE);
+    private static final Map<Integer, ExerciseCatalogue> CATALOGUES = new ConcurrentHashMap<>();
+
+    private final int version;
+    private final Map<String, Map<String, Object>> exercises;
+
+    private ExerciseCatalogue(final int version, final String fileName) {
+        this.version = version;
+        final Map<String, Map<String, Object>> exercises = new LinkedHashMap<>();
+        for (OwnedExercise ownedExercise : FileReader.getDefaultExercises(fileName)) {
+            final String exerciseId = UUID.nameUUIDFromBytes(("exercise-catalogue/" + version + "/"
+                + ownedExercise.getExerciseName()).getBytes(StandardCharsets.UTF_8)).toString();
+            final Map<String, Object> attributes = ownedExercise.asMap();
+            attributes.put(OwnedExercise.FOCUSES, Collections.unmodifiableList(ownedExercise.getFocuses()));
+            attributes.put(User.WORKOUTS, Collections.emptyMap());
+            exercises.put(exerciseId, Collections.unmodifiableMap(attributes));
+        }
+        this.exercises = Collections.unmodifiableMap(exercises);
+    }
+
+    /**
+     * @param version version of the catalogue, as stored on the user item.
+     * @return the catalogue, loaded on first use.
+     */
+    public static ExerciseCatalogue get(final int version) {
+        final String fileName = FILES.get(version);
+        if (fileName == null) {
+            throw new IllegalStateException(String.format("Unknown exercise catalogue version %d", version));
+        }
+        return CATALOGUES.computeIfAbsent(version, v -> new ExerciseCatalogue(v, fileName));
+    }
+
+    public int getVersion() {
+        return this.version;
+    }
+
+    /**
+     * @return attributes of the default exercises keyed by their ids, none of which can be changed.
+     */
+    public Map<String, Map<String, Object>> getExercises() {
+        return this.exercises;
+    }
+
+    public boolean contains(final String exerciseId) {
+        return this.exercises.containsKey(exerciseId);
+    }
+
+    /**
+     * @param stored exercises as stored on the user item.
+     * @return the exercises of the user, i.e. the catalogue with the stored ones laid over it.
+     */
+    public Map<String, Object> overlay(final Map<String, Object> stored) {
+        final Map<String, Object> retVal = new HashMap<>(this.exercises.size() + stored.size());
+        retVal.putAll(this.exercises);
+        for (Map.Entry<String, Object> entry : stored.entrySet()) {
+            if (isTombstone((Map<String, Object>) entry.getValue())) {
+                retVal.remove(entry.getKey());
+            } else {
+                retVal.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return retVal;
+    }
+
+    /**
+     * @param exercises exercises of the user.
+     * @return what has to be stored on the user item for them, the inverse of {@link #overlay(Map)}.
+     */
+    public Map<String, Map<String, Object>> toStored(final Map<String, Map<String, Object>> exercises) {
+        final Map<String, Map<String, Object>> retVal = new HashMap<>();
+        for (Map.Entry<String, Map<String, Object>> entry : exercises.entrySet()) {
+            if (!Objects.equals(this.exercises.get(entry.getKey()), entry.getValue())) {
+                retVal.put(entry.getKey(), entry.getValue());
+            }
+        }
+        for (String exerciseId : this.exercises.keySet()) {
+            if (!exercises.containsKey(exerciseId)) {
+                retVal.put(exerciseId, tombstone());
+            }
+        }
+        return retVal;
+    }
+
+    public static Map<String, Object> tombstone() {
+        final Map<String, Object> tombstone = new HashMap<>();
+        tombstone.put(DELETED, true);
+        return tombstone;
+    }
+
+    private static boolean isTombstone(final Map<String, Object> attributes) {
+        return Boolean.TRUE.equals(attributes.get(DELETED));
+    }
+}
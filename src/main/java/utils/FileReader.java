@@ -1,13 +1,13 @@
 package utils;
 
 import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.UUID;
 import models.OwnedExercise;
 
 public class FileReader {
@@ -21,26 +21,25 @@ public class FileReader {
         FOCUS_INDEX_FILE = 2;
 
 
-    public static Map<String, Map<String, Object>> getDefaultExercises() {
-        Map<String, Map<String, Object>> retVal = new HashMap<>();
-        BufferedReader reader;
-        try {
-            reader = new BufferedReader(
-                new InputStreamReader(FileReader.class.getResourceAsStream(DEFAULT_EXERCISES_FILE)));
+    /**
+     * @param fileName resource with one exercise per line.
+     * @return the exercises of the file, in the order of its lines.
+     */
+    public static List<OwnedExercise> getDefaultExercises(final String fileName) {
+        final List<OwnedExercise> retVal = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(
+            new InputStreamReader(FileReader.class.getResourceAsStream(fileName), StandardCharsets.UTF_8))) {
             String line;
             while ((line = reader.readLine()) != null) {
-                String uuid = UUID.randomUUID().toString();
                 String name = line.split(EXERCISE_SPLIT_DELIM)[NAME_INDEX];
                 String video = line.split(EXERCISE_SPLIT_DELIM)[VIDEO_INDEX];
                 String[] focuses = line.split(EXERCISE_SPLIT_DELIM)[FOCUS_INDEX_FILE].split(FOCUS_DELIM);
 
                 List<String> focusList = new ArrayList<>(Arrays.asList(focuses));
-                OwnedExercise ownedExercise = new OwnedExercise(name, video, focusList);
-                retVal.putIfAbsent(uuid, ownedExercise.asMap());
+                retVal.add(new OwnedExercise(name, video, focusList));
             }
-            reader.close();
-        } catch (Exception e) {
-            e.printStackTrace();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
         return retVal;
     }
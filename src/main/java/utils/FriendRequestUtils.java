@@ -0,0 +1,54 @@
+package utils;
+
+import com.amazonaws.services.dynamodbv2.document.utils.NameMap;
+import com.amazonaws.services.dynamodbv2.document.utils.ValueMap;
+import daos.UserDAO;
+import models.FriendRequest;
+import models.User;
+
+public class FriendRequestUtils {
+
+    /**
+     * @param requestedAtValue placeholder of the epoch millis a friend request was sent at.
+     * @return condition on the recipient that holds while their friend requests seen watermark does not cover the
+     * request, i.e. while the request is counted as unseen unless it was set to seen on its own.
+     */
+    public static String getNotCoveredBySeenAtCondition(final String requestedAtValue) {
+        return "attribute_not_exists(" + User.FRIEND_REQUESTS_SEEN_AT + ") or "
+            + User.FRIEND_REQUESTS_SEEN_AT + " < " + requestedAtValue;
+    }
+
+    /**
+     * @param recipient     user the request was sent to.
+     * @param sender        user that sent the request.
+     * @param friendRequest request as it was read, null if the recipient no longer had it.
+     * @return update of the recipient that removes the request and, if it was unseen, takes it out of their unseen
+     * counter. It fails if the request was sent again or set to seen since it was read.
+     */
+    public static UpdateItemTemplate getRemoveFriendRequest(final String recipient, final String sender,
+        final FriendRequest friendRequest) {
+        final UpdateItemTemplate updateItemTemplate = new UpdateItemTemplate(recipient, UserDAO.USERS_TABLE_NAME)
+            .withUpdateExpression("remove " + User.FRIEND_REQUESTS + ".#requestUsername")
+            .withNameMap(new NameMap().with("#requestUsername", sender));
+        if (friendRequest == null) {
+            return updateItemTemplate;
+        }
+
+        final String requestPath = User.FRIEND_REQUESTS + ".#requestUsername.";
+        final ValueMap valueMap = new ValueMap()
+            .withString(":requestTimeStamp", friendRequest.getRequestTimeStamp());
+        updateItemTemplate.getNameMap().with("#requestTimeStamp", FriendRequest.REQUEST_TIME_STAMP);
+        String conditionExpression = requestPath + "#requestTimeStamp = :requestTimeStamp";
+        if (!friendRequest.isSeen()) {
+            updateItemTemplate.withUpdateExpression(updateItemTemplate.getUpdateExpression()
+                + " add " + User.UNSEEN_FRIEND_REQUESTS + " :requestDecrement");
+            updateItemTemplate.getNameMap().with("#requestSeen", FriendRequest.SEEN);
+            conditionExpression += " and " + requestPath + "#requestSeen = :unseenVal and ("
+                + getNotCoveredBySeenAtCondition(":requestedAt") + ")";
+            valueMap.withInt(":requestDecrement", -1)
+                .withBoolean(":unseenVal", false)
+                .withLong(":requestedAt", friendRequest.requestedAtMillis());
+        }
+        return updateItemTemplate.withConditionExpression(conditionExpression).withValueMap(valueMap);
+    }
+}
@@ -3,17 +3,63 @@ package utils;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.google.common.collect.ImmutableSet;
+import interfaces.Model;
 import java.io.IOException;
 import java.util.Map;
+import java.util.Set;
+import models.SharedWorkout;
+import models.User;
+import models.Workout;
+import responses.UserWithWorkout;
+import serializers.SharedWorkoutSerializer;
+import serializers.UserSerializer;
+import serializers.UserWithWorkoutSerializer;
+import serializers.WorkoutSerializer;
 
 public class JsonUtils {
 
+    // mappers are thread safe once configured, so a single one is shared for the lifetime of the container
+    private static final ObjectMapper objectMapper = new ObjectMapper()
+        .registerModule(new SimpleModule("LiteWeightModels")
+            .addSerializer(User.class, new UserSerializer())
+            .addSerializer(Workout.class, new WorkoutSerializer())
+            .addSerializer(SharedWorkout.class, new SharedWorkoutSerializer())
+            .addSerializer(UserWithWorkout.class, new UserWithWorkoutSerializer()));
+
+    // models that are streamed by their serializer instead of going through asResponse
+    private static final Set<Class<? extends Model>> streamedModels = ImmutableSet
+        .of(User.class, Workout.class, SharedWorkout.class, UserWithWorkout.class);
+
+    private static final ObjectReader mapReader = objectMapper.readerFor(new TypeReference<Map<String, Object>>() {
+    });
+    private static final ObjectReader byteArrayReader = objectMapper.readerFor(byte[].class);
+    private static final ObjectWriter mapWriter = objectMapper.writerFor(new TypeReference<Map<String, Object>>() {
+    });
+    private static final ObjectWriter modelWriter = objectMapper.writer();
+
     public static String serializeMap(Map<String, Object> map) {
         String retVal;
-        ObjectMapper mapper = new ObjectMapper();
 
         try {
-            retVal = mapper.writeValueAsString(map);
+            retVal = mapWriter.writeValueAsString(map);
+        } catch (JsonProcessingException e) {
+            retVal = "Error";
+        }
+        return retVal;
+    }
+
+    public static String serializeModel(Model model) {
+        if (!streamedModels.contains(model.getClass())) {
+            return serializeMap(model.asResponse());
+        }
+
+        String retVal;
+        try {
+            retVal = modelWriter.writeValueAsString(model);
         } catch (JsonProcessingException e) {
             retVal = "Error";
         }
@@ -21,12 +67,10 @@ public class JsonUtils {
     }
 
     public static Map<String, Object> deserialize(String jsonString) throws IOException {
-        ObjectMapper objectMapper = new ObjectMapper();
-        return objectMapper.readValue(jsonString, new TypeReference<>() {});
+        return mapReader.readValue(jsonString);
     }
 
     public static byte[] deserializeByteList(String jsonString) throws IOException {
-        ObjectMapper objectMapper = new ObjectMapper();
-        return objectMapper.readValue(jsonString, byte[].class);
+        return byteArrayReader.readValue(jsonString);
     }
 }
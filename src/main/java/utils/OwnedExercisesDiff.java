@@ -0,0 +1,205 @@
+package utils;
+
+import com.amazonaws.services.dynamodbv2.document.utils.NameMap;
+import com.amazonaws.services.dynamodbv2.document.utils.ValueMap;
+import imports.Globals;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.StringJoiner;
+import models.LazyModelMap;
+import models.OwnedExercise;
+import models.User;
+
+/**
+ * Tracks the owned exercises of a user so that only what a manager changed in them is written back, instead of the
+ * whole exercises map. Take the snapshot before mutating the user and add the diff to the user's update once done.
+ * <p>
+ * Exercises that come from the user's {@link ExerciseCatalogue} are not on the item until they are changed, so they
+ * are written whole the first time and deleting one writes a tombstone over it.
+ * <p>
+ * Only the exercises that were already parsed when tracking starts are copied. The others keep the attributes they
+ * were read with, so an exercise that is never parsed is unchanged and one that is gets compared with its attributes.
+ */
+public class OwnedExercisesDiff {
+
+    private final Map<String, OwnedExercise> parsedBefore;
+    private final Map<String, Map<String, Object>> unparsedBefore;
+    private final LazyModelMap<OwnedExercise> after;
+    private final ExerciseCatalogue catalogue; // null if the user stores all of their exercises
+    private final Set<String> storedExerciseIds;
+
+    private OwnedExercisesDiff(final LazyModelMap<OwnedExercise> ownedExercises, final ExerciseCatalogue catalogue,
+        final Set<String> storedExerciseIds) {
+        this.parsedBefore = new HashMap<>();
+        for (Map.Entry<String, OwnedExercise> entry : ownedExercises.getParsed().entrySet()) {
+            this.parsedBefore.put(entry.getKey(), new OwnedExercise(entry.getValue().asMap()));
+        }
+        this.unparsedBefore = ownedExercises.getUnparsedAttributes();
+        this.after = ownedExercises;
+        this.catalogue = catalogue;
+        this.storedExerciseIds = storedExerciseIds;
+    }
+
+    /**
+     * @param user user whose owned exercises are about to be changed.
+     * @return diff that compares the current owned exercises of the user with the ones it has when the diff is added
+     * to an update.
+     */
+    public static OwnedExercisesDiff track(final User user) {
+        return new OwnedExercisesDiff(user.getOwnedExercises(), user.getExerciseCatalogue(),
+            user.getStoredExerciseIds());
+    }
+
+    /**
+     * Adds the clauses needed to bring the stored exercises up to date to the given update of the user item. If the
+     * resulting expression would be too long for dynamo, the whole exercises map is written instead.
+     *
+     * @param updateUserItemData update of the user item the exercises belong to.
+     * @return the given update.
+     */
+    public UpdateItemTemplate addTo(final UpdateItemTemplate updateUserItemData) {
+        final UpdateItemTemplate diff = this.asUpdateItemTemplate(updateUserItemData);
+        if (diff.getUpdateExpression() == null) {
+            return updateUserItemData;
+        }
+
+        final int currentLength = updateUserItemData.getUpdateExpression() == null
+            ? 0 : updateUserItemData.getUpdateExpression().length();
+        if (currentLength + diff.getUpdateExpression().length() + 1 > Globals.MAX_UPDATE_EXPRESSION_LENGTH) {
+            return updateUserItemData.merge(new UpdateItemTemplate(updateUserItemData.getKeyValue(),
+                updateUserItemData.getTableName())
+                .withUpdateExpression("set " + User.EXERCISES + " = :oeAll")
+                .withValueMap(new ValueMap().withMap(":oeAll", this.getOwnedExercisesMap())));
+        }
+        return updateUserItemData.merge(diff);
+    }
+
+    private UpdateItemTemplate asUpdateItemTemplate(final UpdateItemTemplate updateUserItemData) {
+        final StringJoiner setClauses = new StringJoiner(", ");
+        final StringJoiner removeClauses = new StringJoiner(", ");
+        final NameMap nameMap = new NameMap();
+        final ValueMap valueMap = new ValueMap();
+        final Map<String, String> namePlaceholders = new HashMap<>();
+        int valueCount = 0;
+
+        final Set<String> exerciseIdsBefore = new HashSet<>(this.parsedBefore.keySet());
+        exerciseIdsBefore.addAll(this.unparsedBefore.keySet());
+        for (String exerciseId : exerciseIdsBefore) {
+            if (this.after.containsKey(exerciseId)) {
+                continue;
+            }
+            final String exercisePath = User.EXERCISES + "." + placeholder(exerciseId, namePlaceholders, nameMap);
+            if (this.catalogue != null && this.catalogue.contains(exerciseId)) {
+                // it would come back from the catalogue if it were just removed
+                final String value = ":oe" + valueCount++;
+                setClauses.add(exercisePath + " = " + value);
+                valueMap.withMap(value, ExerciseCatalogue.tombstone());
+            } else {
+                removeClauses.add(exercisePath);
+            }
+        }
+
+        // exercises that are still not parsed can't have been changed
+        for (Map.Entry<String, OwnedExercise> entry : this.after.getParsed().entrySet()) {
+            final OwnedExercise oldExercise = this.getBefore(entry.getKey());
+            final OwnedExercise newExercise = entry.getValue();
+            if (oldExercise != null && oldExercise.asMap().equals(newExercise.asMap())) {
+                continue;
+            }
+
+            // only exercises that are written get a placeholder, dynamo rejects names the expression doesn't use
+            final String exercisePath =
+                User.EXERCISES + "." + placeholder(entry.getKey(), namePlaceholders, nameMap);
+            if (oldExercise == null || !sameDefinition(oldExercise, newExercise)
+                || !this.storedExerciseIds.contains(entry.getKey())) {
+                // new exercise, one of its rarely changed fields is different or it is only in the catalogue so far,
+                // so just write all of it
+                final String value = ":oe" + valueCount++;
+                setClauses.add(exercisePath + " = " + value);
+                valueMap.withMap(value, newExercise.asMap());
+                continue;
+            }
+
+            if (!Objects.equals(oldExercise.getDefaultWeight(), newExercise.getDefaultWeight())) {
+                final String value = ":oe" + valueCount++;
+                setClauses.add(exercisePath + "." + OwnedExercise.DEFAULT_WEIGHT + " = " + value);
+                valueMap.withNumber(value, newExercise.getDefaultWeight());
+            }
+
+            final Map<String, String> oldWorkouts = oldExercise.getWorkouts();
+            final Map<String, String> newWorkouts = newExercise.getWorkouts();
+            for (String workoutId : oldWorkouts.keySet()) {
+                if (!newWorkouts.containsKey(workoutId)) {
+                    removeClauses.add(exercisePath + "." + User.WORKOUTS + "."
+                        + placeholder(workoutId, namePlaceholders, nameMap));
+                }
+            }
+            for (Map.Entry<String, String> workout : newWorkouts.entrySet()) {
+                if (!workout.getValue().equals(oldWorkouts.get(workout.getKey()))) {
+                    final String value = ":oe" + valueCount++;
+                    setClauses.add(exercisePath + "." + User.WORKOUTS + "."
+                        + placeholder(workout.getKey(), namePlaceholders, nameMap) + " = " + value);
+                    valueMap.withString(value, workout.getValue());
+                }
+            }
+        }
+
+        final StringJoiner expression = new StringJoiner(" ");
+        if (setClauses.length() > 0) {
+            expression.add("set " + setClauses);
+        }
+        if (removeClauses.length() > 0) {
+            expression.add("remove " + removeClauses);
+        }
+
+        final UpdateItemTemplate diff = new UpdateItemTemplate(updateUserItemData.getKeyValue(),
+            updateUserItemData.getTableName());
+        if (expression.length() > 0) {
+            diff.withUpdateExpression(expression.toString());
+            if (!nameMap.isEmpty()) {
+                diff.withNameMap(nameMap);
+            }
+            if (!valueMap.isEmpty()) {
+                diff.withValueMap(valueMap);
+            }
+        }
+        return diff;
+    }
+
+    // the exercise as it was when tracking started, null if it did not exist then
+    private OwnedExercise getBefore(final String exerciseId) {
+        final OwnedExercise parsed = this.parsedBefore.get(exerciseId);
+        if (parsed != null) {
+            return parsed;
+        }
+        final Map<String, Object> attributes = this.unparsedBefore.get(exerciseId);
+        return attributes == null ? null : new OwnedExercise(attributes);
+    }
+
+    private Map<String, Map<String, Object>> getOwnedExercisesMap() {
+        final Map<String, Map<String, Object>> ownedExercisesMap = this.after.asAttributes(OwnedExercise::asMap);
+        return this.catalogue == null ? ownedExercisesMap : this.catalogue.toStored(ownedExercisesMap);
+    }
+
+    private static String placeholder(final String name, final Map<String, String> namePlaceholders,
+        final NameMap nameMap) {
+        return namePlaceholders.computeIfAbsent(name, k -> {
+            final String placeholder = "#oe" + namePlaceholders.size();
+            nameMap.with(placeholder, name);
+            return placeholder;
+        });
+    }
+
+    private static boolean sameDefinition(final OwnedExercise a, final OwnedExercise b) {
+        return Objects.equals(a.getExerciseName(), b.getExerciseName())
+            && Objects.equals(a.getDefaultSets(), b.getDefaultSets())
+            && Objects.equals(a.getDefaultReps(), b.getDefaultReps())
+            && Objects.equals(a.getDefaultDetails(), b.getDefaultDetails())
+            && Objects.equals(a.getVideoUrl(), b.getVideoUrl())
+            && Objects.equals(a.getFocuses(), b.getFocuses())
+            && a.getWorkouts() != null && b.getWorkouts() != null;
+    }
+}
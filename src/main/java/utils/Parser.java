@@ -9,6 +9,14 @@ public class Parser {
         }
     }
 
+    public static Long convertObjectToLong(Object object) {
+        if (object != null) {
+            return Long.parseLong(object.toString());
+        } else {
+            return null;
+        }
+    }
+
     public static Double convertObjectToDouble(Object object) {
         if (object != null) {
             return Double.parseDouble(object.toString());
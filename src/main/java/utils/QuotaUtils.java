@@ -0,0 +1,55 @@
+package utils;
+
+import com.amazonaws.services.dynamodbv2.document.utils.ValueMap;
+import daos.UserDAO;
+import imports.Globals;
+import models.User;
+
+/**
+ * Conditions that keep the sections and counters of a user within their limits. Each one is merged into the update
+ * that adds to the section, so the limit holds however many requests add to it at the same time. The checks managers
+ * do on the user they read are only there to tell the user which limit was hit.
+ */
+public class QuotaUtils {
+
+    public static UpdateItemTemplate getRoomForFriend(final String username) {
+        return getRoomInSection(username, User.FRIENDS, ":maxFriends", Globals.MAX_NUMBER_FRIENDS);
+    }
+
+    public static UpdateItemTemplate getRoomForFriendRequest(final String username) {
+        return getRoomInSection(username, User.FRIEND_REQUESTS, ":maxFriendRequests", Globals.MAX_FRIEND_REQUESTS);
+    }
+
+    public static UpdateItemTemplate getRoomForBlocked(final String username) {
+        return getRoomInSection(username, User.BLOCKED, ":maxBlocked", Globals.MAX_BLOCKED);
+    }
+
+    /**
+     * @param premiumToken premium token of the user as it was read, null if they are not premium.
+     */
+    public static UpdateItemTemplate getRoomForWorkout(final String username, final String premiumToken) {
+        return getRoomInSection(username, User.WORKOUTS, ":maxWorkouts",
+            premiumToken == null ? Globals.MAX_FREE_WORKOUTS : Globals.MAX_WORKOUTS);
+    }
+
+    /**
+     * @return update that counts one more sent workout, failing if the user already sent as many as they can.
+     */
+    public static UpdateItemTemplate getIncrementWorkoutsSent(final String username) {
+        return new UpdateItemTemplate(username, UserDAO.USERS_TABLE_NAME)
+            .withUpdateExpression("add " + User.WORKOUTS_SENT + " :sentIncrement")
+            .withConditionExpression("attribute_not_exists(" + User.WORKOUTS_SENT + ") or "
+                + User.WORKOUTS_SENT + " < :maxSent")
+            .withValueMap(new ValueMap()
+                .withInt(":sentIncrement", 1)
+                .withInt(":maxSent", Globals.MAX_FREE_WORKOUTS_SENT));
+    }
+
+    // condition that the section has room for one more entry
+    private static UpdateItemTemplate getRoomInSection(final String username, final String attributeName,
+        final String maxValue, final int max) {
+        return new UpdateItemTemplate(username, UserDAO.USERS_TABLE_NAME)
+            .withConditionExpression("size(" + attributeName + ") < " + maxValue)
+            .withValueMap(new ValueMap().withInt(maxValue, max));
+    }
+}
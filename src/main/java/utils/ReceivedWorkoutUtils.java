@@ -0,0 +1,59 @@
+package utils;
+
+import com.amazonaws.services.dynamodbv2.document.utils.NameMap;
+import com.amazonaws.services.dynamodbv2.document.utils.ValueMap;
+import daos.ReceivedWorkoutDAO;
+import daos.UserDAO;
+import models.SharedWorkoutMeta;
+import models.User;
+
+public class ReceivedWorkoutUtils {
+
+    /**
+     * @param sentAtValue placeholder of the epoch millis a received workout was sent at.
+     * @return condition on the recipient that holds while their received workouts seen watermark does not cover the
+     * workout, i.e. while the workout is counted as unseen unless it was set to seen on its own.
+     */
+    public static String getNotCoveredBySeenAtCondition(final String sentAtValue) {
+        return "attribute_not_exists(" + User.RECEIVED_WORKOUTS_SEEN_AT + ") or "
+            + User.RECEIVED_WORKOUTS_SEEN_AT + " < " + sentAtValue;
+    }
+
+    /**
+     * @param recipient       user the workout was sent to.
+     * @param receivedWorkout received workout as it was read.
+     * @return delete of the received workout. It fails if the workout was set to seen since it was read, since the
+     * counters of the recipient are decremented based on it.
+     */
+    public static UpdateItemTemplate getRemoveReceivedWorkout(final String recipient,
+        final SharedWorkoutMeta receivedWorkout) {
+        return new UpdateItemTemplate(recipient, ReceivedWorkoutDAO.RECEIVED_WORKOUTS_TABLE_NAME)
+            .withSortKeyValue(receivedWorkout.getWorkoutId())
+            .withConditionExpression("#seen = :seenVal")
+            .withNameMap(new NameMap().with("#seen", SharedWorkoutMeta.SEEN))
+            .withValueMap(new ValueMap().withBoolean(":seenVal", receivedWorkout.isSeen()));
+    }
+
+    /**
+     * @param recipient              user the workout was sent to.
+     * @param receivedWorkout        received workout that is being removed.
+     * @param receivedWorkoutsSeenAt received workouts seen watermark of the recipient as it was read.
+     * @return update of the recipient that takes the workout out of their received workout counters. If the workout
+     * is unseen, it fails if the watermark was moved past the workout since it was read.
+     */
+    public static UpdateItemTemplate getDecrementReceivedCounters(final String recipient,
+        final SharedWorkoutMeta receivedWorkout, final Long receivedWorkoutsSeenAt) {
+        final UpdateItemTemplate updateItemTemplate = new UpdateItemTemplate(recipient, UserDAO.USERS_TABLE_NAME)
+            .withUpdateExpression("add " + User.TOTAL_RECEIVED_WORKOUTS + " :receivedDecrement");
+        final ValueMap valueMap = new ValueMap().withInt(":receivedDecrement", -1);
+        if (!receivedWorkout.isSeenAsOf(receivedWorkoutsSeenAt)) {
+            updateItemTemplate.withUpdateExpression(updateItemTemplate.getUpdateExpression() + ", "
+                + User.UNSEEN_RECEIVED_WORKOUTS + " :receivedDecrement");
+            if (receivedWorkout.getSentAt() != null) {
+                updateItemTemplate.withConditionExpression(getNotCoveredBySeenAtCondition(":receivedSentAt"));
+                valueMap.withLong(":receivedSentAt", receivedWorkout.getSentAt());
+            }
+        }
+        return updateItemTemplate.withValueMap(valueMap);
+    }
+}
@@ -0,0 +1,65 @@
+package utils;
+
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import daos.ReceivedWorkoutDAO;
+import exceptions.ManagerExecutionException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Opaque position in the received workouts of a user, given to the frontend so it can fetch the next batch. It holds
+ * the (sentAt, workoutId) of the last workout of a batch, which is all that is needed to resume the query right after
+ * it. The recipient is never part of the cursor, it is always the user making the request.
+ */
+public class ReceivedWorkoutsCursor {
+
+    private static final String SEPARATOR = "/";
+
+    /**
+     * @param lastEvaluatedKey last evaluated key of a query on the sent at index, may be null.
+     * @return cursor of the batch after the queried one, or null if there is none.
+     */
+    public static String encode(final Map<String, AttributeValue> lastEvaluatedKey) {
+        if (lastEvaluatedKey == null) {
+            return null;
+        }
+        final String position = lastEvaluatedKey.get(ReceivedWorkoutDAO.SENT_AT_INDEX_SORT_KEY).getN() + SEPARATOR
+            + lastEvaluatedKey.get(ReceivedWorkoutDAO.RECEIVED_WORKOUTS_SORT_KEY).getS();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param recipient user whose received workouts are being fetched.
+     * @param cursor    cursor given out with the previous batch, null for the first batch.
+     * @return key to start the query of the next batch after, or null to start at the newest workout.
+     * @throws ManagerExecutionException if the cursor was not given out by this service.
+     */
+    public static Map<String, AttributeValue> decode(final String recipient, final String cursor)
+        throws ManagerExecutionException {
+        if (cursor == null) {
+            return null;
+        }
+
+        final String position;
+        try {
+            position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new ManagerExecutionException("Invalid received workouts cursor.");
+        }
+        final int separator = position.indexOf(SEPARATOR);
+        if (separator <= 0 || separator == position.length() - 1
+            || !position.substring(0, separator).chars().allMatch(Character::isDigit)) {
+            throw new ManagerExecutionException("Invalid received workouts cursor.");
+        }
+
+        final Map<String, AttributeValue> startKey = new HashMap<>();
+        startKey.put(ReceivedWorkoutDAO.RECEIVED_WORKOUTS_PARTITION_KEY, new AttributeValue(recipient));
+        startKey.put(ReceivedWorkoutDAO.SENT_AT_INDEX_SORT_KEY,
+            new AttributeValue().withN(position.substring(0, separator)));
+        startKey.put(ReceivedWorkoutDAO.RECEIVED_WORKOUTS_SORT_KEY,
+            new AttributeValue(position.substring(separator + 1)));
+        return startKey;
+    }
+}
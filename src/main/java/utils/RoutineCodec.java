@@ -0,0 +1,237 @@
+package utils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Pattern;
+import models.Routine;
+import models.RoutineDay;
+import models.RoutineExercise;
+import models.RoutineWeek;
+
+/**
+ * Packs a routine into the binary form stored in {@link models.Workout#ROUTINE_PACKED}, which is a fraction of the
+ * size of the map form as no attribute names are repeated for every exercise. The first byte is the version of the
+ * format, so a packed routine can always be read by the version that wrote it.
+ * <p>
+ * Version 1 is, with every count and number a varint:
+ * <ul>
+ *     <li>the distinct exercise ids of the routine, each as 16 bytes if it is a UUID or a string otherwise</li>
+ *     <li>the weeks, each with its days, each with its tag and its exercises. An exercise is the index of its id,
+ *     the weight in thousandths, the sets, the reps and the details. Any of these but the index may be null</li>
+ *     <li>whether each exercise is completed, as a bitset in the order of the exercises</li>
+ * </ul>
+ */
+public class RoutineCodec {
+
+    public static final int CURRENT_VERSION = 1;
+    // weights are stored as a whole number of thousandths
+    private static final double WEIGHT_SCALE = 1000.0;
+    private static final double MAX_WEIGHT = 1e12;
+    private static final int UUID_ID = 0;
+    private static final int STRING_ID = 1;
+    private static final Pattern UUID_PATTERN = Pattern
+        .compile("[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}");
+
+    /**
+     * @return false if the routine has a weight that can't be stored in thousandths, in which case it has to be
+     * stored as a map.
+     */
+    public static boolean canEncode(final Routine routine) {
+        for (RoutineWeek week : routine) {
+            for (RoutineDay day : week) {
+                for (RoutineExercise exercise : day) {
+                    final Double weight = exercise.getWeight();
+                    if (weight != null && (Math.abs(weight) > MAX_WEIGHT
+                        || Math.round(weight * WEIGHT_SCALE) / WEIGHT_SCALE != weight)) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param routine routine that {@link #canEncode} it.
+     * @return the routine in the current version of the format.
+     */
+    public static byte[] encode(final Routine routine) {
+        if (!canEncode(routine)) {
+            throw new IllegalArgumentException("Routine has a weight that can't be packed");
+        }
+
+        final Map<String, Integer> idIndexes = new HashMap<>();
+        final List<String> ids = new ArrayList<>();
+        for (RoutineWeek week : routine) {
+            for (RoutineDay day : week) {
+                for (RoutineExercise exercise : day) {
+                    if (!idIndexes.containsKey(exercise.getExerciseId())) {
+                        idIndexes.put(exercise.getExerciseId(), ids.size());
+                        ids.add(exercise.getExerciseId());
+                    }
+                }
+            }
+        }
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(CURRENT_VERSION);
+        writeVarint(out, ids.size());
+        for (String id : ids) {
+            if (UUID_PATTERN.matcher(id).matches()) {
+                final UUID uuid = UUID.fromString(id);
+                out.write(UUID_ID);
+                writeLong(out, uuid.getMostSignificantBits());
+                writeLong(out, uuid.getLeastSignificantBits());
+            } else {
+                out.write(STRING_ID);
+                writeString(out, id);
+            }
+        }
+
+        final BitSet completed = new BitSet();
+        int exerciseCount = 0;
+        writeVarint(out, routine.getNumberOfWeeks());
+        for (RoutineWeek week : routine) {
+            writeVarint(out, week.getNumberOfDays());
+            for (RoutineDay day : week) {
+                writeString(out, day.getTag());
+                writeVarint(out, day.getExercises().size());
+                for (RoutineExercise exercise : day) {
+                    writeVarint(out, idIndexes.get(exercise.getExerciseId()));
+                    writeNullable(out, exercise.getWeight() == null
+                        ? null : Math.round(exercise.getWeight() * WEIGHT_SCALE));
+                    writeNullable(out, exercise.getSets() == null ? null : (long) exercise.getSets());
+                    writeNullable(out, exercise.getReps() == null ? null : (long) exercise.getReps());
+                    writeString(out, exercise.getDetails());
+                    completed.set(exerciseCount++, exercise.isCompleted());
+                }
+            }
+        }
+        // trailing bytes of the bitset that are all zero are left out, every exercise after them is not completed
+        final byte[] completedBytes = completed.toByteArray();
+        out.write(completedBytes, 0, completedBytes.length);
+        return out.toByteArray();
+    }
+
+    /**
+     * @param packed routine packed by any version of the format.
+     * @return the routine.
+     */
+    public static Routine decode(final byte[] packed) {
+        final ByteBuffer in = ByteBuffer.wrap(packed);
+        final int version = in.get();
+        if (version != 1) {
+            throw new IllegalStateException(String.format("Unknown packed routine version %d", version));
+        }
+
+        final String[] ids = new String[(int) readVarint(in)];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = in.get() == UUID_ID
+                ? new UUID(in.getLong(), in.getLong()).toString()
+                : readString(in);
+        }
+
+        final List<RoutineExercise> exercises = new ArrayList<>();
+        final Routine routine = new Routine();
+        final long weekCount = readVarint(in);
+        for (long w = 0; w < weekCount; w++) {
+            final RoutineWeek week = new RoutineWeek();
+            final long dayCount = readVarint(in);
+            for (long d = 0; d < dayCount; d++) {
+                final RoutineDay day = new RoutineDay();
+                day.setTag(readString(in));
+                final long exerciseCount = readVarint(in);
+                for (long e = 0; e < exerciseCount; e++) {
+                    final RoutineExercise exercise = new RoutineExercise();
+                    exercise.setExerciseId(ids[(int) readVarint(in)]);
+                    final Long weight = readNullable(in);
+                    exercise.setWeight(weight == null ? null : weight / WEIGHT_SCALE);
+                    final Long sets = readNullable(in);
+                    exercise.setSets(sets == null ? null : sets.intValue());
+                    final Long reps = readNullable(in);
+                    exercise.setReps(reps == null ? null : reps.intValue());
+                    exercise.setDetails(readString(in));
+                    day.appendExercise(exercise);
+                    exercises.add(exercise);
+                }
+                week.appendDay(day);
+            }
+            routine.appendWeek(week);
+        }
+
+        final byte[] completedBytes = new byte[in.remaining()];
+        in.get(completedBytes);
+        final BitSet completed = BitSet.valueOf(completedBytes);
+        for (int i = 0; i < exercises.size(); i++) {
+            exercises.get(i).setCompleted(completed.get(i));
+        }
+        return routine;
+    }
+
+    private static void writeVarint(final ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarint(final ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            final byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+    }
+
+    // zigzag encoded so small negative numbers stay small, shifted by one so that zero can stand for null
+    private static void writeNullable(final ByteArrayOutputStream out, final Long value) {
+        writeVarint(out, value == null ? 0 : ((value << 1) ^ (value >> 63)) + 1);
+    }
+
+    private static Long readNullable(final ByteBuffer in) {
+        final long value = readVarint(in);
+        if (value == 0) {
+            return null;
+        }
+        final long zigzag = value - 1;
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+
+    // length shifted by one so that zero can stand for null
+    private static void writeString(final ByteArrayOutputStream out, final String value) {
+        if (value == null) {
+            writeVarint(out, 0);
+        } else {
+            final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarint(out, bytes.length + 1);
+            out.write(bytes, 0, bytes.length);
+        }
+    }
+
+    private static String readString(final ByteBuffer in) {
+        final int length = (int) readVarint(in);
+        if (length == 0) {
+            return null;
+        }
+        final byte[] bytes = new byte[length - 1];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeLong(final ByteArrayOutputStream out, final long value) {
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            out.write((int) (value >>> shift));
+        }
+    }
+}
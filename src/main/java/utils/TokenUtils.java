@@ -4,7 +4,7 @@ import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.auth0.jwk.Jwk;
 import com.auth0.jwk.JwkException;
-import com.auth0.jwk.JwkProvider;
+import com.auth0.jwk.SigningKeyNotFoundException;
 import com.auth0.jwk.UrlJwkProvider;
 import com.auth0.jwt.JWT;
 import com.auth0.jwt.algorithms.Algorithm;
@@ -14,7 +14,15 @@ import imports.Config;
 import imports.RequestFields;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.security.interfaces.RSAPublicKey;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -26,6 +34,21 @@ public class TokenUtils {
     private static final List<String> LIVE_FUNCTIONS = ImmutableList.of("ProxyEndpoint");
     private static final String EMULATED_ACTIVE_USER_KEY = "EMULATED_ACTIVE_USER";
     private static final String cognitoClaim = "cognito:username";
+    private static final int JWKS_TIMEOUT_MILLIS = 2000;
+
+    // signing keys of the user pool keyed by kid. Replaced as a whole on every refresh
+    private static volatile Map<String, RSAPublicKey> signingKeys = Collections.emptyMap();
+    private static volatile long lastKeyRefresh;
+    private static UrlJwkProvider jwkProvider;
+
+    // digest of an already verified token -> the user and expiration of that token. Accessed under its own lock
+    private static final Map<String, VerifiedToken> verifiedTokens = new LinkedHashMap<String, VerifiedToken>(16,
+        0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, VerifiedToken> eldest) {
+            return size() > Config.VERIFIED_TOKEN_CACHE_SIZE;
+        }
+    };
 
     public static String getActiveUserFromRequest(APIGatewayProxyRequestEvent request, Context context)
         throws JwkException, MalformedURLException {
@@ -44,16 +67,113 @@ public class TokenUtils {
 
         String token = authorization.substring(RequestFields.BEARER.length());
 
-        DecodedJWT jwt = JWT.decode(token);
+        String tokenDigest = digest(token);
+        String verifiedUser = getVerifiedUser(tokenDigest);
+        if (verifiedUser != null) {
+            return verifiedUser;
+        }
 
-        JwkProvider provider = new UrlJwkProvider(new URL(PUBLIC_RSA_KEY_URL));
-        Jwk jwk = provider.get(jwt.getKeyId());
+        DecodedJWT jwt = JWT.decode(token);
 
-        Algorithm algorithm = Algorithm.RSA256((RSAPublicKey) jwk.getPublicKey(), null);
+        Algorithm algorithm = Algorithm.RSA256(getSigningKey(jwt.getKeyId()), null);
 
         algorithm.verify(jwt);
 
-        return jwt.getClaim(cognitoClaim).asString();
+        String activeUser = jwt.getClaim(cognitoClaim).asString();
+        Date expiresAt = jwt.getExpiresAt();
+        if (activeUser != null && expiresAt != null) {
+            // tokens without an expiration are never cached since there would be no point at which to evict them
+            putVerifiedUser(tokenDigest, new VerifiedToken(activeUser, expiresAt.getTime()));
+        }
+        return activeUser;
+    }
+
+    private static RSAPublicKey getSigningKey(final String keyId) throws JwkException, MalformedURLException {
+        final long now = System.currentTimeMillis();
+        RSAPublicKey key = signingKeys.get(keyId);
+        if (key != null && now - lastKeyRefresh < Config.JWKS_REFRESH_MILLIS) {
+            return key;
+        }
+
+        synchronized (TokenUtils.class) {
+            key = signingKeys.get(keyId);
+            final boolean expired = now - lastKeyRefresh >= Config.JWKS_REFRESH_MILLIS;
+            // an unknown kid most likely means cognito rotated its keys, but don't let bogus ids hammer the endpoint
+            final boolean forcedRefreshAllowed = now - lastKeyRefresh >= Config.JWKS_MIN_FORCED_REFRESH_MILLIS;
+            if (expired || (key == null && forcedRefreshAllowed)) {
+                try {
+                    refreshSigningKeys();
+                    key = signingKeys.get(keyId);
+                } catch (JwkException e) {
+                    if (key == null) {
+                        throw e;
+                    }
+                    // keep using the stale key rather than failing the request because the endpoint had a hiccup
+                }
+            }
+        }
+
+        if (key == null) {
+            throw new SigningKeyNotFoundException("No key found in " + PUBLIC_RSA_KEY_URL + " with kid " + keyId,
+                null);
+        }
+        return key;
+    }
+
+    private static void refreshSigningKeys() throws JwkException, MalformedURLException {
+        if (jwkProvider == null) {
+            jwkProvider = new UrlJwkProvider(new URL(PUBLIC_RSA_KEY_URL), JWKS_TIMEOUT_MILLIS, JWKS_TIMEOUT_MILLIS);
+        }
+
+        final Map<String, RSAPublicKey> refreshedKeys = new HashMap<>();
+        for (Jwk jwk : jwkProvider.getAll()) {
+            refreshedKeys.put(jwk.getId(), (RSAPublicKey) jwk.getPublicKey());
+        }
+        signingKeys = Collections.unmodifiableMap(refreshedKeys);
+        lastKeyRefresh = System.currentTimeMillis();
+    }
+
+    private static String getVerifiedUser(final String tokenDigest) {
+        synchronized (verifiedTokens) {
+            final VerifiedToken verifiedToken = verifiedTokens.get(tokenDigest);
+            if (verifiedToken == null) {
+                return null;
+            }
+            if (verifiedToken.expiresAt <= System.currentTimeMillis()) {
+                verifiedTokens.remove(tokenDigest);
+                return null;
+            }
+            return verifiedToken.username;
+        }
+    }
+
+    private static void putVerifiedUser(final String tokenDigest, final VerifiedToken verifiedToken) {
+        if (verifiedToken.expiresAt <= System.currentTimeMillis()) {
+            return;
+        }
+        synchronized (verifiedTokens) {
+            verifiedTokens.put(tokenDigest, verifiedToken);
+        }
+    }
+
+    private static String digest(final String token) {
+        try {
+            final MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(messageDigest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            // every JVM is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
     }
 
+    private static class VerifiedToken {
+
+        private final String username;
+        private final long expiresAt;
+
+        private VerifiedToken(final String username, final long expiresAt) {
+            this.username = username;
+            this.expiresAt = expiresAt;
+        }
+    }
 }
@@ -4,28 +4,58 @@ import com.amazonaws.services.dynamodbv2.document.spec.UpdateItemSpec;
 import com.amazonaws.services.dynamodbv2.document.utils.NameMap;
 import com.amazonaws.services.dynamodbv2.document.utils.ValueMap;
 import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.ConditionCheck;
 import com.amazonaws.services.dynamodbv2.model.Delete;
 import com.amazonaws.services.dynamodbv2.model.Update;
 import daos.Database;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Objects;
+import java.util.StringJoiner;
+import java.util.function.BiConsumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import lombok.Data;
 
 @Data
 public class UpdateItemTemplate {
 
+    // an action keyword starts a new section unless it is part of a path or placeholder
+    private static final Pattern ACTION_KEYWORD = Pattern
+        .compile("(?i)(?<![\\w#:.])(set|remove|add|delete)(?=\\s)");
+
+    // attribute that is incremented on every versioned write of an item
+    public static final String VERSION = "version";
+    private static final String VERSION_NAME = "#itemVersion";
+    private static final String EXPECTED_VERSION_VALUE = ":expectedItemVersion";
+    private static final String VERSION_INCREMENT_VALUE = ":itemVersionIncrement";
+
     private final String keyValue;
     private final String tableName;
 
+    private String sortKeyValue;
     private String updateExpression;
+    private String conditionExpression;
     private ValueMap valueMap;
     private NameMap nameMap;
+    private boolean versioned;
+    private Integer expectedVersion;
 
     public UpdateItemTemplate(final String keyValue, final String tableName) {
         this.keyValue = keyValue;
         this.tableName = tableName;
     }
 
+    /**
+     * @param sortKeyValue value of the sort key of the item, for tables that have one.
+     * @return this template.
+     */
+    public UpdateItemTemplate withSortKeyValue(final String sortKeyValue) {
+        this.sortKeyValue = sortKeyValue;
+        return this;
+    }
+
     public UpdateItemTemplate withUpdateExpression(final String updateExpression) {
         this.updateExpression = updateExpression;
         return this;
@@ -41,50 +71,250 @@ public class UpdateItemTemplate {
         return this;
     }
 
+    public UpdateItemTemplate withConditionExpression(final String conditionExpression) {
+        this.conditionExpression = conditionExpression;
+        return this;
+    }
+
+    /**
+     * Only writes the item if it still has the version it had when it was read, and increments the version when it
+     * does. Items written before versioning existed have no version, which is what a null version expects.
+     *
+     * @param expectedVersion version of the item as it was read.
+     * @return this template.
+     */
+    public UpdateItemTemplate withExpectedVersion(final Integer expectedVersion) {
+        this.versioned = true;
+        this.expectedVersion = expectedVersion;
+        return this;
+    }
+
+    /**
+     * Merges the clauses, names and values of another update on the same item into this one so that both are written
+     * by a single expression. Clauses of the same action are combined into one section and both conditions have to
+     * hold. If the other update is versioned, so is the merged one.
+     *
+     * @param other update on the same item. Its placeholders must not clash with the ones of this update.
+     * @return this template.
+     */
+    public UpdateItemTemplate merge(final UpdateItemTemplate other) {
+        if (other.versioned) {
+            this.versioned = true;
+            this.expectedVersion = other.expectedVersion;
+        }
+        this.updateExpression = mergeUpdateExpressions(this.updateExpression, other.updateExpression);
+        if (other.conditionExpression != null) {
+            this.conditionExpression = this.conditionExpression == null
+                ? other.conditionExpression
+                : "(" + this.conditionExpression + ") and (" + other.conditionExpression + ")";
+        }
+
+        if (other.valueMap != null) {
+            if (this.valueMap == null) {
+                this.valueMap = new ValueMap();
+            }
+            this.valueMap.putAll(other.valueMap);
+        }
+        if (other.nameMap != null) {
+            if (this.nameMap == null) {
+                this.nameMap = new NameMap();
+            }
+            this.nameMap.putAll(other.nameMap);
+        }
+        return this;
+    }
+
+    /**
+     * @param other update on the same item.
+     * @return whether {@link #merge} can combine the two, i.e. they don't use the same placeholder for different names
+     * or values and don't expect different versions of the item.
+     */
+    public boolean isMergeableWith(final UpdateItemTemplate other) {
+        if (this.versioned && other.versioned && !Objects.equals(this.expectedVersion, other.expectedVersion)) {
+            return false;
+        }
+        return agree(this.valueMap, other.valueMap) && agree(this.nameMap, other.nameMap);
+    }
+
+    private static boolean agree(final Map<String, ?> first, final Map<String, ?> second) {
+        if (first == null || second == null) {
+            return true;
+        }
+        for (Map.Entry<String, ?> entry : second.entrySet()) {
+            if (first.containsKey(entry.getKey()) && !Objects.equals(first.get(entry.getKey()), entry.getValue())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String mergeUpdateExpressions(final String first, final String second) {
+        final Map<String, StringJoiner> sections = new LinkedHashMap<>();
+        addSections(first, sections);
+        addSections(second, sections);
+
+        final StringJoiner mergedExpression = new StringJoiner(" ");
+        for (Map.Entry<String, StringJoiner> section : sections.entrySet()) {
+            mergedExpression.add(section.getKey() + " " + section.getValue());
+        }
+        return mergedExpression.toString();
+    }
+
+    private static void addSections(final String updateExpression, final Map<String, StringJoiner> sections) {
+        if (updateExpression == null) {
+            return;
+        }
+        final Matcher matcher = ACTION_KEYWORD.matcher(updateExpression);
+        String action = null;
+        int sectionStart = 0;
+        while (matcher.find()) {
+            addSection(action, updateExpression.substring(sectionStart, matcher.start()), sections);
+            action = matcher.group(1).toLowerCase();
+            sectionStart = matcher.end();
+        }
+        addSection(action, updateExpression.substring(sectionStart), sections);
+    }
+
+    private static void addSection(final String action, final String clauses,
+        final Map<String, StringJoiner> sections) {
+        if (action != null && !clauses.trim().isEmpty()) {
+            sections.computeIfAbsent(action, k -> new StringJoiner(", ")).add(clauses.trim());
+        }
+    }
+
     public UpdateItemSpec asUpdateItemSpec() throws Exception {
         final UpdateItemSpec updateItemSpec = new UpdateItemSpec()
-            .withPrimaryKey(Database.getKeyIndex(this.tableName), this.keyValue)
-            .withUpdateExpression(this.updateExpression);
+            .withUpdateExpression(this.getWrittenUpdateExpression());
+        if (this.sortKeyValue == null) {
+            updateItemSpec.withPrimaryKey(Database.getKeyIndex(this.tableName), this.keyValue);
+        } else {
+            updateItemSpec.withPrimaryKey(Database.getKeyIndex(this.tableName), this.keyValue,
+                Database.getSortKeyIndex(this.tableName), this.sortKeyValue);
+        }
 
-        if (this.valueMap != null) {
-            updateItemSpec.withValueMap(this.valueMap);
+        final String writtenConditionExpression = this.getWrittenConditionExpression();
+        if (writtenConditionExpression != null) {
+            updateItemSpec.withConditionExpression(writtenConditionExpression);
         }
 
-        if (this.nameMap != null) {
-            updateItemSpec.withNameMap(this.nameMap);
+        final ValueMap writtenValueMap = this.getWrittenValueMap(true);
+        if (writtenValueMap != null) {
+            updateItemSpec.withValueMap(writtenValueMap);
+        }
+
+        final NameMap writtenNameMap = this.getWrittenNameMap();
+        if (writtenNameMap != null) {
+            updateItemSpec.withNameMap(writtenNameMap);
         }
 
         return updateItemSpec;
     }
 
     public Update asUpdate() throws Exception {
-        final Update update = new Update().withUpdateExpression(this.updateExpression).withTableName(this.tableName)
-            .withKey(this.getKeyMap());
+        final Update update = new Update().withUpdateExpression(this.getWrittenUpdateExpression())
+            .withTableName(this.tableName)
+            .withKey(this.getKeyMap())
+            .withConditionExpression(this.getWrittenConditionExpression());
+        this.addExpressionAttributes(this.getWrittenValueMap(true), update::addExpressionAttributeValuesEntry,
+            update::addExpressionAttributeNamesEntry);
+        return update;
+    }
 
-        if (this.valueMap != null) {
-            for (final String key : this.valueMap.keySet()) {
-                update.addExpressionAttributeValuesEntry(key,
-                    AttributeValueUtils.convertObjectToAttributeValue(valueMap.get(key)));
+    public Delete asDelete() throws Exception {
+        final Delete delete = new Delete().withTableName(this.tableName).withKey(this.getKeyMap());
+        if (this.getWrittenConditionExpression() != null) {
+            // a delete has no update expression, so names and values are only needed by its condition
+            delete.withConditionExpression(this.getWrittenConditionExpression());
+            this.addExpressionAttributes(this.getWrittenValueMap(false), delete::addExpressionAttributeValuesEntry,
+                delete::addExpressionAttributeNamesEntry);
+        }
+        return delete;
+    }
+
+    /**
+     * @return check of the condition of this template without writing anything, for items a transaction depends on
+     * but does not change.
+     */
+    public ConditionCheck asConditionCheck() throws Exception {
+        final ConditionCheck conditionCheck = new ConditionCheck().withTableName(this.tableName)
+            .withKey(this.getKeyMap())
+            .withConditionExpression(this.getWrittenConditionExpression());
+        this.addExpressionAttributes(this.getWrittenValueMap(false), conditionCheck::addExpressionAttributeValuesEntry,
+            conditionCheck::addExpressionAttributeNamesEntry);
+        return conditionCheck;
+    }
+
+    private void addExpressionAttributes(final ValueMap writtenValueMap,
+        final BiConsumer<String, AttributeValue> valueConsumer, final BiConsumer<String, String> nameConsumer) {
+        if (writtenValueMap != null) {
+            for (final String key : writtenValueMap.keySet()) {
+                valueConsumer.accept(key, AttributeValueUtils.convertObjectToAttributeValue(writtenValueMap.get(key)));
             }
         }
 
-        if (this.nameMap != null) {
-            for (final Map.Entry entry : this.nameMap.entrySet()) {
-                update.addExpressionAttributeNamesEntry(entry.getKey().toString(), entry.getValue().toString());
+        final NameMap writtenNameMap = this.getWrittenNameMap();
+        if (writtenNameMap != null) {
+            for (final Map.Entry<String, String> entry : writtenNameMap.entrySet()) {
+                nameConsumer.accept(entry.getKey(), entry.getValue());
             }
         }
+    }
 
-        return update;
+    private String getWrittenUpdateExpression() {
+        if (!this.versioned) {
+            return this.updateExpression;
+        }
+        return mergeUpdateExpressions(this.updateExpression,
+            "add " + VERSION_NAME + " " + VERSION_INCREMENT_VALUE);
     }
 
-    public Delete asDelete() throws Exception {
-        return new Delete().withTableName(this.tableName).withKey(this.getKeyMap());
+    private String getWrittenConditionExpression() {
+        if (!this.versioned) {
+            return this.conditionExpression;
+        }
+        final String versionCondition = this.expectedVersion == null
+            ? "attribute_not_exists(" + VERSION_NAME + ")"
+            : VERSION_NAME + " = " + EXPECTED_VERSION_VALUE;
+        return this.conditionExpression == null
+            ? versionCondition
+            : "(" + this.conditionExpression + ") and " + versionCondition;
+    }
+
+    private ValueMap getWrittenValueMap(final boolean incrementVersion) {
+        if (!this.versioned) {
+            return this.valueMap;
+        }
+        final ValueMap writtenValueMap = new ValueMap();
+        if (this.valueMap != null) {
+            writtenValueMap.putAll(this.valueMap);
+        }
+        if (incrementVersion) {
+            writtenValueMap.withInt(VERSION_INCREMENT_VALUE, 1);
+        }
+        if (this.expectedVersion != null) {
+            writtenValueMap.withInt(EXPECTED_VERSION_VALUE, this.expectedVersion);
+        }
+        return writtenValueMap.isEmpty() ? null : writtenValueMap;
+    }
+
+    private NameMap getWrittenNameMap() {
+        if (!this.versioned) {
+            return this.nameMap;
+        }
+        final NameMap writtenNameMap = new NameMap();
+        if (this.nameMap != null) {
+            writtenNameMap.putAll(this.nameMap);
+        }
+        writtenNameMap.with(VERSION_NAME, VERSION);
+        return writtenNameMap;
     }
 
     private Map<String, AttributeValue> getKeyMap() throws Exception {
-        final String keyIndex = Database.getKeyIndex(this.tableName);
-        return new HashMap<>() {{
-            put(keyIndex, new AttributeValue().withS(UpdateItemTemplate.this.keyValue));
-        }};
+        final Map<String, AttributeValue> keyMap = new HashMap<>();
+        keyMap.put(Database.getKeyIndex(this.tableName), new AttributeValue().withS(this.keyValue));
+        if (this.sortKeyValue != null) {
+            keyMap.put(Database.getSortKeyIndex(this.tableName), new AttributeValue().withS(this.sortKeyValue));
+        }
+        return keyMap;
     }
-}
\ No newline at end of file
+}
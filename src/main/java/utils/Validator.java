@@ -2,7 +2,6 @@ package utils;
 
 import exceptions.UnauthorizedException;
 import imports.Globals;
-import java.util.ArrayList;
 import java.util.List;
 import models.OwnedExercise;
 import models.Routine;
@@ -67,14 +66,7 @@ public class Validator {
             error.append("Workout name is too long.\n");
         }
 
-        boolean repeat = false;
-        for (String workoutId : user.getWorkoutMetas().keySet()) {
-            if (user.getWorkoutMetas().get(workoutId).getWorkoutName().equals(workoutName)) {
-                repeat = true;
-                break;
-            }
-        }
-        if (repeat) {
+        if (user.getWorkoutIdByName(workoutName) != null) {
             error.append("Workout name already exists.\n");
         }
         return error.toString().trim();
@@ -94,8 +86,8 @@ public class Validator {
         return error.toString().trim();
     }
 
-    public static String validOwnedExercise(final OwnedExercise ownedExercise,
-        final List<String> exerciseNames, final String oldExerciseName) {
+    public static String validOwnedExercise(final OwnedExercise ownedExercise, final User user,
+        final String exerciseId) {
         StringBuilder error = new StringBuilder();
         if (ownedExercise.getFocuses().isEmpty()) {
             error.append("Must have at least one focus.\n");
@@ -119,9 +111,9 @@ public class Validator {
             error.append("URL length exceeds max allowed.\n");
         }
 
-        if (!ownedExercise.getExerciseName().equals(oldExerciseName) &&
-            exerciseNames.contains(ownedExercise.getExerciseName())) {
-            // make sure to compare old name since user might not have changed name and otherwise would always get error saying exercise already exists
+        final String sameNameExerciseId = user.getExerciseIdByName(ownedExercise.getExerciseName());
+        if (sameNameExerciseId != null && !sameNameExerciseId.equals(exerciseId)) {
+            // the exercise itself keeps its name if the user did not change it, that is not a repeat
             error.append("Exercise name already exists.\n");
         }
 
@@ -132,14 +124,10 @@ public class Validator {
         final double weight, final int sets, final int reps, final String details, final String videoUrl,
         final List<String> focusList) {
         StringBuilder error = new StringBuilder();
-        List<String> exerciseNames = new ArrayList<>();
-        for (String _exerciseId : user.getOwnedExercises().keySet()) {
-            exerciseNames.add(user.getOwnedExercises().get(_exerciseId).getExerciseName());
-        }
         if (focusList.isEmpty()) {
             error.append("Must have at least one focus.\n");
         }
-        if (exerciseNames.contains(exerciseName)) {
+        if (user.getExerciseIdByName(exerciseName) != null) {
             error.append("Exercise name already exists.\n");
         }
         if (invalidExerciseName(exerciseName)) {
@@ -1,5 +1,8 @@
 package utils;
 
+import com.amazonaws.services.dynamodbv2.document.utils.NameMap;
+import com.amazonaws.services.dynamodbv2.document.utils.ValueMap;
+import daos.WorkoutDAO;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -12,9 +15,31 @@ import models.RoutineExercise;
 import models.Routine;
 import models.RoutineWeek;
 import models.User;
+import models.Workout;
 
 public class WorkoutUtils {
 
+    /**
+     * @param workoutId id of the workout whose routine is written.
+     * @param routine   the whole routine of the workout.
+     * @return update that stores the routine, packed if {@link Workout#isPackable} it, and removes the routine in the
+     * other form so that a workout never has both.
+     */
+    public static UpdateItemTemplate getRoutineUpdate(final String workoutId, final Routine routine) {
+        final UpdateItemTemplate template = new UpdateItemTemplate(workoutId, WorkoutDAO.WORKOUT_TABLE_NAME)
+            .withNameMap(new NameMap()
+                .with("#routine", Workout.ROUTINE)
+                .with("#routinePacked", Workout.ROUTINE_PACKED));
+        if (Workout.isPackable(routine)) {
+            return template
+                .withUpdateExpression("set #routinePacked = :routinePacked remove #routine")
+                .withValueMap(new ValueMap().withBinary(":routinePacked", RoutineCodec.encode(routine)));
+        }
+        return template
+            .withUpdateExpression("set #routine = :routineMap remove #routinePacked")
+            .withValueMap(new ValueMap().withMap(":routineMap", routine.asMap()));
+    }
+
     public static void updateOwnedExercises(final User user, final Routine routine, final String workoutId,
         final String workoutName) {
         // updates the list of exercises on the user object to include this new workout in all contained exercises
@@ -38,7 +63,7 @@ public class WorkoutUtils {
         }
 
         for (String exerciseId : exercises) {
-            user.getOwnedExercises().get(exerciseId).getWorkouts().putIfAbsent(workoutId, workoutName.trim());
+            user.addExerciseToWorkout(exerciseId, workoutId, workoutName.trim());
         }
     }
 
@@ -78,11 +103,11 @@ public class WorkoutUtils {
 
         for (String exerciseId : newExercises) {
             // exercise is now in this workout, so reflect that in the user object
-            user.getOwnedExercises().get(exerciseId).getWorkouts().putIfAbsent(workoutId, workoutName.trim());
+            user.addExerciseToWorkout(exerciseId, workoutId, workoutName.trim());
         }
         for (String exerciseId : deletedExercises) {
             // exercise is no longer in the workout, so remove that mapping from exercise on user object
-            user.getOwnedExercises().get(exerciseId).getWorkouts().remove(workoutId);
+            user.removeExerciseFromWorkout(exerciseId, workoutId);
         }
     }
 
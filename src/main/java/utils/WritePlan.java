@@ -0,0 +1,202 @@
+package utils;
+
+import com.amazonaws.services.dynamodbv2.model.TransactWriteItem;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Any number of writes that belong together, e.g. every item a bulk operation changes, run by
+ * {@link daos.Database#executeWritePlan} as the fewest transactions they fit in.
+ * <p>
+ * Operations on an item that was already added are merged into the operation on it when that is legal, as a
+ * transaction can only write an item once. Ones that can't be merged go into a later transaction. Items are
+ * written in the order they were first added and a transaction holds at most {@link #MAX_TRANSACTION_ITEMS} of
+ * them, so a plan that fits in one transaction is atomic. A bigger one is not, which is what compensations are
+ * for: when a transaction fails, the compensations of the transactions before it are written in reverse order.
+ * <p>
+ * Every transaction gets a client request token derived from the idempotency key of the plan, so a transaction
+ * that is sent again (e.g. after a timeout) is only written once.
+ */
+public class WritePlan {
+
+    public static final int MAX_TRANSACTION_ITEMS = 25;
+
+    private enum Action {
+        UPDATE, DELETE, CONDITION_CHECK
+    }
+
+    @AllArgsConstructor
+    private static class Operation {
+
+        private Action action;
+        private final UpdateItemTemplate template;
+        private UpdateItemTemplate compensation;
+
+        private TransactWriteItem asTransactWriteItem() throws Exception {
+            switch (this.action) {
+                case UPDATE:
+                    return new TransactWriteItem().withUpdate(this.template.asUpdate());
+                case DELETE:
+                    return new TransactWriteItem().withDelete(this.template.asDelete());
+                default:
+                    return new TransactWriteItem().withConditionCheck(this.template.asConditionCheck());
+            }
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Transaction {
+
+        private final List<TransactWriteItem> actions;
+        // updates that undo the actions, empty if none of them can be undone
+        private final List<TransactWriteItem> compensations;
+        private final String clientRequestToken;
+        private final String compensationClientRequestToken;
+    }
+
+    // operations of every item, keyed by table and key of the item. An item only has more than one if they clash
+    private final Map<String, List<Operation>> operations = new LinkedHashMap<>();
+    private String idempotencyKey = UUID.randomUUID().toString();
+
+    /**
+     * @param idempotencyKey key that is the same every time this plan is run, e.g. the id of the request it is run
+     *                       for. A random one is used by default.
+     * @return this plan.
+     */
+    public WritePlan withIdempotencyKey(final String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+        return this;
+    }
+
+    public WritePlan update(final UpdateItemTemplate template) {
+        return this.update(template, null);
+    }
+
+    /**
+     * @param template     update of an item. Merging it with other updates of the item must not set the same
+     *                     attribute twice.
+     * @param compensation update that undoes it, written if the plan fails after it was written. Null if it can't be
+     *                     undone.
+     * @return this plan.
+     */
+    public WritePlan update(final UpdateItemTemplate template, final UpdateItemTemplate compensation) {
+        return this.add(new Operation(Action.UPDATE, template, compensation));
+    }
+
+    public WritePlan delete(final UpdateItemTemplate template) {
+        return this.add(new Operation(Action.DELETE, template, null));
+    }
+
+    /**
+     * @param template condition of an item the plan depends on but does not change.
+     * @return this plan.
+     */
+    public WritePlan conditionCheck(final UpdateItemTemplate template) {
+        return this.add(new Operation(Action.CONDITION_CHECK, template, null));
+    }
+
+    /**
+     * @return number of operations after merging, i.e. of items written by all the transactions together.
+     */
+    public int size() {
+        int size = 0;
+        for (List<Operation> itemOperations : this.operations.values()) {
+            size += itemOperations.size();
+        }
+        return size;
+    }
+
+    /**
+     * @return the transactions to write, in order.
+     */
+    public List<Transaction> getTransactions() throws Exception {
+        // the n-th operation of an item only goes into a transaction after the ones of its (n-1)-th
+        final List<List<Operation>> rounds = new ArrayList<>();
+        for (List<Operation> itemOperations : this.operations.values()) {
+            for (int i = 0; i < itemOperations.size(); i++) {
+                if (rounds.size() == i) {
+                    rounds.add(new ArrayList<>());
+                }
+                rounds.get(i).add(itemOperations.get(i));
+            }
+        }
+
+        final List<Transaction> transactions = new ArrayList<>();
+        for (List<Operation> round : rounds) {
+            for (int start = 0; start < round.size(); start += MAX_TRANSACTION_ITEMS) {
+                final List<TransactWriteItem> actions = new ArrayList<>();
+                final List<TransactWriteItem> compensations = new ArrayList<>();
+                for (Operation operation : round.subList(start, Math.min(start + MAX_TRANSACTION_ITEMS,
+                    round.size()))) {
+                    actions.add(operation.asTransactWriteItem());
+                    if (operation.compensation != null) {
+                        compensations.add(new TransactWriteItem().withUpdate(operation.compensation.asUpdate()));
+                    }
+                }
+                final int index = transactions.size();
+                transactions.add(new Transaction(actions, compensations, this.clientRequestToken("write", index),
+                    this.clientRequestToken("compensation", index)));
+            }
+        }
+        return transactions;
+    }
+
+    private WritePlan add(final Operation operation) {
+        final UpdateItemTemplate template = operation.template;
+        final String itemKey = template.getTableName() + "/" + template.getKeyValue() + "/"
+            + template.getSortKeyValue();
+        final List<Operation> itemOperations = this.operations.computeIfAbsent(itemKey, k -> new ArrayList<>());
+        // only merged into the last operation of the item, so operations on it keep their order
+        if (itemOperations.isEmpty() || !merge(itemOperations.get(itemOperations.size() - 1), operation)) {
+            itemOperations.add(operation);
+        }
+        return this;
+    }
+
+    private static boolean merge(final Operation existing, final Operation operation) {
+        // an item that is deleted can still be checked, but not updated as well
+        if ((existing.action == Action.DELETE && operation.action == Action.UPDATE)
+            || (existing.action == Action.UPDATE && operation.action == Action.DELETE)
+            || (existing.action == Action.DELETE && operation.action == Action.DELETE)
+            || !existing.template.isMergeableWith(operation.template)) {
+            return false;
+        }
+        if (!undoableTogether(existing, operation)) {
+            return false;
+        }
+
+        existing.template.merge(operation.template);
+        if (existing.compensation == null) {
+            existing.compensation = operation.compensation;
+        } else if (operation.compensation != null) {
+            existing.compensation.merge(operation.compensation);
+        }
+        if (operation.action != Action.CONDITION_CHECK) {
+            existing.action = operation.action;
+        }
+        return true;
+    }
+
+    private static boolean undoableTogether(final Operation existing, final Operation operation) {
+        if (existing.compensation != null && operation.compensation != null) {
+            return existing.compensation.isMergeableWith(operation.compensation);
+        }
+        // a check has nothing to undo, but an update that can't be undone makes the merged one impossible to undo
+        final Operation withoutCompensation = existing.compensation == null ? existing : operation;
+        final Operation withCompensation = existing.compensation == null ? operation : existing;
+        return withCompensation.compensation == null || withoutCompensation.action == Action.CONDITION_CHECK;
+    }
+
+    private String clientRequestToken(final String kind, final int index) {
+        // tokens are at most 36 characters, which is what a UUID is
+        return UUID.nameUUIDFromBytes((this.idempotencyKey + "/" + kind + "/" + index)
+            .getBytes(StandardCharsets.UTF_8)).toString();
+    }
+}